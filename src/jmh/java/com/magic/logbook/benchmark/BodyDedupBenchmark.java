@@ -0,0 +1,103 @@
+package com.magic.logbook.benchmark;
+
+import com.magic.logbook.config.LogbookHeaderStrategy;
+import com.magic.logbook.config.LogbookHttpRequestWrapper;
+import com.magic.logbook.config.LogbookHttpResponseWrapper;
+import com.magic.logbook.config.LogbookSink;
+import com.magic.logbook.dedup.BodyDeduplicator;
+import com.magic.logbook.dedup.WindowedBodyDeduplicator;
+import com.magic.logbook.dedup.XxHash64;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.zalando.logbook.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * 响应 body 去重: 同一个 body 重复出现时 {@link LogbookSink} 生成响应日志的开销(hit 每次都只输出引用), 以及 XXH64 与 crc32c 的对比.
+ * MockHttpResponse 每次 getBody 都会把字符串重新编码, hit 的开销中包含这一部分, 容器和客户端里 body 本来就是字节.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 08:00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BodyDedupBenchmark {
+
+    @Param({"none", "hit"})
+    public String dedup;
+
+    @Param({"json", "large"})
+    public String body;
+
+    private Sink sink;
+    private Correlation correlation;
+    private HttpRequest request;
+    private HttpResponse response;
+    private byte[] bytes;
+
+    @Setup
+    public void setup(Blackhole blackhole) throws IOException {
+        BodyDeduplicator deduplicator = "hit".equals(dedup) ?
+                new WindowedBodyDeduplicator(0, TimeUnit.DAYS.toMillis(1), 4096) : BodyDeduplicator.none();
+        sink = LogbookSink.builder(new BlackholeWriter(blackhole), "order-service")
+                .deduplicator(deduplicator)
+                .build();
+        correlation = Fixtures.correlation();
+        String responseBody = "json".equals(body) ? Fixtures.ORDER_RESPONSE : Fixtures.PRODUCT_LIST;
+        HeaderFilter headerFilter = LogbookHeaderStrategy.DEFAULT.compile(
+                Arrays.asList("Accept", "Content-Type", "X-Gravitee-Api-Key"), Collections.emptyList());
+        request = new LogbookHttpRequestWrapper(Fixtures.request(Fixtures.JSON_UTF8, Fixtures.ORDER_REQUEST, 25),
+                headerFilter);
+        response = new LogbookHttpResponseWrapper(Fixtures.response(Fixtures.JSON_UTF8, responseBody, 8),
+                headerFilter);
+        bytes = responseBody.getBytes(StandardCharsets.UTF_8);
+        // 第一次完整输出, 之后都是重复的
+        sink.write(correlation, request, response);
+    }
+
+    @Benchmark
+    public void writeResponse() throws IOException {
+        sink.write(correlation, request, response);
+    }
+
+    @Benchmark
+    public long xxHash64() {
+        return XxHash64.hash(bytes, 0);
+    }
+
+    @Benchmark
+    public long crc32c() {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, bytes.length);
+        return crc.getValue();
+    }
+
+    private static final class BlackholeWriter implements HttpLogWriter {
+        private final Blackhole blackhole;
+
+        private BlackholeWriter(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(Precorrelation precorrelation, String request) {
+            blackhole.consume(request);
+        }
+
+        @Override
+        public void write(Correlation correlation, String response) {
+            blackhole.consume(response);
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.magic.logbook.benchmark;
+
+import com.magic.logbook.encoding.EncodedBody;
+import com.magic.logbook.encoding.GzipBodyEncoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * body 压缩的 CPU 开销与节省的字节数, 用于选择 logbook.custom.encoding 的阈值和级别.
+ * 压缩前后的大小在 setup 时打印到输出中, 阈值设为 0 使小报文也会被压缩.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 00:00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BodyEncodingBenchmark {
+
+    /**
+     * json: 订单响应(约 0.8KB); truncated: 大报文按默认 max-body-size 截断后的 2KB; large: 约 256KB 的商品列表
+     */
+    @Param({"json", "truncated", "large"})
+    public String body;
+
+    @Param({"1", "6"})
+    public int level;
+
+    private GzipBodyEncoder encoder;
+    private String text;
+
+    @Setup
+    public void setup() {
+        encoder = new GzipBodyEncoder(0, level, 1);
+        text = "json".equals(body) ? Fixtures.ORDER_RESPONSE :
+                "truncated".equals(body) ? Fixtures.PRODUCT_LIST.substring(0, 2048) : Fixtures.PRODUCT_LIST;
+        int original = text.getBytes(StandardCharsets.UTF_8).length;
+        EncodedBody encoded = encoder.encode(text);
+        int size = encoded == null ? original : encoded.getData().length();
+        System.out.printf("%n%s level=%d: %d -> %d bytes (%.1f%%)%n", body, level, original, size, 100.0 * size / original);
+    }
+
+    @Benchmark
+    public EncodedBody gzip() {
+        return encoder.encode(text);
+    }
+
+    /**
+     * 不压缩时同样要做的 UTF-8 编码, 作为对比基线
+     */
+    @Benchmark
+    public byte[] utf8() {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
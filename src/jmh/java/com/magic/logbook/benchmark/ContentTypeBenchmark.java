@@ -0,0 +1,38 @@
+package com.magic.logbook.benchmark;
+
+import com.magic.logbook.config.BodyTreatment;
+import com.magic.logbook.config.ContentTypeClassifier;
+import com.magic.logbook.config.ContentTypes;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * sink 对每条报文都要做的 content-type 判断. classify 除 json 外走缓存, 与 isJson 对比缓存查找的开销.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 17:00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentTypeBenchmark {
+
+    @Param({"application/json", "application/json;charset=UTF-8", "application/problem+json", "text/html;charset=UTF-8",
+            "image/png", "multipart/form-data; boundary=----x"})
+    public String contentType;
+
+    @Benchmark
+    public boolean isJson() {
+        return ContentTypes.isJson(contentType);
+    }
+
+    @Benchmark
+    public BodyTreatment classify() {
+        return ContentTypeClassifier.defaultValue().classify(contentType);
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.magic.logbook.benchmark;
+
+import com.magic.logbook.config.LogbookCustomIndexProperties;
+import com.magic.logbook.config.LogbookHeaderStrategy;
+import com.magic.logbook.config.LogbookHttpRequestWrapper;
+import com.magic.logbook.config.LogbookHttpResponseWrapper;
+import com.magic.logbook.config.LogbookSink;
+import com.magic.logbook.dto.IndexedExchangePage;
+import com.magic.logbook.index.ExchangeIndex;
+import com.magic.logbook.index.ExchangeQuery;
+import com.magic.logbook.index.OffHeapExchangeIndex;
+import com.magic.logbook.metrics.UriTemplateNormalizer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.zalando.logbook.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 记录索引: 一次请求(请求 + 响应两条日志)写入索引的额外开销, large 的响应记录超过 maxRecordSize 只保存索引字段;
+ * 以及写满后按 correlation 查询一页(20 条)和不带条件翻页的开销.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 10:00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExchangeIndexBenchmark {
+
+    @Param({"NONE", "INDEX"})
+    public String mode;
+
+    @Param({"json", "large"})
+    public String body;
+
+    private Sink sink;
+    private OffHeapExchangeIndex index;
+    private Correlation correlation;
+    private HttpRequest request;
+    private HttpResponse response;
+    private ExchangeQuery byCorrelation;
+    private ExchangeQuery latest;
+
+    @Setup
+    public void setup(Blackhole blackhole) throws IOException {
+        index = new OffHeapExchangeIndex(new LogbookCustomIndexProperties(),
+                new UriTemplateNormalizer(Collections.emptyList(), 4096));
+        sink = LogbookSink.builder(new BlackholeWriter(blackhole), "order-service")
+                .index("INDEX".equals(mode) ? index : ExchangeIndex.none())
+                .build();
+        correlation = Fixtures.correlation();
+        String responseBody = "json".equals(body) ? Fixtures.ORDER_RESPONSE : Fixtures.PRODUCT_LIST;
+        HeaderFilter headerFilter = LogbookHeaderStrategy.DEFAULT.compile(
+                Arrays.asList("Accept", "Content-Type", "X-Gravitee-Api-Key"), Collections.emptyList());
+        request = new LogbookHttpRequestWrapper(Fixtures.request(Fixtures.JSON_UTF8, Fixtures.ORDER_REQUEST, 25),
+                headerFilter);
+        response = new LogbookHttpResponseWrapper(Fixtures.response(Fixtures.JSON_UTF8, responseBody, 8),
+                headerFilter);
+        // 写满条目表, 查询走完整的链
+        for (int i = 0; i < new LogbookCustomIndexProperties().getMaxEntries(); i++) {
+            sink.write(correlation, request);
+            sink.write(correlation, request, response);
+        }
+        byCorrelation = new ExchangeQuery();
+        byCorrelation.setCorrelation(correlation.getId());
+        latest = new ExchangeQuery();
+    }
+
+    @Benchmark
+    public void exchange() throws IOException {
+        sink.write(correlation, request);
+        sink.write(correlation, request, response);
+    }
+
+    /**
+     * NONE 时索引为空, 只有查询本身的开销
+     */
+    @Benchmark
+    public IndexedExchangePage queryByCorrelation() {
+        return index.query(byCorrelation);
+    }
+
+    @Benchmark
+    public IndexedExchangePage queryLatest() {
+        return index.query(latest);
+    }
+
+    private static final class BlackholeWriter implements HttpLogWriter {
+        private final Blackhole blackhole;
+
+        private BlackholeWriter(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(Precorrelation precorrelation, String request) {
+            blackhole.consume(request);
+        }
+
+        @Override
+        public void write(Correlation correlation, String response) {
+            blackhole.consume(response);
+        }
+    }
+
+}
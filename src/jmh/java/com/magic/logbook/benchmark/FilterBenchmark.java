@@ -0,0 +1,78 @@
+package com.magic.logbook.benchmark;
+
+import com.magic.logbook.config.LogbookHeaderStrategy;
+import com.magic.logbook.config.LogbookHttpRequestWrapper;
+import com.magic.logbook.config.LogbookHttpResponseWrapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.zalando.logbook.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.zalando.logbook.BodyFilters.truncate;
+
+/**
+ * 与 LogbookConfiguration 相同方式组装的 request/response filter, 以及 logbook.write.max-body-size 对应的 BodyFilter 截断链.
+ * 每次调用都新建包装对象并读取 header 和 body, 与一次真实请求经过 sink 时的访问一致.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 17:00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+
+    private static final List<String> DEFAULT_REQUEST_HEADERS = Arrays.asList("Accept", "Content-Type", "X-Gravitee-Api-Key");
+    private static final List<String> DEFAULT_RESPONSE_HEADERS = Collections.singletonList("Content-Type");
+
+    @Param({"json", "large"})
+    public String body;
+
+    private RequestFilter requestFilter;
+    private ResponseFilter responseFilter;
+    private BodyFilter bodyFilter;
+    private HttpRequest request;
+    private HttpResponse response;
+    private String responseBody;
+
+    @Setup
+    public void setup() {
+        HeaderFilter requestHeaders = LogbookHeaderStrategy.DEFAULT.compile(DEFAULT_REQUEST_HEADERS, Collections.emptyList());
+        HeaderFilter responseHeaders = LogbookHeaderStrategy.DEFAULT.compile(DEFAULT_RESPONSE_HEADERS, Collections.emptyList());
+        requestFilter = RequestFilter.merge(RequestFilters.defaultValue(), r -> new LogbookHttpRequestWrapper(r, requestHeaders));
+        responseFilter = ResponseFilter.merge(ResponseFilters.defaultValue(), r -> new LogbookHttpResponseWrapper(r, responseHeaders));
+        bodyFilter = BodyFilter.merge(BodyFilter.none(), truncate(2048));
+
+        responseBody = "json".equals(body) ? Fixtures.ORDER_RESPONSE : Fixtures.PRODUCT_LIST;
+        request = Fixtures.request(Fixtures.JSON_UTF8, Fixtures.ORDER_REQUEST, 25);
+        response = Fixtures.response(Fixtures.JSON_UTF8, responseBody, 8);
+    }
+
+    @Benchmark
+    public void requestFilter(Blackhole blackhole) throws IOException {
+        HttpRequest filtered = requestFilter.filter(request);
+        blackhole.consume(filtered.getHeaders());
+        blackhole.consume(filtered.getBodyAsString());
+    }
+
+    @Benchmark
+    public void responseFilter(Blackhole blackhole) throws IOException {
+        HttpResponse filtered = responseFilter.filter(response);
+        blackhole.consume(filtered.getHeaders());
+        blackhole.consume(filtered.getBodyAsString());
+    }
+
+    @Benchmark
+    public String bodyFilterTruncate() {
+        return bodyFilter.filter(Fixtures.JSON_UTF8, responseBody);
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.magic.logbook.benchmark;
+
+import com.magic.logbook.config.ContentTypeClassifier;
+import com.magic.logbook.config.LogbookCustomFlightRecorderProperties;
+import com.magic.logbook.config.LogbookHeaderStrategy;
+import com.magic.logbook.config.LogbookHttpRequestWrapper;
+import com.magic.logbook.config.LogbookHttpResponseWrapper;
+import com.magic.logbook.config.LogbookSink;
+import com.magic.logbook.flight.FlightRecorder;
+import com.magic.logbook.overload.DetailLevel;
+import com.magic.logbook.overload.OverloadController;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.zalando.logbook.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 飞行记录: 一次正常的下游调用(请求 + 响应两条日志, 带 X-B3-TraceId 的出站请求)在完整记录、只记录元数据和飞行记录三种方式下的开销,
+ * 以及处理一个慢请求时先发出 3 个同一 trace 的下游调用、最后触发完整输出的开销.
+ * 同一个响应对象重复使用, LogbookHttpResponseWrapper 只解码一次 body, 实际每个请求的快照还要多一次 body 解码.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 09:00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlightRecorderBenchmark {
+
+    @Param({"FULL", "METADATA", "FLIGHT"})
+    public String mode;
+
+    @Param({"json", "large"})
+    public String body;
+
+    private Sink sink;
+    private Correlation correlation;
+    private Correlation slow;
+    private HttpRequest request;
+    private HttpRequest downstream;
+    private HttpResponse response;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        OverloadController overload = "METADATA".equals(mode) ? new OverloadController() {
+            @Override
+            public DetailLevel getLevel() {
+                return DetailLevel.METADATA;
+            }
+
+            @Override
+            public void recordCost(long nanos) {
+            }
+        } : OverloadController.none();
+        LogbookCustomFlightRecorderProperties properties = new LogbookCustomFlightRecorderProperties();
+        properties.setSlowThresholdMillis(100);
+        FlightRecorder recorder = "FLIGHT".equals(mode) ?
+                new FlightRecorder(properties, ContentTypeClassifier.defaultValue()) : null;
+        sink = LogbookSink.builder(new BlackholeWriter(blackhole), "order-service")
+                .overload(overload)
+                .recorder(recorder)
+                .build();
+        correlation = Fixtures.correlation();
+        slow = slowOf(correlation);
+        String responseBody = "json".equals(body) ? Fixtures.ORDER_RESPONSE : Fixtures.PRODUCT_LIST;
+        HeaderFilter headerFilter = LogbookHeaderStrategy.DEFAULT.compile(
+                Arrays.asList("Accept", "Content-Type", "X-Gravitee-Api-Key"), Collections.emptyList());
+        request = new LogbookHttpRequestWrapper(Fixtures.request(Fixtures.JSON_UTF8, Fixtures.ORDER_REQUEST, 25),
+                headerFilter);
+        downstream = new LogbookHttpRequestWrapper(Fixtures.clientRequest(Fixtures.JSON_UTF8, Fixtures.ORDER_REQUEST, 25),
+                headerFilter);
+        response = new LogbookHttpResponseWrapper(Fixtures.response(Fixtures.JSON_UTF8, responseBody, 8),
+                headerFilter);
+    }
+
+    @Benchmark
+    public void exchange() throws IOException {
+        sink.write(correlation, downstream);
+        sink.write(correlation, downstream, response);
+    }
+
+    /**
+     * 3 个正常的下游调用之后慢响应, 飞行记录时 4 个请求都完整输出
+     */
+    @Benchmark
+    public void slowExchange() throws IOException {
+        sink.write(slow, request);
+        for (int i = 0; i < 3; i++) {
+            sink.write(correlation, downstream);
+            sink.write(correlation, downstream, response);
+        }
+        sink.write(slow, request, response);
+    }
+
+    private static Correlation slowOf(Correlation correlation) {
+        return new Correlation() {
+            @Override
+            public String getId() {
+                return "e41d7c2a9b3f5068";
+            }
+
+            @Override
+            public Instant getStart() {
+                return correlation.getStart();
+            }
+
+            @Override
+            public Instant getEnd() {
+                return correlation.getStart().plusMillis(250);
+            }
+
+            @Override
+            public Duration getDuration() {
+                return Duration.ofMillis(250);
+            }
+        };
+    }
+
+    private static final class BlackholeWriter implements HttpLogWriter {
+        private final Blackhole blackhole;
+
+        private BlackholeWriter(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(Precorrelation precorrelation, String request) {
+            blackhole.consume(request);
+        }
+
+        @Override
+        public void write(Correlation correlation, String response) {
+            blackhole.consume(response);
+        }
+    }
+
+}
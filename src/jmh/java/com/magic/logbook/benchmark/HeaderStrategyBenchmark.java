@@ -0,0 +1,77 @@
+package com.magic.logbook.benchmark;
+
+import com.magic.logbook.config.LogbookHeaderStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.zalando.logbook.HeaderFilter;
+import org.zalando.logbook.HttpHeaders;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各 {@link LogbookHeaderStrategy} 在不同 header 数量下的过滤开销, 过滤器按 LogbookConfiguration 的做法在启动时编译一次.
+ * legacyFilter 为预编译之前每次调用 filterHeader 的实现(复制 keySet 再 delete), 仅作为对比基线.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 17:00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeaderStrategyBenchmark {
+
+    private static final List<String> DEFAULT_HEADERS = Arrays.asList("Accept", "Content-Type", "X-Gravitee-Api-Key");
+    private static final List<String> CUSTOM_HEADERS = Arrays.asList("X-Request-Id", "X-B3-TraceId", "x-original-call-app");
+
+    @Param({"ALL", "NONE", "DEFAULT", "CUSTOM", "DEFAULT_AND_CUSTOM"})
+    public LogbookHeaderStrategy strategy;
+
+    @Param({"10", "50", "200"})
+    public int headerCount;
+
+    private HeaderFilter filter;
+    private HttpHeaders headers;
+
+    @Setup
+    public void setup() {
+        filter = strategy.compile(DEFAULT_HEADERS, CUSTOM_HEADERS);
+        headers = Fixtures.headers(headerCount);
+    }
+
+    @Benchmark
+    public HttpHeaders filter() {
+        return filter.filter(headers);
+    }
+
+    @Benchmark
+    public HttpHeaders legacyFilter() {
+        switch (strategy) {
+            case ALL:
+                return headers;
+            case NONE:
+                return HttpHeaders.empty();
+            case DEFAULT:
+                return legacyFilterVisibleHeader(headers, DEFAULT_HEADERS);
+            case CUSTOM:
+                return legacyFilterVisibleHeader(headers, CUSTOM_HEADERS);
+            default:
+                List<String> limitVisibleHeaders = new ArrayList<>(DEFAULT_HEADERS);
+                limitVisibleHeaders.addAll(CUSTOM_HEADERS);
+                return legacyFilterVisibleHeader(headers, limitVisibleHeaders);
+        }
+    }
+
+    private static HttpHeaders legacyFilterVisibleHeader(HttpHeaders httpHeaders, List<String> limitVisibleHeaders) {
+        Set<String> keySet = new HashSet<>(httpHeaders.keySet());
+        keySet.removeIf(limitVisibleHeaders::contains);
+        return httpHeaders.delete(keySet);
+    }
+
+}
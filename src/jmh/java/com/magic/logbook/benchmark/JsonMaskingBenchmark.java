@@ -0,0 +1,83 @@
+package com.magic.logbook.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magic.logbook.config.JsonMaskingBodyFilter;
+import org.openjdk.jmh.annotations.*;
+import org.zalando.logbook.BodyFilter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.zalando.logbook.BodyFilters.truncate;
+
+/**
+ * json body 流式脱敏压缩与按树处理(readTree + writeValueAsString, 不含脱敏, 是树方式的下限)的对比.
+ * 每 KB 的分配 = gc.alloc.rate.norm / body 大小, body 大小在 setup 时打印.
+ * 交替传入两个内容相同的 String, 避开过滤器对同一个 body 的缓存.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 02:00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonMaskingBenchmark {
+
+    /**
+     * json: 订单请求(格式化后约 0.7KB); large: 约 256KB 的商品列表
+     */
+    @Param({"json", "large"})
+    public String body;
+
+    private static final List<String> FIELDS = Arrays.asList("phone", "receiver", "password");
+    private static final List<String> PATHS = Collections.singletonList("$.data.list[*].images");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private BodyFilter masking;
+    private BodyFilter maskingWithTruncate;
+    private String[] texts;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        masking = new JsonMaskingBodyFilter(FIELDS, PATHS, "******", -1);
+        maskingWithTruncate = BodyFilter.merge(new JsonMaskingBodyFilter(FIELDS, PATHS, "******", -1, 2048),
+                truncate(2048));
+        String text = "json".equals(body) ?
+                mapper.writerWithDefaultPrettyPrinter().writeValueAsString(mapper.readTree(Fixtures.ORDER_REQUEST)) :
+                Fixtures.PRODUCT_LIST;
+        texts = new String[]{text, new String(text.toCharArray())};
+        String masked = masking.filter(Fixtures.JSON_UTF8, text);
+        System.out.printf("%n%s: %d -> %d chars%n", body, text.length(), masked.length());
+    }
+
+    private String nextText() {
+        next ^= 1;
+        return texts[next];
+    }
+
+    @Benchmark
+    public String streaming() {
+        return masking.filter(Fixtures.JSON_UTF8, nextText());
+    }
+
+    /**
+     * 与 LogbookConfiguration 组装的一致, 先脱敏压缩再截断, 输出超过截断长度后不再处理
+     */
+    @Benchmark
+    public String streamingWithTruncate() {
+        return maskingWithTruncate.filter(Fixtures.JSON_UTF8, nextText());
+    }
+
+    @Benchmark
+    public String tree() throws IOException {
+        return mapper.writeValueAsString(mapper.readTree(nextText()));
+    }
+
+}
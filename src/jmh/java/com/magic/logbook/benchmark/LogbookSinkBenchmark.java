@@ -0,0 +1,218 @@
+package com.magic.logbook.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import com.magic.logbook.config.LogbookHeaderStrategy;
+import com.magic.logbook.config.LogbookHttpRequestWrapper;
+import com.magic.logbook.config.LogbookHttpResponseWrapper;
+import com.magic.logbook.config.LogbookSink;
+import com.magic.logbook.dto.LogbookReq;
+import com.magic.logbook.dto.LogbookResp;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.zalando.logbook.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link LogbookSink} 从拿到过滤后的请求/响应到生成日志行的开销, writer 只把结果交给 {@link Blackhole}, 不含 appender 的 I/O.
+ * legacy* 为改用 JsonGenerator 之前的实现(LogbookReq/LogbookResp + ObjectMapper), 仅作为对比基线.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 17:00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogbookSinkBenchmark {
+
+    @Param({"json", "text", "large"})
+    public String body;
+
+    private Sink sink;
+    private Sink legacySink;
+    private Correlation correlation;
+    private HttpRequest request;
+    private HttpResponse response;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        sink = new LogbookSink(new BlackholeWriter(blackhole), "order-service");
+        legacySink = new LegacySink(new BlackholeWriter(blackhole), "order-service");
+        correlation = Fixtures.correlation();
+        String contentType = "text".equals(body) ? Fixtures.TEXT_PLAIN : Fixtures.JSON_UTF8;
+        String requestBody = "text".equals(body) ? Fixtures.PLAIN_TEXT : Fixtures.ORDER_REQUEST;
+        String responseBody = "json".equals(body) ? Fixtures.ORDER_RESPONSE :
+                "text".equals(body) ? Fixtures.PLAIN_TEXT : Fixtures.PRODUCT_LIST;
+        // 与默认配置一致, 只保留 DEFAULT 策略的几个 header; 包装类会缓存过滤结果, 这里只计 sink 本身
+        HeaderFilter headerFilter = LogbookHeaderStrategy.DEFAULT.compile(
+                Arrays.asList("Accept", "Content-Type", "X-Gravitee-Api-Key"), Collections.emptyList());
+        request = new LogbookHttpRequestWrapper(Fixtures.request(contentType, requestBody, 25), headerFilter);
+        response = new LogbookHttpResponseWrapper(Fixtures.response(contentType, responseBody, 8), headerFilter);
+    }
+
+    @Benchmark
+    public void writeRequest() throws IOException {
+        sink.write(correlation, request);
+    }
+
+    @Benchmark
+    public void writeResponse() throws IOException {
+        sink.write(correlation, request, response);
+    }
+
+    @Benchmark
+    public void legacyWriteRequest() throws IOException {
+        legacySink.write(correlation, request);
+    }
+
+    @Benchmark
+    public void legacyWriteResponse() throws IOException {
+        legacySink.write(correlation, request, response);
+    }
+
+    /**
+     * 原 LogbookSink 的实现, 每条日志创建 DTO 再由 ObjectMapper 序列化, ObjectMapper 的配置与原 ObjectMapperFactory 一致
+     */
+    private static final class LegacySink implements Sink {
+        private static final String CODE_REGEX = "\"code\"\\s?:\\s?(\"(.*?)\"|(\\d*))";
+
+        private final HttpLogWriter writer;
+        private final String appName;
+        private final ObjectMapper mapper;
+
+        private LegacySink(HttpLogWriter writer, String appName) {
+            this.writer = writer;
+            this.appName = appName;
+            this.mapper = new ObjectMapper();
+            mapper.registerModules(new ParameterNamesModule(), new Jdk8Module(), new JavaTimeModule());
+            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+            mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+            mapper.configure(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS, false);
+            mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        }
+
+        @Override
+        public void write(Precorrelation precorrelation, HttpRequest request) throws IOException {
+            LogbookReq req = new LogbookReq();
+            req.setCorrelation(precorrelation.getId());
+            req.setType(LogbookReq.TYPE_IN);
+            req.setUri(request.getRequestUri());
+            req.setMethod(request.getMethod());
+            req.setOrigin(Origin.LOCAL.equals(request.getOrigin()) ? LogbookReq.ORIGIN_CONSUMER : LogbookReq.ORIGIN_PROVIDER);
+            prepareBody(request).ifPresent(req::setBody);
+            prepareHeaders(request).ifPresent(req::setHeaders);
+            if (Origin.REMOTE.equals(request.getOrigin())) {
+                prepareOriginalCallAppName(request).ifPresent(req::setOriginalCallApp);
+            }
+            writer.write(precorrelation, mapper.writeValueAsString(req));
+        }
+
+        @Override
+        public void write(Correlation correlation, HttpRequest request, HttpResponse response) throws IOException {
+            LogbookResp resp = new LogbookResp();
+            resp.setCorrelation(correlation.getId());
+            resp.setType(LogbookResp.TYPE_OUT);
+            resp.setUri(request.getRequestUri());
+            resp.setOrigin(Origin.REMOTE.equals(response.getOrigin()) ? LogbookReq.ORIGIN_CONSUMER : LogbookReq.ORIGIN_PROVIDER);
+            resp.setDuration(correlation.getDuration().toMillis());
+            resp.setStatus(response.getStatus());
+            resp.setCode(respCode(response));
+            prepareBody(response).ifPresent(resp::setBody);
+            prepareHeaders(response).ifPresent(resp::setHeaders);
+            if (Origin.LOCAL.equals(response.getOrigin())) {
+                prepareOriginalCallAppName(request).ifPresent(resp::setOriginalCallApp);
+            }
+            writer.write(correlation, mapper.writeValueAsString(resp));
+        }
+
+        private String respCode(HttpResponse response) throws IOException {
+            String code = null;
+            // 与原实现一致, 每次都重新编译正则
+            Matcher matcher = Pattern.compile(CODE_REGEX).matcher(response.getBodyAsString());
+            if (matcher.find()) {
+                code = matcher.group().replace("\"", "").replace("code:", "").trim();
+            }
+            if (response.getStatus() == 200) {
+                return Optional.ofNullable(code).orElse("SUCCESS");
+            }
+            if (response.getStatus() < 500) {
+                return Optional.ofNullable(code).orElse("GlobalExceptionHandler.INVALID_REQUEST");
+            }
+            return code == null || code.isEmpty() ? "外部响应5xx" : code;
+        }
+
+        private Optional<Map<String, List<String>>> prepareHeaders(HttpMessage message) {
+            Map<String, List<String>> headers = message.getHeaders();
+            return Optional.ofNullable(headers.isEmpty() ? null : headers);
+        }
+
+        private Optional<Object> prepareBody(HttpMessage message) throws IOException {
+            String contentType = message.getContentType();
+            String body = message.getBodyAsString();
+            if (body.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(contentType != null && contentType.startsWith("application/json") ? new JsonBody(body) : body);
+        }
+
+        private Optional<String> prepareOriginalCallAppName(HttpMessage message) {
+            List<String> values = message.getHeaders().get("x-original-call-app");
+            if (values != null && !values.isEmpty() && !values.get(0).equalsIgnoreCase(appName)) {
+                return Optional.ofNullable(values.get(0));
+            }
+            return Optional.empty();
+        }
+    }
+
+    private static final class JsonBody {
+        private final String json;
+
+        private JsonBody(String json) {
+            this.json = json;
+        }
+
+        @JsonRawValue
+        @JsonValue
+        public String getJson() {
+            return json;
+        }
+    }
+
+    private static final class BlackholeWriter implements HttpLogWriter {
+        private final Blackhole blackhole;
+
+        private BlackholeWriter(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(Precorrelation precorrelation, String request) {
+            blackhole.consume(request);
+        }
+
+        @Override
+        public void write(Correlation correlation, String response) {
+            blackhole.consume(response);
+        }
+    }
+
+}
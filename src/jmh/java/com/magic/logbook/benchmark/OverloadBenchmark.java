@@ -0,0 +1,104 @@
+package com.magic.logbook.benchmark;
+
+import com.magic.logbook.config.LogbookCustomOverloadProperties;
+import com.magic.logbook.config.LogbookHeaderStrategy;
+import com.magic.logbook.config.LogbookHttpRequestWrapper;
+import com.magic.logbook.config.LogbookHttpResponseWrapper;
+import com.magic.logbook.config.LogbookSink;
+import com.magic.logbook.overload.AdaptiveOverloadController;
+import com.magic.logbook.overload.DetailLevel;
+import com.magic.logbook.overload.OverloadController;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.zalando.logbook.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各降级级别下 {@link LogbookSink} 生成一条响应日志的开销, 以及每个请求读取当前级别的开销.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 03:00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OverloadBenchmark {
+
+    @Param({"FULL", "HEADERS", "METADATA"})
+    public DetailLevel level;
+
+    @Param({"json", "large"})
+    public String body;
+
+    private Sink sink;
+    private Correlation correlation;
+    private HttpRequest request;
+    private HttpResponse response;
+    private OverloadController adaptive;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        OverloadController fixed = new OverloadController() {
+            @Override
+            public DetailLevel getLevel() {
+                return level;
+            }
+
+            @Override
+            public void recordCost(long nanos) {
+            }
+        };
+        sink = LogbookSink.builder(new BlackholeWriter(blackhole), "order-service")
+                .overload(fixed)
+                .build();
+        correlation = Fixtures.correlation();
+        String responseBody = "json".equals(body) ? Fixtures.ORDER_RESPONSE : Fixtures.PRODUCT_LIST;
+        HeaderFilter headerFilter = LogbookHeaderStrategy.DEFAULT.compile(
+                Arrays.asList("Accept", "Content-Type", "X-Gravitee-Api-Key"), Collections.emptyList());
+        request = new LogbookHttpRequestWrapper(Fixtures.request(Fixtures.JSON_UTF8, Fixtures.ORDER_REQUEST, 25),
+                headerFilter);
+        response = new LogbookHttpResponseWrapper(Fixtures.response(Fixtures.JSON_UTF8, responseBody, 8),
+                headerFilter);
+        adaptive = new AdaptiveOverloadController(new LogbookCustomOverloadProperties());
+    }
+
+    @Benchmark
+    public void writeResponse() throws IOException {
+        sink.write(correlation, request, response);
+    }
+
+    /**
+     * 开启降级后每个请求多出的开销
+     */
+    @Benchmark
+    public DetailLevel getLevel() {
+        adaptive.recordCost(1000);
+        return adaptive.getLevel();
+    }
+
+    private static final class BlackholeWriter implements HttpLogWriter {
+        private final Blackhole blackhole;
+
+        private BlackholeWriter(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(Precorrelation precorrelation, String request) {
+            blackhole.consume(request);
+        }
+
+        @Override
+        public void write(Correlation correlation, String response) {
+            blackhole.consume(response);
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.magic.logbook.benchmark;
+
+import com.magic.logbook.config.BinaryHttpLogWriter;
+import com.magic.logbook.config.LogRecordEncoding;
+import com.magic.logbook.config.LogbookHeaderStrategy;
+import com.magic.logbook.config.LogbookHttpRequestWrapper;
+import com.magic.logbook.config.LogbookHttpResponseWrapper;
+import com.magic.logbook.config.LogbookRecordSerializer;
+import com.magic.logbook.config.LogbookSink;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.zalando.logbook.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * {@link LogbookSink} 按 json/Smile/CBOR 生成一条记录的开销. json 记录包含编码为 UTF-8 的开销, 与写入 mmap/socket 时一致.
+ * 每组参数的记录大小在 setup 时打印.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 07:00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordEncodingBenchmark {
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    public LogRecordEncoding encoding;
+
+    @Param({"json", "large"})
+    public String body;
+
+    private Sink sink;
+    private Correlation correlation;
+    private HttpRequest request;
+    private HttpResponse response;
+
+    @Setup
+    public void setup(Blackhole blackhole) throws IOException {
+        correlation = Fixtures.correlation();
+        String responseBody = "json".equals(body) ? Fixtures.ORDER_RESPONSE : Fixtures.PRODUCT_LIST;
+        HeaderFilter headerFilter = LogbookHeaderStrategy.DEFAULT.compile(
+                Arrays.asList("Accept", "Content-Type", "X-Gravitee-Api-Key"), Collections.emptyList());
+        request = new LogbookHttpRequestWrapper(Fixtures.request(Fixtures.JSON_UTF8, Fixtures.ORDER_REQUEST, 25),
+                headerFilter);
+        response = new LogbookHttpResponseWrapper(Fixtures.response(Fixtures.JSON_UTF8, responseBody, 8),
+                headerFilter);
+
+        int[] sizes = new int[2];
+        sinkOf(size -> sizes[0] = size).write(correlation, request);
+        sinkOf(size -> sizes[1] = size).write(correlation, request, response);
+        System.out.println("record size " + encoding + "/" + body + ": request " + sizes[0]
+                + " bytes, response " + sizes[1] + " bytes");
+        sink = sinkOf(blackhole::consume);
+    }
+
+    private Sink sinkOf(IntConsumer sizes) {
+        return LogbookSink.builder(new BytesWriter(sizes), "order-service")
+                .serializer(LogbookRecordSerializer.of(encoding))
+                .build();
+    }
+
+    @Benchmark
+    public void writeRequest() throws IOException {
+        sink.write(correlation, request);
+    }
+
+    @Benchmark
+    public void writeResponse() throws IOException {
+        sink.write(correlation, request, response);
+    }
+
+    private static final class BytesWriter implements BinaryHttpLogWriter {
+        private final IntConsumer sizes;
+
+        private BytesWriter(IntConsumer sizes) {
+            this.sizes = sizes;
+        }
+
+        @Override
+        public void write(Precorrelation precorrelation, String request) {
+            sizes.accept(request.getBytes(StandardCharsets.UTF_8).length);
+        }
+
+        @Override
+        public void write(Correlation correlation, String response) {
+            sizes.accept(response.getBytes(StandardCharsets.UTF_8).length);
+        }
+
+        @Override
+        public void write(Precorrelation precorrelation, byte[] request) {
+            sizes.accept(request.length);
+        }
+
+        @Override
+        public void write(Correlation correlation, byte[] response) {
+            sizes.accept(response.length);
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.magic.logbook.benchmark;
+
+import com.magic.logbook.config.JsonPointerCodeExtractor;
+import com.magic.logbook.config.LogbookHttpResponseWrapper;
+import org.openjdk.jmh.annotations.*;
+import org.zalando.logbook.HeaderFilter;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 响应码提取: {@link JsonPointerCodeExtractor} 与原来 findCode 的正则实现对比, code 在报文开头, 大报文主要看是否会扫完全文.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 17:00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseCodeBenchmark {
+
+    /**
+     * 原 LogbookSink#findCode 使用的正则, 仅作为对比基线
+     */
+    private static final Pattern LEGACY_CODE_PATTERN = Pattern.compile("\"code\"\\s?:\\s?(\"(.*?)\"|(\\d*))");
+
+    @Param({"json", "large"})
+    public String body;
+
+    private JsonPointerCodeExtractor extractor;
+    private HttpRequest request;
+    private HttpResponse response;
+
+    @Setup
+    public void setup() {
+        extractor = JsonPointerCodeExtractor.defaultValue();
+        String responseBody = "json".equals(body) ? Fixtures.ORDER_RESPONSE : Fixtures.PRODUCT_LIST;
+        request = Fixtures.request(Fixtures.JSON_UTF8, Fixtures.ORDER_REQUEST, 3);
+        response = new LogbookHttpResponseWrapper(Fixtures.response(Fixtures.JSON_UTF8, responseBody, 1), HeaderFilter.none());
+    }
+
+    @Benchmark
+    public String jsonPointer() throws IOException {
+        return extractor.extract(request, response);
+    }
+
+    @Benchmark
+    public String legacyRegex() throws IOException {
+        Matcher matcher = LEGACY_CODE_PATTERN.matcher(response.getBodyAsString());
+        if (matcher.find()) {
+            return matcher.group(2) != null ? matcher.group(2) : matcher.group(3);
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.magic.logbook.benchmark;
+
+import com.magic.logbook.MyLogbookAutoConfiguration;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.zalando.logbook.autoconfigure.LogbookAutoConfiguration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 最小应用的冷启动时间: 每个 fork 只启动一次, 包含类加载. none 排除 logbook 和本 starter 的自动配置,
+ * logbook 只排除本 starter, starter 为完整引入. 差值即 starter 带来的启动开销.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 06:00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(30)
+public class StartupBenchmark {
+
+    @Param({"none", "logbook", "starter"})
+    public String autoConfiguration;
+
+    private ConfigurableApplicationContext context;
+
+    @Benchmark
+    public ConfigurableApplicationContext start() {
+        context = new SpringApplicationBuilder(MinimalApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.main.banner-mode=off", "logging.level.root=warn",
+                        "spring.autoconfigure.exclude=" + excludes())
+                .run();
+        return context;
+    }
+
+    private String excludes() {
+        switch (autoConfiguration) {
+            case "none":
+                return MyLogbookAutoConfiguration.class.getName() + "," + LogbookAutoConfiguration.class.getName();
+            case "logbook":
+                return MyLogbookAutoConfiguration.class.getName();
+            default:
+                return "";
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void close() {
+        context.close();
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    public static class MinimalApplication {
+    }
+
+}
@@ -1,19 +1,50 @@
 package com.magic.logbook;
 
+import com.magic.logbook.async.OffloadingSink;
+import com.magic.logbook.config.AsyncHttpClientConfiguration;
+import com.magic.logbook.config.ContentTypeClassifier;
 import com.magic.logbook.config.HttpClientConfiguration;
 import com.magic.logbook.config.LogbookConfiguration;
-import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.SpringBootApplication;
+import com.magic.logbook.config.LogbookReactiveConfiguration;
+import com.magic.logbook.config.OkHttpClientConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
-import org.springframework.context.annotation.PropertySource;
+import org.zalando.logbook.Logbook;
+import org.zalando.logbook.Sink;
+import org.zalando.logbook.autoconfigure.LogbookAutoConfiguration;
 
-@Import({LogbookConfiguration.class, HttpClientConfiguration.class})
-@PropertySource(value = {"classpath:" + MyLogbookAutoConfiguration.MY_LOGBOOK + ".yml",
-        "classpath:" + MyLogbookAutoConfiguration.MY_LOGBOOK + "-${spring.profiles.active}.yml"},
-        factory = YamlPropertySourceFactory.class)
+/**
+ * 通过 META-INF/spring/org.springframework.boot.autoconfigure.AutoConfiguration.imports 注册.
+ * 排在 logbook 的自动配置之前, 这里的 Sink、Strategy 等 bean 先注册, logbook 的 @ConditionalOnMissingBean 默认实现不再生效.
+ * my-logbook.yml 由 {@link MyLogbookEnvironmentPostProcessor} 加载.
+ */
+@AutoConfiguration(before = LogbookAutoConfiguration.class)
+@ConditionalOnClass(Logbook.class)
+@Import({LogbookConfiguration.class, HttpClientConfiguration.class, AsyncHttpClientConfiguration.class,
+        LogbookReactiveConfiguration.class, OkHttpClientConfiguration.class})
 public class MyLogbookAutoConfiguration {
 
     public static final String MY_LOGBOOK = "my-logbook";
 
+    /**
+     * 实际使用的 Sink(本 starter 的或应用自己定义的)统一包装为 {@link OffloadingSink}, 异步客户端和 WebFlux 只把写出交给 executor.
+     * static, 不会让本配置类提前初始化; classifier 在包装时才获取
+     */
+    @Bean
+    public static BeanPostProcessor offloadingSinkPostProcessor(ObjectProvider<ContentTypeClassifier> classifier) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof Sink && !(bean instanceof OffloadingSink)) {
+                    return new OffloadingSink((Sink) bean, classifier.getIfAvailable(ContentTypeClassifier::defaultValue));
+                }
+                return bean;
+            }
+        };
+    }
 
 }
@@ -0,0 +1,68 @@
+package com.magic.logbook;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 加载 my-logbook.yml 和各个激活 profile 的 my-logbook-{profile}.yml, 替代原来 MyLogbookAutoConfiguration 上的 @PropertySource.
+ * 优先级低于应用自己的配置, 后激活的 profile 覆盖先激活的, 文件不存在时跳过, 未设置 spring.profiles.active 也能启动.
+ * 在 ConfigData 处理完之后执行, 自动配置判断条件时这些默认值已经可见; 没有 logbook 时不加载.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 06:00
+ */
+public class MyLogbookEnvironmentPostProcessor implements EnvironmentPostProcessor, Ordered {
+
+    private static final String LOGBOOK_CLASS = "org.zalando.logbook.Logbook";
+
+    private final YamlPropertySourceLoader loader = new YamlPropertySourceLoader();
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!ClassUtils.isPresent(LOGBOOK_CLASS, application.getClassLoader())) {
+            return;
+        }
+        MutablePropertySources sources = environment.getPropertySources();
+        String[] profiles = environment.getActiveProfiles();
+        for (int i = profiles.length - 1; i >= 0; i--) {
+            load(sources, MyLogbookAutoConfiguration.MY_LOGBOOK + "-" + profiles[i] + ".yml");
+        }
+        load(sources, MyLogbookAutoConfiguration.MY_LOGBOOK + ".yml");
+    }
+
+    private void load(MutablePropertySources sources, String location) {
+        String name = "classpath:" + location;
+        // 同一个 Environment 被多次处理(如 Spring Cloud 的 bootstrap 上下文)时不重复加入
+        if (sources.contains(name)) {
+            return;
+        }
+        Resource resource = new ClassPathResource(location, MyLogbookEnvironmentPostProcessor.class.getClassLoader());
+        if (!resource.exists()) {
+            return;
+        }
+        try {
+            for (PropertySource<?> source : loader.load(name, resource)) {
+                sources.addLast(source);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to load " + name, e);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+}
@@ -15,7 +15,9 @@ import java.util.Properties;
  * copied from <a href = "https://stackoverflow.com/questions/56939406/spring-boot-read-properties-from-yml-file">here</a>
  *
  * @author Richard
+ * @deprecated my-logbook.yml 已改由 MyLogbookEnvironmentPostProcessor 加载, starter 内不再使用; 保留一个版本后删除
  */
+@Deprecated
 public class YamlPropertySourceFactory implements PropertySourceFactory {
 
     /**
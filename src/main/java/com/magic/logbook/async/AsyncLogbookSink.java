@@ -0,0 +1,233 @@
+package com.magic.logbook.async;
+
+import com.magic.logbook.config.ContentTypeClassifier;
+import com.magic.logbook.config.LogbookCustomAsyncProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.zalando.logbook.*;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步 {@link Sink}: 业务线程只拷贝不可变快照放入 {@link RingBuffer}, 由后台线程批量格式化并写入 {@link HttpLogWriter},
+ * 序列化和 appender 的 I/O 不再计入请求耗时.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 10:00
+ */
+@Slf4j
+public class AsyncLogbookSink implements Sink, Closeable {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    private final Sink delegate;
+    private final ContentTypeClassifier classifier;
+    private final HttpLogWriter writer;
+    private final RingBuffer<PendingRecord> buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final int sampleRate;
+    private final int sampleThreshold;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean running = true;
+
+    public AsyncLogbookSink(Sink delegate, HttpLogWriter writer, LogbookCustomAsyncProperties properties) {
+        this(delegate, writer, properties, ContentTypeClassifier.defaultValue());
+    }
+
+    /**
+     * @param classifier 快照时跳过的 body 不解码, 只输出摘要的 body 保留原始字节
+     */
+    public AsyncLogbookSink(Sink delegate, HttpLogWriter writer, LogbookCustomAsyncProperties properties,
+                            ContentTypeClassifier classifier) {
+        this.delegate = delegate;
+        this.classifier = classifier;
+        this.writer = writer;
+        this.buffer = new RingBuffer<>(properties.getQueueSize());
+        this.overflowPolicy = properties.getOverflowPolicy();
+        this.batchSize = Math.max(1, properties.getBatchSize());
+        this.sampleRate = Math.max(1, properties.getSampleRate());
+        this.sampleThreshold = buffer.capacity() / 2;
+        for (int i = 0; i < Math.max(1, properties.getWorkers()); i++) {
+            Thread worker = new Thread(this::drainLoop, "logbook-async-writer-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    @Override
+    public boolean isActive() {
+        return delegate.isActive();
+    }
+
+    @Override
+    public void write(Precorrelation precorrelation, HttpRequest request) throws IOException { // req
+        enqueue(new PendingRecord(CorrelationSnapshot.of(precorrelation), HttpRequestSnapshot.of(request, classifier), null));
+    }
+
+    @Override
+    public void write(Correlation correlation, HttpRequest request, HttpResponse response) throws IOException { // resp
+        enqueue(new PendingRecord(CorrelationSnapshot.of(correlation), HttpRequestSnapshot.of(request, classifier),
+                HttpResponseSnapshot.of(response, classifier)));
+    }
+
+    private void enqueue(PendingRecord record) {
+        if (!running) {
+            dropped.increment();
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK:
+                while (!buffer.offer(record)) {
+                    if (!running) {
+                        dropped.increment();
+                        return;
+                    }
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                }
+                return;
+            case SAMPLE:
+                if (buffer.size() >= sampleThreshold && sampleCounter.incrementAndGet() % sampleRate != 0) {
+                    sampledOut.increment();
+                    return;
+                }
+                if (!buffer.offer(record)) {
+                    dropped.increment();
+                }
+                return;
+            case DROP:
+            default:
+                if (!buffer.offer(record)) {
+                    dropped.increment();
+                }
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (drainBatch() == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        // 关闭时把剩余的记录写完
+        int drained;
+        do {
+            drained = drainBatch();
+        } while (drained > 0);
+    }
+
+    private int drainBatch() {
+        int count = 0;
+        PendingRecord record;
+        while (count < batchSize && (record = buffer.poll()) != null) {
+            count++;
+            try {
+                record.writeTo(delegate);
+                written.increment();
+            } catch (Exception e) {
+                failed.increment();
+                log.warn("logbook async write failed, correlation: {}", record.correlation.getId(), e);
+            }
+        }
+        if (count > 0 && writer instanceof Flushable) {
+            try {
+                ((Flushable) writer).flush();
+            } catch (IOException e) {
+                log.warn("logbook async flush failed", e);
+            }
+        }
+        return count;
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getSampledOutCount() {
+        return sampledOut.sum();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public int getQueueSize() {
+        return buffer.size();
+    }
+
+    public int getQueueCapacity() {
+        return buffer.capacity();
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT_MILLIS;
+        for (Thread worker : workers) {
+            try {
+                worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        long remaining = buffer.size();
+        if (remaining > 0) {
+            dropped.add(remaining);
+            log.warn("logbook async sink closed with {} records not written", remaining);
+        }
+        if (delegate instanceof Closeable) {
+            try {
+                ((Closeable) delegate).close();
+            } catch (IOException e) {
+                log.warn("logbook async sink failed to close delegate", e);
+            }
+        }
+    }
+
+    private static final class PendingRecord {
+        private final Correlation correlation;
+        private final HttpRequest request;
+        private final HttpResponse response;
+
+        private PendingRecord(Correlation correlation, HttpRequest request, HttpResponse response) {
+            this.correlation = correlation;
+            this.request = request;
+            this.response = response;
+        }
+
+        private void writeTo(Sink sink) throws IOException {
+            if (response == null) {
+                sink.write((Precorrelation) correlation, request);
+            } else {
+                sink.write(correlation, request, response);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.magic.logbook.async;
+
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.Precorrelation;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 冻结的 {@link Correlation}, 后台线程格式化时 duration 不会继续增长.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 10:00
+ */
+final class CorrelationSnapshot implements Correlation {
+
+    private final String id;
+    private final Instant start;
+    private final Instant end;
+    private final Duration duration;
+
+    private CorrelationSnapshot(String id, Instant start, Instant end, Duration duration) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.duration = duration;
+    }
+
+    static CorrelationSnapshot of(Precorrelation precorrelation) {
+        Instant now = Instant.now();
+        return new CorrelationSnapshot(precorrelation.getId(), precorrelation.getStart(), now,
+                Duration.between(precorrelation.getStart(), now));
+    }
+
+    static CorrelationSnapshot of(Correlation correlation) {
+        return new CorrelationSnapshot(correlation.getId(), correlation.getStart(), correlation.getEnd(),
+                correlation.getDuration());
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public Instant getStart() {
+        return start;
+    }
+
+    @Override
+    public Instant getEnd() {
+        return end;
+    }
+
+    @Override
+    public Duration getDuration() {
+        return duration;
+    }
+
+}
@@ -0,0 +1,238 @@
+package com.magic.logbook.async;
+
+import com.magic.logbook.capture.BodyCapture;
+import com.magic.logbook.config.BodyDigest;
+import com.magic.logbook.config.BodyTreatment;
+import com.magic.logbook.config.ContentTypeClassifier;
+import com.magic.logbook.overload.DetailLevel;
+import com.magic.logbook.policy.RoutePolicy;
+import com.magic.logbook.sampling.SamplingDecision;
+import org.slf4j.MDC;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.Origin;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * 在业务线程上拷贝出的请求快照, 不再引用原始的 servlet/httpclient 对象, 可以安全地交给后台线程格式化.
+ * 飞行记录模式下也用它在内存中保存最近的请求.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 10:00
+ */
+public final class HttpRequestSnapshot implements HttpRequest, SamplingDecision.Carrier, BodyCapture.Carrier,
+        RoutePolicy.Carrier, DetailLevel.Carrier {
+
+    /**
+     * Sleuth、Micrometer Tracing 放入 MDC 的 trace id
+     */
+    public static final String TRACE_ID_KEY = "traceId";
+
+    private final String remote;
+    private final String method;
+    private final String requestUri;
+    private final String scheme;
+    private final String host;
+    private final Optional<Integer> port;
+    private final String path;
+    private final String query;
+    private final String protocolVersion;
+    private final Origin origin;
+    private final HttpHeaders headers;
+    private final String contentType;
+    private final Charset charset;
+    private final String body;
+    private final SamplingDecision samplingDecision;
+    private final BodyCapture bodyCapture;
+    private final RoutePolicy routePolicy;
+    private final DetailLevel detailLevel;
+    /**
+     * 拷贝快照时业务线程 MDC 中的 trace id, 飞行记录用它关联同一链路的请求
+     */
+    @Nullable
+    private final String traceId;
+
+    private HttpRequestSnapshot(HttpRequest request, String body, Charset charset) {
+        this.remote = request.getRemote();
+        this.method = request.getMethod();
+        this.requestUri = request.getRequestUri();
+        this.scheme = request.getScheme();
+        this.host = request.getHost();
+        this.port = request.getPort();
+        this.path = request.getPath();
+        this.query = request.getQuery();
+        this.protocolVersion = request.getProtocolVersion();
+        this.origin = request.getOrigin();
+        this.headers = request.getHeaders();
+        this.contentType = request.getContentType();
+        this.charset = charset;
+        this.body = body;
+        this.samplingDecision = SamplingDecision.find(request);
+        this.bodyCapture = BodyCapture.find(request);
+        this.routePolicy = RoutePolicy.find(request);
+        this.detailLevel = DetailLevel.find(request);
+        this.traceId = MDC.get(TRACE_ID_KEY);
+    }
+
+    private HttpRequestSnapshot(HttpRequestSnapshot snapshot, String body) {
+        this.remote = snapshot.remote;
+        this.method = snapshot.method;
+        this.requestUri = snapshot.requestUri;
+        this.scheme = snapshot.scheme;
+        this.host = snapshot.host;
+        this.port = snapshot.port;
+        this.path = snapshot.path;
+        this.query = snapshot.query;
+        this.protocolVersion = snapshot.protocolVersion;
+        this.origin = snapshot.origin;
+        this.headers = snapshot.headers;
+        this.contentType = snapshot.contentType;
+        this.charset = snapshot.charset;
+        this.body = body;
+        this.samplingDecision = snapshot.samplingDecision;
+        // 不带 body 的快照没有截取结果
+        this.bodyCapture = body.isEmpty() ? null : snapshot.bodyCapture;
+        this.routePolicy = snapshot.routePolicy;
+        this.detailLevel = snapshot.detailLevel;
+        this.traceId = snapshot.traceId;
+    }
+
+    public static HttpRequestSnapshot of(HttpRequest request, ContentTypeClassifier classifier) throws IOException {
+        if (request instanceof HttpRequestSnapshot) {
+            return (HttpRequestSnapshot) request;
+        }
+        BodyTreatment treatment = classifier.classify(request.getContentType());
+        if (treatment == BodyTreatment.SKIP) {
+            return new HttpRequestSnapshot(request, "", request.getCharset());
+        }
+        if (treatment == BodyTreatment.DIGEST) {
+            // 不解码, 按 ISO-8859-1 原样保存字节, getBody 时还原
+            byte[] body = BodyDigest.rawBodyOf(request);
+            return new HttpRequestSnapshot(request, new String(body, StandardCharsets.ISO_8859_1),
+                    StandardCharsets.ISO_8859_1);
+        }
+        // body 只解码(并经过 BodyFilter)一次
+        return new HttpRequestSnapshot(request, request.getBodyAsString(), request.getCharset());
+    }
+
+    @Override
+    public String getRemote() {
+        return remote;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getRequestUri() {
+        return requestUri;
+    }
+
+    @Override
+    public String getScheme() {
+        return scheme;
+    }
+
+    @Override
+    public String getHost() {
+        return host;
+    }
+
+    @Override
+    public Optional<Integer> getPort() {
+        return port;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public String getQuery() {
+        return query;
+    }
+
+    @Override
+    public HttpRequest withBody() {
+        return this;
+    }
+
+    @Override
+    public HttpRequest withoutBody() {
+        return new HttpRequestSnapshot(this, "");
+    }
+
+    @Override
+    public String getProtocolVersion() {
+        return protocolVersion;
+    }
+
+    @Override
+    public Origin getOrigin() {
+        return origin;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Override
+    @Nullable
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public Charset getCharset() {
+        return charset;
+    }
+
+    @Override
+    public byte[] getBody() {
+        return body.getBytes(charset);
+    }
+
+    @Override
+    public String getBodyAsString() {
+        return body;
+    }
+
+    @Override
+    @Nullable
+    public SamplingDecision getSamplingDecision() {
+        return samplingDecision;
+    }
+
+    @Override
+    @Nullable
+    public BodyCapture getBodyCapture() {
+        return bodyCapture;
+    }
+
+    @Override
+    @Nullable
+    public RoutePolicy getRoutePolicy() {
+        return routePolicy;
+    }
+
+    @Override
+    @Nullable
+    public DetailLevel getDetailLevel() {
+        return detailLevel;
+    }
+
+    @Nullable
+    public String getTraceId() {
+        return traceId;
+    }
+
+}
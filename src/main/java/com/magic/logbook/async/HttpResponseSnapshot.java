@@ -0,0 +1,135 @@
+package com.magic.logbook.async;
+
+import com.magic.logbook.capture.BodyCapture;
+import com.magic.logbook.config.BodyDigest;
+import com.magic.logbook.config.BodyTreatment;
+import com.magic.logbook.config.ContentTypeClassifier;
+import com.magic.logbook.overload.DetailLevel;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Origin;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 在业务线程上拷贝出的响应快照, 见 {@link HttpRequestSnapshot}.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 10:00
+ */
+public final class HttpResponseSnapshot implements HttpResponse, BodyCapture.Carrier, DetailLevel.Carrier {
+
+    private final int status;
+    private final String reasonPhrase;
+    private final String protocolVersion;
+    private final Origin origin;
+    private final HttpHeaders headers;
+    private final String contentType;
+    private final Charset charset;
+    private final String body;
+    private final BodyCapture bodyCapture;
+    private final DetailLevel detailLevel;
+
+    private HttpResponseSnapshot(HttpResponse response, String body, Charset charset,
+                                 @Nullable BodyCapture bodyCapture) {
+        this.status = response.getStatus();
+        this.reasonPhrase = response.getReasonPhrase();
+        this.protocolVersion = response.getProtocolVersion();
+        this.origin = response.getOrigin();
+        this.headers = response.getHeaders();
+        this.contentType = response.getContentType();
+        this.charset = charset;
+        this.body = body;
+        this.bodyCapture = bodyCapture;
+        this.detailLevel = DetailLevel.find(response);
+    }
+
+    public static HttpResponseSnapshot of(HttpResponse response, ContentTypeClassifier classifier) throws IOException {
+        if (response instanceof HttpResponseSnapshot) {
+            return (HttpResponseSnapshot) response;
+        }
+        BodyTreatment treatment = classifier.classify(response.getContentType());
+        if (treatment == BodyTreatment.SKIP) {
+            return new HttpResponseSnapshot(response, "", response.getCharset(), null);
+        }
+        if (treatment == BodyTreatment.DIGEST) {
+            byte[] body = BodyDigest.rawBodyOf(response);
+            return new HttpResponseSnapshot(response, new String(body, StandardCharsets.ISO_8859_1),
+                    StandardCharsets.ISO_8859_1, BodyCapture.find(response));
+        }
+        return new HttpResponseSnapshot(response, response.getBodyAsString(), response.getCharset(),
+                BodyCapture.find(response));
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public String getReasonPhrase() {
+        return reasonPhrase;
+    }
+
+    @Override
+    public HttpResponse withBody() {
+        return this;
+    }
+
+    @Override
+    public HttpResponse withoutBody() {
+        return new HttpResponseSnapshot(this, "", charset, null);
+    }
+
+    @Override
+    public String getProtocolVersion() {
+        return protocolVersion;
+    }
+
+    @Override
+    public Origin getOrigin() {
+        return origin;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Override
+    @Nullable
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public Charset getCharset() {
+        return charset;
+    }
+
+    @Override
+    public byte[] getBody() {
+        return body.getBytes(charset);
+    }
+
+    @Override
+    public String getBodyAsString() {
+        return body;
+    }
+
+    @Override
+    @Nullable
+    public BodyCapture getBodyCapture() {
+        return bodyCapture;
+    }
+
+    @Override
+    @Nullable
+    public DetailLevel getDetailLevel() {
+        return detailLevel;
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.magic.logbook.async;
+
+import com.magic.logbook.config.ContentTypeClassifier;
+import lombok.extern.slf4j.Slf4j;
+import org.zalando.logbook.*;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 包装实际使用的 {@link Sink}: 在 {@link #offload} 中调用 logbook 时, 只在调用线程上拷贝快照, 写出交给传入的 executor;
+ * 其他情况直接调用被包装的 sink. 异步客户端和 WebFlux 在 I/O 线程上执行 logbook 的各个阶段, correlation 的开始和结束时间
+ * 取自 I/O 线程, 不含 executor 的排队时间; 慢的 sink 仍不占用 I/O 线程.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 15:00
+ */
+@Slf4j
+public final class OffloadingSink implements Sink, Closeable {
+
+    /**
+     * 不转交, 在调用线程上写出
+     */
+    public static final Executor DIRECT = Runnable::run;
+
+    private static final ThreadLocal<Executor> TARGET = new ThreadLocal<>();
+
+    private final Sink delegate;
+    private final ContentTypeClassifier classifier;
+
+    public OffloadingSink(Sink delegate, ContentTypeClassifier classifier) {
+        this.delegate = delegate;
+        this.classifier = classifier;
+    }
+
+    /**
+     * 执行 stage, 其间写给 sink 的记录交给 executor; 同一次请求的多条记录需要按顺序写出时传入 {@link #serial} 的结果
+     */
+    public static void offload(Executor executor, Stage stage) throws IOException {
+        if (executor == DIRECT) {
+            stage.run();
+            return;
+        }
+        Executor previous = TARGET.get();
+        TARGET.set(executor);
+        try {
+            stage.run();
+        } finally {
+            if (previous == null) {
+                TARGET.remove();
+            } else {
+                TARGET.set(previous);
+            }
+        }
+    }
+
+    /**
+     * 按提交顺序依次在 executor 上执行, 前一个执行完才提交下一个; executor 拒绝的任务打印告警后丢弃
+     */
+    public static Executor serial(Executor executor) {
+        return executor == DIRECT ? DIRECT : new SerialExecutor(executor);
+    }
+
+    public Sink getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public boolean isActive() {
+        return delegate.isActive();
+    }
+
+    @Override
+    public void write(Precorrelation precorrelation, HttpRequest request) throws IOException { // req
+        Executor target = TARGET.get();
+        if (target == null) {
+            delegate.write(precorrelation, request);
+            return;
+        }
+        Correlation correlation = CorrelationSnapshot.of(precorrelation);
+        HttpRequest snapshot = HttpRequestSnapshot.of(request, classifier);
+        target.execute(() -> {
+            try {
+                delegate.write((Precorrelation) correlation, snapshot);
+            } catch (IOException | RuntimeException e) {
+                log.warn("logbook offloaded write failed, correlation: {}", correlation.getId(), e);
+            }
+        });
+    }
+
+    @Override
+    public void write(Correlation correlation, HttpRequest request, HttpResponse response) throws IOException { // resp
+        Executor target = TARGET.get();
+        if (target == null) {
+            delegate.write(correlation, request, response);
+            return;
+        }
+        Correlation frozen = CorrelationSnapshot.of(correlation);
+        HttpRequest requestSnapshot = HttpRequestSnapshot.of(request, classifier);
+        HttpResponse responseSnapshot = HttpResponseSnapshot.of(response, classifier);
+        target.execute(() -> {
+            try {
+                delegate.write(frozen, requestSnapshot, responseSnapshot);
+            } catch (IOException | RuntimeException e) {
+                log.warn("logbook offloaded write failed, correlation: {}", frozen.getId(), e);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (delegate instanceof Closeable) {
+            ((Closeable) delegate).close();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Stage {
+        void run() throws IOException;
+    }
+
+    private static final class SerialExecutor implements Executor {
+
+        private final Executor executor;
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+
+        private SerialExecutor(Executor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public synchronized void execute(Runnable task) {
+            tail = tail.thenRunAsync(task, executor).exceptionally(e -> {
+                log.warn("logbook offloaded write rejected", e);
+                return null;
+            });
+        }
+
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.magic.logbook.async;
+
+/**
+ * 异步队列写满时的处理策略.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 10:00
+ */
+public enum OverflowPolicy {
+
+    /**
+     * 直接丢弃, 计入 dropped
+     */
+    DROP,
+    /**
+     * 阻塞业务线程直到有空位, 不丢日志
+     */
+    BLOCK,
+    /**
+     * 队列超过一半后只保留 1/sampleRate 的记录, 写满后丢弃
+     */
+    SAMPLE,
+    ;
+
+}
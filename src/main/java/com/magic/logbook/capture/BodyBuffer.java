@@ -0,0 +1,81 @@
+package com.magic.logbook.capture;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * 流式写出/读入时旁路拷贝 body: 只保留前 limit 个字节, 超出部分只计数. 非线程安全, 由调用方保证顺序写入.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 22:00
+ */
+public final class BodyBuffer {
+
+    private final int limit;
+    private byte[] buffer;
+    private int captured;
+    private long count;
+
+    public BodyBuffer(int limit) {
+        this.limit = limit;
+        this.buffer = new byte[Math.min(limit, 1024)];
+    }
+
+    public void append(int b) {
+        if (captured < limit) {
+            ensureCapacity(captured + 1);
+            buffer[captured++] = (byte) b;
+        }
+        count++;
+    }
+
+    public void append(byte[] b, int off, int len) {
+        int copy = Math.min(len, limit - captured);
+        if (copy > 0) {
+            ensureCapacity(captured + copy);
+            System.arraycopy(b, off, buffer, captured, copy);
+            captured += copy;
+        }
+        count += len;
+    }
+
+    /**
+     * 拷贝 buffer 中 position 到 limit 之间的字节, 不改变 buffer 的 position
+     */
+    public void append(ByteBuffer src) {
+        int len = src.remaining();
+        int copy = Math.min(len, limit - captured);
+        if (copy > 0) {
+            ensureCapacity(captured + copy);
+            src.duplicate().get(buffer, captured, copy);
+            captured += copy;
+        }
+        count += len;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, (int) Math.min(limit, Math.max((long) buffer.length << 1, required)));
+        }
+    }
+
+    /**
+     * 全部写入后调用, 原始长度取实际写入的字节数
+     */
+    public BodyCapture capture(Charset charset) {
+        return BodyCapture.of(buffer, captured, limit, count, charset);
+    }
+
+    /**
+     * 没有全部写入就结束时调用, 已拷贝的部分按截断输出. 可能与写入并发调用(如响应先于请求 body 到达),
+     * 只保证不越界, 不保证拿到最新写入的字节
+     *
+     * @param originalLength 声明的原始长度, 未知时传负数
+     */
+    public BodyCapture prefix(Charset charset, long originalLength) {
+        byte[] current = buffer;
+        return BodyCapture.prefix(current, Math.min(captured, current.length), limit, originalLength, charset);
+    }
+
+}
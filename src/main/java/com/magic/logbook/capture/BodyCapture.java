@@ -0,0 +1,143 @@
+package com.magic.logbook.capture;
+
+import org.zalando.logbook.ForwardingHttpMessage;
+import org.zalando.logbook.HttpMessage;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 有界截取的 body: 只保留前 limit 个字节用于日志, 同时记录原始长度和是否被截断.
+ * 其余字节直接透传给业务方, 不进入日志缓冲区.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 20:00
+ */
+public final class BodyCapture {
+
+    public static final BodyCapture EMPTY = new BodyCapture(new byte[0], 0, false);
+
+    private static final long UNKNOWN_LENGTH = -1;
+
+    private final byte[] body;
+    private final long originalLength;
+    private final boolean truncated;
+
+    private BodyCapture(byte[] body, long originalLength, boolean truncated) {
+        this.body = body;
+        this.originalLength = originalLength;
+        this.truncated = truncated;
+    }
+
+    /**
+     * @param buffer         截取到的字节, 可以比 limit 多, 多出的部分只用于判断是否截断
+     * @param count          buffer 中有效的字节数
+     * @param limit          最多保留的字节数
+     * @param originalLength 原始长度, 未知时传负数
+     * @param charset        截断时按该字符集去掉末尾不完整的字符
+     */
+    public static BodyCapture of(byte[] buffer, int count, int limit, long originalLength, Charset charset) {
+        return of(buffer, count, limit, originalLength, charset, count > limit || originalLength > limit);
+    }
+
+    /**
+     * 业务方没有读完 body 就关闭时只拿到了前 count 个字节, 按截断输出
+     *
+     * @param originalLength 声明的原始长度, 未知时传负数
+     */
+    public static BodyCapture prefix(byte[] buffer, int count, int limit, long originalLength, Charset charset) {
+        return of(buffer, count, limit, originalLength, charset, true);
+    }
+
+    private static BodyCapture of(byte[] buffer, int count, int limit, long originalLength, Charset charset,
+                                  boolean truncated) {
+        int length = Math.min(count, limit);
+        if (truncated && StandardCharsets.UTF_8.equals(charset)) {
+            length = utf8Boundary(buffer, length);
+        }
+        long declared = originalLength >= 0 ? originalLength : (truncated ? UNKNOWN_LENGTH : count);
+        return new BodyCapture(Arrays.copyOf(buffer, length), declared, truncated);
+    }
+
+    /**
+     * 从流中读取最多 max 个字节, 流未读完时不会继续读取
+     */
+    public static byte[] readPrefix(InputStream stream, int max) throws IOException {
+        byte[] buffer = new byte[Math.min(max, 8192)];
+        int count = 0;
+        while (count < max) {
+            if (count == buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.min(max, buffer.length << 1));
+            }
+            int read = stream.read(buffer, count, buffer.length - count);
+            if (read < 0) {
+                break;
+            }
+            count += read;
+        }
+        return count == buffer.length ? buffer : Arrays.copyOf(buffer, count);
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @return null 原始长度未知(分块传输且超过了截取上限)
+     */
+    @Nullable
+    public Long getOriginalLength() {
+        return originalLength >= 0 ? originalLength : null;
+    }
+
+    /**
+     * 截断点落在多字节字符中间时, 退回到该字符之前
+     */
+    static int utf8Boundary(byte[] bytes, int length) {
+        int lead = length - 1;
+        // 最多回退 3 个后续字节(10xxxxxx)找到首字节
+        while (lead >= 0 && length - lead <= 4 && (bytes[lead] & 0xC0) == 0x80) {
+            lead--;
+        }
+        if (lead < 0) {
+            return length;
+        }
+        int b = bytes[lead] & 0xFF;
+        int expected = b < 0x80 ? 1 : b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : b >= 0xC0 ? 2 : 1;
+        return length - lead >= expected ? length : lead;
+    }
+
+    /**
+     * 沿着包装链查找截取结果, 未开启有界截取时返回 null
+     */
+    @Nullable
+    public static BodyCapture find(HttpMessage message) {
+        HttpMessage current = message;
+        while (current != null) {
+            if (current instanceof Carrier) {
+                return ((Carrier) current).getBodyCapture();
+            }
+            current = current instanceof ForwardingHttpMessage ? ((ForwardingHttpMessage) current).delegate() : null;
+        }
+        return null;
+    }
+
+    /**
+     * 携带截取结果的请求/响应
+     */
+    public interface Carrier {
+
+        @Nullable
+        BodyCapture getBodyCapture();
+
+    }
+
+}
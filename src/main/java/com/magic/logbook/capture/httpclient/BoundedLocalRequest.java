@@ -0,0 +1,144 @@
+package com.magic.logbook.capture.httpclient;
+
+import com.magic.logbook.capture.BodyCapture;
+import com.magic.logbook.config.ContentTypeClassifier;
+import com.magic.logbook.config.ContentTypes;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.client.methods.HttpRequestWrapper;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.Origin;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.Optional;
+
+/**
+ * httpclient 发出的请求, 与 logbook 的 LocalRequest 相同, 但 body 只截取前 limit 个字节.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 20:00
+ */
+final class BoundedLocalRequest implements HttpRequest, BodyCapture.Carrier {
+
+    private final org.apache.http.HttpRequest request;
+    private final URI uri;
+    private final int limit;
+    private final ContentTypeClassifier classifier;
+
+    @Nullable
+    private BodyCapture capture;
+    private boolean withBody;
+
+    BoundedLocalRequest(org.apache.http.HttpRequest request, int limit, ContentTypeClassifier classifier) {
+        this.request = request;
+        this.uri = uriOf(request);
+        this.limit = limit;
+        this.classifier = classifier;
+    }
+
+    private static URI uriOf(org.apache.http.HttpRequest request) {
+        org.apache.http.HttpRequest original = request instanceof HttpRequestWrapper ?
+                ((HttpRequestWrapper) request).getOriginal() : request;
+        if (original instanceof HttpUriRequest) {
+            return ((HttpUriRequest) original).getURI();
+        }
+        return URI.create(request.getRequestLine().getUri());
+    }
+
+    @Override
+    public String getRemote() {
+        return "localhost";
+    }
+
+    @Override
+    public String getMethod() {
+        return request.getRequestLine().getMethod();
+    }
+
+    @Override
+    public String getScheme() {
+        return Optional.ofNullable(uri.getScheme()).orElse("");
+    }
+
+    @Override
+    public String getHost() {
+        return Optional.ofNullable(uri.getHost()).orElse("");
+    }
+
+    @Override
+    public Optional<Integer> getPort() {
+        return Optional.of(uri.getPort()).filter(port -> port != -1);
+    }
+
+    @Override
+    public String getPath() {
+        return Optional.ofNullable(uri.getRawPath()).orElse("");
+    }
+
+    @Override
+    public String getQuery() {
+        return Optional.ofNullable(uri.getRawQuery()).orElse("");
+    }
+
+    @Override
+    public String getProtocolVersion() {
+        return request.getRequestLine().getProtocolVersion().toString();
+    }
+
+    @Override
+    public Origin getOrigin() {
+        return Origin.LOCAL;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return Entities.headersOf(request);
+    }
+
+    @Override
+    @Nullable
+    public String getContentType() {
+        return Entities.contentTypeOf(request);
+    }
+
+    @Override
+    public Charset getCharset() {
+        return ContentTypes.charsetOf(getContentType());
+    }
+
+    @Override
+    public HttpRequest withBody() throws IOException {
+        if (capture == null) {
+            if (request instanceof HttpEntityEnclosingRequest && classifier.isCaptured(getContentType())) {
+                HttpEntityEnclosingRequest enclosing = (HttpEntityEnclosingRequest) request;
+                capture = Entities.capture(enclosing.getEntity(), limit, getContentType(), enclosing::setEntity);
+            } else {
+                capture = BodyCapture.EMPTY;
+            }
+        }
+        withBody = true;
+        return this;
+    }
+
+    @Override
+    public HttpRequest withoutBody() {
+        withBody = false;
+        return this;
+    }
+
+    @Override
+    public byte[] getBody() {
+        return withBody && capture != null ? capture.getBody() : BodyCapture.EMPTY.getBody();
+    }
+
+    @Override
+    @Nullable
+    public BodyCapture getBodyCapture() {
+        return withBody ? capture : null;
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.magic.logbook.capture.httpclient;
+
+import com.magic.logbook.config.ContentTypeClassifier;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.protocol.HttpContext;
+import org.zalando.logbook.Logbook;
+import org.zalando.logbook.Logbook.ResponseProcessingStage;
+
+import java.io.IOException;
+
+/**
+ * 替代 logbook 的 LogbookHttpRequestInterceptor, 请求 body 只截取前 maxBodySize 个字节, 其余部分不经过日志缓冲直接发送.
+ * 需要与 {@link BoundedLogbookHttpResponseInterceptor} 配对使用.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 20:00
+ */
+public final class BoundedLogbookHttpRequestInterceptor implements HttpRequestInterceptor {
+
+    static final String STAGE = BoundedLogbookHttpRequestInterceptor.class.getName() + ".STAGE";
+
+    private final Logbook logbook;
+    private final int maxBodySize;
+    private final ContentTypeClassifier classifier;
+
+    public BoundedLogbookHttpRequestInterceptor(Logbook logbook, int maxBodySize) {
+        this(logbook, maxBodySize, ContentTypeClassifier.defaultValue());
+    }
+
+    public BoundedLogbookHttpRequestInterceptor(Logbook logbook, int maxBodySize, ContentTypeClassifier classifier) {
+        this.logbook = logbook;
+        this.maxBodySize = maxBodySize;
+        this.classifier = classifier;
+    }
+
+    @Override
+    public void process(HttpRequest request, HttpContext context) throws IOException {
+        ResponseProcessingStage stage = logbook.process(new BoundedLocalRequest(request, maxBodySize, classifier)).write();
+        context.setAttribute(STAGE, stage);
+    }
+
+}
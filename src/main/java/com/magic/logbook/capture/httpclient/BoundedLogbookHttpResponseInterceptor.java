@@ -0,0 +1,41 @@
+package com.magic.logbook.capture.httpclient;
+
+import com.magic.logbook.config.ContentTypeClassifier;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.protocol.HttpContext;
+import org.zalando.logbook.Logbook.ResponseProcessingStage;
+
+import java.io.IOException;
+
+/**
+ * 替代 logbook 的 LogbookHttpResponseInterceptor, 响应 body 只截取前 maxBodySize 个字节, 其余部分原样交给业务方读取.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 20:00
+ */
+public final class BoundedLogbookHttpResponseInterceptor implements HttpResponseInterceptor {
+
+    private final int maxBodySize;
+    private final ContentTypeClassifier classifier;
+
+    public BoundedLogbookHttpResponseInterceptor(int maxBodySize) {
+        this(maxBodySize, ContentTypeClassifier.defaultValue());
+    }
+
+    public BoundedLogbookHttpResponseInterceptor(int maxBodySize, ContentTypeClassifier classifier) {
+        this.maxBodySize = maxBodySize;
+        this.classifier = classifier;
+    }
+
+    @Override
+    public void process(HttpResponse response, HttpContext context) throws IOException {
+        ResponseProcessingStage stage = (ResponseProcessingStage) context.getAttribute(BoundedLogbookHttpRequestInterceptor.STAGE);
+        if (stage == null) {
+            // 请求未经过 BoundedLogbookHttpRequestInterceptor
+            return;
+        }
+        stage.process(new BoundedRemoteResponse(response, maxBodySize, classifier)).write();
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.magic.logbook.capture.httpclient;
+
+import com.magic.logbook.capture.BodyCapture;
+import com.magic.logbook.config.ContentTypeClassifier;
+import com.magic.logbook.config.ContentTypes;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Origin;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * httpclient 收到的响应, 与 logbook 的 RemoteResponse 相同, 但 body 只截取前 limit 个字节.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 20:00
+ */
+final class BoundedRemoteResponse implements HttpResponse, BodyCapture.Carrier {
+
+    private final org.apache.http.HttpResponse response;
+    private final int limit;
+    private final ContentTypeClassifier classifier;
+
+    @Nullable
+    private BodyCapture capture;
+    private boolean withBody;
+
+    BoundedRemoteResponse(org.apache.http.HttpResponse response, int limit, ContentTypeClassifier classifier) {
+        this.response = response;
+        this.limit = limit;
+        this.classifier = classifier;
+    }
+
+    @Override
+    public int getStatus() {
+        return response.getStatusLine().getStatusCode();
+    }
+
+    @Override
+    public String getProtocolVersion() {
+        return response.getStatusLine().getProtocolVersion().toString();
+    }
+
+    @Override
+    public Origin getOrigin() {
+        return Origin.REMOTE;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return Entities.headersOf(response);
+    }
+
+    @Override
+    @Nullable
+    public String getContentType() {
+        return Entities.contentTypeOf(response);
+    }
+
+    @Override
+    public Charset getCharset() {
+        return ContentTypes.charsetOf(getContentType());
+    }
+
+    @Override
+    public HttpResponse withBody() throws IOException {
+        if (capture == null) {
+            // 跳过的 body 不读取, entity 原样交给业务方
+            capture = classifier.isCaptured(getContentType()) ?
+                    Entities.capture(response.getEntity(), limit, getContentType(), response::setEntity) :
+                    BodyCapture.EMPTY;
+        }
+        withBody = true;
+        return this;
+    }
+
+    @Override
+    public HttpResponse withoutBody() {
+        withBody = false;
+        return this;
+    }
+
+    @Override
+    public byte[] getBody() {
+        return withBody && capture != null ? capture.getBody() : BodyCapture.EMPTY.getBody();
+    }
+
+    @Override
+    @Nullable
+    public BodyCapture getBodyCapture() {
+        return withBody ? capture : null;
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.magic.logbook.capture.httpclient;
+
+import com.magic.logbook.capture.BodyCapture;
+import com.magic.logbook.config.ContentTypes;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpMessage;
+import org.zalando.logbook.HttpHeaders;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * httpclient 请求/响应共用的 header 和 entity 处理
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 20:00
+ */
+final class Entities {
+
+    private Entities() {
+    }
+
+    static HttpHeaders headersOf(HttpMessage message) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (Header header : message.getAllHeaders()) {
+            headers.computeIfAbsent(header.getName(), name -> new ArrayList<>(1)).add(header.getValue());
+        }
+        return HttpHeaders.of(headers);
+    }
+
+    @Nullable
+    static String contentTypeOf(HttpMessage message) {
+        Header header = message.getFirstHeader("Content-Type");
+        return header == null ? null : header.getValue();
+    }
+
+    /**
+     * 读取 entity 的前 limit 个字节(多读 1 个字节用于判断是否截断).
+     * 可重复读的 entity 读完前缀即关闭; 否则用 {@link PrefixedHttpEntity} 替换原 entity, 剩余部分原样交给业务方.
+     */
+    static BodyCapture capture(@Nullable HttpEntity entity, int limit, @Nullable String contentType,
+                               Consumer<HttpEntity> replacement) throws IOException {
+        if (entity == null) {
+            return BodyCapture.EMPTY;
+        }
+        byte[] prefix;
+        if (entity.isRepeatable()) {
+            try (InputStream stream = entity.getContent()) {
+                prefix = BodyCapture.readPrefix(stream, limit + 1);
+            }
+        } else {
+            InputStream stream = entity.getContent();
+            if (stream == null) {
+                return BodyCapture.EMPTY;
+            }
+            prefix = BodyCapture.readPrefix(stream, limit + 1);
+            replacement.accept(new PrefixedHttpEntity(entity, prefix, stream));
+        }
+        return BodyCapture.of(prefix, prefix.length, limit, entity.getContentLength(),
+                ContentTypes.charsetOf(contentType));
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.magic.logbook.capture.httpclient;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+
+/**
+ * 不可重复读的 entity 被截取了前缀后, 由它把已读出的前缀和剩余的流重新拼成完整的 body 交给业务方.
+ * 关闭时一并关闭原始的流, 连接按原来的方式释放.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 20:00
+ */
+final class PrefixedHttpEntity extends HttpEntityWrapper {
+
+    private final InputStream content;
+
+    PrefixedHttpEntity(HttpEntity entity, byte[] prefix, InputStream remainder) {
+        super(entity);
+        this.content = new SequenceInputStream(new ByteArrayInputStream(prefix), remainder);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return false;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return true;
+    }
+
+    @Override
+    public InputStream getContent() {
+        return content;
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        try (InputStream stream = content) {
+            stream.transferTo(outStream);
+        }
+    }
+
+}
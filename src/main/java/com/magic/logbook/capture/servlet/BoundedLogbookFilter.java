@@ -0,0 +1,117 @@
+package com.magic.logbook.capture.servlet;
+
+import com.magic.logbook.config.ContentTypeClassifier;
+import lombok.extern.slf4j.Slf4j;
+import org.zalando.logbook.Logbook;
+import org.zalando.logbook.Logbook.ResponseProcessingStage;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 替代 logbook 的 LogbookFilter, 请求和响应的 body 都只截取前 maxBodySize 个字节, 其余部分直接在容器和业务方之间传递.
+ * 与 LogbookFilter 一致, 请求在进入业务方之前输出, 响应在业务方返回(异步请求在 complete)后输出.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 20:00
+ */
+@Slf4j
+public final class BoundedLogbookFilter implements Filter {
+
+    private static final String RESPONSE = BoundedLogbookFilter.class.getName() + ".RESPONSE";
+
+    private final Logbook logbook;
+    private final int maxBodySize;
+    private final ContentTypeClassifier classifier;
+
+    public BoundedLogbookFilter(Logbook logbook, int maxBodySize) {
+        this(logbook, maxBodySize, ContentTypeClassifier.defaultValue());
+    }
+
+    /**
+     * @param classifier 按 Content-Type 判断为跳过的 body 不截取, 直接在容器和业务方之间传递
+     */
+    public BoundedLogbookFilter(Logbook logbook, int maxBodySize, ContentTypeClassifier classifier) {
+        this.logbook = logbook;
+        this.maxBodySize = maxBodySize;
+        this.classifier = classifier;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain chain)
+            throws IOException, ServletException {
+        if (!(servletRequest instanceof HttpServletRequest) || !(servletResponse instanceof HttpServletResponse)) {
+            chain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+        if (servletRequest.getDispatcherType() == DispatcherType.ASYNC) {
+            // 异步分派时继续写入原来的包装, 日志由 AsyncListener 输出
+            Object response = servletRequest.getAttribute(RESPONSE);
+            chain.doFilter(servletRequest, response instanceof CapturingHttpServletResponse ?
+                    (ServletResponse) response : servletResponse);
+            return;
+        }
+        HttpServletRequest httpRequest = (HttpServletRequest) servletRequest;
+        CapturingHttpServletRequest request = new CapturingHttpServletRequest(httpRequest, maxBodySize, classifier);
+        CapturingHttpServletResponse response = new CapturingHttpServletResponse(
+                (HttpServletResponse) servletResponse, httpRequest.getProtocol(), maxBodySize, classifier);
+
+        ResponseProcessingStage stage = logbook.process(request).write();
+        chain.doFilter(request, response);
+
+        if (request.isAsyncStarted()) {
+            request.setAttribute(RESPONSE, response);
+            request.getAsyncContext().addListener(new ResponseListener(stage, response));
+            return;
+        }
+        write(stage, response);
+    }
+
+    private static void write(ResponseProcessingStage stage, CapturingHttpServletResponse response) throws IOException {
+        response.flush();
+        stage.process(response).write();
+    }
+
+    private static final class ResponseListener implements AsyncListener {
+        private final ResponseProcessingStage stage;
+        private final CapturingHttpServletResponse response;
+
+        private ResponseListener(ResponseProcessingStage stage, CapturingHttpServletResponse response) {
+            this.stage = stage;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            try {
+                write(stage, response);
+            } catch (IOException | RuntimeException e) {
+                log.warn("logbook async response write failed", e);
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // 再次 startAsync 时监听器会被清空, 需要重新注册
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+}
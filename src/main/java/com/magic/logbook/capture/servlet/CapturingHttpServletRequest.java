@@ -0,0 +1,194 @@
+package com.magic.logbook.capture.servlet;
+
+import com.magic.logbook.capture.BodyCapture;
+import com.magic.logbook.config.ContentTypeClassifier;
+import com.magic.logbook.config.ContentTypes;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.Origin;
+
+import javax.annotation.Nullable;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 服务端收到的请求, 与 logbook 的 RemoteRequest 相同, 但只读取 body 的前 limit 个字节用于日志,
+ * 业务方读取时先返回这部分, 再从原始的流继续读取, 不会把整个 body 缓存在内存中.
+ * 表单请求的 body 由参数拼接, 不读取流, 以免影响容器解析参数; multipart 以及按 Content-Type 跳过的请求不记录 body.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 20:00
+ */
+final class CapturingHttpServletRequest extends HttpServletRequestWrapper implements HttpRequest, BodyCapture.Carrier {
+
+    private static final String FORM_URLENCODED = "application/x-www-form-urlencoded";
+    private static final String MULTIPART = "multipart/";
+
+    private final int limit;
+    private final ContentTypeClassifier classifier;
+
+    @Nullable
+    private BodyCapture capture;
+    private boolean withBody;
+    @Nullable
+    private byte[] prefix;
+    @Nullable
+    private ServletInputStream stream;
+    @Nullable
+    private BufferedReader reader;
+
+    CapturingHttpServletRequest(HttpServletRequest request, int limit, ContentTypeClassifier classifier) {
+        super(request);
+        this.limit = limit;
+        this.classifier = classifier;
+    }
+
+    private HttpServletRequest request() {
+        return (HttpServletRequest) getRequest();
+    }
+
+    @Override
+    public String getRemote() {
+        return getRemoteAddr();
+    }
+
+    @Override
+    public String getHost() {
+        return getServerName();
+    }
+
+    @Override
+    public Optional<Integer> getPort() {
+        return Optional.of(getServerPort());
+    }
+
+    @Override
+    public String getPath() {
+        return getRequestURI();
+    }
+
+    @Override
+    public String getQuery() {
+        return Optional.ofNullable(getQueryString()).orElse("");
+    }
+
+    @Override
+    public String getProtocolVersion() {
+        return getProtocol();
+    }
+
+    @Override
+    public Origin getOrigin() {
+        return Origin.REMOTE;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : Collections.list(request().getHeaderNames())) {
+            headers.put(name, new ArrayList<>(Collections.list(request().getHeaders(name))));
+        }
+        return HttpHeaders.of(headers);
+    }
+
+    @Override
+    public Charset getCharset() {
+        return ContentTypes.charsetOf(getContentType());
+    }
+
+    @Override
+    public HttpRequest withBody() throws IOException {
+        if (capture == null) {
+            capture = capture();
+        }
+        withBody = true;
+        return this;
+    }
+
+    private BodyCapture capture() throws IOException {
+        String contentType = getContentType();
+        // multipart 不受自定义规则影响, 读取流会导致容器无法解析
+        if (contentType != null && contentType.regionMatches(true, 0, MULTIPART, 0, MULTIPART.length())
+                || !classifier.isCaptured(contentType)) {
+            return BodyCapture.EMPTY;
+        }
+        Charset charset = getCharset();
+        if (contentType != null && contentType.regionMatches(true, 0, FORM_URLENCODED, 0, FORM_URLENCODED.length())) {
+            byte[] form = formBody(charset);
+            return BodyCapture.of(form, form.length, limit, form.length, charset);
+        }
+        prefix = BodyCapture.readPrefix(super.getInputStream(), limit + 1);
+        return BodyCapture.of(prefix, prefix.length, limit, getContentLengthLong(), charset);
+    }
+
+    private byte[] formBody(Charset charset) {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, String[]> entry : getParameterMap().entrySet()) {
+            for (String value : entry.getValue()) {
+                if (builder.length() > 0) {
+                    builder.append('&');
+                }
+                builder.append(URLEncoder.encode(entry.getKey(), charset))
+                        .append('=')
+                        .append(URLEncoder.encode(value, charset));
+            }
+        }
+        return builder.toString().getBytes(charset);
+    }
+
+    @Override
+    public HttpRequest withoutBody() {
+        withBody = false;
+        return this;
+    }
+
+    @Override
+    public byte[] getBody() {
+        return withBody && capture != null ? capture.getBody() : BodyCapture.EMPTY.getBody();
+    }
+
+    @Override
+    @Nullable
+    public BodyCapture getBodyCapture() {
+        return withBody ? capture : null;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (prefix == null) {
+            return super.getInputStream();
+        }
+        if (stream == null) {
+            stream = new PrefixedServletInputStream(prefix, super.getInputStream());
+        }
+        return stream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (prefix == null) {
+            return super.getReader();
+        }
+        if (reader == null) {
+            // 与容器一致, 未声明编码时使用 ISO-8859-1
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.ISO_8859_1 : Charset.forName(encoding);
+            reader = new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+        return reader;
+    }
+
+}
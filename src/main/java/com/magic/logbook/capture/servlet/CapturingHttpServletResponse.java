@@ -0,0 +1,148 @@
+package com.magic.logbook.capture.servlet;
+
+import com.magic.logbook.capture.BodyCapture;
+import com.magic.logbook.config.ContentTypeClassifier;
+import com.magic.logbook.config.ContentTypes;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Origin;
+
+import javax.annotation.Nullable;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 服务端的响应, 业务方写出的内容直接写入原始的流, 只拷贝前 limit 个字节用于日志, 并记录实际写出的字节数.
+ * 按 Content-Type 跳过的响应直接返回原始的流, 不拷贝也不计数.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 20:00
+ */
+final class CapturingHttpServletResponse extends HttpServletResponseWrapper implements HttpResponse, BodyCapture.Carrier {
+
+    private final String protocolVersion;
+    private final int limit;
+    private final ContentTypeClassifier classifier;
+
+    private boolean withBody;
+    @Nullable
+    private BodyCapture capture;
+    @Nullable
+    private TeeServletOutputStream stream;
+    @Nullable
+    private PrintWriter writer;
+
+    CapturingHttpServletResponse(HttpServletResponse response, String protocolVersion, int limit,
+                                 ContentTypeClassifier classifier) {
+        super(response);
+        this.protocolVersion = protocolVersion;
+        this.limit = limit;
+        this.classifier = classifier;
+    }
+
+    private HttpServletResponse response() {
+        return (HttpServletResponse) getResponse();
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (stream == null) {
+            // Content-Type 需在写出 body 前设置
+            if (!classifier.isCaptured(getContentType())) {
+                return super.getOutputStream();
+            }
+            stream = new TeeServletOutputStream(super.getOutputStream(), limit);
+        }
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        flush();
+        super.flushBuffer();
+    }
+
+    /**
+     * writer 中缓冲的字符写入流, 响应写完、记录日志前调用
+     */
+    void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        } else if (stream != null) {
+            stream.flush();
+        }
+    }
+
+    @Override
+    public String getProtocolVersion() {
+        return protocolVersion;
+    }
+
+    @Override
+    public Origin getOrigin() {
+        return Origin.LOCAL;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response().getHeaderNames()) {
+            headers.put(name, new ArrayList<>(response().getHeaders(name)));
+        }
+        return HttpHeaders.of(headers);
+    }
+
+    @Override
+    public Charset getCharset() {
+        return ContentTypes.charsetOf(getContentType());
+    }
+
+    @Override
+    public HttpResponse withBody() {
+        withBody = true;
+        return this;
+    }
+
+    @Override
+    public HttpResponse withoutBody() {
+        withBody = false;
+        return this;
+    }
+
+    @Override
+    public byte[] getBody() {
+        BodyCapture capture = getBodyCapture();
+        return capture == null ? BodyCapture.EMPTY.getBody() : capture.getBody();
+    }
+
+    @Override
+    @Nullable
+    public BodyCapture getBodyCapture() {
+        if (!withBody) {
+            return null;
+        }
+        // 只在响应写完后读取, 这里不会再变化
+        if (capture == null) {
+            capture = stream == null ? BodyCapture.EMPTY : stream.capture(getCharset());
+        }
+        return capture;
+    }
+
+}
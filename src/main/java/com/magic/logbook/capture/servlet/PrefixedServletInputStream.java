@@ -0,0 +1,74 @@
+package com.magic.logbook.capture.servlet;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import java.io.IOException;
+
+/**
+ * 先返回已截取的前缀, 再从原始的流继续读取
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 20:00
+ */
+final class PrefixedServletInputStream extends ServletInputStream {
+
+    private final byte[] prefix;
+    private final ServletInputStream remainder;
+    private int position;
+
+    PrefixedServletInputStream(byte[] prefix, ServletInputStream remainder) {
+        this.prefix = prefix;
+        this.remainder = remainder;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position < prefix.length) {
+            return prefix[position++] & 0xFF;
+        }
+        return remainder.read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (position < prefix.length) {
+            int count = Math.min(len, prefix.length - position);
+            System.arraycopy(prefix, position, b, off, count);
+            position += count;
+            return count;
+        }
+        return remainder.read(b, off, len);
+    }
+
+    @Override
+    public int available() throws IOException {
+        return prefix.length - position + remainder.available();
+    }
+
+    @Override
+    public boolean isFinished() {
+        return position >= prefix.length && remainder.isFinished();
+    }
+
+    @Override
+    public boolean isReady() {
+        return position < prefix.length || remainder.isReady();
+    }
+
+    /**
+     * 非阻塞读取由容器根据原始的流回调, 前缀在第一次 onDataAvailable 时一并读出
+     */
+    @Override
+    public void setReadListener(ReadListener readListener) {
+        remainder.setReadListener(readListener);
+    }
+
+    @Override
+    public void close() throws IOException {
+        remainder.close();
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.magic.logbook.capture.servlet;
+
+import com.magic.logbook.capture.BodyBuffer;
+import com.magic.logbook.capture.BodyCapture;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * 写入原始的流, 同时拷贝前 limit 个字节, 超出部分只计数
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 20:00
+ */
+final class TeeServletOutputStream extends ServletOutputStream {
+
+    private final ServletOutputStream delegate;
+    private final BodyBuffer buffer;
+
+    TeeServletOutputStream(ServletOutputStream delegate, int limit) {
+        this.delegate = delegate;
+        this.buffer = new BodyBuffer(limit);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        delegate.write(b);
+        buffer.append(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        delegate.write(b, off, len);
+        buffer.append(b, off, len);
+    }
+
+    BodyCapture capture(Charset charset) {
+        return buffer.capture(charset);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        delegate.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    @Override
+    public boolean isReady() {
+        return delegate.isReady();
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+        delegate.setWriteListener(writeListener);
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.magic.logbook.client;
+
+import com.magic.logbook.capture.BodyCapture;
+import com.magic.logbook.config.ContentTypes;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Origin;
+
+import javax.annotation.Nullable;
+import java.nio.charset.Charset;
+
+/**
+ * 异步客户端收到的响应, body 在接收完成后截取得到. origin 为 REMOTE, sink 中记为 CONSUMER.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 22:00
+ */
+public final class InboundResponse implements HttpResponse, BodyCapture.Carrier {
+
+    private final int status;
+    private final String protocolVersion;
+    private final HttpHeaders headers;
+    @Nullable
+    private final String contentType;
+    private final BodyCapture capture;
+    private final boolean withBody;
+
+    public InboundResponse(int status, String protocolVersion, HttpHeaders headers, @Nullable String contentType,
+                           BodyCapture capture) {
+        this(status, protocolVersion, headers, contentType, capture, true);
+    }
+
+    private InboundResponse(int status, String protocolVersion, HttpHeaders headers, @Nullable String contentType,
+                            BodyCapture capture, boolean withBody) {
+        this.status = status;
+        this.protocolVersion = protocolVersion;
+        this.headers = headers;
+        this.contentType = contentType;
+        this.capture = capture;
+        this.withBody = withBody;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public String getProtocolVersion() {
+        return protocolVersion;
+    }
+
+    @Override
+    public Origin getOrigin() {
+        return Origin.REMOTE;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Override
+    @Nullable
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public Charset getCharset() {
+        return ContentTypes.charsetOf(contentType);
+    }
+
+    @Override
+    public HttpResponse withBody() {
+        return withBody ? this : new InboundResponse(status, protocolVersion, headers, contentType, capture, true);
+    }
+
+    @Override
+    public HttpResponse withoutBody() {
+        return withBody ? new InboundResponse(status, protocolVersion, headers, contentType, capture, false) : this;
+    }
+
+    @Override
+    public byte[] getBody() {
+        return withBody ? capture.getBody() : BodyCapture.EMPTY.getBody();
+    }
+
+    @Override
+    @Nullable
+    public BodyCapture getBodyCapture() {
+        return withBody ? capture : null;
+    }
+
+}
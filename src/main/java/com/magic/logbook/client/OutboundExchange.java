@@ -0,0 +1,96 @@
+package com.magic.logbook.client;
+
+import com.magic.logbook.async.OffloadingSink;
+import lombok.extern.slf4j.Slf4j;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Logbook;
+import org.zalando.logbook.Logbook.ResponseProcessingStage;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 异步客户端的一次请求. 请求 body 发送完才能输出请求日志, 而响应可能在此之前到达(如服务端提前返回错误),
+ * 这时先用 {@link #requestStarted} 登记的已发送部分输出请求日志(body 记为截断), 响应日志挂在请求日志之后输出.
+ * 请求失败时同样补上请求日志, 失败原因只在 debug 级别打印. 写日志失败只打印告警, 不影响业务请求.
+ * logbook 的各个阶段在 I/O 线程上执行, duration 是请求发送完到响应接收完的时间; 传入 executor 时 sink 的写出在 executor 上
+ * 按顺序进行(见 {@link OffloadingSink}), 不占用 I/O 线程(如 WebClient 的 event loop、HttpClient 5 的 reactor).
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 22:00
+ */
+@Slf4j
+public final class OutboundExchange {
+
+    private final Logbook logbook;
+    private final Executor executor;
+    private final AtomicBoolean sent = new AtomicBoolean();
+    private final CompletableFuture<ResponseProcessingStage> stage = new CompletableFuture<>();
+    @Nullable
+    private volatile Supplier<HttpRequest> partial;
+
+    public OutboundExchange(Logbook logbook) {
+        this(logbook, OffloadingSink.DIRECT);
+    }
+
+    public OutboundExchange(Logbook logbook, Executor executor) {
+        this.logbook = logbook;
+        // 同一次请求的请求日志先于响应日志写出
+        this.executor = OffloadingSink.serial(executor);
+    }
+
+    /**
+     * 请求 body 开始发送时调用, partial 返回到目前为止已发送的部分, 用于 body 没有发送完就收到响应或失败的情况
+     */
+    public void requestStarted(Supplier<HttpRequest> partial) {
+        this.partial = partial;
+    }
+
+    /**
+     * 请求 body 发送完成时调用, 重复调用(重试时重新发送 body)只输出第一次
+     */
+    public void requestSent(HttpRequest request) {
+        if (!sent.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            OffloadingSink.offload(executor, () -> stage.complete(logbook.process(request).write()));
+        } catch (IOException | RuntimeException e) {
+            stage.completeExceptionally(e);
+            log.warn("logbook outbound request write failed", e);
+        }
+    }
+
+    public void responseReceived(HttpResponse response) {
+        sendPartial();
+        stage.thenAccept(processing -> {
+            try {
+                OffloadingSink.offload(executor, () -> processing.process(response).write());
+            } catch (IOException | RuntimeException e) {
+                log.warn("logbook outbound response write failed", e);
+            }
+        });
+    }
+
+    /**
+     * 连接失败、超时、被取消等没有完整响应的情况, 只有请求日志. 异常由业务方处理, 下游故障时每个请求都会失败,
+     * 这里不再打印告警
+     */
+    public void failed(Throwable cause) {
+        sendPartial();
+        log.debug("logbook outbound exchange failed: {}", cause.toString());
+    }
+
+    private void sendPartial() {
+        Supplier<HttpRequest> partial = this.partial;
+        if (partial != null && !sent.get()) {
+            requestSent(partial.get());
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.magic.logbook.client;
+
+import com.magic.logbook.capture.BodyCapture;
+import com.magic.logbook.config.ContentTypes;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.Origin;
+
+import javax.annotation.Nullable;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.Optional;
+
+/**
+ * 异步客户端发出的请求, body 在发送完成后由 {@link com.magic.logbook.capture.BodyBuffer} 截取得到.
+ * 与 httpclient 的 LocalRequest 一致, origin 为 LOCAL, sink 中记为 CONSUMER.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 22:00
+ */
+public final class OutboundRequest implements HttpRequest, BodyCapture.Carrier {
+
+    private final String method;
+    private final URI uri;
+    private final String protocolVersion;
+    private final HttpHeaders headers;
+    @Nullable
+    private final String contentType;
+    private final BodyCapture capture;
+    private final boolean withBody;
+
+    public OutboundRequest(String method, URI uri, String protocolVersion, HttpHeaders headers,
+                           @Nullable String contentType, BodyCapture capture) {
+        this(method, uri, protocolVersion, headers, contentType, capture, true);
+    }
+
+    private OutboundRequest(String method, URI uri, String protocolVersion, HttpHeaders headers,
+                            @Nullable String contentType, BodyCapture capture, boolean withBody) {
+        this.method = method;
+        this.uri = uri;
+        this.protocolVersion = protocolVersion;
+        this.headers = headers;
+        this.contentType = contentType;
+        this.capture = capture;
+        this.withBody = withBody;
+    }
+
+    @Override
+    public String getRemote() {
+        return "localhost";
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getScheme() {
+        return Optional.ofNullable(uri.getScheme()).orElse("");
+    }
+
+    @Override
+    public String getHost() {
+        return Optional.ofNullable(uri.getHost()).orElse("");
+    }
+
+    @Override
+    public Optional<Integer> getPort() {
+        return Optional.of(uri.getPort()).filter(port -> port != -1);
+    }
+
+    @Override
+    public String getPath() {
+        return Optional.ofNullable(uri.getRawPath()).orElse("");
+    }
+
+    @Override
+    public String getQuery() {
+        return Optional.ofNullable(uri.getRawQuery()).orElse("");
+    }
+
+    @Override
+    public String getProtocolVersion() {
+        return protocolVersion;
+    }
+
+    @Override
+    public Origin getOrigin() {
+        return Origin.LOCAL;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Override
+    @Nullable
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public Charset getCharset() {
+        return ContentTypes.charsetOf(contentType);
+    }
+
+    @Override
+    public HttpRequest withBody() {
+        return withBody ? this : new OutboundRequest(method, uri, protocolVersion, headers, contentType, capture, true);
+    }
+
+    @Override
+    public HttpRequest withoutBody() {
+        return withBody ? new OutboundRequest(method, uri, protocolVersion, headers, contentType, capture, false) : this;
+    }
+
+    @Override
+    public byte[] getBody() {
+        return withBody ? capture.getBody() : BodyCapture.EMPTY.getBody();
+    }
+
+    @Override
+    @Nullable
+    public BodyCapture getBodyCapture() {
+        return withBody ? capture : null;
+    }
+
+}
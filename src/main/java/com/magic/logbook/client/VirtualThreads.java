@@ -0,0 +1,41 @@
+package com.magic.logbook.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 虚拟线程(Java 21+). 项目按 Java 17 编译, 通过反射调用, 运行时不支持时返回 empty.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 22:00
+ */
+@Slf4j
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * 每个任务一个虚拟线程的线程池, 线程名为 namePrefix + 序号
+     */
+    public static Optional<ExecutorService> newPerTaskExecutor(String namePrefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            Method newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return Optional.of((ExecutorService) newExecutor.invoke(null, factory));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Java 19/20 未开启 --enable-preview 时 ofVirtual 抛出 UnsupportedOperationException
+            log.debug("virtual threads are not supported by {}", Runtime.version(), e);
+            return Optional.empty();
+        }
+    }
+
+}
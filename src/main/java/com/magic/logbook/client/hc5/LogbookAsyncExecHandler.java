@@ -0,0 +1,173 @@
+package com.magic.logbook.client.hc5;
+
+import com.magic.logbook.async.OffloadingSink;
+import com.magic.logbook.capture.BodyBuffer;
+import com.magic.logbook.capture.BodyCapture;
+import com.magic.logbook.client.InboundResponse;
+import com.magic.logbook.client.OutboundExchange;
+import com.magic.logbook.client.OutboundRequest;
+import com.magic.logbook.config.ContentTypeClassifier;
+import com.magic.logbook.config.ContentTypes;
+import org.apache.hc.client5.http.async.AsyncExecCallback;
+import org.apache.hc.client5.http.async.AsyncExecChain;
+import org.apache.hc.client5.http.async.AsyncExecChainHandler;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpMessage;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.ProtocolVersion;
+import org.apache.hc.core5.http.nio.AsyncDataConsumer;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.Logbook;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * HttpClient 5 异步客户端的 logbook 处理器, 通过 {@code addExecInterceptorLast} 加在执行链末端, 每次发送(含重试)记录一次.
+ * body 在 I/O reactor 读写时旁路拷贝前 maxBodySize 个字节, 不缓冲整个 body, 也不阻塞 reactor;
+ * sink 的写出交给 executor, 慢的 sink(如 socket)不会拖住 reactor 上的其他连接.
+ * 请求 body 没有发送完就收到响应或失败时, 请求日志带已发送的部分; 失败的请求只有请求日志.
+ * 处理器在建立连接之后执行, 连接失败的请求没有发出, 不记录.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 22:00
+ */
+public final class LogbookAsyncExecHandler implements AsyncExecChainHandler {
+
+    private final Logbook logbook;
+    private final int maxBodySize;
+    private final ContentTypeClassifier classifier;
+    private final Executor executor;
+
+    public LogbookAsyncExecHandler(Logbook logbook, int maxBodySize) {
+        this(logbook, maxBodySize, ContentTypeClassifier.defaultValue(), OffloadingSink.DIRECT);
+    }
+
+    /**
+     * @param executor sink 写出的线程, {@link OffloadingSink#DIRECT} 时在 reactor 线程上输出
+     */
+    public LogbookAsyncExecHandler(Logbook logbook, int maxBodySize, ContentTypeClassifier classifier,
+                                   Executor executor) {
+        this.logbook = logbook;
+        this.maxBodySize = maxBodySize;
+        this.classifier = classifier;
+        this.executor = executor;
+    }
+
+    @Override
+    public void execute(HttpRequest request, @Nullable AsyncEntityProducer entityProducer, AsyncExecChain.Scope scope,
+                        AsyncExecChain chain, AsyncExecCallback callback) throws HttpException, IOException {
+        OutboundExchange exchange = new OutboundExchange(logbook, executor);
+        ProtocolVersion version = request.getVersion() != null ? request.getVersion() : scope.clientContext.getProtocolVersion();
+        String protocolVersion = version.format();
+        AsyncEntityProducer producer = entityProducer;
+        if (entityProducer == null) {
+            exchange.requestSent(requestOf(request, protocolVersion, null, BodyCapture.EMPTY));
+        } else {
+            String contentType = contentTypeOf(request, entityProducer);
+            TeeEntityProducer tee = new TeeEntityProducer(entityProducer, limitOf(contentType),
+                    ContentTypes.charsetOf(contentType),
+                    capture -> exchange.requestSent(requestOf(request, protocolVersion, contentType, capture)));
+            exchange.requestStarted(() -> requestOf(request, protocolVersion, contentType, tee.partial()));
+            producer = tee;
+        }
+        chain.proceed(request, producer, scope, new TeeExecCallback(callback, exchange, protocolVersion));
+    }
+
+    private final class TeeExecCallback implements AsyncExecCallback {
+        private final AsyncExecCallback delegate;
+        private final OutboundExchange exchange;
+        private final String protocolVersion;
+        @Nullable
+        private BodyBuffer buffer;
+        @Nullable
+        private HttpResponse response;
+        @Nullable
+        private String contentType;
+
+        private TeeExecCallback(AsyncExecCallback delegate, OutboundExchange exchange, String protocolVersion) {
+            this.delegate = delegate;
+            this.exchange = exchange;
+            this.protocolVersion = protocolVersion;
+        }
+
+        @Override
+        public AsyncDataConsumer handleResponse(HttpResponse response, @Nullable EntityDetails entityDetails)
+                throws HttpException, IOException {
+            this.response = response;
+            this.contentType = contentTypeOf(response, entityDetails);
+            this.buffer = new BodyBuffer(limitOf(contentType));
+            AsyncDataConsumer consumer = delegate.handleResponse(response, entityDetails);
+            return consumer == null ? null : new TeeDataConsumer(consumer, buffer);
+        }
+
+        @Override
+        public void handleInformationResponse(HttpResponse response) throws HttpException, IOException {
+            delegate.handleInformationResponse(response);
+        }
+
+        @Override
+        public void completed() {
+            delegate.completed();
+            if (response != null && buffer != null) {
+                String version = response.getVersion() == null ? protocolVersion : response.getVersion().format();
+                exchange.responseReceived(new InboundResponse(response.getCode(), version, headersOf(response),
+                        contentType, buffer.capture(ContentTypes.charsetOf(contentType))));
+            }
+        }
+
+        @Override
+        public void failed(Exception cause) {
+            delegate.failed(cause);
+            exchange.failed(cause);
+        }
+    }
+
+    /**
+     * 按 Content-Type 跳过的 body 只计数不拷贝
+     */
+    private int limitOf(@Nullable String contentType) {
+        return classifier.isCaptured(contentType) ? maxBodySize : 0;
+    }
+
+    private static OutboundRequest requestOf(HttpRequest request, String protocolVersion,
+                                             @Nullable String contentType, BodyCapture capture) {
+        try {
+            return new OutboundRequest(request.getMethod(), request.getUri(), protocolVersion, headersOf(request),
+                    contentType, capture);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static HttpHeaders headersOf(HttpMessage message) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (Header header : message.getHeaders()) {
+            headers.computeIfAbsent(header.getName(), name -> new ArrayList<>(1)).add(header.getValue());
+        }
+        return HttpHeaders.of(headers);
+    }
+
+    /**
+     * Content-Type 请求头由执行链之后的协议层补上, 这里优先取 entity 上的
+     */
+    @Nullable
+    private static String contentTypeOf(HttpMessage message, @Nullable EntityDetails entity) {
+        if (entity != null && entity.getContentType() != null) {
+            return entity.getContentType();
+        }
+        Header header = message.getFirstHeader("Content-Type");
+        return header == null ? null : header.getValue();
+    }
+
+}
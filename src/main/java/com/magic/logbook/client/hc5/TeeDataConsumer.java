@@ -0,0 +1,50 @@
+package com.magic.logbook.client.hc5;
+
+import com.magic.logbook.capture.BodyBuffer;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.nio.AsyncDataConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * 在响应 body 交给业务方的 consumer 之前旁路拷贝前 limit 个字节
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 22:00
+ */
+final class TeeDataConsumer implements AsyncDataConsumer {
+
+    private final AsyncDataConsumer delegate;
+    private final BodyBuffer buffer;
+
+    TeeDataConsumer(AsyncDataConsumer delegate, BodyBuffer buffer) {
+        this.delegate = delegate;
+        this.buffer = buffer;
+    }
+
+    @Override
+    public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+        delegate.updateCapacity(capacityChannel);
+    }
+
+    @Override
+    public void consume(ByteBuffer src) throws IOException {
+        buffer.append(src);
+        delegate.consume(src);
+    }
+
+    @Override
+    public void streamEnd(List<? extends Header> trailers) throws HttpException, IOException {
+        delegate.streamEnd(trailers);
+    }
+
+    @Override
+    public void releaseResources() {
+        delegate.releaseResources();
+    }
+
+}
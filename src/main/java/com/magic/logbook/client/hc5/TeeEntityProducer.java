@@ -0,0 +1,121 @@
+package com.magic.logbook.client.hc5;
+
+import com.magic.logbook.capture.BodyBuffer;
+import com.magic.logbook.capture.BodyCapture;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 在 I/O reactor 写出请求 body 时旁路拷贝实际写出的前 limit 个字节, 写完(endStream)后回调. 不改变写出的节奏.
+ * 没有写完就收到响应或失败时由 {@link #partial()} 取已写出的部分.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 22:00
+ */
+final class TeeEntityProducer implements AsyncEntityProducer {
+
+    private final AsyncEntityProducer delegate;
+    private final BodyBuffer buffer;
+    private final Charset charset;
+    private final Consumer<BodyCapture> onComplete;
+
+    TeeEntityProducer(AsyncEntityProducer delegate, int limit, Charset charset, Consumer<BodyCapture> onComplete) {
+        this.delegate = delegate;
+        this.buffer = new BodyBuffer(limit);
+        this.charset = charset;
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public void produce(DataStreamChannel channel) throws IOException {
+        delegate.produce(new DataStreamChannel() {
+            @Override
+            public void requestOutput() {
+                channel.requestOutput();
+            }
+
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                int position = src.position();
+                int written = channel.write(src);
+                if (written > 0) {
+                    buffer.append(src.duplicate().position(position).limit(position + written));
+                }
+                return written;
+            }
+
+            @Override
+            public void endStream() throws IOException {
+                channel.endStream();
+                onComplete.accept(buffer.capture(charset));
+            }
+
+            @Override
+            public void endStream(List<? extends Header> trailers) throws IOException {
+                channel.endStream(trailers);
+                onComplete.accept(buffer.capture(charset));
+            }
+        });
+    }
+
+    /**
+     * 到目前为止已写出的部分, 记为截断
+     */
+    BodyCapture partial() {
+        return buffer.prefix(charset, delegate.getContentLength());
+    }
+
+    @Override
+    public int available() {
+        return delegate.available();
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return delegate.isRepeatable();
+    }
+
+    @Override
+    public void failed(Exception cause) {
+        delegate.failed(cause);
+    }
+
+    @Override
+    public void releaseResources() {
+        delegate.releaseResources();
+    }
+
+    @Override
+    public long getContentLength() {
+        return delegate.getContentLength();
+    }
+
+    @Override
+    public String getContentType() {
+        return delegate.getContentType();
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return delegate.getContentEncoding();
+    }
+
+    @Override
+    public boolean isChunked() {
+        return delegate.isChunked();
+    }
+
+    @Override
+    public Set<String> getTrailerNames() {
+        return delegate.getTrailerNames();
+    }
+
+}
@@ -0,0 +1,210 @@
+package com.magic.logbook.client.jdk;
+
+import com.magic.logbook.async.OffloadingSink;
+import com.magic.logbook.capture.BodyCapture;
+import com.magic.logbook.client.InboundResponse;
+import com.magic.logbook.client.OutboundExchange;
+import com.magic.logbook.client.OutboundRequest;
+import com.magic.logbook.config.ContentTypeClassifier;
+import com.magic.logbook.config.ContentTypes;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.Logbook;
+
+import javax.annotation.Nullable;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.PushPromiseHandler;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * 给 JDK HttpClient 加上 logbook 日志. JDK 客户端没有拦截器, 这里包装 BodyPublisher/BodyHandler,
+ * 在 body 流过时旁路拷贝前 maxBodySize 个字节, 不阻塞客户端的 selector 线程, 也不改变业务方读取 body 的方式.
+ * 请求日志在 body 发送完成后输出, 响应日志在 body 接收完成后输出; 业务方不读取响应 body 时没有响应日志.
+ * 请求失败(超时、连接失败、取消)时只有请求日志. sink 的写出交给 executor, 不占用客户端的 selector 线程.
+ * JDK 客户端只能配置连接超时, 没有设置超时的请求使用 requestTimeout(等待响应头的时间).
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 22:00
+ */
+public final class LogbookJdkHttpClient extends HttpClient {
+
+    private final HttpClient delegate;
+    private final Logbook logbook;
+    private final int maxBodySize;
+    private final ContentTypeClassifier classifier;
+    private final Executor executor;
+    @Nullable
+    private final Duration requestTimeout;
+
+    public LogbookJdkHttpClient(HttpClient delegate, Logbook logbook, int maxBodySize) {
+        this(delegate, logbook, maxBodySize, ContentTypeClassifier.defaultValue(), OffloadingSink.DIRECT, null);
+    }
+
+    /**
+     * @param executor       sink 写出的线程, {@link OffloadingSink#DIRECT} 时在客户端的线程上输出
+     * @param requestTimeout 请求没有设置 timeout 时使用, null 时不限制
+     */
+    public LogbookJdkHttpClient(HttpClient delegate, Logbook logbook, int maxBodySize,
+                                ContentTypeClassifier classifier, Executor executor,
+                                @Nullable Duration requestTimeout) {
+        this.delegate = delegate;
+        this.logbook = logbook;
+        this.maxBodySize = maxBodySize;
+        this.classifier = classifier;
+        this.executor = executor;
+        this.requestTimeout = requestTimeout;
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, BodyHandler<T> responseBodyHandler)
+            throws IOException, InterruptedException {
+        OutboundExchange exchange = new OutboundExchange(logbook, executor);
+        try {
+            return delegate.send(tee(request, exchange), tee(responseBodyHandler, exchange));
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            exchange.failed(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, BodyHandler<T> responseBodyHandler) {
+        OutboundExchange exchange = new OutboundExchange(logbook, executor);
+        return failedTo(exchange, delegate.sendAsync(tee(request, exchange), tee(responseBodyHandler, exchange)));
+    }
+
+    /**
+     * HTTP/2 服务端推送的响应不记录
+     */
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, BodyHandler<T> responseBodyHandler,
+                                                            PushPromiseHandler<T> pushPromiseHandler) {
+        OutboundExchange exchange = new OutboundExchange(logbook, executor);
+        return failedTo(exchange, delegate.sendAsync(tee(request, exchange), tee(responseBodyHandler, exchange),
+                pushPromiseHandler));
+    }
+
+    /**
+     * 返回原来的 future, 业务方 cancel 时仍能取消请求
+     */
+    private static <T> CompletableFuture<T> failedTo(OutboundExchange exchange, CompletableFuture<T> future) {
+        future.whenComplete((response, e) -> {
+            if (e != null) {
+                exchange.failed(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            }
+        });
+        return future;
+    }
+
+    private HttpRequest tee(HttpRequest request, OutboundExchange exchange) {
+        Optional<BodyPublisher> publisher = request.bodyPublisher();
+        boolean timeout = requestTimeout != null && request.timeout().isEmpty();
+        if (publisher.isEmpty() || publisher.get().contentLength() == 0) {
+            exchange.requestSent(requestOf(request, BodyCapture.EMPTY));
+            return timeout ? HttpRequest.newBuilder(request, (name, value) -> true).timeout(requestTimeout).build()
+                    : request;
+        }
+        String contentType = request.headers().firstValue("Content-Type").orElse(null);
+        TeeBodyPublisher tee = new TeeBodyPublisher(publisher.get(), limitOf(contentType),
+                ContentTypes.charsetOf(contentType), capture -> exchange.requestSent(requestOf(request, capture)));
+        exchange.requestStarted(() -> requestOf(request, tee.partial()));
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request, (name, value) -> true).method(request.method(), tee);
+        if (timeout) {
+            builder.timeout(requestTimeout);
+        }
+        return builder.build();
+    }
+
+    private <T> BodyHandler<T> tee(BodyHandler<T> handler, OutboundExchange exchange) {
+        return info -> {
+            String contentType = info.headers().firstValue("Content-Type").orElse(null);
+            return new TeeBodySubscriber<>(handler.apply(info), limitOf(contentType), ContentTypes.charsetOf(contentType),
+                    capture -> exchange.responseReceived(new InboundResponse(info.statusCode(),
+                            protocolOf(info.version()), HttpHeaders.of(info.headers().map()), contentType, capture)));
+        };
+    }
+
+    /**
+     * 按 Content-Type 跳过的 body 只计数不拷贝
+     */
+    private int limitOf(@Nullable String contentType) {
+        return classifier.isCaptured(contentType) ? maxBodySize : 0;
+    }
+
+    private OutboundRequest requestOf(HttpRequest request, BodyCapture capture) {
+        return new OutboundRequest(request.method(), request.uri(), protocolOf(request.version().orElse(delegate.version())),
+                HttpHeaders.of(request.headers().map()), request.headers().firstValue("Content-Type").orElse(null), capture);
+    }
+
+    private static String protocolOf(Version version) {
+        return version == Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return delegate.cookieHandler();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return delegate.connectTimeout();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return delegate.followRedirects();
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return delegate.proxy();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return delegate.sslContext();
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return delegate.sslParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return delegate.authenticator();
+    }
+
+    @Override
+    public Version version() {
+        return delegate.version();
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return delegate.executor();
+    }
+
+    /**
+     * WebSocket 不记录
+     */
+    @Override
+    public WebSocket.Builder newWebSocketBuilder() {
+        return delegate.newWebSocketBuilder();
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.magic.logbook.client.jdk;
+
+import com.magic.logbook.capture.BodyBuffer;
+import com.magic.logbook.capture.BodyCapture;
+
+import java.net.http.HttpRequest.BodyPublisher;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * 在 body 交给客户端发送时旁路拷贝前 limit 个字节, 发送完成后回调. 不改变背压, 不额外缓冲.
+ * 没有发送完就收到响应或失败时由 {@link #partial()} 取已发送的部分.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 22:00
+ */
+final class TeeBodyPublisher implements BodyPublisher {
+
+    private final BodyPublisher delegate;
+    private final int limit;
+    private final Charset charset;
+    private final Consumer<BodyCapture> onComplete;
+    private volatile BodyBuffer current;
+
+    TeeBodyPublisher(BodyPublisher delegate, int limit, Charset charset, Consumer<BodyCapture> onComplete) {
+        this.delegate = delegate;
+        this.limit = limit;
+        this.charset = charset;
+        this.onComplete = onComplete;
+        this.current = new BodyBuffer(0);
+    }
+
+    @Override
+    public long contentLength() {
+        return delegate.contentLength();
+    }
+
+    /**
+     * 最近一次订阅到目前为止已发送的部分, 记为截断
+     */
+    BodyCapture partial() {
+        return current.prefix(charset, delegate.contentLength());
+    }
+
+    /**
+     * 重定向、认证时客户端会重新订阅, 每次订阅单独截取
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        BodyBuffer buffer = new BodyBuffer(limit);
+        current = buffer;
+        delegate.subscribe(new Flow.Subscriber<ByteBuffer>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscriber.onSubscribe(subscription);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                buffer.append(item);
+                subscriber.onNext(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                subscriber.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                subscriber.onComplete();
+                onComplete.accept(buffer.capture(charset));
+            }
+        });
+    }
+
+}
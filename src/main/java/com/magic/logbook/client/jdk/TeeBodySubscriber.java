@@ -0,0 +1,63 @@
+package com.magic.logbook.client.jdk;
+
+import com.magic.logbook.capture.BodyBuffer;
+import com.magic.logbook.capture.BodyCapture;
+
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * 在响应 body 交给业务方的 BodySubscriber 之前旁路拷贝前 limit 个字节, 接收完成后回调.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 22:00
+ */
+final class TeeBodySubscriber<T> implements BodySubscriber<T> {
+
+    private final BodySubscriber<T> delegate;
+    private final BodyBuffer buffer;
+    private final Charset charset;
+    private final Consumer<BodyCapture> onComplete;
+
+    TeeBodySubscriber(BodySubscriber<T> delegate, int limit, Charset charset, Consumer<BodyCapture> onComplete) {
+        this.delegate = delegate;
+        this.buffer = new BodyBuffer(limit);
+        this.charset = charset;
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public CompletionStage<T> getBody() {
+        return delegate.getBody();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        delegate.onSubscribe(subscription);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+        for (ByteBuffer buffer : item) {
+            this.buffer.append(buffer);
+        }
+        delegate.onNext(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        delegate.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        delegate.onComplete();
+        onComplete.accept(buffer.capture(charset));
+    }
+
+}
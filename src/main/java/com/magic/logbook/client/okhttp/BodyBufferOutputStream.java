@@ -0,0 +1,31 @@
+package com.magic.logbook.client.okhttp;
+
+import com.magic.logbook.capture.BodyBuffer;
+
+import java.io.OutputStream;
+
+/**
+ * 用于 okio Buffer#copyTo 把流过的字节写入 {@link BodyBuffer}, 超出 limit 的部分只计数.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 05:00
+ */
+final class BodyBufferOutputStream extends OutputStream {
+
+    private final BodyBuffer buffer;
+
+    BodyBufferOutputStream(BodyBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public void write(int b) {
+        buffer.append(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        buffer.append(b, off, len);
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.magic.logbook.client.okhttp;
+
+import com.magic.logbook.capture.BodyCapture;
+import com.magic.logbook.client.InboundResponse;
+import com.magic.logbook.client.OutboundExchange;
+import com.magic.logbook.client.OutboundRequest;
+import com.magic.logbook.config.ContentTypeClassifier;
+import com.magic.logbook.config.ContentTypes;
+import okhttp3.Connection;
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.GzipSource;
+import okio.Okio;
+import okio.Source;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.Logbook;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * OkHttp 的 logbook 拦截器, 作为 network interceptor 注册, 记录实际发出的请求头和每一次重定向/重试.
+ * body 在写入连接、业务方读取时旁路拷贝前 maxBodySize 个字节(同有界截取), 不缓冲整个 body;
+ * 请求日志在 body 写完后输出, 响应日志在 body 读完后输出, origin 与 httpclient 拦截器一致记为 CONSUMER.
+ * <p>
+ * 透明 gzip(业务方没有设置 Accept-Encoding / Range, 由 OkHttp 自动加上)的响应在这里解压并去掉 Content-Encoding,
+ * BridgeInterceptor 不会再解压一次, 日志和业务方拿到的都是解压后的 body. 业务方自己设置了 Accept-Encoding 时原样透传,
+ * 压缩的 body 只记录长度.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 05:00
+ */
+public final class LogbookInterceptor implements Interceptor {
+
+    private final Logbook logbook;
+    private final int maxBodySize;
+    private final ContentTypeClassifier classifier;
+
+    public LogbookInterceptor(Logbook logbook, int maxBodySize) {
+        this(logbook, maxBodySize, ContentTypeClassifier.defaultValue());
+    }
+
+    public LogbookInterceptor(Logbook logbook, int maxBodySize, ContentTypeClassifier classifier) {
+        this.logbook = logbook;
+        this.maxBodySize = maxBodySize;
+        this.classifier = classifier;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        OutboundExchange exchange = new OutboundExchange(logbook);
+        Request request = chain.request();
+        String protocol = protocolOf(chain.connection());
+        Response response = chain.proceed(tee(request, protocol, exchange));
+        if (isTransparentGzip(chain, response)) {
+            response = decoded(response);
+        }
+        return tee(response, exchange);
+    }
+
+    private Request tee(Request request, String protocol, OutboundExchange exchange) throws IOException {
+        RequestBody body = request.body();
+        if (body == null || body.isDuplex() || body.contentLength() == 0) {
+            exchange.requestSent(requestOf(request, protocol, BodyCapture.EMPTY));
+            return request;
+        }
+        String contentType = request.header("Content-Type");
+        RequestBody tee = new TeeRequestBody(body, limitOf(contentType, request.header("Content-Encoding")),
+                ContentTypes.charsetOf(contentType),
+                capture -> exchange.requestSent(requestOf(request, protocol, capture)));
+        return request.newBuilder().method(request.method(), tee).build();
+    }
+
+    private Response tee(Response response, OutboundExchange exchange) {
+        ResponseBody body = response.body();
+        String contentType = response.header("Content-Type");
+        if (body == null || body.contentLength() == 0) {
+            exchange.responseReceived(responseOf(response, contentType, BodyCapture.EMPTY));
+            return response;
+        }
+        ResponseBody tee = new TeeResponseBody(body.contentType(), body.contentLength(), body.source(),
+                limitOf(contentType, response.header("Content-Encoding")), ContentTypes.charsetOf(contentType),
+                capture -> exchange.responseReceived(responseOf(response, contentType, capture)));
+        return response.newBuilder().body(tee).build();
+    }
+
+    /**
+     * 与 BridgeInterceptor 的判断一致: 原始请求没有 Accept-Encoding 和 Range 时 OkHttp 才会自动解压
+     */
+    private static boolean isTransparentGzip(Chain chain, Response response) {
+        Request original = chain.call().request();
+        return original.header("Accept-Encoding") == null && original.header("Range") == null
+                && "gzip".equalsIgnoreCase(response.header("Content-Encoding")) && response.body() != null;
+    }
+
+    private static Response decoded(Response response) {
+        ResponseBody body = response.body();
+        Source source = new GzipSource(body.source());
+        return response.newBuilder()
+                .removeHeader("Content-Encoding")
+                .removeHeader("Content-Length")
+                .body(ResponseBody.create(Okio.buffer(source), body.contentType(), -1))
+                .build();
+    }
+
+    /**
+     * 按 Content-Type 跳过的 body 和没有解压的压缩 body 只计数不拷贝
+     */
+    private int limitOf(@Nullable String contentType, @Nullable String contentEncoding) {
+        if (contentEncoding != null && !"identity".equalsIgnoreCase(contentEncoding)) {
+            return 0;
+        }
+        return classifier.isCaptured(contentType) ? maxBodySize : 0;
+    }
+
+    private static OutboundRequest requestOf(Request request, String protocol, BodyCapture capture) {
+        return new OutboundRequest(request.method(), request.url().uri(), protocol,
+                HttpHeaders.of(request.headers().toMultimap()), request.header("Content-Type"), capture);
+    }
+
+    private static InboundResponse responseOf(Response response, @Nullable String contentType, BodyCapture capture) {
+        return new InboundResponse(response.code(), protocolOf(response.protocol()),
+                HttpHeaders.of(response.headers().toMultimap()), contentType, capture);
+    }
+
+    private static String protocolOf(@Nullable Connection connection) {
+        return connection == null ? "HTTP/1.1" : protocolOf(connection.protocol());
+    }
+
+    private static String protocolOf(Protocol protocol) {
+        switch (protocol) {
+            case HTTP_2:
+            case H2_PRIOR_KNOWLEDGE:
+                return "HTTP/2";
+            case HTTP_1_0:
+                return "HTTP/1.0";
+            default:
+                return "HTTP/1.1";
+        }
+    }
+
+}
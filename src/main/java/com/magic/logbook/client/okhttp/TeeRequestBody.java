@@ -0,0 +1,71 @@
+package com.magic.logbook.client.okhttp;
+
+import com.magic.logbook.capture.BodyBuffer;
+import com.magic.logbook.capture.BodyCapture;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.Okio;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.function.Consumer;
+
+/**
+ * 请求 body 写入连接时旁路拷贝前 limit 个字节, 写完后回调. 重试时会重新写一遍, 由 OutboundExchange 只输出第一次.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 05:00
+ */
+final class TeeRequestBody extends RequestBody {
+
+    private final RequestBody delegate;
+    private final int limit;
+    private final Charset charset;
+    private final Consumer<BodyCapture> onComplete;
+
+    TeeRequestBody(RequestBody delegate, int limit, Charset charset, Consumer<BodyCapture> onComplete) {
+        this.delegate = delegate;
+        this.limit = limit;
+        this.charset = charset;
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    @Nullable
+    public MediaType contentType() {
+        return delegate.contentType();
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return delegate.contentLength();
+    }
+
+    @Override
+    public boolean isOneShot() {
+        return delegate.isOneShot();
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        BodyBuffer buffer = new BodyBuffer(limit);
+        OutputStream stream = new BodyBufferOutputStream(buffer);
+        BufferedSink tee = Okio.buffer(new ForwardingSink(sink) {
+            @Override
+            public void write(Buffer source, long byteCount) throws IOException {
+                source.copyTo(stream, 0, byteCount);
+                super.write(source, byteCount);
+            }
+        });
+        delegate.writeTo(tee);
+        // 只把缓冲的部分交给 sink, 不 flush 也不 close, 与直接写 sink 的行为一致
+        tee.emit();
+        onComplete.accept(buffer.capture(charset));
+    }
+
+}
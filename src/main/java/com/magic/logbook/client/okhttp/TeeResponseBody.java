@@ -0,0 +1,106 @@
+package com.magic.logbook.client.okhttp;
+
+import com.magic.logbook.capture.BodyBuffer;
+import com.magic.logbook.capture.BodyCapture;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.function.Consumer;
+
+/**
+ * 业务方读取响应 body 时旁路拷贝前 limit 个字节, 读到末尾或读满 Content-Length 后回调;
+ * 未读完就关闭时(流式 json 解析、透明解压后长度未知的 body)回调已拷贝的部分, 记为截断.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 05:00
+ */
+final class TeeResponseBody extends ResponseBody {
+
+    @Nullable
+    private final MediaType contentType;
+    private final long contentLength;
+    private final BufferedSource source;
+
+    TeeResponseBody(@Nullable MediaType contentType, long contentLength, Source source, int limit, Charset charset,
+                    Consumer<BodyCapture> onComplete) {
+        this.contentType = contentType;
+        this.contentLength = contentLength;
+        this.source = Okio.buffer(new TeeSource(source, contentLength, limit, charset, onComplete));
+    }
+
+    @Override
+    @Nullable
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public BufferedSource source() {
+        return source;
+    }
+
+    private static final class TeeSource extends ForwardingSource {
+
+        private final long contentLength;
+        private final BodyBuffer buffer;
+        private final OutputStream stream;
+        private final Charset charset;
+        private final Consumer<BodyCapture> onComplete;
+        private long total;
+        private boolean completed;
+
+        TeeSource(Source delegate, long contentLength, int limit, Charset charset, Consumer<BodyCapture> onComplete) {
+            super(delegate);
+            this.contentLength = contentLength;
+            this.buffer = new BodyBuffer(limit);
+            this.stream = new BodyBufferOutputStream(buffer);
+            this.charset = charset;
+            this.onComplete = onComplete;
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            long read = super.read(sink, byteCount);
+            if (read > 0) {
+                sink.copyTo(stream, sink.size() - read, read);
+                total += read;
+            }
+            // json 解析器读完最后一个 token 就关闭, 不一定会再读到 -1
+            if (read == -1 || contentLength >= 0 && total >= contentLength) {
+                complete(buffer.capture(charset));
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                complete(buffer.prefix(charset, contentLength));
+            }
+        }
+
+        private void complete(BodyCapture capture) {
+            if (!completed) {
+                completed = true;
+                onComplete.accept(capture);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,197 @@
+package com.magic.logbook.config;
+
+import com.magic.logbook.async.AsyncLogbookSink;
+import com.magic.logbook.async.OffloadingSink;
+import com.magic.logbook.async.OverflowPolicy;
+import com.magic.logbook.client.VirtualThreads;
+import com.magic.logbook.client.hc5.LogbookAsyncExecHandler;
+import com.magic.logbook.client.jdk.LogbookJdkHttpClient;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Lazy;
+import org.zalando.logbook.Logbook;
+import org.zalando.logbook.Sink;
+import org.zalando.logbook.autoconfigure.LogbookProperties;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 非阻塞的出站客户端: HttpClient 5 异步客户端和 JDK HttpClient, 与 {@link HttpClientConfiguration} 共用连接池和超时配置,
+ * 日志 origin 与 httpclient 拦截器一致(请求 LOCAL, 响应 REMOTE, sink 中记为 CONSUMER). body 只截取前 maxBodySize 个字节,
+ * 截取大小同 logbook.custom.capture. 日志不在客户端的 I/O 线程上格式化和写出, 见 {@link #logExecutor}.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 22:00
+ */
+@Slf4j
+@Import({LogbookCustomHttpClientProperties.class, LogbookCustomCaptureProperties.class})
+@Configuration
+@ConditionalOnProperty(prefix = "logbook.custom.http-client", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AsyncHttpClientConfiguration {
+
+    @Autowired
+    private LogbookCustomHttpClientProperties httpClientProperties;
+    @Autowired
+    private LogbookCustomCaptureProperties captureProperties;
+    @Autowired
+    private LogbookProperties properties;
+
+    /**
+     * 没有开启 virtualThreads 时写日志用的线程数和队列长度, 队列满时由 I/O 线程自己写
+     */
+    private static final int LOG_THREADS = 2;
+    private static final int LOG_QUEUE_SIZE = 10000;
+
+    /**
+     * JDK HttpClient、OkHttp Dispatcher 和异步客户端写日志用的线程池, 每个任务一个虚拟线程;
+     * 运行时不支持虚拟线程时退回按需创建的普通线程
+     */
+    @Bean(destroyMethod = "shutdown")
+    @Lazy
+    @ConditionalOnMissingBean(name = "logbookHttpClientExecutor")
+    @ConditionalOnProperty(prefix = "logbook.custom.http-client", name = "virtualThreads", havingValue = "true")
+    public ExecutorService logbookHttpClientExecutor() {
+        ExecutorService executor = VirtualThreads.newPerTaskExecutor("logbook-http-").orElse(null);
+        if (executor != null) {
+            return executor;
+        }
+        log.warn("logbook.custom.http-client.virtualThreads is enabled but not supported by java {}, using platform threads",
+                Runtime.version());
+        AtomicInteger index = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "logbook-http-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 没有开启 virtualThreads 时异步客户端写日志用的线程池
+     */
+    @Bean(destroyMethod = "shutdown")
+    @Lazy
+    @ConditionalOnMissingBean(name = "logbookHttpClientLogExecutor")
+    public ExecutorService logbookHttpClientLogExecutor() {
+        AtomicInteger index = new AtomicInteger();
+        return new ThreadPoolExecutor(LOG_THREADS, LOG_THREADS, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(LOG_QUEUE_SIZE), runnable -> {
+            Thread thread = new Thread(runnable, "logbook-http-log-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * sink 写出用的线程, logbook 的各个阶段总在 I/O 线程上执行(见 {@link OffloadingSink}):
+     * 异步 sink 在调用线程上只拷贝快照, 队列满时丢弃/采样时不会阻塞, 直接在 I/O 线程上调用;
+     * 否则(同步 sink、BLOCK 策略、logbook 默认的 sink)交给 logbookHttpClientExecutor, 没有时交给 logbookHttpClientLogExecutor
+     */
+    static Executor logExecutor(LogbookCustomHttpClientProperties httpClientProperties, ObjectProvider<Sink> sink,
+                                ObjectProvider<ExecutorService> executor, ObjectProvider<ExecutorService> logExecutor) {
+        if (!httpClientProperties.isOffload()) {
+            return OffloadingSink.DIRECT;
+        }
+        Sink current = sink.getIfAvailable();
+        if (current instanceof OffloadingSink) {
+            current = ((OffloadingSink) current).getDelegate();
+        }
+        if (current instanceof AsyncLogbookSink
+                && ((AsyncLogbookSink) current).getOverflowPolicy() != OverflowPolicy.BLOCK) {
+            return OffloadingSink.DIRECT;
+        }
+        ExecutorService executorService = executor.getIfAvailable();
+        return executorService != null ? executorService : logExecutor.getObject();
+    }
+
+    /**
+     * JDK 客户端只能配置连接超时, socketTimeoutMillis 作为请求没有设置 timeout 时等待响应的时间
+     */
+    @Bean
+    @Lazy
+    @ConditionalOnMissingBean(HttpClient.class)
+    public HttpClient logbookJdkHttpClient(Logbook logbook,
+                                           @Qualifier("logbookHttpClientExecutor") ObjectProvider<ExecutorService> executor,
+                                           @Qualifier("logbookHttpClientLogExecutor") ObjectProvider<ExecutorService> logExecutor,
+                                           ObjectProvider<Sink> sink,
+                                           ObjectProvider<ContentTypeClassifier> classifier) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(httpClientProperties.getConnectTimeoutMillis()));
+        executor.ifAvailable(builder::executor);
+        int socketTimeout = httpClientProperties.getSocketTimeoutMillis();
+        return new LogbookJdkHttpClient(builder.build(), logbook,
+                LogbookCaptureConfiguration.maxBodySize(captureProperties, properties),
+                classifier.getIfAvailable(ContentTypeClassifier::defaultValue),
+                logExecutor(httpClientProperties, sink, executor, logExecutor),
+                socketTimeout > 0 ? Duration.ofMillis(socketTimeout) : null);
+    }
+
+    @Configuration
+    @ConditionalOnClass(CloseableHttpAsyncClient.class)
+    static class HttpClient5Configuration {
+
+        /**
+         * 第一次注入时才创建并启动 I/O 线程
+         */
+        @Bean
+        @Lazy
+        @ConditionalOnMissingBean(CloseableHttpAsyncClient.class)
+        public CloseableHttpAsyncClient logbookHttpAsyncClient(Logbook logbook,
+                                                               LogbookCustomHttpClientProperties httpClientProperties,
+                                                               LogbookCustomCaptureProperties captureProperties,
+                                                               LogbookProperties properties,
+                                                               @Qualifier("logbookHttpClientExecutor")
+                                                               ObjectProvider<ExecutorService> executor,
+                                                               @Qualifier("logbookHttpClientLogExecutor")
+                                                               ObjectProvider<ExecutorService> logExecutor,
+                                                               ObjectProvider<Sink> sink,
+                                                               ObjectProvider<ContentTypeClassifier> classifier) {
+            RequestConfig requestConfig = RequestConfig.custom()
+                    .setConnectTimeout(Timeout.ofMilliseconds(httpClientProperties.getConnectTimeoutMillis()))
+                    .setResponseTimeout(Timeout.ofMilliseconds(httpClientProperties.getSocketTimeoutMillis()))
+                    .setConnectionRequestTimeout(Timeout.ofMilliseconds(httpClientProperties.getConnectionRequestTimeoutMillis()))
+                    .build();
+            HttpAsyncClientBuilder builder = HttpAsyncClients.custom()
+                    .setDefaultRequestConfig(requestConfig)
+                    .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+                            .setMaxConnTotal(httpClientProperties.getMaxTotal())
+                            .setMaxConnPerRoute(httpClientProperties.getDefaultMaxPerRoute())
+                            .build())
+                    .addExecInterceptorLast("logbook", new LogbookAsyncExecHandler(logbook,
+                            LogbookCaptureConfiguration.maxBodySize(captureProperties, properties),
+                            classifier.getIfAvailable(ContentTypeClassifier::defaultValue),
+                            logExecutor(httpClientProperties, sink, executor, logExecutor)))
+                    .evictExpiredConnections();
+            if (httpClientProperties.getMaxIdleMillis() > 0) {
+                builder.evictIdleConnections(TimeValue.ofMilliseconds(httpClientProperties.getMaxIdleMillis()));
+            }
+            CloseableHttpAsyncClient client = builder.build();
+            client.start();
+            return client;
+        }
+
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.magic.logbook.config;
+
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpLogWriter;
+import org.zalando.logbook.Precorrelation;
+
+import java.io.IOException;
+
+/**
+ * 可以写入二进制记录的 {@link HttpLogWriter}, {@link LogbookSink} 使用 Smile/CBOR 编码时调用 byte[] 的方法.
+ * 实现自己划分记录的边界(长度前缀的帧), 不依赖换行.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 07:00
+ */
+public interface BinaryHttpLogWriter extends HttpLogWriter {
+
+    void write(Precorrelation precorrelation, byte[] request) throws IOException;
+
+    void write(Correlation correlation, byte[] response) throws IOException;
+
+    /**
+     * 与 {@link #write(Correlation, String)} 相同, 返回记录是否被接收. 开启 body 去重时只有被接收的记录才登记 body
+     *
+     * @return false 记录被丢弃(超过大小、连接不可用等)
+     */
+    default boolean offer(Correlation correlation, String response) throws IOException {
+        write(correlation, response);
+        return true;
+    }
+
+    default boolean offer(Correlation correlation, byte[] response) throws IOException {
+        write(correlation, response);
+        return true;
+    }
+
+}
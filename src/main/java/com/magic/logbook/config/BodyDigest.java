@@ -0,0 +1,67 @@
+package com.magic.logbook.config;
+
+import com.magic.logbook.capture.BodyCapture;
+import org.zalando.logbook.ForwardingHttpMessage;
+import org.zalando.logbook.HttpMessage;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.zip.CRC32C;
+
+/**
+ * {@link BodyTreatment#DIGEST} 的输出: body 不解码, 只记录大小和 crc32c.
+ * 被有界截取截断时只拿到了前缀, 不输出 hash.
+ * logbook 的 FilteredHttpRequest/FilteredHttpResponse 会把 body 解码再编码, 二进制内容因此失真, 摘要取最内层的原始字节.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 01:00
+ */
+public final class BodyDigest {
+
+    private final long size;
+    @Nullable
+    private final String hash;
+
+    private BodyDigest(long size, @Nullable String hash) {
+        this.size = size;
+        this.hash = hash;
+    }
+
+    @Nullable
+    static BodyDigest of(HttpMessage message) throws IOException {
+        byte[] body = rawBodyOf(message);
+        BodyCapture capture = BodyCapture.find(message);
+        Long originalLength = capture == null ? null : capture.getOriginalLength();
+        long size = originalLength != null ? originalLength : body.length;
+        if (size == 0) {
+            return null;
+        }
+        if (capture != null && capture.isTruncated()) {
+            return new BodyDigest(size, null);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(body, 0, body.length);
+        return new BodyDigest(size, String.format("crc32c:%08x", crc.getValue()));
+    }
+
+    /**
+     * 跳过 BodyFilter 等包装, 直接取最内层请求/响应的 body
+     */
+    public static byte[] rawBodyOf(HttpMessage message) throws IOException {
+        HttpMessage current = message;
+        while (current instanceof ForwardingHttpMessage) {
+            current = ((ForwardingHttpMessage) current).delegate();
+        }
+        return current.getBody();
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    @Nullable
+    String getHash() {
+        return hash;
+    }
+
+}
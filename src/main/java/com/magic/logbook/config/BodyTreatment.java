@@ -0,0 +1,26 @@
+package com.magic.logbook.config;
+
+/**
+ * 按 Content-Type 对 body 的处理方式, 见 {@link ContentTypeClassifier}.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 01:00
+ */
+public enum BodyTreatment {
+    /**
+     * 作为 json 原样嵌入(被截断时退化为字符串)
+     */
+    JSON,
+    /**
+     * 按 charset 解码后作为字符串输出
+     */
+    TEXT,
+    /**
+     * 不解码, 只输出大小和 crc32c
+     */
+    DIGEST,
+    /**
+     * 不截取、不解码、不输出
+     */
+    SKIP
+}
@@ -0,0 +1,176 @@
+package com.magic.logbook.config;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 只看 Content-Type 头决定 body 的处理方式, 不读取 body.
+ * 顺序: json 快速路径(没有自定义规则时) -> 缓存 -> 自定义规则 -> 内置规则 -> 默认, 自定义规则可以覆盖 json.
+ * 结果按 Content-Type 原始字符串缓存, 实际请求中不同的取值很少, 缓存满了就不再放入.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 01:00
+ */
+public final class ContentTypeClassifier {
+
+    private static final int MAX_CACHED = 512;
+
+    private static final List<Rule> BUILT_IN_RULES = List.of(
+            // isJson 区分大小写, 其余写法在这里兜底
+            Rule.of("application/json", BodyTreatment.JSON),
+            Rule.of("application/*+json", BodyTreatment.JSON),
+            Rule.of("text/*", BodyTreatment.TEXT),
+            Rule.of("application/xml", BodyTreatment.TEXT),
+            Rule.of("application/*+xml", BodyTreatment.TEXT),
+            Rule.of("application/x-www-form-urlencoded", BodyTreatment.TEXT),
+            Rule.of("application/javascript", BodyTreatment.TEXT),
+            Rule.of("application/graphql", BodyTreatment.TEXT),
+            Rule.of("application/x-protobuf", BodyTreatment.DIGEST),
+            Rule.of("application/protobuf", BodyTreatment.DIGEST),
+            Rule.of("application/grpc*", BodyTreatment.DIGEST),
+            Rule.of("multipart/*", BodyTreatment.SKIP),
+            Rule.of("image/*", BodyTreatment.SKIP),
+            Rule.of("audio/*", BodyTreatment.SKIP),
+            Rule.of("video/*", BodyTreatment.SKIP),
+            Rule.of("font/*", BodyTreatment.SKIP),
+            Rule.of("application/octet-stream", BodyTreatment.SKIP),
+            Rule.of("application/pdf", BodyTreatment.SKIP),
+            Rule.of("application/zip", BodyTreatment.SKIP),
+            Rule.of("application/gzip", BodyTreatment.SKIP));
+
+    private static final ContentTypeClassifier DEFAULT = new ContentTypeClassifier(BUILT_IN_RULES,
+            BodyTreatment.TEXT, BodyTreatment.TEXT, true);
+
+    private final List<Rule> rules;
+    private final BodyTreatment defaultTreatment;
+    private final BodyTreatment missingTreatment;
+    private final Map<String, BodyTreatment> cache = new ConcurrentHashMap<>();
+    /**
+     * 有自定义规则时 json 也要先经过规则匹配, 结果同样缓存
+     */
+    private final boolean jsonFastPath;
+
+    private ContentTypeClassifier(List<Rule> rules, BodyTreatment defaultTreatment, BodyTreatment missingTreatment,
+                                  boolean jsonFastPath) {
+        this.rules = rules;
+        this.jsonFastPath = jsonFastPath;
+        this.defaultTreatment = defaultTreatment;
+        this.missingTreatment = missingTreatment;
+    }
+
+    public static ContentTypeClassifier defaultValue() {
+        return DEFAULT;
+    }
+
+    /**
+     * 关闭时只区分 json 和字符串, 与原有行为一致
+     */
+    public static ContentTypeClassifier of(LogbookCustomContentTypeProperties properties) {
+        if (!properties.isEnabled()) {
+            return new ContentTypeClassifier(Collections.emptyList(), BodyTreatment.TEXT, BodyTreatment.TEXT, true);
+        }
+        List<Rule> rules = new ArrayList<>();
+        for (LogbookCustomContentTypeProperties.Rule rule : properties.getRules()) {
+            rules.add(Rule.of(rule.getPattern(), rule.getTreatment()));
+        }
+        boolean jsonFastPath = rules.isEmpty();
+        rules.addAll(BUILT_IN_RULES);
+        return new ContentTypeClassifier(rules, properties.getDefaultTreatment(), properties.getMissingTreatment(),
+                jsonFastPath);
+    }
+
+    public BodyTreatment classify(@Nullable String contentType) {
+        if (contentType == null || contentType.isEmpty()) {
+            return missingTreatment;
+        }
+        if (jsonFastPath && ContentTypes.isJson(contentType)) {
+            return BodyTreatment.JSON;
+        }
+        BodyTreatment treatment = cache.get(contentType);
+        if (treatment == null) {
+            treatment = match(mediaTypeOf(contentType));
+            if (cache.size() < MAX_CACHED) {
+                cache.putIfAbsent(contentType, treatment);
+            }
+        }
+        return treatment;
+    }
+
+    /**
+     * 是否需要截取 body, 截取层据此跳过二进制内容
+     */
+    public boolean isCaptured(@Nullable String contentType) {
+        return classify(contentType) != BodyTreatment.SKIP;
+    }
+
+    private BodyTreatment match(String mediaType) {
+        int slash = mediaType.indexOf('/');
+        if (slash == -1) {
+            return defaultTreatment;
+        }
+        String type = mediaType.substring(0, slash);
+        String subtype = mediaType.substring(slash + 1);
+        for (Rule rule : rules) {
+            if (rule.matches(type, subtype)) {
+                return rule.treatment;
+            }
+        }
+        return defaultTreatment;
+    }
+
+    /**
+     * 去掉参数, 转小写
+     */
+    private static String mediaTypeOf(String contentType) {
+        int index = contentType.indexOf(';');
+        String mediaType = index == -1 ? contentType : contentType.substring(0, index);
+        return mediaType.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Rule {
+        private final String type;
+        private final String subtype;
+        private final BodyTreatment treatment;
+
+        private Rule(String type, String subtype, BodyTreatment treatment) {
+            this.type = type;
+            this.subtype = subtype;
+            this.treatment = treatment;
+        }
+
+        static Rule of(@Nullable String pattern, @Nullable BodyTreatment treatment) {
+            int slash = pattern == null ? -1 : pattern.indexOf('/');
+            if (slash <= 0 || slash == pattern.length() - 1 || treatment == null) {
+                throw new IllegalArgumentException("logbook.custom.content-type.rules: invalid rule " + pattern
+                        + " -> " + treatment);
+            }
+            String mediaType = pattern.trim().toLowerCase(Locale.ROOT);
+            slash = mediaType.indexOf('/');
+            return new Rule(mediaType.substring(0, slash), mediaType.substring(slash + 1), treatment);
+        }
+
+        boolean matches(String type, String subtype) {
+            if (!"*".equals(this.type) && !this.type.equals(type)) {
+                return false;
+            }
+            if ("*".equals(this.subtype)) {
+                return true;
+            }
+            if (this.subtype.startsWith("*")) {
+                // *+xml
+                return subtype.endsWith(this.subtype.substring(1));
+            }
+            if (this.subtype.endsWith("*")) {
+                // grpc*
+                return subtype.startsWith(this.subtype.substring(0, this.subtype.length() - 1));
+            }
+            return this.subtype.equals(subtype);
+        }
+    }
+
+}
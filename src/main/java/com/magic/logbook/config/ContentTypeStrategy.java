@@ -0,0 +1,55 @@
+package com.magic.logbook.config;
+
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.Sink;
+import org.zalando.logbook.Strategy;
+
+import java.io.IOException;
+
+/**
+ * 包装实际使用的 {@link Strategy}, 按 Content-Type 归为 {@link BodyTreatment#SKIP} 的请求/响应调用 withoutBody, logbook 不再缓存 body.
+ * 只能看到 process 时已知的 Content-Type: 请求和客户端收到的响应总是已知; servlet 过滤器在业务处理之前调用,
+ * 这时响应还没有 Content-Type, 服务端响应的跳过由有界截取(logbook.custom.capture)完成.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 01:00
+ */
+public class ContentTypeStrategy implements Strategy {
+
+    private final Strategy delegate;
+    private final ContentTypeClassifier classifier;
+
+    public ContentTypeStrategy(Strategy delegate, ContentTypeClassifier classifier) {
+        this.delegate = delegate;
+        this.classifier = classifier;
+    }
+
+    @Override
+    public HttpRequest process(HttpRequest request) throws IOException {
+        String contentType = request.getContentType();
+        return delegate.process(contentType != null && !classifier.isCaptured(contentType) ?
+                request.withoutBody() : request);
+    }
+
+    @Override
+    public void write(Precorrelation precorrelation, HttpRequest request, Sink sink) throws IOException {
+        delegate.write(precorrelation, request, sink);
+    }
+
+    @Override
+    public HttpResponse process(HttpRequest request, HttpResponse response) throws IOException {
+        String contentType = response.getContentType();
+        return delegate.process(request, contentType != null && !classifier.isCaptured(contentType) ?
+                response.withoutBody() : response);
+    }
+
+    @Override
+    public void write(Correlation correlation, HttpRequest request, HttpResponse response, Sink sink)
+            throws IOException {
+        delegate.write(correlation, request, response, sink);
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.magic.logbook.config;
+
+import javax.annotation.Nullable;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Content-Type 相关的工具方法.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 15:00
+ */
+public final class ContentTypes {
+
+    private static final String CHARSET_PREFIX = "charset=";
+
+    private ContentTypes() {
+    }
+
+    /**
+     * 取 Content-Type 中声明的 charset, 未声明或不支持时使用 UTF-8.
+     * 不使用 servlet 的 getCharacterEncoding, 它在未声明时固定返回 ISO-8859-1, 会导致中文乱码.
+     * https://github.com/zalando/logbook/issues/870
+     */
+    public static Charset charsetOf(@Nullable String contentType) {
+        if (contentType == null) {
+            return StandardCharsets.UTF_8;
+        }
+        int index = indexOfIgnoreCase(contentType, CHARSET_PREFIX);
+        if (index == -1) {
+            return StandardCharsets.UTF_8;
+        }
+        int start = index + CHARSET_PREFIX.length();
+        int end = contentType.indexOf(';', start);
+        String name = contentType.substring(start, end == -1 ? contentType.length() : end).trim();
+        if (name.length() > 1 && name.charAt(0) == '"' && name.charAt(name.length() - 1) == '"') {
+            name = name.substring(1, name.length() - 1);
+        }
+        try {
+            return Charset.forName(name);
+        } catch (IllegalArgumentException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    public static boolean isJson(@Nullable String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        // implementation note: manually coded for improved performance
+        if (contentType.startsWith("application/")) {
+            int index = contentType.indexOf(';', 12);
+            if (index != -1) {
+                if (index > 16) {
+                    // application/some+json;charset=utf-8
+                    return contentType.regionMatches(index - 5, "+json", 0, 5);
+                }
+
+                // application/json;charset=utf-8
+                return contentType.regionMatches(index - 4, "json", 0, 4);
+            } else {
+                // application/json
+                if (contentType.length() == 16) {
+                    return contentType.endsWith("json");
+                }
+                // application/some+json
+                return contentType.endsWith("+json");
+            }
+        }
+        return false;
+    }
+
+    private static int indexOfIgnoreCase(String value, String part) {
+        for (int i = 0, max = value.length() - part.length(); i <= max; i++) {
+            if (value.regionMatches(true, i, part, 0, part.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+}
@@ -1,28 +1,71 @@
 package com.magic.logbook.config;
 
+import com.magic.logbook.capture.httpclient.BoundedLogbookHttpRequestInterceptor;
+import com.magic.logbook.capture.httpclient.BoundedLogbookHttpResponseInterceptor;
+import com.magic.logbook.metrics.ConnectionPoolMetrics;
+import com.magic.logbook.metrics.MicrometerConnectionPoolMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.UnsupportedSchemeException;
+import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Lazy;
 import org.zalando.logbook.httpclient.LogbookHttpRequestInterceptor;
 import org.zalando.logbook.httpclient.LogbookHttpResponseInterceptor;
 
+/**
+ * 带 logbook 拦截器的池化 HttpClient, 参数见 {@link LogbookCustomHttpClientProperties}.
+ * 应用自己定义了 HttpClient / HttpClientConnectionManager 时使用应用的.
+ */
+@Slf4j
+@Import(LogbookCustomHttpClientProperties.class)
 @Configuration
+@ConditionalOnProperty(prefix = "logbook.custom.http-client", name = "enabled", havingValue = "true", matchIfMissing = true)
 public class HttpClientConfiguration {
     @Autowired
     private LogbookHttpRequestInterceptor logbookHttpRequestInterceptor;
     @Autowired
     private LogbookHttpResponseInterceptor logbookHttpResponseInterceptor;
+    /**
+     * 开启 logbook.custom.capture 时替代上面两个拦截器
+     */
+    @Autowired
+    private ObjectProvider<BoundedLogbookHttpRequestInterceptor> boundedRequestInterceptor;
+    @Autowired
+    private ObjectProvider<BoundedLogbookHttpResponseInterceptor> boundedResponseInterceptor;
+    @Autowired
+    private LogbookCustomHttpClientProperties httpClientProperties;
 
-    private HttpClient httpClient() {
+    @Bean
+    @Lazy
+    @ConditionalOnMissingBean(HttpClientConnectionManager.class)
+    public PoolingHttpClientConnectionManager logbookHttpClientConnectionManager(
+            ObjectProvider<ConnectionPoolMetrics> connectionPoolMetrics) {
 
         Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
                 .register("http", PlainConnectionSocketFactory.getSocketFactory())
@@ -30,25 +73,93 @@ public class HttpClientConfiguration {
                 .build();
 
         // 池化
-        PoolingHttpClientConnectionManager poolingHttpClientConnectionManager = new PoolingHttpClientConnectionManager(registry);
-        poolingHttpClientConnectionManager.setMaxTotal(30);
-        poolingHttpClientConnectionManager.setDefaultMaxPerRoute(100);
-        poolingHttpClientConnectionManager.setValidateAfterInactivity(3000);
+        ConnectionPoolMetrics metrics = connectionPoolMetrics.getIfAvailable(ConnectionPoolMetrics::none);
+        ReapingConnectionManager connectionManager = new ReapingConnectionManager(registry, metrics,
+                httpClientProperties.getMaxIdleMillis(), httpClientProperties.getReaperIntervalMillis());
+        if (httpClientProperties.getMaxTotal() < httpClientProperties.getDefaultMaxPerRoute()) {
+            log.warn("logbook http client maxTotal {} is less than defaultMaxPerRoute {}, a single route can not reach its limit",
+                    httpClientProperties.getMaxTotal(), httpClientProperties.getDefaultMaxPerRoute());
+        }
+        connectionManager.setMaxTotal(httpClientProperties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(httpClientProperties.getDefaultMaxPerRoute());
+        for (LogbookCustomHttpClientProperties.Route route : httpClientProperties.getRoutes()) {
+            connectionManager.setMaxPerRoute(routeOf(route.getUrl()), route.getMaxPerRoute());
+        }
+        connectionManager.setValidateAfterInactivity(httpClientProperties.getValidateAfterInactivityMillis());
+        metrics.bind(connectionManager);
+        return connectionManager;
+    }
+
+    /**
+     * 与 DefaultRoutePlanner 生成的路由一致(端口补全, https 为 secure), 否则配置不会命中
+     */
+    static HttpRoute routeOf(String url) {
+        HttpHost host = HttpHost.create(url);
+        try {
+            int port = DefaultSchemePortResolver.INSTANCE.resolve(host);
+            HttpHost target = new HttpHost(host.getHostName(), port, host.getSchemeName());
+            return new HttpRoute(target, null, "https".equalsIgnoreCase(host.getSchemeName()));
+        } catch (UnsupportedSchemeException e) {
+            throw new IllegalArgumentException("logbook.custom.http-client.routes: unsupported url " + url, e);
+        }
+    }
+
+    /**
+     * 连接池是单独的 bean, 关闭 HttpClient 时不关闭连接池. 连接池和 HttpClient 都在第一次注入时才创建, 不用的应用不启动回收线程
+     */
+    @Bean
+    @Lazy
+    @ConditionalOnMissingBean(HttpClient.class)
+    public CloseableHttpClient httpClient(HttpClientConnectionManager connectionManager) {
 
         RequestConfig requestConfig = RequestConfig.custom()
-                // 超时链接设置，todo 走配置+默认形式
-                .setSocketTimeout(6000)
-                .setConnectTimeout(6000)
-                .setConnectionRequestTimeout(6000)
+                .setSocketTimeout(httpClientProperties.getSocketTimeoutMillis())
+                .setConnectTimeout(httpClientProperties.getConnectTimeoutMillis())
+                .setConnectionRequestTimeout(httpClientProperties.getConnectionRequestTimeoutMillis())
                 .build();
 
+        HttpRequestInterceptor requestInterceptor = boundedRequestInterceptor.getIfAvailable();
+        if (requestInterceptor == null) {
+            requestInterceptor = logbookHttpRequestInterceptor;
+        }
+        HttpResponseInterceptor responseInterceptor = boundedResponseInterceptor.getIfAvailable();
+        if (responseInterceptor == null) {
+            responseInterceptor = logbookHttpResponseInterceptor;
+        }
         return HttpClientBuilder.create()
                 .setDefaultRequestConfig(requestConfig)
-                .setConnectionManager(poolingHttpClientConnectionManager)
-                .addInterceptorLast(logbookHttpRequestInterceptor)
-                .addInterceptorLast(logbookHttpResponseInterceptor)
+                .setConnectionManager(connectionManager)
+                .setConnectionManagerShared(true)
+                .setKeepAliveStrategy(keepAliveStrategy(httpClientProperties.getKeepAliveMillis()))
+                .addInterceptorLast(requestInterceptor)
+                .addInterceptorLast(responseInterceptor)
                 .build();
 
     }
 
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(long keepAliveMillis) {
+        if (keepAliveMillis <= 0) {
+            return DefaultConnectionKeepAliveStrategy.INSTANCE;
+        }
+        return (response, context) -> {
+            long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return duration > 0 ? Math.min(duration, keepAliveMillis) : keepAliveMillis;
+        };
+    }
+
+    /**
+     * 连接池的指标, 引入 micrometer 时注册, 没有 actuator 提供的 MeterRegistry 时记录到 {@link Metrics#globalRegistry}
+     */
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    static class ConnectionPoolMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(ConnectionPoolMetrics.class)
+        public ConnectionPoolMetrics connectionPoolMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+            return new MicrometerConnectionPoolMetrics(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+        }
+
+    }
+
 }
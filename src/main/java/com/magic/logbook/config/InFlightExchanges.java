@@ -0,0 +1,214 @@
+package com.magic.logbook.config;
+
+import com.magic.logbook.overload.DetailLevel;
+import lombok.extern.slf4j.Slf4j;
+import org.zalando.logbook.Precorrelation;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 合并模式下等待响应的请求. 请求写入时放入, 响应写入时取出; 超时未取出的交给 orphan 处理器输出.
+ * 异步 sink 多线程消费时响应可能先于请求被处理, 只在这种情况下(reordered)留下一个 completed 标记, 迟到的请求直接丢弃,
+ * 标记几秒后清理; 按顺序写出时没有对应请求的响应(未采样、请求被降级跳过等)不留标记, 不占用等待表.
+ * 等待表已满时请求单独输出, 另外留下一个 emitted 标记(只有 id 和时间), 响应时不再重复嵌入请求; 标记同样有上限, 超时清理.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 19:00
+ */
+@Slf4j
+final class InFlightExchanges implements Closeable {
+
+    private static final long MIN_SWEEP_INTERVAL_MILLIS = 100;
+    private static final long MAX_SWEEP_INTERVAL_MILLIS = 1000;
+    /**
+     * completed 标记只用于异步 sink 的乱序, 不需要保留到超时
+     */
+    private static final long COMPLETED_TTL_MILLIS = 5000;
+
+    /**
+     * {@link #complete(String)} 的返回值, 表示请求在等待表已满时已单独输出
+     */
+    static final PendingExchange EMITTED = PendingExchange.completed("", 0);
+
+    private final Map<String, PendingExchange> pending = new ConcurrentHashMap<>();
+    /**
+     * 已单独输出的请求 id -> 输出时间
+     */
+    private final Map<String, Long> emitted = new ConcurrentHashMap<>();
+    private final int maxInFlight;
+    private final long timeoutMillis;
+    private final boolean reordered;
+    private final Consumer<PendingExchange> orphanHandler;
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * @param reordered 响应可能先于请求到达(多个后台线程的异步 sink)
+     */
+    InFlightExchanges(LogbookCustomCombinedProperties properties, boolean reordered,
+                      Consumer<PendingExchange> orphanHandler) {
+        this.maxInFlight = Math.max(1, properties.getMaxInFlight());
+        this.timeoutMillis = Math.max(1, properties.getOrphanTimeoutMillis());
+        this.reordered = reordered;
+        this.orphanHandler = orphanHandler;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "logbook-orphan-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(MIN_SWEEP_INTERVAL_MILLIS, Math.min(MAX_SWEEP_INTERVAL_MILLIS, timeoutMillis / 2));
+        sweeper.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 在序列化请求之前调用, 已满时不必序列化
+     *
+     * @return {@link Admission#EMIT} 时调用方立即单独输出请求, 已记下 emitted 标记;
+     * {@link Admission#DROP} 时响应已先行输出, 请求直接丢弃; {@link Admission#ACCEPT} 时再调用 {@link #add}
+     */
+    Admission admit(String id) {
+        PendingExchange existing = pending.get(id);
+        if (existing != null && existing.isCompleted()) {
+            // 响应已先行输出
+            pending.remove(id, existing);
+            return Admission.DROP;
+        }
+        if (pending.size() >= maxInFlight) {
+            // 超时的由后台线程清理, 这里不做全表扫描
+            if (emitted.size() < maxInFlight) {
+                emitted.put(id, System.currentTimeMillis());
+            }
+            return Admission.EMIT;
+        }
+        return Admission.ACCEPT;
+    }
+
+    /**
+     * 放入 {@link #admit} 接受的请求; 并发写入时等待表可能略超过 maxInFlight
+     */
+    void add(PendingExchange exchange) {
+        pending.putIfAbsent(exchange.id, exchange);
+    }
+
+    /**
+     * 响应到达时取出对应的请求
+     *
+     * @return {@link #EMITTED} 请求已单独输出; null 请求未被记录(未采样、尚未到达, 或已满且 emitted 标记也已满)
+     */
+    @Nullable
+    PendingExchange complete(String id) {
+        PendingExchange exchange = pending.remove(id);
+        if (exchange == null && emitted.remove(id) != null) {
+            return EMITTED;
+        }
+        if (exchange == null && reordered && pending.size() < maxInFlight) {
+            long createdAt = System.currentTimeMillis() - timeoutMillis + Math.min(timeoutMillis, COMPLETED_TTL_MILLIS);
+            pending.putIfAbsent(id, PendingExchange.completed(id, createdAt));
+        }
+        return exchange;
+    }
+
+    int size() {
+        return pending.size();
+    }
+
+    void sweep() {
+        long deadline = System.currentTimeMillis() - timeoutMillis;
+        for (PendingExchange exchange : pending.values()) {
+            if (exchange.createdAt <= deadline && pending.remove(exchange.id, exchange) && !exchange.isCompleted()) {
+                flush(exchange);
+            }
+        }
+        emitted.values().removeIf(emittedAt -> emittedAt <= deadline);
+    }
+
+    /**
+     * 关闭时剩余的请求都作为 orphan 输出
+     */
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+        emitted.clear();
+        for (PendingExchange exchange : pending.values()) {
+            if (pending.remove(exchange.id, exchange) && !exchange.isCompleted()) {
+                flush(exchange);
+            }
+        }
+    }
+
+    enum Admission {
+        ACCEPT, EMIT, DROP
+    }
+
+    private void flush(PendingExchange exchange) {
+        try {
+            orphanHandler.accept(exchange);
+        } catch (RuntimeException e) {
+            log.warn("logbook orphan write failed, correlation: {}", exchange.id, e);
+        }
+    }
+
+    static final class PendingExchange {
+        final String id;
+        final long createdAt;
+        @Nullable
+        final Precorrelation precorrelation;
+        final String uri;
+        /**
+         * orphan 记录写入索引时按 path 归一
+         */
+        final String path;
+        final String method;
+        final String origin;
+        final String originalCallApp;
+        /**
+         * 请求时已序列化好的 request 部分, 响应时原样嵌入
+         */
+        final String requestSection;
+        @Nullable
+        final Double sampleWeight;
+        /**
+         * 请求时的降级级别, 完整记录时为 null
+         */
+        @Nullable
+        final DetailLevel detail;
+
+        PendingExchange(Precorrelation precorrelation, String uri, String path, String method, String origin,
+                        String originalCallApp, String requestSection, @Nullable Double sampleWeight,
+                        @Nullable DetailLevel detail) {
+            this(precorrelation.getId(), System.currentTimeMillis(), precorrelation, uri, path, method, origin,
+                    originalCallApp, requestSection, sampleWeight, detail);
+        }
+
+        private PendingExchange(String id, long createdAt, @Nullable Precorrelation precorrelation, String uri,
+                                String path, String method, String origin, String originalCallApp,
+                                String requestSection, @Nullable Double sampleWeight, @Nullable DetailLevel detail) {
+            this.id = id;
+            this.createdAt = createdAt;
+            this.precorrelation = precorrelation;
+            this.uri = uri;
+            this.path = path;
+            this.method = method;
+            this.origin = origin;
+            this.originalCallApp = originalCallApp;
+            this.requestSection = requestSection;
+            this.sampleWeight = sampleWeight;
+            this.detail = detail;
+        }
+
+        static PendingExchange completed(String id, long createdAt) {
+            return new PendingExchange(id, createdAt, null, null, null, null, null, null, null, null, null);
+        }
+
+        boolean isCompleted() {
+            return precorrelation == null;
+        }
+    }
+
+}
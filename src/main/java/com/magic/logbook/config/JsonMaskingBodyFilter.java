@@ -0,0 +1,380 @@
+package com.magic.logbook.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import org.zalando.logbook.BodyFilter;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * json body 脱敏和压缩. 用 {@link JsonParser} 逐个 token 读取、{@link JsonGenerator} 直接写出, 一遍完成, 不构建树:
+ * 按字段名或路径($.user.password, $.items[*].token, $.list[0])把值替换为掩码, 去掉空白, 超长数组只保留前 N 个元素.
+ * 数字按原文输出, 不会改变精度.
+ * <p>
+ * 不完整的 json(被有界截取截断)只输出已处理的部分并追加 "...", 不会把未脱敏的剩余部分原样输出.
+ * 与截断组合时先脱敏压缩再截断, 见 LogbookConfiguration#bodyFilter; 传入 maxChars 时输出超过该长度就停止处理,
+ * 结果与对完整输出做 BodyFilters.truncate 相同, 大报文不会为了被丢弃的部分做完整的解析和写出.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 02:00
+ */
+public final class JsonMaskingBodyFilter implements BodyFilter {
+
+    /**
+     * 超过该大小的缓冲区和最近一次结果用完后不再保留在线程上
+     */
+    private static final int MAX_RETAINED_CHARS = 64 * 1024;
+    private static final String TRUNCATED = "...";
+    /**
+     * 输出达到上限时中止处理, 不需要堆栈
+     */
+    private static final LimitReachedException LIMIT_REACHED = new LimitReachedException();
+
+    private final JsonFactory factory = new JsonFactoryBuilder().rootValueSeparator((SerializableString) null).build();
+    private final ThreadLocal<State> states = ThreadLocal.withInitial(this::newState);
+    private final Set<String> fields;
+    private final List<Segment[]> paths;
+    private final int maxPathDepth;
+    private final String replacement;
+    private final int maxArrayElements;
+    private final int maxChars;
+
+    /**
+     * @param maxArrayElements 小于 0 不限制
+     */
+    public JsonMaskingBodyFilter(Collection<String> fields, Collection<String> paths, String replacement,
+                                 int maxArrayElements) {
+        this(fields, paths, replacement, maxArrayElements, -1);
+    }
+
+    /**
+     * @param maxChars 输出的最大长度, 超出部分截断为 "...", 小于 0 不限制
+     */
+    public JsonMaskingBodyFilter(Collection<String> fields, Collection<String> paths, String replacement,
+                                 int maxArrayElements, int maxChars) {
+        this.fields = new HashSet<>(fields);
+        this.paths = new ArrayList<>();
+        int depth = 0;
+        for (String path : paths) {
+            Segment[] segments = Segment.compile(path);
+            this.paths.add(segments);
+            depth = Math.max(depth, segments.length);
+        }
+        this.maxPathDepth = depth;
+        this.replacement = replacement;
+        this.maxArrayElements = maxArrayElements;
+        this.maxChars = maxChars;
+    }
+
+    @Override
+    public String filter(@Nullable String contentType, String body) {
+        if (body.isEmpty() || !ContentTypes.isJson(contentType)) {
+            return body;
+        }
+        State state = states.get();
+        // FilteredHttpRequest/FilteredHttpResponse 每次读取 body 都会调用, 同一个 body 只处理一次
+        if (body == state.lastInput) {
+            return state.lastOutput;
+        }
+        String output;
+        try (JsonParser parser = factory.createParser(body)) {
+            state.writer.reset();
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return body;
+            }
+            copy(parser, state, token, 0);
+            state.generator.flush();
+            // 只在写出每个值之前检查长度, 最后的结束符号仍可能超出
+            output = maxChars >= 0 && state.writer.length() > maxChars ?
+                    state.writer.toString(maxChars) + TRUNCATED : state.writer.toString();
+        } catch (LimitReachedException e) {
+            return truncated(state, body);
+        } catch (IOException | RuntimeException e) {
+            return partial(state, body);
+        }
+        if (state.writer.capacity() > MAX_RETAINED_CHARS) {
+            state.discard();
+        } else if (body.length() <= MAX_RETAINED_CHARS) {
+            state.lastInput = body;
+            state.lastOutput = output;
+        }
+        return output;
+    }
+
+    /**
+     * 解析失败时输出已脱敏的部分; 第一个 token 就失败的不是 json, 原样输出
+     */
+    private String partial(State state, String body) {
+        String output;
+        try {
+            state.generator.flush();
+            output = state.writer.length() == 0 ? body : state.writer + TRUNCATED;
+        } catch (IOException | RuntimeException e) {
+            output = body;
+        }
+        // generator 停在结构中间, 不能再复用
+        state.discard();
+        return output;
+    }
+
+    private String truncated(State state, String body) {
+        String output;
+        try {
+            state.generator.flush();
+            output = state.writer.toString(maxChars) + TRUNCATED;
+        } catch (IOException | RuntimeException e) {
+            output = body;
+        }
+        state.discard();
+        return output;
+    }
+
+    private void copy(JsonParser parser, State state, JsonToken token, int depth) throws IOException {
+        JsonGenerator generator = state.generator;
+        if (maxChars >= 0 && state.writer.length() + generator.getOutputBuffered() > maxChars) {
+            throw LIMIT_REACHED;
+        }
+        switch (token) {
+            case START_OBJECT:
+                generator.writeStartObject();
+                JsonToken next;
+                while ((next = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    generator.writeFieldName(name);
+                    JsonToken value = nextValue(parser);
+                    state.push(depth, name, -1);
+                    if (fields.contains(name) || matchesPath(state, depth + 1)) {
+                        mask(parser, generator, value);
+                    } else {
+                        copy(parser, state, value, depth + 1);
+                    }
+                }
+                if (next != JsonToken.END_OBJECT) {
+                    throw new JsonParseException(parser, "unexpected end of object");
+                }
+                generator.writeEndObject();
+                break;
+            case START_ARRAY:
+                generator.writeStartArray();
+                int index = 0;
+                while ((next = nextValue(parser)) != JsonToken.END_ARRAY) {
+                    if (maxArrayElements >= 0 && index >= maxArrayElements) {
+                        parser.skipChildren();
+                    } else {
+                        state.push(depth, null, index);
+                        if (matchesPath(state, depth + 1)) {
+                            mask(parser, generator, next);
+                        } else {
+                            copy(parser, state, next, depth + 1);
+                        }
+                    }
+                    index++;
+                }
+                if (maxArrayElements >= 0 && index > maxArrayElements) {
+                    generator.writeString("...(" + (index - maxArrayElements) + " more)");
+                }
+                generator.writeEndArray();
+                break;
+            case VALUE_STRING:
+                generator.writeString(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                break;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                generator.writeNumber(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                break;
+            case VALUE_TRUE:
+                generator.writeBoolean(true);
+                break;
+            case VALUE_FALSE:
+                generator.writeBoolean(false);
+                break;
+            case VALUE_NULL:
+                generator.writeNull();
+                break;
+            default:
+                generator.copyCurrentEvent(parser);
+        }
+    }
+
+    private static JsonToken nextValue(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new JsonParseException(parser, "unexpected end of input");
+        }
+        return token;
+    }
+
+    /**
+     * null 不替换, 对象和数组整体替换
+     */
+    private void mask(JsonParser parser, JsonGenerator generator, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            generator.writeNull();
+            return;
+        }
+        parser.skipChildren();
+        generator.writeString(replacement);
+    }
+
+    private boolean matchesPath(State state, int depth) {
+        if (depth > maxPathDepth) {
+            return false;
+        }
+        for (Segment[] path : paths) {
+            if (path.length == depth && state.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private State newState() {
+        try {
+            LogbookJsonSerializer.CharBufferWriter writer = new LogbookJsonSerializer.CharBufferWriter();
+            return new State(writer, factory.createGenerator(writer));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final class State {
+        private final LogbookJsonSerializer.CharBufferWriter writer;
+        private final JsonGenerator generator;
+        /**
+         * 当前值的路径: 字段名, 数组元素时为 null 并记录下标
+         */
+        private final String[] names = new String[maxPathDepth];
+        private final int[] indexes = new int[maxPathDepth];
+        @Nullable
+        private String lastInput;
+        @Nullable
+        private String lastOutput;
+
+        private State(LogbookJsonSerializer.CharBufferWriter writer, JsonGenerator generator) {
+            this.writer = writer;
+            this.generator = generator;
+        }
+
+        private void push(int depth, @Nullable String name, int index) {
+            if (depth >= maxPathDepth) {
+                return;
+            }
+            names[depth] = name;
+            indexes[depth] = index;
+        }
+
+        private boolean matches(Segment[] path) {
+            for (int i = 0; i < path.length; i++) {
+                if (!path[i].matches(names[i], indexes[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void discard() {
+            states.remove();
+            try {
+                generator.close();
+            } catch (IOException | RuntimeException ignored) {
+                // generator 处于异常状态, 丢弃即可
+            }
+        }
+    }
+
+    private static final class LimitReachedException extends RuntimeException {
+        private LimitReachedException() {
+            super("max chars reached", null, false, false);
+        }
+    }
+
+    /**
+     * 路径中的一段: 字段名、数组下标或通配符 *
+     */
+    private static final class Segment {
+        private static final int ANY_INDEX = -1;
+
+        @Nullable
+        private final String name;
+        private final int index;
+        private final boolean wildcard;
+
+        private Segment(@Nullable String name, int index, boolean wildcard) {
+            this.name = name;
+            this.index = index;
+            this.wildcard = wildcard;
+        }
+
+        boolean matches(@Nullable String name, int index) {
+            if (wildcard) {
+                return true;
+            }
+            if (this.name != null) {
+                return this.name.equals(name);
+            }
+            return name == null && (this.index == ANY_INDEX || this.index == index);
+        }
+
+        static Segment[] compile(String path) {
+            if (!path.startsWith("$")) {
+                throw new IllegalArgumentException("logbook.custom.masking.paths: path must start with $, " + path);
+            }
+            List<Segment> segments = new ArrayList<>();
+            int i = 1;
+            while (i < path.length()) {
+                char c = path.charAt(i);
+                if (c == '.') {
+                    int end = i + 1;
+                    while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                        end++;
+                    }
+                    String name = path.substring(i + 1, end);
+                    if (name.isEmpty()) {
+                        throw new IllegalArgumentException("logbook.custom.masking.paths: empty field in " + path);
+                    }
+                    segments.add("*".equals(name) ? new Segment(null, ANY_INDEX, true) : new Segment(name, 0, false));
+                    i = end;
+                } else if (c == '[') {
+                    int end = path.indexOf(']', i);
+                    if (end == -1) {
+                        throw new IllegalArgumentException("logbook.custom.masking.paths: unclosed [ in " + path);
+                    }
+                    segments.add(bracket(path, path.substring(i + 1, end).trim()));
+                    i = end + 1;
+                } else {
+                    throw new IllegalArgumentException("logbook.custom.masking.paths: unexpected '" + c + "' in " + path);
+                }
+            }
+            return segments.toArray(new Segment[0]);
+        }
+
+        private static Segment bracket(String path, String content) {
+            if ("*".equals(content)) {
+                return new Segment(null, ANY_INDEX, false);
+            }
+            if (content.length() > 1 && (content.charAt(0) == '\'' || content.charAt(0) == '"')
+                    && content.charAt(content.length() - 1) == content.charAt(0)) {
+                return new Segment(content.substring(1, content.length() - 1), 0, false);
+            }
+            try {
+                return new Segment(null, Integer.parseInt(content), false);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("logbook.custom.masking.paths: invalid index in " + path, e);
+            }
+        }
+
+    }
+
+}
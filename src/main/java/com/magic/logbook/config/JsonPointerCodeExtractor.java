@@ -0,0 +1,164 @@
+package com.magic.logbook.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.magic.logbook.policy.RoutePolicy;
+import org.springframework.util.CollectionUtils;
+import org.zalando.logbook.Conditions;
+import org.zalando.logbook.ForwardingHttpResponse;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * 基于 JSON pointer 的 code 提取: 直接在原始 byte[] 上用 {@link JsonParser} 流式扫描, 不解码响应体,
+ * 不匹配的字段整体跳过, 找到第一个命中的字段或超出扫描上限后立即停止.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 14:00
+ */
+public class JsonPointerCodeExtractor implements ResponseCodeExtractor {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final int maxScanBytes;
+    private final List<JsonPointer> defaultPointers;
+    private final List<Route> routes;
+
+    public JsonPointerCodeExtractor(LogbookCustomCodeProperties properties) {
+        this.maxScanBytes = properties.getMaxScanBytes();
+        this.defaultPointers = compile(properties.getPointers());
+        this.routes = properties.getRoutes().stream()
+                .map(route -> new Route(Conditions.requestTo(route.getPath()), compile(route.getPointers())))
+                .collect(Collectors.toList());
+    }
+
+    public static JsonPointerCodeExtractor defaultValue() {
+        return new JsonPointerCodeExtractor(new LogbookCustomCodeProperties());
+    }
+
+    @Override
+    @Nullable
+    public String extract(HttpRequest request, HttpResponse response) throws IOException {
+        // 跳过 BodyFilter, 直接取原始字节, 避免先解码成字符串再截断
+        HttpResponse source = response instanceof ForwardingHttpResponse ?
+                ((ForwardingHttpResponse) response).delegate() : response;
+        return extract(pointersOf(request), source.getBody());
+    }
+
+    @Nullable
+    public String extract(List<JsonPointer> pointers, byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        int length = maxScanBytes > 0 ? Math.min(body.length, maxScanBytes) : body.length;
+        for (JsonPointer pointer : pointers) {
+            String value = find(body, length, pointer);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    List<JsonPointer> pointersOf(HttpRequest request) {
+        RoutePolicy policy = RoutePolicy.find(request);
+        if (policy != null && policy.getCodePointers() != null) {
+            return policy.getCodePointers();
+        }
+        for (Route route : routes) {
+            if (route.condition.test(request)) {
+                return route.pointers;
+            }
+        }
+        return defaultPointers;
+    }
+
+    @Nullable
+    private static String find(byte[] body, int length, JsonPointer pointer) {
+        try (JsonParser parser = FACTORY.createParser(body, 0, length)) {
+            JsonPointer current = pointer;
+            JsonToken token = parser.nextToken();
+            while (token != null) {
+                if (current.matches()) {
+                    return token.isScalarValue() && token != JsonToken.VALUE_NULL ? parser.getText() : null;
+                }
+                if (token == JsonToken.START_OBJECT) {
+                    token = seekProperty(parser, current.getMatchingProperty());
+                } else if (token == JsonToken.START_ARRAY) {
+                    token = seekIndex(parser, current.getMatchingIndex());
+                } else {
+                    return null;
+                }
+                current = current.tail();
+            }
+            return null;
+        } catch (IOException e) {
+            // 非 json 或超出扫描上限被截断
+            return null;
+        }
+    }
+
+    /**
+     * 只在当前层级查找, 嵌套在其他字段里的同名 key 不会命中
+     */
+    @Nullable
+    private static JsonToken seekProperty(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (name.equals(field)) {
+                return value;
+            }
+            parser.skipChildren();
+        }
+        return null;
+    }
+
+    @Nullable
+    private static JsonToken seekIndex(JsonParser parser, int index) throws IOException {
+        if (index < 0) {
+            return null;
+        }
+        int i = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            if (i++ == index) {
+                return token;
+            }
+            parser.skipChildren();
+        }
+        return null;
+    }
+
+    static List<JsonPointer> compile(@Nullable List<String> pointers) {
+        if (CollectionUtils.isEmpty(pointers)) {
+            return Collections.emptyList();
+        }
+        List<JsonPointer> compiled = new ArrayList<>(pointers.size());
+        for (String pointer : pointers) {
+            compiled.add(JsonPointer.compile(pointer));
+        }
+        return Collections.unmodifiableList(compiled);
+    }
+
+    private static final class Route {
+        private final Predicate<HttpRequest> condition;
+        private final List<JsonPointer> pointers;
+
+        private Route(Predicate<HttpRequest> condition, List<JsonPointer> pointers) {
+            this.condition = condition;
+            this.pointers = pointers;
+        }
+    }
+
+}
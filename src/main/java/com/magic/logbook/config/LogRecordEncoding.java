@@ -0,0 +1,85 @@
+package com.magic.logbook.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 日志记录的编码. SMILE/CBOR 需要应用引入 jackson-dataformat-smile/jackson-dataformat-cbor,
+ * 只能写给 {@link BinaryHttpLogWriter}(mmap 分段文件或 unix socket).
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 07:00
+ */
+public enum LogRecordEncoding {
+
+    JSON,
+    SMILE,
+    CBOR;
+
+    public boolean isBinary() {
+        return this != JSON;
+    }
+
+    /**
+     * 按开头的字节判断记录的编码: Smile 以 ":)\n" 开头, CBOR 的记录是 map(0xa0-0xbf), 其余按 json 文本
+     */
+    public static LogRecordEncoding detect(byte[] record) {
+        if (record.length >= 3 && record[0] == ':' && record[1] == ')' && record[2] == '\n') {
+            return SMILE;
+        }
+        if (record.length > 0 && (record[0] & 0xe0) == 0xa0) {
+            return CBOR;
+        }
+        return JSON;
+    }
+
+    /**
+     * 转换为 json 文本, 供读取工具和 shipper 排查使用
+     */
+    public String toJson(byte[] record) throws IOException {
+        if (!isBinary()) {
+            return new String(record, StandardCharsets.UTF_8);
+        }
+        StringWriter writer = new StringWriter(record.length * 2);
+        try (JsonParser parser = factory().createParser(record);
+             JsonGenerator generator = Text.FACTORY.createGenerator(writer)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        }
+        return writer.toString();
+    }
+
+    JsonFactory factory() {
+        switch (this) {
+            case SMILE:
+                return Smile.FACTORY;
+            case CBOR:
+                return Cbor.FACTORY;
+            default:
+                return Text.FACTORY;
+        }
+    }
+
+    /**
+     * 各格式的 factory 在第一次使用时才加载, 没有引入对应依赖的应用不会触发 NoClassDefFoundError
+     */
+    private static final class Text {
+        private static final JsonFactory FACTORY = new JsonFactory();
+    }
+
+    private static final class Smile {
+        private static final JsonFactory FACTORY = new SmileFactory();
+    }
+
+    private static final class Cbor {
+        private static final JsonFactory FACTORY = new CBORFactory();
+    }
+
+}
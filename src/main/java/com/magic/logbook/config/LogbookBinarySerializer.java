@@ -0,0 +1,198 @@
+package com.magic.logbook.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.magic.logbook.capture.BodyCapture;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 输出 Smile/CBOR 编码的日志记录, 字段顺序与 json 相同. 每条记录是一个完整的文档(Smile 带头部, 字段名回引只在记录内),
+ * 可以单独解码.
+ * <p>
+ * json body 和合并模式下的请求部分在写入时逐个 token 转换为对应格式的结构, 不作为字符串嵌套;
+ * 小数按 BigDecimal 写出, 不改变精度. 不是合法 json 的按字符串输出, 中途解析失败时补齐未闭合的结构, 记录仍然可以解码.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 07:00
+ */
+public class LogbookBinarySerializer extends LogbookRecordSerializer<byte[]> {
+
+    /**
+     * 超过该大小的缓冲区用完后不再保留在线程上, 避免个别大报文长期占用内存
+     */
+    private static final int MAX_RETAINED_BYTES = 64 * 1024;
+
+    private final LogRecordEncoding encoding;
+    private final JsonFactory factory;
+    private final JsonFactory jsonFactory = LogRecordEncoding.JSON.factory();
+    /**
+     * 合并模式下的请求部分先按 json 保存, 嵌入时再转换
+     */
+    private final LogbookJsonSerializer sections = new LogbookJsonSerializer();
+
+    public LogbookBinarySerializer(LogRecordEncoding encoding) {
+        if (!encoding.isBinary()) {
+            throw new IllegalArgumentException("not a binary encoding: " + encoding);
+        }
+        this.encoding = encoding;
+        this.factory = encoding.factory();
+    }
+
+    @Override
+    public LogRecordEncoding getEncoding() {
+        return encoding;
+    }
+
+    @Override
+    public String writeSection(@Nullable Object body, @Nullable Map<String, List<String>> headers,
+                               @Nullable BodyCapture capture) throws IOException {
+        return sections.writeSection(body, headers, capture);
+    }
+
+    @Override
+    void writeRawJson(JsonGenerator generator, String json) throws IOException {
+        JsonStreamContext root = generator.getOutputContext();
+        boolean copied = false;
+        boolean pendingName = false;
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                generator.writeString(json);
+                return;
+            }
+            do {
+                if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    generator.writeNumber(parser.getDecimalValue());
+                } else {
+                    generator.copyCurrentEvent(parser);
+                }
+                pendingName = token == JsonToken.FIELD_NAME;
+                copied = true;
+            } while (generator.getOutputContext() != root && (token = parser.nextToken()) != null);
+        } catch (IOException e) {
+            if (!copied) {
+                generator.writeString(json);
+                return;
+            }
+        }
+        close(generator, root, pendingName);
+    }
+
+    /**
+     * 不完整的 json 已写出的部分保留, 补齐未闭合的对象和数组
+     */
+    private static void close(JsonGenerator generator, JsonStreamContext root, boolean pendingName)
+            throws IOException {
+        while (generator.getOutputContext() != root) {
+            if (generator.getOutputContext().inObject()) {
+                if (pendingName) {
+                    generator.writeNull();
+                }
+                generator.writeEndObject();
+            } else {
+                generator.writeEndArray();
+            }
+            pendingName = false;
+        }
+    }
+
+    @Override
+    BinaryOutput newOutput() {
+        return new BinaryOutput(factory);
+    }
+
+    private static final class BinaryOutput extends Output<byte[]> {
+        private final JsonFactory factory;
+        private final ByteBufferOutputStream stream = new ByteBufferOutputStream();
+        @Nullable
+        private JsonGenerator generator;
+
+        private BinaryOutput(JsonFactory factory) {
+            this.factory = factory;
+        }
+
+        /**
+         * 每条记录一个 generator, Smile 的头部和字段名回引表不能跨记录
+         */
+        @Override
+        JsonGenerator begin() throws IOException {
+            stream.reset();
+            generator = factory.createGenerator(stream);
+            return generator;
+        }
+
+        @Override
+        byte[] finish() throws IOException {
+            if (generator != null) {
+                generator.close();
+                generator = null;
+            }
+            return stream.toByteArray();
+        }
+
+        @Override
+        boolean isRetainable() {
+            return stream.capacity() <= MAX_RETAINED_BYTES;
+        }
+
+        @Override
+        void close() {
+            try {
+                if (generator != null) {
+                    generator.close();
+                }
+            } catch (IOException | RuntimeException ignored) {
+                // generator 处于异常状态, 丢弃即可
+            }
+        }
+    }
+
+    /**
+     * 可复用的 byte 缓冲区, 与 {@link java.io.ByteArrayOutputStream} 相同但不加锁.
+     */
+    static final class ByteBufferOutputStream extends OutputStream {
+        private byte[] buffer = new byte[1024];
+        private int length;
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(length + 1);
+            buffer[length++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int len) {
+            ensureCapacity(length + len);
+            System.arraycopy(bytes, offset, buffer, length, len);
+            length += len;
+        }
+
+        private void ensureCapacity(int required) {
+            if (required > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, required));
+            }
+        }
+
+        void reset() {
+            length = 0;
+        }
+
+        int capacity() {
+            return buffer.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, length);
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.magic.logbook.config;
+
+import com.magic.logbook.capture.httpclient.BoundedLogbookHttpRequestInterceptor;
+import com.magic.logbook.capture.httpclient.BoundedLogbookHttpResponseInterceptor;
+import com.magic.logbook.capture.servlet.BoundedLogbookFilter;
+import org.apache.http.client.HttpClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.zalando.logbook.Logbook;
+import org.zalando.logbook.autoconfigure.LogbookProperties;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.Servlet;
+
+/**
+ * 有界截取 body. servlet 和 httpclient 都是可选依赖, 分别放在内部配置类中, 缺少时不会加载对应的实现.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 20:00
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "logbook.custom.capture", name = "enabled", havingValue = "true")
+public class LogbookCaptureConfiguration {
+
+    /**
+     * 未配置截取大小时沿用 logbook.write.max-body-size, 两者都小于 0 时不限制
+     */
+    static int maxBodySize(LogbookCustomCaptureProperties captureProperties, LogbookProperties properties) {
+        if (captureProperties.getMaxBodySize() >= 0) {
+            return captureProperties.getMaxBodySize();
+        }
+        int maxBodySize = properties.getWrite().getMaxBodySize();
+        return maxBodySize >= 0 ? maxBodySize : Integer.MAX_VALUE - 1;
+    }
+
+    @Configuration
+    @ConditionalOnClass(Servlet.class)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnProperty(name = "logbook.filter.enabled", havingValue = "true", matchIfMissing = true)
+    static class ServletCaptureConfiguration {
+
+        /**
+         * 与 logbook 的 logbookFilter 同名, 注册后 logbook 不再注册自己的过滤器
+         */
+        @Bean
+        @ConditionalOnMissingBean(name = "logbookFilter")
+        public FilterRegistrationBean<BoundedLogbookFilter> logbookFilter(Logbook logbook,
+                                                                          LogbookCustomCaptureProperties captureProperties,
+                                                                          LogbookProperties properties,
+                                                                          ContentTypeClassifier classifier) {
+            BoundedLogbookFilter filter = new BoundedLogbookFilter(logbook, maxBodySize(captureProperties, properties),
+                    classifier);
+            FilterRegistrationBean<BoundedLogbookFilter> registration = new FilterRegistrationBean<>(filter);
+            registration.setName("logbookFilter");
+            registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+            registration.setOrder(Integer.MAX_VALUE);
+            return registration;
+        }
+
+    }
+
+    @Configuration
+    @ConditionalOnClass(HttpClient.class)
+    static class HttpClientCaptureConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(BoundedLogbookHttpRequestInterceptor.class)
+        public BoundedLogbookHttpRequestInterceptor boundedLogbookHttpRequestInterceptor(
+                Logbook logbook, LogbookCustomCaptureProperties captureProperties, LogbookProperties properties,
+                ContentTypeClassifier classifier) {
+            return new BoundedLogbookHttpRequestInterceptor(logbook, maxBodySize(captureProperties, properties),
+                    classifier);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean(BoundedLogbookHttpResponseInterceptor.class)
+        public BoundedLogbookHttpResponseInterceptor boundedLogbookHttpResponseInterceptor(
+                LogbookCustomCaptureProperties captureProperties, LogbookProperties properties,
+                ContentTypeClassifier classifier) {
+            return new BoundedLogbookHttpResponseInterceptor(maxBodySize(captureProperties, properties), classifier);
+        }
+
+    }
+
+}
@@ -1,5 +1,19 @@
 package com.magic.logbook.config;
 
+import com.magic.logbook.async.AsyncLogbookSink;
+import com.magic.logbook.dedup.BodyDeduplicator;
+import com.magic.logbook.encoding.BodyEncoder;
+import com.magic.logbook.encoding.GzipBodyEncoder;
+import com.magic.logbook.flight.FlightRecorder;
+import com.magic.logbook.index.ExchangeIndex;
+import com.magic.logbook.metrics.ExchangeMetrics;
+import com.magic.logbook.mmap.MappedSegmentLogWriter;
+import com.magic.logbook.overload.OverloadController;
+import com.magic.logbook.policy.RoutePolicies;
+import com.magic.logbook.policy.RoutePolicy;
+import com.magic.logbook.sampling.SamplingStrategy;
+import com.magic.logbook.socket.UnixSocketLogWriter;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -10,200 +24,156 @@ import org.springframework.context.annotation.Import;
 import org.zalando.logbook.*;
 import org.zalando.logbook.autoconfigure.LogbookProperties;
 
-import javax.annotation.Nullable;
 import java.io.IOException;
-import java.nio.charset.Charset;
+import java.nio.file.Paths;
 import java.util.*;
 
 import static org.zalando.logbook.BodyFilters.truncate;
 import static org.zalando.logbook.HeaderFilters.replaceHeaders;
 
 
-@Import({LogbookCustomRequestProperties.class, LogbookCustomResponseProperties.class})
+@Import({LogbookCustomRequestProperties.class, LogbookCustomResponseProperties.class, LogbookCustomAsyncProperties.class,
+        LogbookCustomCodeProperties.class, LogbookCustomSamplingProperties.class,
+        LogbookCustomMmapProperties.class, LogbookCustomMetricsProperties.class, LogbookMetricsConfiguration.class,
+        LogbookCustomCombinedProperties.class, LogbookCustomCaptureProperties.class, LogbookCaptureConfiguration.class,
+        LogbookCustomPolicyProperties.class, LogbookPolicyConfiguration.class, LogbookCustomEncodingProperties.class,
+        LogbookCustomContentTypeProperties.class, LogbookContentTypeConfiguration.class, LogbookCustomMaskingProperties.class,
+        LogbookCustomOverloadProperties.class, LogbookOverloadConfiguration.class,
+        LogbookCustomFormatProperties.class, LogbookCustomDedupProperties.class, LogbookDedupConfiguration.class,
+        LogbookCustomFlightRecorderProperties.class, LogbookFlightRecorderConfiguration.class,
+        LogbookCustomIndexProperties.class, LogbookIndexConfiguration.class})
 @Configuration
 @ConditionalOnProperty(prefix = "logbook.custom", name = "enabled", havingValue = "true", matchIfMissing = false)
 public class LogbookConfiguration {
 
-    private static final List<String> DEFAULT_REQUEST_HEADERS = Arrays.asList("Accept", "Content-Type", "X-Gravitee-Api-Key");
-    private static final List<String> DEFAULT_RESPONSE_HEADERS = Collections.singletonList("Content-Type");
+    static final List<String> DEFAULT_REQUEST_HEADERS = Arrays.asList("Accept", "Content-Type", "X-Gravitee-Api-Key");
+    static final List<String> DEFAULT_RESPONSE_HEADERS = Collections.singletonList("Content-Type");
 
     @Autowired
     private LogbookCustomRequestProperties requestProperties;
     @Autowired
     private LogbookCustomResponseProperties responseProperties;
     @Autowired
+    private LogbookCustomAsyncProperties asyncProperties;
+    @Autowired
+    private LogbookCustomCodeProperties codeProperties;
+    @Autowired
+    private LogbookCustomCombinedProperties combinedProperties;
+    @Autowired
+    private LogbookCustomEncodingProperties encodingProperties;
+    @Autowired
+    private LogbookCustomMaskingProperties maskingProperties;
+    @Autowired
+    private LogbookCustomFormatProperties formatProperties;
+    @Autowired
     private LogbookProperties properties;
+    /**
+     * 开启 logbook.custom.policy 时按路由过滤
+     */
+    @Autowired
+    private ObjectProvider<RoutePolicies> routePolicies;
 
 
     @Bean
     @ConditionalOnMissingBean(RequestFilter.class)
     public RequestFilter requestFilter() {
         RequestFilter requestFilter = RequestFilters.defaultValue();
-        return RequestFilter.merge(requestFilter, r -> new HttpRequest() {
-            @Override
-            public String getRequestUri() {
-                return r.getRequestUri();
-            }
-
-            @Override
-            public String getRemote() {
-                return r.getRemote();
-            }
-
-            @Override
-            public String getMethod() {
-                return r.getMethod();
-            }
-
-            @Override
-            public String getScheme() {
-                return r.getScheme();
-            }
-
-            @Override
-            public String getHost() {
-                return r.getHost();
-            }
-
-            @Override
-            public Optional<Integer> getPort() {
-                return r.getPort();
-            }
-
-            @Override
-            public String getPath() {
-                return r.getPath();
-            }
-
-            @Override
-            public String getQuery() {
-                return r.getQuery();
-            }
-
-            @Override
-            public HttpRequest withBody() throws IOException {
-                return r.withBody();
-            }
-
-            @Override
-            public HttpRequest withoutBody() {
-                return r.withoutBody();
-            }
-
-            @Override
-            public String getBodyAsString() throws IOException {
-                // https://github.com/zalando/logbook/issues/870
-                return new String(r.getBody());
-            }
-
-            @Override
-            public String getProtocolVersion() {
-                return r.getProtocolVersion();
-            }
-
-            @Override
-            public Origin getOrigin() {
-                return r.getOrigin();
-            }
-
-            @Override
-            public HttpHeaders getHeaders() {
-                return requestProperties.getHeaderStrategy().filterHeader(r.getHeaders(), DEFAULT_REQUEST_HEADERS,
-                        requestProperties.getCustomHeaders());
-            }
-
-            @Override
-            @Nullable
-            public String getContentType() {
-                return r.getContentType();
-            }
-
-            @Override
-            public Charset getCharset() {
-                return r.getCharset();
-            }
-
-            @Override
-            public byte[] getBody() throws IOException {
-                return r.getBody();
-            }
-        });
+        RoutePolicies policies = routePolicies.getIfAvailable();
+        if (policies != null) {
+            return RequestFilter.merge(requestFilter, r -> {
+                RoutePolicy policy = policies.resolve(r);
+                return new LogbookHttpRequestWrapper(r, policy.getRequestHeaderFilter(), policy);
+            });
+        }
+        HeaderFilter headerFilter = requestProperties.getHeaderStrategy().compile(DEFAULT_REQUEST_HEADERS,
+                requestProperties.getCustomHeaders());
+        return RequestFilter.merge(requestFilter, r -> new LogbookHttpRequestWrapper(r, headerFilter));
     }
 
     @Bean
     @ConditionalOnMissingBean(ResponseFilter.class)
     public ResponseFilter responseFilter() {
         ResponseFilter responseFilter = ResponseFilters.defaultValue();
-        return ResponseFilter.merge(responseFilter, r -> new HttpResponse() {
-            @Override
-            public String getReasonPhrase() {
-                return r.getReasonPhrase();
-            }
-
-            @Override
-            public String getBodyAsString() throws IOException {
-                // https://github.com/zalando/logbook/issues/870
-                return new String(r.getBody());
-            }
-
-            @Override
-            public int getStatus() {
-                return r.getStatus();
-            }
-
-            @Override
-            public HttpResponse withBody() throws IOException {
-                return r.withBody();
-            }
-
-            @Override
-            public HttpResponse withoutBody() {
-                return r.withoutBody();
-            }
-
-            @Override
-            public String getProtocolVersion() {
-                return r.getProtocolVersion();
-            }
-
-            @Override
-            public Origin getOrigin() {
-                return r.getOrigin();
-            }
-
-            @Override
-            public HttpHeaders getHeaders() {
-                return responseProperties.getHeaderStrategy().filterHeader(r.getHeaders(), DEFAULT_RESPONSE_HEADERS,
+        // 响应上拿不到请求, 按路由的响应头过滤在 sink 中进行
+        HeaderFilter headerFilter = routePolicies.getIfAvailable() != null ? HeaderFilter.none() :
+                responseProperties.getHeaderStrategy().compile(DEFAULT_RESPONSE_HEADERS,
                         responseProperties.getCustomHeaders());
-            }
-
-            @Override
-            @Nullable
-            public String getContentType() {
-                return r.getContentType();
-            }
-
-            @Override
-            public Charset getCharset() {
-                return r.getCharset();
-            }
-
-            @Override
-            public byte[] getBody() throws IOException {
-                return r.getBody();
-            }
-        });
+        return ResponseFilter.merge(responseFilter, r -> new LogbookHttpResponseWrapper(r, headerFilter));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(Strategy.class)
+    @ConditionalOnProperty(prefix = "logbook.custom.sampling", name = "enabled", havingValue = "true")
+    public Strategy samplingStrategy(LogbookCustomSamplingProperties samplingProperties) {
+        return new SamplingStrategy(samplingProperties, routePolicies.getIfAvailable());
     }
 
     @Bean
-    public HttpLogWriter httpLogWriter() {
+    public HttpLogWriter httpLogWriter(LogbookCustomMmapProperties mmapProperties) throws IOException {
+        LogbookCustomFormatProperties.Socket socket = formatProperties.getSocket();
+        if (socket.isEnabled()) {
+            return new UnixSocketLogWriter(Paths.get(socket.getPath()), socket.getReconnectIntervalMillis());
+        }
+        if (mmapProperties.isEnabled()) {
+            return new MappedSegmentLogWriter(mmapProperties);
+        }
         return new HttpInfoLevelLogWriter();
     }
 
+    @Bean
+    @ConditionalOnMissingBean(ResponseCodeExtractor.class)
+    public ResponseCodeExtractor responseCodeExtractor() {
+        return new JsonPointerCodeExtractor(codeProperties);
+    }
+
+    /**
+     * 按 Content-Type 决定 body 的处理方式, sink 和有界截取共用
+     */
+    @Bean
+    @ConditionalOnMissingBean(ContentTypeClassifier.class)
+    public ContentTypeClassifier contentTypeClassifier(LogbookCustomContentTypeProperties contentTypeProperties) {
+        return ContentTypeClassifier.of(contentTypeProperties);
+    }
+
     @Bean
     @ConditionalOnMissingBean(Sink.class)
-    public Sink sink(@Autowired HttpLogWriter httpLogWriter, @Value("${spring.application.name:unknown}") String appName) {
-        return new LogbookSink(httpLogWriter, appName);
+    public Sink sink(@Autowired HttpLogWriter httpLogWriter, @Autowired ResponseCodeExtractor responseCodeExtractor,
+                     ObjectProvider<ExchangeMetrics> exchangeMetrics, ContentTypeClassifier classifier,
+                     ObjectProvider<OverloadController> overloadController,
+                     ObjectProvider<BodyDeduplicator> bodyDeduplicator,
+                     ObjectProvider<FlightRecorder> flightRecorder,
+                     ObjectProvider<ExchangeIndex> exchangeIndex,
+                     @Value("${spring.application.name:unknown}") String appName) {
+        OverloadController overload = overloadController.getIfAvailable(OverloadController::none);
+        LogbookSink sink = LogbookSink.builder(httpLogWriter, appName)
+                .codeExtractor(responseCodeExtractor)
+                .metrics(exchangeMetrics.getIfAvailable(ExchangeMetrics::none))
+                .combined(combinedProperties)
+                .reordered(asyncProperties.isEnabled() && asyncProperties.getWorkers() > 1)
+                .bodyEncoder(bodyEncoder())
+                .classifier(classifier)
+                .overload(overload)
+                .serializer(LogbookRecordSerializer.of(formatProperties.getEncoding()))
+                .deduplicator(bodyDeduplicator.getIfAvailable(BodyDeduplicator::none))
+                .recorder(flightRecorder.getIfAvailable())
+                .index(exchangeIndex.getIfAvailable(ExchangeIndex::none))
+                .build();
+        if (asyncProperties.isEnabled()) {
+            AsyncLogbookSink asyncSink = new AsyncLogbookSink(sink, httpLogWriter, asyncProperties, classifier);
+            // 队列的积压作为写出端的压力
+            overload.bindBacklog(() -> (double) asyncSink.getQueueSize() / asyncSink.getQueueCapacity());
+            return asyncSink;
+        }
+        return sink;
+    }
+
+    private BodyEncoder bodyEncoder() {
+        if (!encodingProperties.isEnabled()) {
+            return BodyEncoder.none();
+        }
+        int poolSize = encodingProperties.getPoolSize() > 0 ? encodingProperties.getPoolSize() :
+                Runtime.getRuntime().availableProcessors();
+        return new GzipBodyEncoder(encodingProperties.getMinBodySize(), encodingProperties.getLevel(), poolSize);
     }
 
     @Bean
@@ -234,12 +204,17 @@ public class LogbookConfiguration {
     public BodyFilter bodyFilter() {
         final LogbookProperties.Write write = properties.getWrite();
         final int maxBodySize = write.getMaxBodySize();
-
-        if (maxBodySize < 0) {
-            return BodyFilter.none();
+        // 开启 logbook.custom.policy 时由 sink 按路由截断
+        final boolean truncate = maxBodySize >= 0 && routePolicies.getIfAvailable() == null;
+        final BodyFilter masking = maskingProperties.isEnabled() ? new JsonMaskingBodyFilter(maskingProperties.getFields(),
+                maskingProperties.getPaths(), maskingProperties.getReplacement(),
+                maskingProperties.getMaxArrayElements(), truncate ? maxBodySize : -1) : BodyFilter.none();
+        if (!truncate) {
+            return masking;
         }
 
-        return BodyFilter.merge(BodyFilter.none(), truncate(maxBodySize));
+        // 先脱敏压缩, 截断的是压缩后的内容; json 在脱敏时已按同样的长度截断, 这里处理其余类型
+        return BodyFilter.merge(masking, truncate(maxBodySize));
     }
 
 
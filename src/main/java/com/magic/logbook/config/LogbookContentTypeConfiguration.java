@@ -0,0 +1,38 @@
+package com.magic.logbook.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.zalando.logbook.Strategy;
+
+/**
+ * 按 Content-Type 跳过的 body 不进入 logbook 的缓冲区: 实际使用的 Strategy(logbook.strategy、采样或应用自己定义的)
+ * 在这里统一包装为 {@link ContentTypeStrategy}, 与过载降级的包装方式相同.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 01:00
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "logbook.custom.content-type", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LogbookContentTypeConfiguration {
+
+    /**
+     * static, 不会让本配置类提前初始化; classifier 在包装时才获取
+     */
+    @Bean
+    public static BeanPostProcessor contentTypeStrategyPostProcessor(ObjectProvider<ContentTypeClassifier> classifier) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof Strategy && !(bean instanceof ContentTypeStrategy)) {
+                    return new ContentTypeStrategy((Strategy) bean,
+                            classifier.getIfAvailable(ContentTypeClassifier::defaultValue));
+                }
+                return bean;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.magic.logbook.config;
+
+import com.magic.logbook.async.OverflowPolicy;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("logbook.custom.async")
+public class LogbookCustomAsyncProperties {
+
+    /**
+     * 开启后, 业务线程只拷贝快照, 格式化和写日志交给后台线程
+     */
+    private boolean enabled = false;
+    /**
+     * 队列容量, 向上取整为 2 的幂
+     */
+    private int queueSize = 8192;
+    private int workers = 1;
+    /**
+     * 后台线程每次最多批量处理的记录数
+     */
+    private int batchSize = 256;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    /**
+     * SAMPLE 策略下的采样比例 1/sampleRate
+     */
+    private int sampleRate = 10;
+
+}
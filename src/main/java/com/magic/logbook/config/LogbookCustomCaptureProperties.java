@@ -0,0 +1,21 @@
+package com.magic.logbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("logbook.custom.capture")
+public class LogbookCustomCaptureProperties {
+
+    /**
+     * 开启后 servlet 过滤器和 httpclient 拦截器只缓存 body 的前 maxBodySize 个字节, 其余部分不经过日志缓冲
+     */
+    private boolean enabled = false;
+    /**
+     * 截取的字节数, 小于 0 时使用 logbook.write.max-body-size
+     */
+    private int maxBodySize = -1;
+
+}
@@ -0,0 +1,39 @@
+package com.magic.logbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties("logbook.custom.code")
+public class LogbookCustomCodeProperties {
+
+    /**
+     * 提取响应 code 时最多扫描的响应体字节数
+     */
+    private int maxScanBytes = 8192;
+    /**
+     * 默认的 code 位置(JSON pointer), 按顺序取第一个存在的值
+     */
+    private List<String> pointers = new ArrayList<>(Collections.singletonList("/code"));
+    /**
+     * 按路由覆盖 code 位置, 第一个匹配的生效
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Route {
+        /**
+         * 同 logbook.exclude 的写法, 例如 /legacy/**
+         */
+        private String path;
+        private List<String> pointers;
+    }
+
+}
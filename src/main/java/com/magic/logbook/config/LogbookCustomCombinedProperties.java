@@ -0,0 +1,25 @@
+package com.magic.logbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("logbook.custom.combined")
+public class LogbookCustomCombinedProperties {
+
+    /**
+     * 开启后每次请求只在响应时输出一条合并记录, 格式见 LogbookExchange
+     */
+    private boolean enabled = false;
+    /**
+     * 等待响应的请求最多保留的数量, 超出时请求按原来的方式单独输出
+     */
+    private int maxInFlight = 10000;
+    /**
+     * 超过该时间(毫秒)仍未收到响应的请求, 作为 orphan 记录输出
+     */
+    private long orphanTimeoutMillis = 60000;
+
+}
@@ -0,0 +1,40 @@
+package com.magic.logbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties("logbook.custom.content-type")
+public class LogbookCustomContentTypeProperties {
+    /**
+     * 关闭时所有非 json 的 body 都按字符串输出(原有行为)
+     */
+    private boolean enabled = true;
+    /**
+     * 自定义规则, 按顺序匹配, 优先于内置规则和 json 的快速判断
+     */
+    private List<Rule> rules = new ArrayList<>();
+    /**
+     * 规则都未命中时的处理方式
+     */
+    private BodyTreatment defaultTreatment = BodyTreatment.TEXT;
+    /**
+     * 没有 Content-Type 时的处理方式
+     */
+    private BodyTreatment missingTreatment = BodyTreatment.TEXT;
+
+    @Getter
+    @Setter
+    public static class Rule {
+        /**
+         * 媒体类型, 不含参数, 不区分大小写. 支持 image/*, application/*+xml, application/grpc* 这几种写法
+         */
+        private String pattern;
+        private BodyTreatment treatment;
+    }
+}
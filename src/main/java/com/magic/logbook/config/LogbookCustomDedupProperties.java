@@ -0,0 +1,29 @@
+package com.magic.logbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("logbook.custom.dedup")
+public class LogbookCustomDedupProperties {
+
+    /**
+     * 开启后窗口内重复的响应 body 只输出 {"bodyRef": hash}, 第一次完整输出时带上 bodyHash
+     */
+    private boolean enabled = false;
+    /**
+     * 响应 body 原始字节数不小于该值才去重
+     */
+    private int minBodySize = 1024;
+    /**
+     * 完整输出之后, 该时间内重复的 body 只输出引用, 过期后重新完整输出一次
+     */
+    private long windowMillis = 60000;
+    /**
+     * 最多记住的 body hash 个数, 超出后替换最早的
+     */
+    private int maxEntries = 4096;
+
+}
@@ -0,0 +1,29 @@
+package com.magic.logbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("logbook.custom.encoding")
+public class LogbookCustomEncodingProperties {
+
+    /**
+     * 开启后超过阈值的 body 按 gzip 压缩, base64 输出
+     */
+    private boolean enabled = false;
+    /**
+     * 压缩阈值, body 的 UTF-8 字节数. 1KB 以下的 json 压缩再 base64 后几乎不会变小, 见 BodyEncodingBenchmark
+     */
+    private int minBodySize = 1024;
+    /**
+     * 压缩级别 1-9, 1 最快
+     */
+    private int level = 1;
+    /**
+     * 复用的压缩器个数, 小于等于 0 时为 CPU 核数
+     */
+    private int poolSize = 0;
+
+}
@@ -0,0 +1,51 @@
+package com.magic.logbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties("logbook.custom.flight-recorder")
+public class LogbookCustomFlightRecorderProperties {
+
+    /**
+     * 开启后正常的请求/响应只输出元数据, 完整快照保存在内存中, 出错或慢响应时再完整输出
+     */
+    private boolean enabled = false;
+    /**
+     * 分段数(取 2 的幂), 按 trace id 分段
+     */
+    private int stripes = 16;
+    /**
+     * 每段最多保存的请求/响应数, 写满后覆盖最早的
+     */
+    private int slotsPerStripe = 64;
+    /**
+     * 每段快照占用内存的上限(按字符数估算), 总内存不超过 stripes * maxBytesPerStripe
+     */
+    private DataSize maxBytesPerStripe = DataSize.ofMegabytes(1);
+    /**
+     * 超过该耗时(毫秒)视为慢响应, 0 不启用
+     */
+    private long slowThresholdMillis = 3000;
+    /**
+     * 状态码不小于该值时完整输出
+     */
+    private int minErrorStatus = 500;
+    /**
+     * 视为成功的响应 code, 其余 code 完整输出, 为空时不按 code 判断
+     */
+    private List<String> successCodes = new ArrayList<>(Collections.singletonList("SUCCESS"));
+    /**
+     * 按顺序从这些请求头中取 trace id(traceparent 和 b3 取其中的 trace id 部分), 都没有时取业务线程 MDC 中的 traceId
+     */
+    private List<String> traceHeaders = new ArrayList<>(Arrays.asList("traceparent", "b3", "X-B3-TraceId"));
+
+}
@@ -0,0 +1,32 @@
+package com.magic.logbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("logbook.custom.format")
+public class LogbookCustomFormatProperties {
+
+    /**
+     * 日志记录的编码, SMILE/CBOR 需要引入对应的 jackson-dataformat 依赖, 且只能写入 mmap 或 socket
+     */
+    private LogRecordEncoding encoding = LogRecordEncoding.JSON;
+    private Socket socket = new Socket();
+
+    @Getter
+    @Setter
+    public static class Socket {
+        /**
+         * 开启后日志按 [int 长度][记录] 的帧写入本机的 unix domain socket, 优先于 mmap
+         */
+        private boolean enabled = false;
+        private String path = "/var/run/logbook/logbook.sock";
+        /**
+         * 连接失败或断开后的重连间隔, 期间的记录丢弃并计数
+         */
+        private long reconnectIntervalMillis = 1000;
+    }
+
+}
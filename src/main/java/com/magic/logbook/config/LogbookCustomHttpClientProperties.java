@@ -0,0 +1,80 @@
+package com.magic.logbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties("logbook.custom.http-client")
+public class LogbookCustomHttpClientProperties {
+
+    /**
+     * 注册带 logbook 拦截器的池化 HttpClient, 已有 HttpClient bean 时不生效
+     */
+    private boolean enabled = true;
+    /**
+     * 连接池最大连接数
+     */
+    private int maxTotal = 200;
+    /**
+     * 每个路由(scheme + host + port)的最大连接数
+     */
+    private int defaultMaxPerRoute = 50;
+    /**
+     * 按路由覆盖最大连接数
+     */
+    private List<Route> routes = new ArrayList<>();
+    /**
+     * 建立连接超时(毫秒)
+     */
+    private int connectTimeoutMillis = 6000;
+    /**
+     * 读取超时(毫秒)
+     */
+    private int socketTimeoutMillis = 6000;
+    /**
+     * 从连接池获取连接的超时(毫秒)
+     */
+    private int connectionRequestTimeoutMillis = 6000;
+    /**
+     * 连接空闲超过该时间(毫秒)后, 复用前先检查是否可用
+     */
+    private int validateAfterInactivityMillis = 3000;
+    /**
+     * 服务端未返回 Keep-Alive 时连接保持的时间(毫秒), 返回的值超过该时间时也以该值为准, 小于等于 0 时不限制
+     */
+    private long keepAliveMillis = 30000;
+    /**
+     * 空闲超过该时间(毫秒)的连接由后台线程关闭, 小于等于 0 时只关闭过期的连接
+     */
+    private long maxIdleMillis = 30000;
+    /**
+     * 后台线程检查过期、空闲连接的间隔(毫秒)
+     */
+    private long reaperIntervalMillis = 5000;
+    /**
+     * 注册 logbookHttpClientExecutor, JDK HttpClient 和 OkHttp 的 Dispatcher 在它上面执行, 异步客户端的日志也在它上面输出;
+     * 运行时支持(Java 21+)时为虚拟线程
+     */
+    private boolean virtualThreads = false;
+    /**
+     * 异步客户端(HttpClient 5、JDK HttpClient)在 I/O 线程之外格式化并写日志; 开启 logbook.custom.async 且队列满时不阻塞的情况下
+     * 直接交给异步 sink
+     */
+    private boolean offload = true;
+
+    @Getter
+    @Setter
+    public static class Route {
+        /**
+         * 例如 https://api.example.com 或 http://10.0.0.1:8080, 未写端口时按 scheme 取默认端口
+         */
+        private String url;
+        private int maxPerRoute;
+    }
+
+}
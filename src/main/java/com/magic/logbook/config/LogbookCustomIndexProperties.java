@@ -0,0 +1,38 @@
+package com.magic.logbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@ConfigurationProperties("logbook.custom.index")
+public class LogbookCustomIndexProperties {
+
+    /**
+     * 开启后 sink 写出的记录同时存入进程内的索引, 通过 actuator 端点 logbook 按 correlation/uri/status/code/调用方查询
+     */
+    private boolean enabled = false;
+    /**
+     * 堆外保存记录的环形缓冲区大小, 写满后覆盖最早的
+     */
+    private DataSize maxMemory = DataSize.ofMegabytes(16);
+    /**
+     * 最多索引的记录数(取 2 的幂), 堆上每条约 64 字节, 每个哈希桶 40 字节
+     */
+    private int maxEntries = 16384;
+    /**
+     * 编码后超过该大小的记录只保存索引字段, 不保存记录本身
+     */
+    private DataSize maxRecordSize = DataSize.ofKilobytes(16);
+    /**
+     * 超过该时间(毫秒)的记录不再返回
+     */
+    private long maxAgeMillis = 3600000;
+    /**
+     * 每页最多返回的记录数
+     */
+    private int maxPageSize = 100;
+
+}
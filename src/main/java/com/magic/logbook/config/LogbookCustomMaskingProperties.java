@@ -0,0 +1,35 @@
+package com.magic.logbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties("logbook.custom.masking")
+public class LogbookCustomMaskingProperties {
+    /**
+     * 开启后 json body 脱敏并去掉空白, 再按 logbook.write.max-body-size 截断
+     */
+    private boolean enabled = false;
+    /**
+     * 任意层级上出现的字段名
+     */
+    private List<String> fields = new ArrayList<>(Arrays.asList("password", "idCard", "token"));
+    /**
+     * 指定路径, 如 $.user.mobile, $.items[*].cardNo
+     */
+    private List<String> paths = new ArrayList<>();
+    /**
+     * 掩码
+     */
+    private String replacement = "******";
+    /**
+     * 数组最多保留的元素个数, 小于 0 不限制
+     */
+    private int maxArrayElements = -1;
+}
@@ -0,0 +1,45 @@
+package com.magic.logbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties("logbook.custom.metrics")
+public class LogbookCustomMetricsProperties {
+
+    /**
+     * 开启后按接口记录耗时和 status/code 计数到 Micrometer, 需要引入 micrometer-core
+     */
+    private boolean enabled = false;
+    /**
+     * 耗时的百分位, 由 HdrHistogram 在本地计算
+     */
+    private List<Double> percentiles = new ArrayList<>(Arrays.asList(0.5, 0.9, 0.99));
+    /**
+     * 同时发布直方图桶, 用于 Prometheus 等在服务端聚合百分位
+     */
+    private boolean percentileHistogram = false;
+    /**
+     * URI 模板, 例如 /orders/{id}, 优先于自动识别; 只支持按段匹配
+     */
+    private List<String> uriTemplates = new ArrayList<>();
+    /**
+     * 最多记录的接口数(uri + method + origin), 超出的归入 uri=OTHER
+     */
+    private int maxEndpoints = 500;
+    /**
+     * 每个接口最多记录的 code 数, 超出的归入 code=OTHER
+     */
+    private int maxCodes = 50;
+    /**
+     * 原始 path 到 URI 模板的缓存大小
+     */
+    private int uriCacheSize = 4096;
+
+}
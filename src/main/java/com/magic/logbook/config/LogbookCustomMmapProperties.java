@@ -0,0 +1,32 @@
+package com.magic.logbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@ConfigurationProperties("logbook.custom.mmap")
+public class LogbookCustomMmapProperties {
+
+    /**
+     * 开启后日志不再经过 slf4j, 直接写入内存映射的分段文件
+     */
+    private boolean enabled = false;
+    private String directory = "logs/logbook";
+    private String prefix = "logbook";
+    /**
+     * 单个分段文件的大小, 写满后滚动到下一个
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+    /**
+     * 最多保留的分段文件数, 超出后删除最旧的
+     */
+    private int maxSegments = 16;
+    /**
+     * 每批写入后是否强制刷盘, 只防操作系统崩溃, 进程崩溃时映射的内容不会丢失
+     */
+    private boolean forceOnFlush = false;
+
+}
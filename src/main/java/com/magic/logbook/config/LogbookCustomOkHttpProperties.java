@@ -0,0 +1,49 @@
+package com.magic.logbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("logbook.custom.okhttp")
+public class LogbookCustomOkHttpProperties {
+
+    /**
+     * 引入 okhttp 时注册带 logbook 拦截器的 OkHttpClient, 已有 OkHttpClient bean 时不生效
+     */
+    private boolean enabled = true;
+    /**
+     * 连接池最多保留的空闲连接数
+     */
+    private int maxIdleConnections = 50;
+    /**
+     * 空闲连接保持的时间(毫秒)
+     */
+    private long keepAliveMillis = 30000;
+    /**
+     * Dispatcher 异步调用的最大并发数
+     */
+    private int maxRequests = 200;
+    /**
+     * Dispatcher 对同一个 host 的异步调用最大并发数
+     */
+    private int maxRequestsPerHost = 50;
+    /**
+     * 建立连接超时(毫秒)
+     */
+    private long connectTimeoutMillis = 6000;
+    /**
+     * 读取超时(毫秒)
+     */
+    private long readTimeoutMillis = 6000;
+    /**
+     * 写入超时(毫秒)
+     */
+    private long writeTimeoutMillis = 6000;
+    /**
+     * 整个调用(含重定向、重试)的超时(毫秒), 0 不限制
+     */
+    private long callTimeoutMillis = 0;
+
+}
@@ -0,0 +1,41 @@
+package com.magic.logbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("logbook.custom.overload")
+public class LogbookCustomOverloadProperties {
+
+    /**
+     * 开启后按 sink 自身的开销和异步队列的积压自动降低日志的详细程度: 完整 -> 不含 body -> 只有元数据 -> 只记录错误
+     */
+    private boolean enabled = false;
+    /**
+     * 每条记录在 sink 中格式化并写出的平均耗时(微秒)超过该值视为过载
+     */
+    private long maxRecordCostMicros = 500;
+    /**
+     * 异步队列(logbook.custom.async)的占用比例超过该值视为过载, 未开启异步时不生效
+     */
+    private double maxBacklogRatio = 0.5;
+    /**
+     * 压力(耗时和积压相对于上面阈值的比例, 取较大者)低于该值才算恢复, 与降级阈值 1 之间的差距避免来回切换
+     */
+    private double recoverRatio = 0.5;
+    /**
+     * 评估间隔(毫秒), 每个间隔最多降一级
+     */
+    private long evaluateIntervalMillis = 1000;
+    /**
+     * 持续恢复该时长(毫秒)后才升一级
+     */
+    private long recoverIntervalMillis = 10000;
+    /**
+     * 只记录错误时, status 不小于该值的响应才记录
+     */
+    private int minErrorStatus = 500;
+
+}
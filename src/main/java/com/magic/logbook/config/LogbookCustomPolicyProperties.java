@@ -0,0 +1,52 @@
+package com.magic.logbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties("logbook.custom.policy")
+public class LogbookCustomPolicyProperties {
+
+    /**
+     * 开启后按路由决定是否记录、body 大小和 header 策略
+     */
+    private boolean enabled = false;
+    /**
+     * 启动时编译成路径前缀树, 同时命中多条时先声明的生效, 未配置的项沿用全局配置
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Route {
+        /**
+         * 同 logbook.exclude 的写法, 例如 /payments/**, 只匹配路径
+         */
+        private String path;
+        /**
+         * 不记录该路由
+         */
+        private Boolean exclude;
+        /**
+         * 输出的 body 最大字符数, 小于 0 不限制, 0 不输出 body, 默认 logbook.write.max-body-size
+         */
+        private Integer maxBodySize;
+        private LogbookHeaderStrategy requestHeaderStrategy;
+        private LogbookHeaderStrategy responseHeaderStrategy;
+        /**
+         * 采样比例和每秒最多记录数, 需开启 logbook.custom.sampling
+         */
+        private Double ratio;
+        private Double permitsPerSecond;
+        /**
+         * 响应 code 的位置(JSON pointer)
+         */
+        private List<String> codePointers;
+    }
+
+}
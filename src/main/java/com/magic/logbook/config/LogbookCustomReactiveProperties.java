@@ -0,0 +1,21 @@
+package com.magic.logbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("logbook.custom.reactive")
+public class LogbookCustomReactiveProperties {
+
+    /**
+     * 引入 spring-webflux 时记录 WebFlux 服务端和 WebClient 的请求, body 截取大小同 logbook.custom.capture
+     */
+    private boolean enabled = true;
+    /**
+     * 在 event loop 之外格式化并写日志; 开启 logbook.custom.async 且队列满时不阻塞的情况下直接交给异步 sink
+     */
+    private boolean offload = true;
+
+}
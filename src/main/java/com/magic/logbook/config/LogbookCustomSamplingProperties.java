@@ -0,0 +1,53 @@
+package com.magic.logbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties("logbook.custom.sampling")
+public class LogbookCustomSamplingProperties {
+
+    /**
+     * 开启后替换 logbook.strategy, 未被采样的请求不会缓存 body
+     */
+    private boolean enabled = false;
+    /**
+     * 采样比例, 1 表示全部记录
+     */
+    private double ratio = 1.0;
+    /**
+     * 每个路由每秒最多记录的请求数, 0 表示不限制
+     */
+    private double permitsPerSecond = 0;
+    /**
+     * 非 2xx 的请求总是记录
+     */
+    private boolean alwaysLogErrors = true;
+    /**
+     * 耗时超过该值(毫秒)的请求总是记录, 0 表示不启用
+     */
+    private long slowThresholdMillis = 0;
+    /**
+     * 按路由覆盖以上配置, 第一个匹配的生效, 未配置的项沿用全局配置
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Route {
+        /**
+         * 同 logbook.exclude 的写法, 例如 /search/**
+         */
+        private String path;
+        private Double ratio;
+        private Double permitsPerSecond;
+        private Boolean alwaysLogErrors;
+        private Long slowThresholdMillis;
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.magic.logbook.config;
+
+import com.magic.logbook.dedup.BodyDeduplicator;
+import com.magic.logbook.dedup.WindowedBodyDeduplicator;
+import com.magic.logbook.metrics.BodyDedupMetrics;
+import com.magic.logbook.metrics.MicrometerBodyDedupMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 响应 body 去重, 参数见 {@link LogbookCustomDedupProperties}, sink 中的使用见 LogbookConfiguration#sink.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 08:00
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "logbook.custom.dedup", name = "enabled", havingValue = "true")
+public class LogbookDedupConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(BodyDeduplicator.class)
+    public WindowedBodyDeduplicator bodyDeduplicator(LogbookCustomDedupProperties dedupProperties,
+                                                     ObjectProvider<BodyDedupMetrics> dedupMetrics) {
+        WindowedBodyDeduplicator deduplicator = new WindowedBodyDeduplicator(dedupProperties.getMinBodySize(),
+                dedupProperties.getWindowMillis(), dedupProperties.getMaxEntries());
+        dedupMetrics.getIfAvailable(BodyDedupMetrics::none).bind(deduplicator);
+        return deduplicator;
+    }
+
+    /**
+     * 去重的指标, 引入 micrometer 时注册
+     */
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    static class BodyDedupMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(BodyDedupMetrics.class)
+        public BodyDedupMetrics bodyDedupMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+            return new MicrometerBodyDedupMetrics(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+        }
+
+    }
+
+}
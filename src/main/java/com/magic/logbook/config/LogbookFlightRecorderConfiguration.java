@@ -0,0 +1,50 @@
+package com.magic.logbook.config;
+
+import com.magic.logbook.flight.FlightRecorder;
+import com.magic.logbook.metrics.FlightRecorderMetrics;
+import com.magic.logbook.metrics.MicrometerFlightRecorderMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 飞行记录, 参数见 {@link LogbookCustomFlightRecorderProperties}, sink 中的使用见 LogbookConfiguration#sink.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 09:00
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "logbook.custom.flight-recorder", name = "enabled", havingValue = "true")
+public class LogbookFlightRecorderConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(FlightRecorder.class)
+    public FlightRecorder flightRecorder(LogbookCustomFlightRecorderProperties flightRecorderProperties,
+                                         ContentTypeClassifier classifier,
+                                         ObjectProvider<FlightRecorderMetrics> flightRecorderMetrics) {
+        FlightRecorder recorder = new FlightRecorder(flightRecorderProperties, classifier);
+        flightRecorderMetrics.getIfAvailable(FlightRecorderMetrics::none).bind(recorder);
+        return recorder;
+    }
+
+    /**
+     * 飞行记录的指标, 引入 micrometer 时注册
+     */
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    static class FlightRecorderMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(FlightRecorderMetrics.class)
+        public FlightRecorderMetrics flightRecorderMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+            return new MicrometerFlightRecorderMetrics(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+        }
+
+    }
+
+}
@@ -1,37 +1,36 @@
 package com.magic.logbook.config;
 
 import org.springframework.util.CollectionUtils;
+import org.zalando.logbook.HeaderFilter;
 import org.zalando.logbook.HttpHeaders;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 public enum LogbookHeaderStrategy {
 
     ALL {
-        public HttpHeaders filterHeader(HttpHeaders httpHeaders, List<String> defaultHeaders, List<String> customHeaders) {
-            return httpHeaders;
+        public HeaderFilter compile(List<String> defaultHeaders, List<String> customHeaders) {
+            return HeaderFilter.none();
         }
     },
     NONE {
-        public HttpHeaders filterHeader(HttpHeaders httpHeaders, List<String> defaultHeaders, List<String> customHeaders) {
-            return HttpHeaders.empty();
+        public HeaderFilter compile(List<String> defaultHeaders, List<String> customHeaders) {
+            return headers -> HttpHeaders.empty();
         }
     },
     DEFAULT {
-        public HttpHeaders filterHeader(HttpHeaders httpHeaders, List<String> defaultHeaders, List<String> customHeaders) {
-            return filterVisibleHeader(httpHeaders, defaultHeaders);
+        public HeaderFilter compile(List<String> defaultHeaders, List<String> customHeaders) {
+            return HeaderAllowlist.of(defaultHeaders);
         }
     },
     CUSTOM {
-        public HttpHeaders filterHeader(HttpHeaders httpHeaders, List<String> defaultHeaders, List<String> customHeaders) {
-            return filterVisibleHeader(httpHeaders, customHeaders);
+        public HeaderFilter compile(List<String> defaultHeaders, List<String> customHeaders) {
+            return HeaderAllowlist.of(customHeaders);
         }
     },
     DEFAULT_AND_CUSTOM {
-        public HttpHeaders filterHeader(HttpHeaders httpHeaders, List<String> defaultHeaders, List<String> customHeaders) {
+        public HeaderFilter compile(List<String> defaultHeaders, List<String> customHeaders) {
             List<String> limitVisibleHeaders = new ArrayList<>();
             if (!CollectionUtils.isEmpty(defaultHeaders)) {
                 limitVisibleHeaders.addAll(defaultHeaders);
@@ -39,20 +38,21 @@ public enum LogbookHeaderStrategy {
             if (!CollectionUtils.isEmpty(customHeaders)) {
                 limitVisibleHeaders.addAll(customHeaders);
             }
-            return filterVisibleHeader(httpHeaders, limitVisibleHeaders);
+            return HeaderAllowlist.of(limitVisibleHeaders);
         }
     },
     ;
 
-    public abstract HttpHeaders filterHeader(HttpHeaders httpHeaders, List<String> defaultHeaders, List<String> customHeaders);
+    /**
+     * 编译出该策略对应的 header 过滤器, 应在启动时调用一次并复用, header 名忽略大小写.
+     */
+    public abstract HeaderFilter compile(List<String> defaultHeaders, List<String> customHeaders);
 
-    private static HttpHeaders filterVisibleHeader(HttpHeaders httpHeaders, List<String> limitVisibleHeaders) {
-        if (CollectionUtils.isEmpty(limitVisibleHeaders)) {
-            return HttpHeaders.empty();
-        }
-        Set<String> keySet = new HashSet<>(httpHeaders.keySet());
-        keySet.removeIf(limitVisibleHeaders::contains);
-        return httpHeaders.delete(keySet);
+    /**
+     * 每次调用都会重新编译白名单, 频繁调用时请使用 {@link #compile(List, List)}
+     */
+    public HttpHeaders filterHeader(HttpHeaders httpHeaders, List<String> defaultHeaders, List<String> customHeaders) {
+        return compile(defaultHeaders, customHeaders).filter(httpHeaders);
     }
 
 }
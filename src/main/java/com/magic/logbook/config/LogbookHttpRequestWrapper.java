@@ -0,0 +1,156 @@
+package com.magic.logbook.config;
+
+import com.magic.logbook.policy.RoutePolicy;
+import org.zalando.logbook.ForwardingHttpRequest;
+import org.zalando.logbook.HeaderFilter;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.Origin;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Optional;
+
+/**
+ * 按 header 策略过滤请求头, 并按 Content-Type 声明的 charset 解码请求体.
+ * 过滤后的 header 和解码后的 body 在同一个请求内只计算一次, 只需要字节时不会解码.
+ * 开启 logbook.custom.policy 时同时携带匹配到的路由策略.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 15:00
+ */
+public class LogbookHttpRequestWrapper implements ForwardingHttpRequest, RoutePolicy.Carrier {
+
+    private final HttpRequest request;
+    private final HeaderFilter headerFilter;
+    @Nullable
+    private final RoutePolicy policy;
+
+    private HttpHeaders headers;
+    private Charset charset;
+    private byte[] decodedBody;
+    private String body;
+
+    public LogbookHttpRequestWrapper(HttpRequest request, HeaderFilter headerFilter) {
+        this(request, headerFilter, null);
+    }
+
+    public LogbookHttpRequestWrapper(HttpRequest request, HeaderFilter headerFilter, @Nullable RoutePolicy policy) {
+        this.request = request;
+        this.headerFilter = headerFilter;
+        this.policy = policy;
+    }
+
+    @Override
+    public HttpRequest delegate() {
+        return request;
+    }
+
+    @Override
+    @Nullable
+    public RoutePolicy getRoutePolicy() {
+        return policy;
+    }
+
+    @Override
+    public String getRequestUri() {
+        return request.getRequestUri();
+    }
+
+    @Override
+    public String getRemote() {
+        return request.getRemote();
+    }
+
+    @Override
+    public String getMethod() {
+        return request.getMethod();
+    }
+
+    @Override
+    public String getScheme() {
+        return request.getScheme();
+    }
+
+    @Override
+    public String getHost() {
+        return request.getHost();
+    }
+
+    @Override
+    public Optional<Integer> getPort() {
+        return request.getPort();
+    }
+
+    @Override
+    public String getPath() {
+        return request.getPath();
+    }
+
+    @Override
+    public String getQuery() {
+        return request.getQuery();
+    }
+
+    @Override
+    public HttpRequest withBody() throws IOException {
+        HttpRequest withBody = request.withBody();
+        return withBody == request ? this : new LogbookHttpRequestWrapper(withBody, headerFilter, policy);
+    }
+
+    @Override
+    public HttpRequest withoutBody() {
+        HttpRequest withoutBody = request.withoutBody();
+        return withoutBody == request ? this : new LogbookHttpRequestWrapper(withoutBody, headerFilter, policy);
+    }
+
+    @Override
+    public String getBodyAsString() throws IOException {
+        byte[] bytes = request.getBody();
+        // 以 byte[] 的引用判断 body 是否变化, 缓冲未完成前读取到的内容不会被缓存住
+        if (bytes != decodedBody) {
+            body = new String(bytes, getCharset());
+            decodedBody = bytes;
+        }
+        return body;
+    }
+
+    @Override
+    public String getProtocolVersion() {
+        return request.getProtocolVersion();
+    }
+
+    @Override
+    public Origin getOrigin() {
+        return request.getOrigin();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        if (headers == null) {
+            headers = headerFilter.filter(request.getHeaders());
+        }
+        return headers;
+    }
+
+    @Override
+    @Nullable
+    public String getContentType() {
+        return request.getContentType();
+    }
+
+    @Override
+    public Charset getCharset() {
+        if (charset == null) {
+            charset = ContentTypes.charsetOf(request.getContentType());
+        }
+        return charset;
+    }
+
+    @Override
+    public byte[] getBody() throws IOException {
+        return request.getBody();
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.magic.logbook.config;
+
+import org.zalando.logbook.ForwardingHttpResponse;
+import org.zalando.logbook.HeaderFilter;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Origin;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * 响应版本的 {@link LogbookHttpRequestWrapper}.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 15:00
+ */
+public class LogbookHttpResponseWrapper implements ForwardingHttpResponse {
+
+    private final HttpResponse response;
+    private final HeaderFilter headerFilter;
+
+    private HttpHeaders headers;
+    private Charset charset;
+    private byte[] decodedBody;
+    private String body;
+
+    public LogbookHttpResponseWrapper(HttpResponse response, HeaderFilter headerFilter) {
+        this.response = response;
+        this.headerFilter = headerFilter;
+    }
+
+    @Override
+    public HttpResponse delegate() {
+        return response;
+    }
+
+    @Override
+    public String getReasonPhrase() {
+        return response.getReasonPhrase();
+    }
+
+    @Override
+    public String getBodyAsString() throws IOException {
+        byte[] bytes = response.getBody();
+        if (bytes != decodedBody) {
+            body = new String(bytes, getCharset());
+            decodedBody = bytes;
+        }
+        return body;
+    }
+
+    @Override
+    public int getStatus() {
+        return response.getStatus();
+    }
+
+    @Override
+    public HttpResponse withBody() throws IOException {
+        HttpResponse withBody = response.withBody();
+        return withBody == response ? this : new LogbookHttpResponseWrapper(withBody, headerFilter);
+    }
+
+    @Override
+    public HttpResponse withoutBody() {
+        HttpResponse withoutBody = response.withoutBody();
+        return withoutBody == response ? this : new LogbookHttpResponseWrapper(withoutBody, headerFilter);
+    }
+
+    @Override
+    public String getProtocolVersion() {
+        return response.getProtocolVersion();
+    }
+
+    @Override
+    public Origin getOrigin() {
+        return response.getOrigin();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        if (headers == null) {
+            headers = headerFilter.filter(response.getHeaders());
+        }
+        return headers;
+    }
+
+    @Override
+    @Nullable
+    public String getContentType() {
+        return response.getContentType();
+    }
+
+    @Override
+    public Charset getCharset() {
+        if (charset == null) {
+            charset = ContentTypes.charsetOf(response.getContentType());
+        }
+        return charset;
+    }
+
+    @Override
+    public byte[] getBody() throws IOException {
+        return response.getBody();
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.magic.logbook.config;
+
+import com.magic.logbook.index.LogbookIndexEndpoint;
+import com.magic.logbook.index.OffHeapExchangeIndex;
+import com.magic.logbook.metrics.ExchangeIndexMetrics;
+import com.magic.logbook.metrics.MicrometerExchangeIndexMetrics;
+import com.magic.logbook.metrics.UriTemplateNormalizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 记录索引, 参数见 {@link LogbookCustomIndexProperties}, URI 模板与指标共用 logbook.custom.metrics.uri-templates.
+ * actuator 是可选依赖, 没有 actuator 或端点未暴露时只写入索引.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 10:00
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "logbook.custom.index", name = "enabled", havingValue = "true")
+public class LogbookIndexConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(OffHeapExchangeIndex.class)
+    public OffHeapExchangeIndex exchangeIndex(LogbookCustomIndexProperties indexProperties,
+                                              LogbookCustomMetricsProperties metricsProperties,
+                                              ObjectProvider<ExchangeIndexMetrics> exchangeIndexMetrics) {
+        OffHeapExchangeIndex index = new OffHeapExchangeIndex(indexProperties,
+                new UriTemplateNormalizer(metricsProperties.getUriTemplates(), metricsProperties.getUriCacheSize()));
+        exchangeIndexMetrics.getIfAvailable(ExchangeIndexMetrics::none).bind(index);
+        return index;
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class IndexEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(LogbookIndexEndpoint.class)
+        @ConditionalOnAvailableEndpoint(endpoint = LogbookIndexEndpoint.class)
+        public LogbookIndexEndpoint logbookIndexEndpoint(OffHeapExchangeIndex exchangeIndex) {
+            return new LogbookIndexEndpoint(exchangeIndex);
+        }
+
+    }
+
+    /**
+     * 记录索引的指标, 引入 micrometer 时注册
+     */
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    static class ExchangeIndexMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(ExchangeIndexMetrics.class)
+        public ExchangeIndexMetrics exchangeIndexMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+            return new MicrometerExchangeIndexMetrics(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+        }
+
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.magic.logbook.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.magic.logbook.capture.BodyCapture;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 输出 json 文本的日志行, 与 ObjectMapper 序列化 DTO 的结果逐字节一致.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 11:00
+ */
+public class LogbookJsonSerializer extends LogbookRecordSerializer<String> {
+
+    /**
+     * 超过该大小的缓冲区用完后不再保留在线程上, 避免个别大报文长期占用内存
+     */
+    private static final int MAX_RETAINED_CHARS = 64 * 1024;
+
+    private final JsonFactory factory;
+
+    public LogbookJsonSerializer() {
+        this(new JsonFactoryBuilder().rootValueSeparator((SerializableString) null).build());
+    }
+
+    public LogbookJsonSerializer(JsonFactory factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public LogRecordEncoding getEncoding() {
+        return LogRecordEncoding.JSON;
+    }
+
+    @Override
+    public String writeSection(@Nullable Object body, @Nullable Map<String, List<String>> headers,
+                               @Nullable BodyCapture capture) throws IOException {
+        Output<String> output = output();
+        JsonGenerator generator = output.begin();
+        try {
+            writeSection(generator, body, headers, capture);
+            return finish(output);
+        } catch (IOException | RuntimeException e) {
+            discard(output);
+            throw e;
+        }
+    }
+
+    /**
+     * 与 @JsonRawValue 一致, json 原样嵌入
+     */
+    @Override
+    void writeRawJson(JsonGenerator generator, String json) throws IOException {
+        generator.writeRawValue(json);
+    }
+
+    @Override
+    TextOutput newOutput() {
+        try {
+            CharBufferWriter writer = new CharBufferWriter();
+            return new TextOutput(writer, factory.createGenerator(writer));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class TextOutput extends Output<String> {
+        private final CharBufferWriter writer;
+        private final JsonGenerator generator;
+
+        private TextOutput(CharBufferWriter writer, JsonGenerator generator) {
+            this.writer = writer;
+            this.generator = generator;
+        }
+
+        @Override
+        JsonGenerator begin() {
+            writer.reset();
+            return generator;
+        }
+
+        @Override
+        String finish() throws IOException {
+            generator.flush();
+            return writer.toString();
+        }
+
+        @Override
+        boolean isRetainable() {
+            return writer.capacity() <= MAX_RETAINED_CHARS;
+        }
+
+        @Override
+        void close() {
+            try {
+                generator.close();
+            } catch (IOException | RuntimeException ignored) {
+                // generator 处于异常状态, 丢弃即可
+            }
+        }
+    }
+
+    /**
+     * 可复用的 char 缓冲区, 与 {@link java.io.CharArrayWriter} 相同但不加锁.
+     */
+    static final class CharBufferWriter extends Writer {
+        private char[] buffer = new char[1024];
+        private int length;
+
+        @Override
+        public void write(int c) {
+            ensureCapacity(length + 1);
+            buffer[length++] = (char) c;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int len) {
+            ensureCapacity(length + len);
+            System.arraycopy(chars, offset, buffer, length, len);
+            length += len;
+        }
+
+        @Override
+        public void write(String str, int offset, int len) {
+            ensureCapacity(length + len);
+            str.getChars(offset, offset + len, buffer, length);
+            length += len;
+        }
+
+        private void ensureCapacity(int required) {
+            if (required > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, required));
+            }
+        }
+
+        void reset() {
+            length = 0;
+        }
+
+        int capacity() {
+            return buffer.length;
+        }
+
+        int length() {
+            return length;
+        }
+
+        @Override
+        public String toString() {
+            return new String(buffer, 0, length);
+        }
+
+        /**
+         * 前 end 个字符, 超出已写入的长度时返回全部
+         */
+        String toString(int end) {
+            return new String(buffer, 0, Math.min(end, length));
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.magic.logbook.config;
+
+import com.magic.logbook.metrics.ExchangeMetrics;
+import com.magic.logbook.metrics.MicrometerExchangeMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * micrometer 是可选依赖, 单独放在这里, 没有 micrometer 时不会加载 {@link MicrometerExchangeMetrics}.
+ * 这里只有按接口统计的指标; 连接池、去重、飞行记录等各功能的指标在各自的配置中, 引入 micrometer 时注册, 不受 logbook.custom.metrics.enabled 控制.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 18:00
+ */
+@Configuration
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "logbook.custom.metrics", name = "enabled", havingValue = "true")
+public class LogbookMetricsConfiguration {
+
+    /**
+     * 没有 actuator 提供的 MeterRegistry 时记录到 {@link Metrics#globalRegistry}
+     */
+    @Bean
+    @ConditionalOnMissingBean(ExchangeMetrics.class)
+    public ExchangeMetrics exchangeMetrics(ObjectProvider<MeterRegistry> meterRegistry,
+                                           LogbookCustomMetricsProperties metricsProperties) {
+        return new MicrometerExchangeMetrics(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                metricsProperties);
+    }
+
+}
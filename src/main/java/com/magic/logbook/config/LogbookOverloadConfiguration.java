@@ -0,0 +1,69 @@
+package com.magic.logbook.config;
+
+import com.magic.logbook.overload.AdaptiveOverloadController;
+import com.magic.logbook.overload.OverloadController;
+import com.magic.logbook.overload.OverloadStrategy;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.zalando.logbook.Strategy;
+
+/**
+ * 过载降级, 参数见 {@link LogbookCustomOverloadProperties}.
+ * 实际使用的 Strategy(logbook.strategy、采样或应用自己定义的)在这里统一包装为 {@link OverloadStrategy},
+ * sink 上报自身耗时和异步队列积压见 LogbookConfiguration#sink.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 03:00
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "logbook.custom.overload", name = "enabled", havingValue = "true")
+public class LogbookOverloadConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(OverloadController.class)
+    public OverloadController overloadController(LogbookCustomOverloadProperties overloadProperties) {
+        return new AdaptiveOverloadController(overloadProperties);
+    }
+
+    /**
+     * static, 不会让本配置类提前初始化; controller 在包装时才获取
+     */
+    @Bean
+    public static BeanPostProcessor overloadStrategyPostProcessor(ObjectProvider<OverloadController> overloadController) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof Strategy && !(bean instanceof OverloadStrategy)) {
+                    return new OverloadStrategy((Strategy) bean, overloadController.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * 当前级别(0 完整 ~ 3 只记录错误)的指标, 引入 micrometer 时注册
+     */
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    static class OverloadMetricsConfiguration {
+
+        @Bean
+        public Gauge logbookOverloadLevelGauge(OverloadController overloadController,
+                                               ObjectProvider<MeterRegistry> meterRegistry) {
+            return Gauge.builder("logbook.overload.level", overloadController, c -> c.getLevel().ordinal())
+                    .description("current logging detail level, 0 full, 1 headers, 2 metadata, 3 errors only")
+                    .register(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+        }
+
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.magic.logbook.config;
+
+import com.magic.logbook.policy.RoutePolicies;
+import com.magic.logbook.policy.RoutePolicy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.zalando.logbook.HeaderFilter;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.autoconfigure.LogbookProperties;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * 按路由的记录策略, 规则见 {@link LogbookCustomPolicyProperties}.
+ * 开启后响应头过滤和 body 截断移到 sink 中按路由执行, logbook 的 BodyFilter 不再截断.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 23:00
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "logbook.custom.policy", name = "enabled", havingValue = "true")
+public class LogbookPolicyConfiguration {
+
+    @Bean
+    public RoutePolicies routePolicies(LogbookCustomPolicyProperties policyProperties,
+                                       LogbookCustomRequestProperties requestProperties,
+                                       LogbookCustomResponseProperties responseProperties,
+                                       LogbookProperties properties) {
+        HeaderFilter requestHeaderFilter = requestProperties.getHeaderStrategy()
+                .compile(LogbookConfiguration.DEFAULT_REQUEST_HEADERS, requestProperties.getCustomHeaders());
+        HeaderFilter responseHeaderFilter = responseProperties.getHeaderStrategy()
+                .compile(LogbookConfiguration.DEFAULT_RESPONSE_HEADERS, responseProperties.getCustomHeaders());
+        int maxBodySize = properties.getWrite().getMaxBodySize();
+        RoutePolicy defaultPolicy = new RoutePolicy("/**", false, maxBodySize,
+                requestHeaderFilter, responseHeaderFilter, null, null, null);
+
+        List<RoutePolicy> routes = policyProperties.getRoutes().stream()
+                .map(route -> new RoutePolicy(route.getPath(),
+                        Boolean.TRUE.equals(route.getExclude()),
+                        route.getMaxBodySize() != null ? route.getMaxBodySize() : maxBodySize,
+                        route.getRequestHeaderStrategy() != null ? route.getRequestHeaderStrategy()
+                                .compile(LogbookConfiguration.DEFAULT_REQUEST_HEADERS, requestProperties.getCustomHeaders())
+                                : requestHeaderFilter,
+                        route.getResponseHeaderStrategy() != null ? route.getResponseHeaderStrategy()
+                                .compile(LogbookConfiguration.DEFAULT_RESPONSE_HEADERS, responseProperties.getCustomHeaders())
+                                : responseHeaderFilter,
+                        route.getRatio(),
+                        route.getPermitsPerSecond(),
+                        route.getCodePointers() != null ? JsonPointerCodeExtractor.compile(route.getCodePointers()) : null))
+                .collect(Collectors.toList());
+        return new RoutePolicies(routes, defaultPolicy);
+    }
+
+    /**
+     * 与 logbook 的 requestCondition 同名, logbook.exclude / include 仍会在其基础上生效
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "requestCondition")
+    public Predicate<HttpRequest> requestCondition(RoutePolicies routePolicies) {
+        return request -> !routePolicies.isExcluded(request);
+    }
+
+}
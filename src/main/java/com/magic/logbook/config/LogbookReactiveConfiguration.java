@@ -0,0 +1,104 @@
+package com.magic.logbook.config;
+
+import com.magic.logbook.async.AsyncLogbookSink;
+import com.magic.logbook.async.OffloadingSink;
+import com.magic.logbook.async.OverflowPolicy;
+import com.magic.logbook.reactive.LogbookExchangeFilterFunction;
+import com.magic.logbook.reactive.LogbookWebFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.WebFilter;
+import org.zalando.logbook.Logbook;
+import org.zalando.logbook.Sink;
+import org.zalando.logbook.autoconfigure.LogbookProperties;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executor;
+
+/**
+ * WebFlux 服务端和 WebClient 的日志, 与 servlet/httpclient 共用 logbook 的过滤器、header 策略、sink 和 code 提取.
+ * spring-webflux 是可选依赖, 分别放在内部配置类中, 缺少时不会加载对应的实现.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 04:00
+ */
+@Import({LogbookCustomReactiveProperties.class, LogbookCustomCaptureProperties.class})
+@Configuration
+@ConditionalOnClass(name = "org.springframework.web.reactive.function.client.WebClient")
+@ConditionalOnProperty(prefix = "logbook.custom.reactive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LogbookReactiveConfiguration {
+
+    /**
+     * sink 写出用的线程, logbook 的各个阶段总在 event loop 上执行(见 {@link OffloadingSink}):
+     * 异步 sink 在调用线程上只拷贝快照, 队列满时丢弃/采样时不会阻塞, 直接在 event loop 上调用;
+     * 否则(同步 sink、BLOCK 策略、logbook 默认的 sink)交给 boundedElastic
+     */
+    static Executor writeExecutor(LogbookCustomReactiveProperties reactiveProperties, ObjectProvider<Sink> sink) {
+        if (!reactiveProperties.isOffload()) {
+            return OffloadingSink.DIRECT;
+        }
+        Sink current = sink.getIfAvailable();
+        if (current instanceof OffloadingSink) {
+            current = ((OffloadingSink) current).getDelegate();
+        }
+        if (current instanceof AsyncLogbookSink
+                && ((AsyncLogbookSink) current).getOverflowPolicy() != OverflowPolicy.BLOCK) {
+            return OffloadingSink.DIRECT;
+        }
+        return task -> Schedulers.boundedElastic().schedule(task);
+    }
+
+    @Configuration
+    @ConditionalOnClass(WebFilter.class)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @ConditionalOnProperty(name = "logbook.filter.enabled", havingValue = "true", matchIfMissing = true)
+    static class ServerConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(LogbookWebFilter.class)
+        public LogbookWebFilter logbookWebFilter(Logbook logbook, LogbookCustomReactiveProperties reactiveProperties,
+                                                 LogbookCustomCaptureProperties captureProperties,
+                                                 LogbookProperties properties, ObjectProvider<Sink> sink,
+                                                 ObjectProvider<ContentTypeClassifier> classifier) {
+            return new LogbookWebFilter(logbook, LogbookCaptureConfiguration.maxBodySize(captureProperties, properties),
+                    classifier.getIfAvailable(ContentTypeClassifier::defaultValue),
+                    writeExecutor(reactiveProperties, sink));
+        }
+
+    }
+
+    @Configuration
+    @ConditionalOnClass(WebClient.class)
+    static class WebClientConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(LogbookExchangeFilterFunction.class)
+        public LogbookExchangeFilterFunction logbookExchangeFilterFunction(
+                Logbook logbook, LogbookCustomReactiveProperties reactiveProperties,
+                LogbookCustomCaptureProperties captureProperties, LogbookProperties properties,
+                ObjectProvider<Sink> sink, ObjectProvider<ContentTypeClassifier> classifier) {
+            return new LogbookExchangeFilterFunction(logbook,
+                    LogbookCaptureConfiguration.maxBodySize(captureProperties, properties),
+                    classifier.getIfAvailable(ContentTypeClassifier::defaultValue),
+                    writeExecutor(reactiveProperties, sink));
+        }
+
+        /**
+         * 加到 spring boot 提供的 WebClient.Builder 上, 自己 new 的 WebClient 需要手动加 filter
+         */
+        @Bean
+        public WebClientCustomizer logbookWebClientCustomizer(LogbookExchangeFilterFunction filter) {
+            return builder -> builder.filter(filter);
+        }
+
+    }
+
+}
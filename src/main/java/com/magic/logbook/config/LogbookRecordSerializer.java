@@ -0,0 +1,356 @@
+package com.magic.logbook.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.magic.logbook.capture.BodyCapture;
+import com.magic.logbook.dedup.BodyRef;
+import com.magic.logbook.dto.LogbookExchange;
+import com.magic.logbook.encoding.EncodedBody;
+import com.magic.logbook.dto.LogbookReq;
+import com.magic.logbook.dto.LogbookResp;
+import com.magic.logbook.overload.DetailLevel;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按 {@link LogbookReq}/{@link LogbookResp}/{@link LogbookExchange} 上 {@code @JsonPropertyOrder} 声明的顺序, 直接用线程复用的 {@link JsonGenerator}
+ * 输出日志记录, 不再创建 DTO, 也不走反射的 bean 序列化. 字段顺序和取值与 ObjectMapper 序列化 DTO 的结果一致, 修改字段时两边要同步.
+ * 输出格式由子类决定: {@link LogbookJsonSerializer} 输出 json 文本, {@link LogbookBinarySerializer} 输出 Smile/CBOR.
+ *
+ * @param <R> 一条记录的类型, json 为 String, Smile/CBOR 为 byte[]
+ * @author: mazikai
+ * @created: 2026-10-19 07:00
+ */
+public abstract class LogbookRecordSerializer<R> {
+
+    private final ThreadLocal<Output<R>> outputs = ThreadLocal.withInitial(this::newOutput);
+
+    public static LogbookRecordSerializer<?> of(LogRecordEncoding encoding) {
+        return encoding.isBinary() ? new LogbookBinarySerializer(encoding) : new LogbookJsonSerializer();
+    }
+
+    public abstract LogRecordEncoding getEncoding();
+
+    public R writeRequest(String correlation, String uri, String method, String origin,
+                          @Nullable Object body, @Nullable Map<String, List<String>> headers,
+                          String originalCallApp, @Nullable BodyCapture capture,
+                          @Nullable Double sampleWeight, @Nullable DetailLevel detail) throws IOException {
+        Output<R> output = output();
+        JsonGenerator generator = output.begin();
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("correlation", correlation);
+            generator.writeStringField("type", LogbookReq.TYPE_IN);
+            generator.writeStringField("uri", uri);
+            generator.writeStringField("method", method);
+            generator.writeStringField("origin", origin);
+            writeBody(generator, body);
+            writeHeaders(generator, headers);
+            generator.writeStringField("originalCallApp", originalCallApp);
+            writeTruncation(generator, capture);
+            writeEncoding(generator, body);
+            writeDigest(generator, body);
+            writeDetail(generator, detail);
+            writeSampleWeight(generator, sampleWeight);
+            generator.writeEndObject();
+            return finish(output);
+        } catch (IOException | RuntimeException e) {
+            discard(output);
+            throw e;
+        }
+    }
+
+    public R writeResponse(String correlation, String uri, String origin, long duration, int status,
+                           String code, @Nullable Object body, @Nullable Map<String, List<String>> headers,
+                           String originalCallApp, @Nullable BodyCapture capture,
+                           @Nullable Double sampleWeight, @Nullable DetailLevel detail) throws IOException {
+        Output<R> output = output();
+        JsonGenerator generator = output.begin();
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("correlation", correlation);
+            generator.writeStringField("type", LogbookResp.TYPE_OUT);
+            generator.writeStringField("uri", uri);
+            generator.writeStringField("origin", origin);
+            generator.writeNumberField("duration", duration);
+            generator.writeNumberField("status", status);
+            generator.writeStringField("code", code);
+            writeBody(generator, body);
+            writeHeaders(generator, headers);
+            generator.writeStringField("originalCallApp", originalCallApp);
+            writeTruncation(generator, capture);
+            writeEncoding(generator, body);
+            writeDigest(generator, body);
+            writeDetail(generator, detail);
+            writeSampleWeight(generator, sampleWeight);
+            generator.writeEndObject();
+            return finish(output);
+        } catch (IOException | RuntimeException e) {
+            discard(output);
+            throw e;
+        }
+    }
+
+    /**
+     * {@link LogbookExchange.Section}, 合并模式下请求时先序列化, 响应时原样嵌入. 总是 json, 嵌入时由 {@link #writeRawJson} 转换
+     */
+    public abstract String writeSection(@Nullable Object body, @Nullable Map<String, List<String>> headers,
+                                        @Nullable BodyCapture capture) throws IOException;
+
+    public R writeExchange(String correlation, String uri, String method, String origin, long duration,
+                           int status, String code, @Nullable String requestSection, @Nullable Object body,
+                           @Nullable Map<String, List<String>> headers, @Nullable BodyCapture capture,
+                           String originalCallApp, @Nullable Double sampleWeight,
+                           @Nullable DetailLevel detail) throws IOException {
+        return writeExchange(LogbookExchange.TYPE_EXCHANGE, correlation, uri, method, origin, duration, status, code,
+                requestSection, body, headers, capture, originalCallApp, sampleWeight, detail, null);
+    }
+
+    /**
+     * 飞行记录触发时补出的完整记录, 字段与 {@link #writeExchange} 相同, 最后加上触发它的请求的 correlation
+     */
+    public R writeReplay(String correlation, String trigger, String uri, String method, String origin, long duration,
+                         int status, String code, String requestSection, @Nullable Object body,
+                         @Nullable Map<String, List<String>> headers, @Nullable BodyCapture capture,
+                         String originalCallApp, @Nullable Double sampleWeight) throws IOException {
+        return writeExchange(LogbookExchange.TYPE_REPLAY, correlation, uri, method, origin, duration, status, code,
+                requestSection, body, headers, capture, originalCallApp, sampleWeight, null, trigger);
+    }
+
+    private R writeExchange(String type, String correlation, String uri, String method, String origin, long duration,
+                            int status, String code, @Nullable String requestSection, @Nullable Object body,
+                            @Nullable Map<String, List<String>> headers, @Nullable BodyCapture capture,
+                            String originalCallApp, @Nullable Double sampleWeight, @Nullable DetailLevel detail,
+                            @Nullable String trigger) throws IOException {
+        Output<R> output = output();
+        JsonGenerator generator = output.begin();
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("correlation", correlation);
+            generator.writeStringField("type", type);
+            generator.writeStringField("uri", uri);
+            generator.writeStringField("method", method);
+            generator.writeStringField("origin", origin);
+            generator.writeNumberField("duration", duration);
+            generator.writeNumberField("status", status);
+            generator.writeStringField("code", code);
+            generator.writeFieldName("request");
+            if (requestSection == null) {
+                generator.writeNull();
+            } else {
+                writeRawJson(generator, requestSection);
+            }
+            generator.writeFieldName("response");
+            writeSection(generator, body, headers, capture);
+            generator.writeStringField("originalCallApp", originalCallApp);
+            writeDetail(generator, detail);
+            writeSampleWeight(generator, sampleWeight);
+            if (trigger != null) {
+                generator.writeStringField("trigger", trigger);
+            }
+            generator.writeEndObject();
+            return finish(output);
+        } catch (IOException | RuntimeException e) {
+            discard(output);
+            throw e;
+        }
+    }
+
+    /**
+     * 超时未收到响应的请求, 字段与 {@link #writeExchange} 相同, 响应相关的字段为 null
+     */
+    public R writeOrphan(String correlation, String uri, String method, String origin, String requestSection,
+                         String originalCallApp, @Nullable Double sampleWeight,
+                         @Nullable DetailLevel detail) throws IOException {
+        Output<R> output = output();
+        JsonGenerator generator = output.begin();
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("correlation", correlation);
+            generator.writeStringField("type", LogbookExchange.TYPE_ORPHAN);
+            generator.writeStringField("uri", uri);
+            generator.writeStringField("method", method);
+            generator.writeStringField("origin", origin);
+            generator.writeNullField("duration");
+            generator.writeNullField("status");
+            generator.writeNullField("code");
+            generator.writeFieldName("request");
+            writeRawJson(generator, requestSection);
+            generator.writeNullField("response");
+            generator.writeStringField("originalCallApp", originalCallApp);
+            writeDetail(generator, detail);
+            writeSampleWeight(generator, sampleWeight);
+            generator.writeEndObject();
+            return finish(output);
+        } catch (IOException | RuntimeException e) {
+            discard(output);
+            throw e;
+        }
+    }
+
+    final void writeSection(JsonGenerator generator, @Nullable Object body,
+                            @Nullable Map<String, List<String>> headers, @Nullable BodyCapture capture)
+            throws IOException {
+        generator.writeStartObject();
+        writeBody(generator, body);
+        writeHeaders(generator, headers);
+        writeTruncation(generator, capture);
+        writeEncoding(generator, body);
+        writeDigest(generator, body);
+        generator.writeEndObject();
+    }
+
+    /**
+     * 只有 body 被有界截取截断时才输出, originalLength 未知(分块传输)时不输出
+     */
+    private static void writeTruncation(JsonGenerator generator, @Nullable BodyCapture capture) throws IOException {
+        if (capture == null || !capture.isTruncated()) {
+            return;
+        }
+        generator.writeBooleanField("truncated", true);
+        Long originalLength = capture.getOriginalLength();
+        if (originalLength != null) {
+            generator.writeNumberField("originalLength", originalLength);
+        }
+    }
+
+    /**
+     * 只有 body 被压缩时才输出, body 为 base64 字符串
+     */
+    private static void writeEncoding(JsonGenerator generator, @Nullable Object body) throws IOException {
+        if (body instanceof BodyRef) {
+            body = ((BodyRef) body).getBody();
+        }
+        if (body instanceof EncodedBody) {
+            EncodedBody encoded = (EncodedBody) body;
+            generator.writeStringField("bodyEncoding", encoded.getEncoding());
+            generator.writeNumberField("originalSize", encoded.getOriginalSize());
+        }
+    }
+
+    /**
+     * 只有 body 按 {@link BodyTreatment#DIGEST} 处理时才输出, 此时 body 为 null.
+     * 开启去重时完整输出的 body 也输出 bodyHash, 与之后重复记录中的 bodyRef 对应
+     */
+    private static void writeDigest(JsonGenerator generator, @Nullable Object body) throws IOException {
+        if (body instanceof BodyRef) {
+            BodyRef ref = (BodyRef) body;
+            if (!ref.isReference()) {
+                generator.writeStringField("bodyHash", ref.getHash());
+            }
+        } else if (body instanceof BodyDigest) {
+            BodyDigest digest = (BodyDigest) body;
+            generator.writeNumberField("bodySize", digest.getSize());
+            if (digest.getHash() != null) {
+                generator.writeStringField("bodyHash", digest.getHash());
+            }
+        }
+    }
+
+    /**
+     * 只有过载降级时才输出, 完整记录时为 null
+     */
+    private static void writeDetail(JsonGenerator generator, @Nullable DetailLevel detail) throws IOException {
+        if (detail != null) {
+            generator.writeStringField("detail", detail.name());
+        }
+    }
+
+    /**
+     * 只有开启采样时才输出, 放在最后以免影响按顺序匹配字段的解析
+     */
+    private static void writeSampleWeight(JsonGenerator generator, @Nullable Double sampleWeight) throws IOException {
+        if (sampleWeight != null) {
+            generator.writeNumberField("sampleWeight", sampleWeight);
+        }
+    }
+
+    private void writeBody(JsonGenerator generator, @Nullable Object body) throws IOException {
+        generator.writeFieldName("body");
+        if (body instanceof BodyRef) {
+            BodyRef ref = (BodyRef) body;
+            if (ref.isReference()) {
+                generator.writeStartObject();
+                generator.writeStringField("bodyRef", ref.getHash());
+                generator.writeEndObject();
+                return;
+            }
+            body = ref.getBody();
+        }
+        if (body == null || body instanceof BodyDigest) {
+            generator.writeNull();
+        } else if (body instanceof LogbookSink.JsonBody) {
+            writeRawJson(generator, ((LogbookSink.JsonBody) body).getJson());
+        } else {
+            generator.writeString(body.toString());
+        }
+    }
+
+    private static void writeHeaders(JsonGenerator generator, @Nullable Map<String, List<String>> headers)
+            throws IOException {
+        generator.writeFieldName("headers");
+        if (headers == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            generator.writeFieldName(entry.getKey());
+            List<String> values = entry.getValue();
+            if (values == null) {
+                generator.writeNull();
+                continue;
+            }
+            generator.writeStartArray();
+            for (String value : values) {
+                generator.writeString(value);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * 嵌入已序列化的 json: 请求的 json body 和合并模式下的请求部分
+     */
+    abstract void writeRawJson(JsonGenerator generator, String json) throws IOException;
+
+    abstract Output<R> newOutput();
+
+    final Output<R> output() {
+        return outputs.get();
+    }
+
+    final R finish(Output<R> output) throws IOException {
+        R record = output.finish();
+        if (!output.isRetainable()) {
+            discard(output);
+        }
+        return record;
+    }
+
+    final void discard(Output<R> output) {
+        outputs.remove();
+        output.close();
+    }
+
+    /**
+     * 线程上复用的输出缓冲区和 generator
+     */
+    abstract static class Output<R> {
+
+        abstract JsonGenerator begin() throws IOException;
+
+        abstract R finish() throws IOException;
+
+        /**
+         * 缓冲区过大时用完不再保留在线程上, 避免个别大报文长期占用内存
+         */
+        abstract boolean isRetainable();
+
+        abstract void close();
+    }
+
+}
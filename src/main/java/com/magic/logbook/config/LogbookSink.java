@@ -2,21 +2,34 @@ package com.magic.logbook.config;
 
 import com.fasterxml.jackson.annotation.JsonRawValue;
 import com.fasterxml.jackson.annotation.JsonValue;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magic.logbook.capture.BodyCapture;
+import com.magic.logbook.dedup.BodyDeduplicator;
+import com.magic.logbook.dedup.BodyRef;
+import com.magic.logbook.dto.LogbookExchange;
 import com.magic.logbook.dto.LogbookReq;
 import com.magic.logbook.dto.LogbookResp;
+import com.magic.logbook.encoding.BodyEncoder;
+import com.magic.logbook.encoding.EncodedBody;
+import com.magic.logbook.flight.FlightRecorder;
+import com.magic.logbook.index.ExchangeIndex;
+import com.magic.logbook.metrics.ExchangeMetrics;
+import com.magic.logbook.overload.DetailLevel;
+import com.magic.logbook.overload.OverloadController;
+import com.magic.logbook.policy.RoutePolicy;
+import com.magic.logbook.sampling.SamplingDecision;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.util.CollectionUtils;
 import org.zalando.logbook.*;
 
+import javax.annotation.Nullable;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 
 /**
@@ -24,80 +37,336 @@ import java.util.regex.Pattern;
  * @created: 2021-08-26 11:08
  */
 @Slf4j
-public class LogbookSink implements Sink {
+public class LogbookSink implements Sink, Closeable {
+
+    /**
+     * 与 {@link LogbookReq#getOriginalCallApp()} 的默认值一致
+     */
+    private static final String NO_VALUE = "_NO_VALUE";
+    /**
+     * logbook 的 BodyFilters.truncate 和 {@link JsonMaskingBodyFilter} 截断时追加的后缀, 完整的 json 不会以它结尾
+     */
+    private static final String TRUNCATION_SUFFIX = "...";
 
     private final String appName;
     private final HttpLogWriter writer;
-    private final ObjectMapper mapper;
+    /**
+     * Smile/CBOR 编码时与 writer 是同一个对象
+     */
+    @Nullable
+    private final BinaryHttpLogWriter binaryWriter;
+    private final LogbookRecordSerializer<?> serializer;
+    private final ResponseCodeExtractor codeExtractor;
+    private final ExchangeMetrics metrics;
+    private final BodyEncoder bodyEncoder;
+    private final ContentTypeClassifier classifier;
+    private final OverloadController overload;
+    private final BodyDeduplicator deduplicator;
+    /**
+     * 合并模式下等待响应的请求, 未开启合并模式时为 null
+     */
+    @Nullable
+    private final InFlightExchanges inFlight;
+    /**
+     * 飞行记录模式下保存正常请求的完整快照, 未开启时为 null
+     */
+    @Nullable
+    private final FlightRecorder recorder;
+    private final ExchangeIndex index;
 
     public LogbookSink(HttpLogWriter writer, String appName) {
-        this.writer = writer;
-        this.appName = appName;
-        this.mapper = ObjectMapperFactory.createObjectMapper();
+        this(builder(writer, appName));
+    }
+
+    private LogbookSink(Builder builder) {
+        LogbookRecordSerializer<?> serializer = builder.serializer != null ? builder.serializer : new LogbookJsonSerializer();
+        if (serializer.getEncoding().isBinary() && !(builder.writer instanceof BinaryHttpLogWriter)) {
+            throw new IllegalArgumentException("logbook.custom.format.encoding=" + serializer.getEncoding()
+                    + " requires a BinaryHttpLogWriter (logbook.custom.mmap or logbook.custom.format.socket), got "
+                    + builder.writer.getClass().getName());
+        }
+        this.writer = builder.writer;
+        this.binaryWriter = builder.writer instanceof BinaryHttpLogWriter ? (BinaryHttpLogWriter) builder.writer : null;
+        this.appName = builder.appName;
+        this.serializer = serializer;
+        this.codeExtractor = builder.codeExtractor;
+        this.metrics = builder.metrics;
+        this.bodyEncoder = builder.bodyEncoder;
+        this.classifier = builder.classifier;
+        this.overload = builder.overload;
+        this.deduplicator = builder.deduplicator;
+        this.inFlight = builder.combinedProperties.isEnabled() ?
+                new InFlightExchanges(builder.combinedProperties, builder.reordered, this::writeOrphan) : null;
+        this.recorder = builder.recorder;
+        this.index = builder.index;
+    }
+
+    /**
+     * 未设置的部分使用默认值: 默认的 code 提取、不记录指标、不合并、不编码 body、json 格式、不降级、不去重、不开启飞行记录和索引
+     */
+    public static Builder builder(HttpLogWriter writer, String appName) {
+        return new Builder(writer, appName);
     }
 
     @Override
     public void write(Precorrelation precorrelation, HttpRequest request) throws IOException { // req
-        writer.write(precorrelation, reqFormat(precorrelation, request));
+        long start = System.nanoTime();
+        try {
+            if (inFlight != null) {
+                InFlightExchanges.Admission admission = inFlight.admit(precorrelation.getId());
+                if (admission == InFlightExchanges.Admission.ACCEPT) {
+                    inFlight.add(pendingOf(precorrelation, request));
+                    return; // 合并模式, 等响应时一起输出
+                }
+                if (admission == InFlightExchanges.Admission.DROP) {
+                    return;
+                }
+            }
+            emit(precorrelation, reqFormat(precorrelation, request, requestLevel(request)));
+        } finally {
+            overload.recordCost(System.nanoTime() - start);
+        }
     }
 
     @Override
     public void write(Correlation correlation, HttpRequest request, HttpResponse response) throws IOException { // resp
-        writer.write(correlation, respFormat(correlation, request, response));
+        long start = System.nanoTime();
+        try {
+            writeResponse(correlation, request, response);
+        } finally {
+            overload.recordCost(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void writeBoth(Correlation correlation, HttpRequest request, HttpResponse response) throws IOException {
+        if (inFlight == null) {
+            Sink.super.writeBoth(correlation, request, response);
+            return;
+        }
+        // 合并记录中已包含请求
+        write(correlation, request, response);
     }
 
-    private String reqFormat(Precorrelation precorrelation, HttpRequest request) throws IOException {
-        final LogbookReq logbookReq = new LogbookReq();
+    @Override
+    public void close() {
+        if (inFlight != null) {
+            inFlight.close();
+        }
+    }
+
+    /**
+     * json 记录写给 {@link HttpLogWriter}, Smile/CBOR 记录写给 {@link BinaryHttpLogWriter}
+     */
+    private void emit(Precorrelation precorrelation, Object record) throws IOException {
+        if (record instanceof byte[]) {
+            binaryWriter.write(precorrelation, (byte[]) record);
+        } else {
+            writer.write(precorrelation, (String) record);
+        }
+    }
+
+    /**
+     * 去重时第一次完整输出的 body 在记录被 writer 接收之后才登记, 记录被丢弃时之后重复的 body 仍完整输出
+     */
+    private void emit(Correlation correlation, Object record, @Nullable Object body) throws IOException {
+        boolean accepted;
+        if (binaryWriter == null) {
+            writer.write(correlation, (String) record);
+            accepted = true;
+        } else if (record instanceof byte[]) {
+            accepted = binaryWriter.offer(correlation, (byte[]) record);
+        } else {
+            accepted = binaryWriter.offer(correlation, (String) record);
+        }
+        if (accepted && body instanceof BodyRef) {
+            deduplicator.written((BodyRef) body);
+        }
+    }
+
+    /**
+     * 飞行记录模式下请求时还不知道是否出错, 先只输出元数据
+     */
+    private DetailLevel requestLevel(HttpRequest request) {
+        DetailLevel level = overload.levelOf(request);
+        return recorder == null ? level : DetailLevel.min(level, DetailLevel.METADATA);
+    }
+
+    private Object reqFormat(Precorrelation precorrelation, HttpRequest request, DetailLevel level) throws IOException {
         String uri = request.getRequestUri();
-        logbookReq.setCorrelation(precorrelation.getId());
-        logbookReq.setType(LogbookReq.TYPE_IN);
-        logbookReq.setUri(uri);
-        logbookReq.setMethod(request.getMethod());
 
         //客户端发起请求经httpclient拦截器org.zalando.logbook.httpclient.LogbookHttpRequestInterceptor处理成为LocalRequest, request.getOrigin()=LOCAL
         //服务端收到请求,经servlet过滤器org.zalando.logbook.servlet.LogbookFilter,处理为RemoteRequest, request.getOrigin()=REMOTE
         String originalStr = Origin.LOCAL.equals(request.getOrigin()) ? LogbookReq.ORIGIN_CONSUMER : LogbookReq.ORIGIN_PROVIDER;
-        logbookReq.setOrigin(originalStr);
-        //logbookReq.setOrigin(Origin.LOCAL.equals(request.getOrigin()) ? LogbookResp.ORIGIN_PROVIDER : LogbookResp.ORIGIN_CONSUMER);
 
-        prepareBody(request).ifPresent(logbookReq::setBody);
-        prepareHeaders(request).ifPresent(logbookReq::setHeaders);
+        Object body = level.includesBody() ? prepareBody(request, RoutePolicy.find(request)).orElse(null) : null;
+        Map<String, List<String>> headers = level.includesHeaders() ? prepareHeaders(request).orElse(null) : null;
+        String originalCallApp = NO_VALUE;
         //收到来自外部的请求,尝试从httpRequestHeader获取外部调用方应用名
         if (Origin.REMOTE.equals(request.getOrigin())) {
-            prepareOriginalCallAppName(request).ifPresent(logbookReq::setOriginalCallApp);
+            originalCallApp = prepareOriginalCallAppName(request).orElse(NO_VALUE);
         }
-        return mapper.writeValueAsString(logbookReq);
+        SamplingDecision decision = SamplingDecision.find(request);
+        Double sampleWeight = decision == null ? null : decision.requestWeight();
+        Object record = serializer.writeRequest(precorrelation.getId(), uri, request.getMethod(), originalStr,
+                body, headers, originalCallApp, level.includesBody() ? captureOf(request) : null, sampleWeight,
+                detailOf(level));
+        index.add(precorrelation, LogbookReq.TYPE_IN, uri, request.getPath(), request.getMethod(), originalStr, 0, null,
+                0, originalCallApp, record);
+        return record;
     }
 
-    private String respFormat(Correlation correlation, HttpRequest request, HttpResponse response) throws IOException {
-        final LogbookResp resp = new LogbookResp();
-        String uri = request.getRequestUri();
+    private InFlightExchanges.PendingExchange pendingOf(Precorrelation precorrelation, HttpRequest request)
+            throws IOException {
+        String originalStr = Origin.LOCAL.equals(request.getOrigin()) ? LogbookReq.ORIGIN_CONSUMER : LogbookReq.ORIGIN_PROVIDER;
+        String originalCallApp = NO_VALUE;
+        if (Origin.REMOTE.equals(request.getOrigin())) {
+            originalCallApp = prepareOriginalCallAppName(request).orElse(NO_VALUE);
+        }
+        SamplingDecision decision = SamplingDecision.find(request);
+        DetailLevel level = requestLevel(request);
+        return new InFlightExchanges.PendingExchange(precorrelation, request.getRequestUri(), request.getPath(),
+                request.getMethod(), originalStr, originalCallApp, requestSection(request, level),
+                decision == null ? null : decision.requestWeight(), detailOf(level));
+    }
+
+    private String requestSection(HttpRequest request, DetailLevel level) throws IOException {
+        if (!level.includesBody()) {
+            return serializer.writeSection(null, level.includesHeaders() ? prepareHeaders(request).orElse(null) : null,
+                    null);
+        }
+        return serializer.writeSection(prepareBody(request, RoutePolicy.find(request)).orElse(null),
+                prepareHeaders(request).orElse(null),
+                captureOf(request));
+    }
+
+    private void writeOrphan(InFlightExchanges.PendingExchange exchange) {
+        try {
+            Object record = serializer.writeOrphan(exchange.id, exchange.uri, exchange.method,
+                    exchange.origin, exchange.requestSection, exchange.originalCallApp, exchange.sampleWeight,
+                    exchange.detail);
+            index.add(exchange.precorrelation, LogbookExchange.TYPE_ORPHAN, exchange.uri, exchange.path,
+                    exchange.method, exchange.origin, 0, null, 0, exchange.originalCallApp, record);
+            emit(exchange.precorrelation, record);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeResponse(Correlation correlation, HttpRequest request, HttpResponse response) throws IOException {
         int status = response.getStatus();
-        resp.setCorrelation(correlation.getId());
-        resp.setType(LogbookResp.TYPE_OUT);
-        resp.setUri(uri);
 
         //客户端发起请求经httpclient拦截器org.zalando.logbook.httpclient.LogbookHttpResponseInterceptor处理成为RemoteResponse, response.getOrigin()=REMOTE
         //服务端收到请求,经servlet过滤器org.zalando.logbook.servlet.LogbookFilter,处理为LocalResponse,response.getOrigin()=LOCAL
         String originalStr = Origin.REMOTE.equals(response.getOrigin()) ? LogbookReq.ORIGIN_CONSUMER : LogbookReq.ORIGIN_PROVIDER;
-        resp.setOrigin(originalStr);
-        //resp.setOrigin(Origin.LOCAL.equals(response.getOrigin()) ? LogbookResp.ORIGIN_PROVIDER : LogbookResp.ORIGIN_CONSUMER);
-
-        resp.setDuration(correlation.getDuration().toMillis());
-        resp.setStatus(status);
-        String code = getRespCode(response);
-        resp.setCode(code);
-        prepareBody(response).ifPresent(resp::setBody);
-        prepareHeaders(response).ifPresent(resp::setHeaders);
+
+        String code = getRespCode(request, response);
+        long duration = correlation.getDuration().toMillis();
+        SamplingDecision decision = SamplingDecision.find(request);
+        Double sampleWeight = decision == null ? null : decision.weightFor(status, duration);
+        metrics.record(request, response, originalStr, correlation.getDuration(), code,
+                sampleWeight == null ? 1.0 : sampleWeight);
+        // 请求降级时响应也按同一级别输出
+        DetailLevel level = DetailLevel.min(DetailLevel.find(request), overload.levelOf(response));
+        if (recorder != null) {
+            if (recorder.isTriggered(status, code, duration)) {
+                flushRecorded(correlation, request, response, originalStr, code, sampleWeight, level);
+            } else if (level.includesBody()) {
+                recorder.record(correlation, request, response);
+            }
+            level = DetailLevel.min(level, DetailLevel.METADATA);
+        }
+        writeResponse(correlation, request, response, originalStr, code, sampleWeight, level);
+    }
+
+    private void writeResponse(Correlation correlation, HttpRequest request, HttpResponse response, String originalStr,
+                               String code, @Nullable Double sampleWeight, DetailLevel level) throws IOException {
+        String uri = request.getRequestUri();
+        int status = response.getStatus();
+        RoutePolicy policy = RoutePolicy.find(request);
+        Object body = level.includesBody() ? prepareBody(response, policy).orElse(null) : null;
+        Map<String, List<String>> headers = level.includesHeaders() ? prepareHeaders(response, policy).orElse(null) : null;
+        String originalCallApp = NO_VALUE;
         //响应外部的请求时,尝试从httpRequestHeader获取外部调用方应用名
         if (Origin.LOCAL.equals(response.getOrigin())) {
-            prepareOriginalCallAppName(request).ifPresent(resp::setOriginalCallApp);
+            originalCallApp = prepareOriginalCallAppName(request).orElse(NO_VALUE);
+        }
+        long duration = correlation.getDuration().toMillis();
+        BodyCapture capture = level.includesBody() ? captureOf(response) : null;
+        if (inFlight != null) {
+            InFlightExchanges.PendingExchange pending = inFlight.complete(correlation.getId());
+            String requestSection;
+            if (pending == InFlightExchanges.EMITTED) {
+                requestSection = null; // 等待表已满时请求已单独输出
+            } else if (pending != null) {
+                requestSection = pending.requestSection;
+            } else {
+                // 请求未被记录(未采样的补记)时在这里补上
+                requestSection = requestSection(request, level);
+            }
+            Object record = serializer.writeExchange(correlation.getId(), uri, request.getMethod(), originalStr,
+                    duration, status, code, requestSection, body, headers, capture, originalCallApp, sampleWeight,
+                    detailOf(level));
+            index.add(correlation, LogbookExchange.TYPE_EXCHANGE, uri, request.getPath(), request.getMethod(),
+                    originalStr, status, code, duration, originalCallApp, record);
+            emit(correlation, record, body);
+            return;
         }
-        return mapper.writeValueAsString(resp);
+        Object record = serializer.writeResponse(correlation.getId(), uri, originalStr, duration,
+                status, code, body, headers, originalCallApp, capture, sampleWeight, detailOf(level));
+        index.add(correlation, LogbookResp.TYPE_OUT, uri, request.getPath(), request.getMethod(), originalStr, status,
+                code, duration, originalCallApp, record);
+        emit(correlation, record, body);
+    }
+
+    /**
+     * 飞行记录触发: 先输出这次请求的完整记录, 再输出同一 trace 中在它开始之后结束的请求, 都以 replay 记录输出,
+     * 不进入索引. 同一 correlation 的 in/out/exchange 记录照常只输出元数据, 不会出现内容不同的重复记录.
+     */
+    private void flushRecorded(Correlation trigger, HttpRequest request, HttpResponse response, String originalStr,
+                               String code, @Nullable Double sampleWeight, DetailLevel level) throws IOException {
+        writeReplay(trigger.getId(), trigger, request, response, originalStr, code, sampleWeight,
+                DetailLevel.min(level, overload.levelOf(request)));
+        for (FlightRecorder.Recorded recorded : recorder.drain(trigger, request)) {
+            Correlation correlation = recorded.getCorrelation();
+            HttpRequest recordedRequest = recorded.getRequest();
+            HttpResponse recordedResponse = recorded.getResponse();
+            int status = recordedResponse.getStatus();
+            SamplingDecision decision = SamplingDecision.find(recordedRequest);
+            writeReplay(trigger.getId(), correlation, recordedRequest, recordedResponse,
+                    Origin.REMOTE.equals(recordedResponse.getOrigin()) ? LogbookReq.ORIGIN_CONSUMER : LogbookReq.ORIGIN_PROVIDER,
+                    getRespCode(recordedRequest, recordedResponse),
+                    decision == null ? null : decision.weightFor(status, correlation.getDuration().toMillis()),
+                    DetailLevel.min(DetailLevel.find(recordedRequest), overload.levelOf(recordedResponse)));
+        }
+    }
+
+    private void writeReplay(String trigger, Correlation correlation, HttpRequest request, HttpResponse response,
+                             String originalStr, String code, @Nullable Double sampleWeight, DetailLevel level)
+            throws IOException {
+        RoutePolicy policy = RoutePolicy.find(request);
+        Object body = level.includesBody() ? prepareBody(response, policy).orElse(null) : null;
+        Map<String, List<String>> headers = level.includesHeaders() ? prepareHeaders(response, policy).orElse(null) : null;
+        String originalCallApp = NO_VALUE;
+        if (Origin.LOCAL.equals(response.getOrigin())) {
+            originalCallApp = prepareOriginalCallAppName(request).orElse(NO_VALUE);
+        }
+        emit(correlation, serializer.writeReplay(correlation.getId(), trigger, request.getRequestUri(),
+                request.getMethod(), originalStr, correlation.getDuration().toMillis(), response.getStatus(), code,
+                requestSection(request, level), body, headers, level.includesBody() ? captureOf(response) : null,
+                originalCallApp, sampleWeight), body);
+    }
+
+    /**
+     * 完整记录时不输出 detail 字段
+     */
+    @Nullable
+    private static DetailLevel detailOf(DetailLevel level) {
+        return level == DetailLevel.FULL ? null : level;
     }
 
-    private String getRespCode(HttpResponse response) throws IOException {
-        String strCode = findCode(response.getBodyAsString());
+    private String getRespCode(HttpRequest request, HttpResponse response) throws IOException {
+        String strCode = codeExtractor.extract(request, response);
         int httpCode = response.getStatus();
         if (httpCode == 200) { // 正常响应
             return Optional.ofNullable(strCode).orElse("SUCCESS");
@@ -117,19 +386,84 @@ public class LogbookSink implements Sink {
         return Optional.ofNullable(headers.isEmpty() ? null : headers);
     }
 
+    /**
+     * 响应上拿不到请求, 开启路由策略时响应头在这里按路由过滤
+     */
+    private Optional<Map<String, List<String>>> prepareHeaders(HttpResponse response, @Nullable RoutePolicy policy) {
+        if (policy == null) {
+            return prepareHeaders(response);
+        }
+        final Map<String, List<String>> headers = policy.getResponseHeaderFilter().filter(response.getHeaders());
+        return Optional.ofNullable(headers.isEmpty() ? null : headers);
+    }
+
     public Optional<Object> prepareBody(final HttpMessage message) throws IOException {
-        final String contentType = message.getContentType();
+        return prepareBody(message, null);
+    }
+
+    private Optional<Object> prepareBody(HttpMessage message, @Nullable RoutePolicy policy) throws IOException {
+        // 只看 Content-Type, 二进制内容不解码
+        final BodyTreatment treatment = classifier.classify(message.getContentType());
+        if (treatment == BodyTreatment.SKIP) {
+            return Optional.empty();
+        }
+        if (treatment == BodyTreatment.DIGEST) {
+            return Optional.ofNullable(BodyDigest.of(message));
+        }
+        BodyRef ref = message instanceof HttpResponse && !isTruncated(message) ?
+                deduplicator.dedup(message) : null;
+        if (ref != null && ref.isReference()) {
+            // 重复的 body 不再过滤和编码
+            return Optional.of(ref);
+        }
         final String body = message.getBodyAsString();
         if (body.isEmpty()) {
             return Optional.empty();
         }
-        if (ifJson(contentType)) {
+        Optional<Object> prepared = prepareBody(message, policy, treatment, body);
+        return ref == null ? prepared : prepared.map(ref::withBody);
+    }
+
+    private Optional<Object> prepareBody(HttpMessage message, @Nullable RoutePolicy policy, BodyTreatment treatment,
+                                         String body) {
+        if (policy != null && policy.exceedsBodyLimit(body)) {
+            // 按路由截断, 不完整的 json 按字符串输出
+            String truncated = policy.truncate(body);
+            return truncated.isEmpty() ? Optional.empty() : Optional.of(encode(truncated));
+        }
+        EncodedBody encoded = bodyEncoder.encode(body);
+        if (encoded != null) {
+            return Optional.of(encoded);
+        }
+        if (treatment == BodyTreatment.JSON && !isTruncated(message) && !body.endsWith(TRUNCATION_SUFFIX)) {
             return Optional.of(new JsonBody(body));
         } else {
             return Optional.of(body);
         }
     }
 
+    private Object encode(String body) {
+        EncodedBody encoded = bodyEncoder.encode(body);
+        return encoded != null ? encoded : body;
+    }
+
+    /**
+     * 跳过和只输出摘要的 body 不输出截断信息, 摘要里已有原始大小
+     */
+    @Nullable
+    private BodyCapture captureOf(HttpMessage message) {
+        BodyTreatment treatment = classifier.classify(message.getContentType());
+        return treatment == BodyTreatment.SKIP || treatment == BodyTreatment.DIGEST ? null : BodyCapture.find(message);
+    }
+
+    /**
+     * 被有界截取截断的 json 不完整, 按字符串输出
+     */
+    private static boolean isTruncated(HttpMessage message) {
+        BodyCapture capture = BodyCapture.find(message);
+        return capture != null && capture.isTruncated();
+    }
+
     private Optional<String> prepareOriginalCallAppName(HttpMessage httpMessage) {
         HttpHeaders headers = httpMessage.getHeaders();
         List<String> values = headers.get("x-original-call-app");
@@ -139,45 +473,8 @@ public class LogbookSink implements Sink {
         return Optional.empty();
     }
 
-    private boolean ifJson(String contentType) {
-        if (contentType == null) {
-            return false;
-        }
-        // implementation note: manually coded for improved performance
-        if (contentType.startsWith("application/")) {
-            int index = contentType.indexOf(';', 12);
-            if (index != -1) {
-                if (index > 16) {
-                    // application/some+json;charset=utf-8
-                    return contentType.regionMatches(index - 5, "+json", 0, 5);
-                }
-
-                // application/json;charset=utf-8
-                return contentType.regionMatches(index - 4, "json", 0, 4);
-            } else {
-                // application/json
-                if (contentType.length() == 16) {
-                    return contentType.endsWith("json");
-                }
-                // application/some+json
-                return contentType.endsWith("+json");
-            }
-        }
-        return false;
-    }
-
-    private String findCode(String json) {
-        String regex = "\"code\"\\s?:\\s?(\"(.*?)\"|(\\d*))";
-        Matcher matcher = Pattern.compile(regex).matcher(json);
-        String value = null;
-        if (matcher.find()) {
-            value = matcher.group().replace("\"", "").replace("code:", "").trim();
-        }
-        return value;
-    }
-
     @AllArgsConstructor
-    private static final class JsonBody {
+    static final class JsonBody {
         String json;
 
         @JsonRawValue
@@ -187,4 +484,104 @@ public class LogbookSink implements Sink {
         }
     }
 
+    public static final class Builder {
+        private final HttpLogWriter writer;
+        private final String appName;
+        private ResponseCodeExtractor codeExtractor = JsonPointerCodeExtractor.defaultValue();
+        private ExchangeMetrics metrics = ExchangeMetrics.none();
+        private LogbookCustomCombinedProperties combinedProperties = new LogbookCustomCombinedProperties();
+        private boolean reordered;
+        private BodyEncoder bodyEncoder = BodyEncoder.none();
+        private ContentTypeClassifier classifier = ContentTypeClassifier.defaultValue();
+        private OverloadController overload = OverloadController.none();
+        @Nullable
+        private LogbookRecordSerializer<?> serializer;
+        private BodyDeduplicator deduplicator = BodyDeduplicator.none();
+        @Nullable
+        private FlightRecorder recorder;
+        private ExchangeIndex index = ExchangeIndex.none();
+
+        private Builder(HttpLogWriter writer, String appName) {
+            this.writer = writer;
+            this.appName = appName;
+        }
+
+        public Builder codeExtractor(ResponseCodeExtractor codeExtractor) {
+            this.codeExtractor = codeExtractor;
+            return this;
+        }
+
+        public Builder metrics(ExchangeMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * 开启时请求等响应一起以一条合并记录输出
+         */
+        public Builder combined(LogbookCustomCombinedProperties combinedProperties) {
+            this.combinedProperties = combinedProperties;
+            return this;
+        }
+
+        /**
+         * 同一次请求的响应可能先于请求写到这里时(外层是多个后台线程的异步 sink)设为 true, 合并模式为此留下 completed 标记
+         */
+        public Builder reordered(boolean reordered) {
+            this.reordered = reordered;
+            return this;
+        }
+
+        public Builder bodyEncoder(BodyEncoder bodyEncoder) {
+            this.bodyEncoder = bodyEncoder;
+            return this;
+        }
+
+        public Builder classifier(ContentTypeClassifier classifier) {
+            this.classifier = classifier;
+            return this;
+        }
+
+        public Builder overload(OverloadController overload) {
+            this.overload = overload;
+            return this;
+        }
+
+        /**
+         * Smile/CBOR 编码时 writer 必须是 {@link BinaryHttpLogWriter}
+         */
+        public Builder serializer(LogbookRecordSerializer<?> serializer) {
+            this.serializer = serializer;
+            return this;
+        }
+
+        /**
+         * 只对响应 body 去重
+         */
+        public Builder deduplicator(BodyDeduplicator deduplicator) {
+            this.deduplicator = deduplicator;
+            return this;
+        }
+
+        /**
+         * 不为 null 时正常的请求只输出元数据, 出错或慢响应时完整输出
+         */
+        public Builder recorder(@Nullable FlightRecorder recorder) {
+            this.recorder = recorder;
+            return this;
+        }
+
+        /**
+         * 写出的每条记录同时写入索引
+         */
+        public Builder index(ExchangeIndex index) {
+            this.index = index;
+            return this;
+        }
+
+        public LogbookSink build() {
+            return new LogbookSink(this);
+        }
+    }
+
 }
@@ -10,7 +10,9 @@ import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
 
 /**
  * @author Richard
+ * @deprecated 日志记录已改为 LogbookJsonSerializer 直接生成, starter 内不再使用; 保留一个版本后删除, 需要时自行创建 ObjectMapper
  */
+@Deprecated
 public class ObjectMapperFactory {
 
     public static ObjectMapper createObjectMapper() {
@@ -0,0 +1,114 @@
+package com.magic.logbook.config;
+
+import com.magic.logbook.client.okhttp.LogbookInterceptor;
+import com.magic.logbook.metrics.MicrometerOkHttpClientMetrics;
+import com.magic.logbook.metrics.OkHttpClientMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Lazy;
+import org.zalando.logbook.Logbook;
+import org.zalando.logbook.autoconfigure.LogbookProperties;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 引入 okhttp 时注册带 logbook 拦截器的 OkHttpClient, 与 {@link HttpClientConfiguration} 并列, 参数见 {@link LogbookCustomOkHttpProperties}.
+ * 连接池和 Dispatcher 是单独的 bean, 应用用 {@code okHttpClient.newBuilder()} 派生的客户端共用同一个连接池和并发上限;
+ * 应用自己构建 OkHttpClient 时可以直接注入 {@link LogbookInterceptor} 加为 network interceptor.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 05:00
+ */
+@Import({LogbookCustomOkHttpProperties.class, LogbookCustomCaptureProperties.class})
+@Configuration
+@ConditionalOnClass(name = "okhttp3.OkHttpClient")
+@ConditionalOnProperty(prefix = "logbook.custom.okhttp", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OkHttpClientConfiguration {
+
+    @Autowired
+    private LogbookCustomOkHttpProperties okHttpProperties;
+
+    @Bean
+    @ConditionalOnMissingBean(LogbookInterceptor.class)
+    public LogbookInterceptor logbookOkHttpInterceptor(Logbook logbook,
+                                                       LogbookCustomCaptureProperties captureProperties,
+                                                       LogbookProperties properties,
+                                                       ObjectProvider<ContentTypeClassifier> classifier) {
+        return new LogbookInterceptor(logbook, LogbookCaptureConfiguration.maxBodySize(captureProperties, properties),
+                classifier.getIfAvailable(ContentTypeClassifier::defaultValue));
+    }
+
+    @Bean
+    @Lazy
+    @ConditionalOnMissingBean(ConnectionPool.class)
+    public ConnectionPool logbookOkHttpConnectionPool() {
+        return new ConnectionPool(okHttpProperties.getMaxIdleConnections(), okHttpProperties.getKeepAliveMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 开启 logbook.custom.http-client.virtualThreads 时异步调用跑在 logbookHttpClientExecutor 上
+     */
+    @Bean
+    @Lazy
+    @ConditionalOnMissingBean(Dispatcher.class)
+    public Dispatcher logbookOkHttpDispatcher(
+            @Qualifier("logbookHttpClientExecutor") ObjectProvider<ExecutorService> executor) {
+        ExecutorService executorService = executor.getIfAvailable();
+        Dispatcher dispatcher = executorService == null ? new Dispatcher() : new Dispatcher(executorService);
+        dispatcher.setMaxRequests(okHttpProperties.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(okHttpProperties.getMaxRequestsPerHost());
+        return dispatcher;
+    }
+
+    /**
+     * 连接池、Dispatcher 和客户端都在第一次注入时才创建, 指标也在那时绑定
+     */
+    @Bean
+    @Lazy
+    @ConditionalOnMissingBean(OkHttpClient.class)
+    public OkHttpClient okHttpClient(ConnectionPool connectionPool, Dispatcher dispatcher,
+                                     LogbookInterceptor logbookInterceptor,
+                                     ObjectProvider<OkHttpClientMetrics> okHttpClientMetrics) {
+        okHttpClientMetrics.getIfAvailable(OkHttpClientMetrics::none).bind(connectionPool, dispatcher);
+        return new OkHttpClient.Builder()
+                .connectionPool(connectionPool)
+                .dispatcher(dispatcher)
+                .connectTimeout(Duration.ofMillis(okHttpProperties.getConnectTimeoutMillis()))
+                .readTimeout(Duration.ofMillis(okHttpProperties.getReadTimeoutMillis()))
+                .writeTimeout(Duration.ofMillis(okHttpProperties.getWriteTimeoutMillis()))
+                .callTimeout(Duration.ofMillis(okHttpProperties.getCallTimeoutMillis()))
+                .addNetworkInterceptor(logbookInterceptor)
+                .build();
+    }
+
+    /**
+     * 连接池和 Dispatcher 的指标, 引入 micrometer 时注册
+     */
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    static class OkHttpClientMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(OkHttpClientMetrics.class)
+        public OkHttpClientMetrics okHttpClientMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+            return new MicrometerOkHttpClientMetrics(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+        }
+
+    }
+
+}
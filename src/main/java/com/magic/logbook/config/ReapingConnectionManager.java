@@ -0,0 +1,88 @@
+package com.magic.logbook.config;
+
+import com.magic.logbook.metrics.ConnectionPoolMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.config.Registry;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 带后台回收线程的连接池: 定时关闭过期(超过 keep-alive)和空闲过久的连接, 避免复用被服务端关闭的连接.
+ * 获取连接的等待时间和结果记录到 {@link ConnectionPoolMetrics}.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 21:00
+ */
+@Slf4j
+class ReapingConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final ConnectionPoolMetrics metrics;
+    private final ScheduledExecutorService reaper;
+
+    ReapingConnectionManager(Registry<ConnectionSocketFactory> registry, ConnectionPoolMetrics metrics,
+                             long maxIdleMillis, long intervalMillis) {
+        super(registry);
+        this.metrics = metrics;
+        this.reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "logbook-http-client-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(100, intervalMillis);
+        reaper.scheduleWithFixedDelay(() -> reap(maxIdleMillis), interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void reap(long maxIdleMillis) {
+        try {
+            closeExpiredConnections();
+            if (maxIdleMillis > 0) {
+                closeIdleConnections(maxIdleMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (RuntimeException e) {
+            log.warn("logbook http client reaper failed", e);
+        }
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        ConnectionRequest request = super.requestConnection(route, state);
+        return new ConnectionRequest() {
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit unit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                long start = System.nanoTime();
+                Throwable failure = null;
+                try {
+                    return request.get(timeout, unit);
+                } catch (Throwable e) {
+                    failure = e;
+                    throw e;
+                } finally {
+                    metrics.acquired(Duration.ofNanos(System.nanoTime() - start), failure);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void shutdown() {
+        reaper.shutdownNow();
+        super.shutdown();
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.magic.logbook.config;
+
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * 从响应中提取业务 code, 由 {@link LogbookSink} 用于生成日志中的 code 字段.
+ */
+@FunctionalInterface
+public interface ResponseCodeExtractor {
+
+    /**
+     * @return 响应体中的业务 code, 不存在时返回 null
+     */
+    @Nullable
+    String extract(HttpRequest request, HttpResponse response) throws IOException;
+
+}
@@ -0,0 +1,35 @@
+package com.magic.logbook.dedup;
+
+import org.zalando.logbook.HttpMessage;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * 识别窗口内重复的响应 body, 由 logbook.custom.dedup 开启.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 08:00
+ */
+public interface BodyDeduplicator {
+
+    /**
+     * 按响应的原始字节判断, 在 body 过滤和解码之前调用, 重复的 body 不再处理. 只查找, 不登记
+     *
+     * @return null 不参与去重(低于阈值); {@link BodyRef#isReference()} 为 true 时只输出引用
+     */
+    @Nullable
+    BodyRef dedup(HttpMessage message) throws IOException;
+
+    /**
+     * 完整输出 body 的记录被 writer 接收之后调用, 登记之后窗口内重复的 body 才只输出引用.
+     * 记录被丢弃时不调用, 下一次相同的 body 仍完整输出
+     */
+    default void written(BodyRef ref) {
+    }
+
+    static BodyDeduplicator none() {
+        return message -> null;
+    }
+
+}
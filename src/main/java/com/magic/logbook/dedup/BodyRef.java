@@ -0,0 +1,73 @@
+package com.magic.logbook.dedup;
+
+import javax.annotation.Nullable;
+
+/**
+ * 开启 logbook.custom.dedup 时响应 body 的输出. 窗口内第一次出现的 body 完整输出并带上 bodyHash,
+ * 之后重复的 body 输出为 {"bodyRef": hash}, 按 hash 找到之前完整输出的那条记录.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 08:00
+ */
+public final class BodyRef {
+
+    private static final String PREFIX = "xxh64:";
+
+    private final long value;
+    private final String hash;
+    private final boolean reference;
+    @Nullable
+    private final Object body;
+
+    private BodyRef(long value, String hash, boolean reference, @Nullable Object body) {
+        this.value = value;
+        this.hash = hash;
+        this.reference = reference;
+        this.body = body;
+    }
+
+    static BodyRef reference(long hash) {
+        return new BodyRef(hash, format(hash), true, null);
+    }
+
+    static BodyRef first(long hash) {
+        return new BodyRef(hash, format(hash), false, null);
+    }
+
+    /**
+     * 完整输出的 body, 由 sink 处理完 body(截断、压缩等)之后填入
+     */
+    public BodyRef withBody(Object body) {
+        return new BodyRef(value, hash, false, body);
+    }
+
+    long value() {
+        return value;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * 重复的 body, 只输出引用
+     */
+    public boolean isReference() {
+        return reference;
+    }
+
+    @Nullable
+    public Object getBody() {
+        return body;
+    }
+
+    private static String format(long hash) {
+        String hex = Long.toHexString(hash);
+        StringBuilder builder = new StringBuilder(PREFIX.length() + 16).append(PREFIX);
+        for (int i = hex.length(); i < 16; i++) {
+            builder.append('0');
+        }
+        return builder.append(hex).toString();
+    }
+
+}
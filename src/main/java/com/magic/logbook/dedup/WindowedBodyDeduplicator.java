@@ -0,0 +1,141 @@
+package com.magic.logbook.dedup;
+
+import com.magic.logbook.config.BodyDigest;
+import org.zalando.logbook.HttpMessage;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按 body 原始字节的 XXH64 去重. 最近完整输出过的 hash 放在定长的组相联表中: 每个 hash 只能落在所属组的 {@link #WAYS} 个槽位,
+ * 组满时替换最早写入的, 查找和写入都是无锁的数组读写, 不分配内存. 命中不延长有效期, 窗口过后重新完整输出一次.
+ * <p>
+ * 完整输出的记录被 writer 接收后才登记 hash({@link #written}), 记录被丢弃时后续重复的 body 不会引用一条不存在的记录.
+ * 登记前并发到达的相同 body 都会完整输出, 并发写同一个槽位时最多让某个 body 多完整输出一次.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 08:00
+ */
+public class WindowedBodyDeduplicator implements BodyDeduplicator {
+
+    static final int WAYS = 4;
+    private static final long SEED = 0;
+
+    private final int minBodySize;
+    private final long windowNanos;
+    private final int setMask;
+    /**
+     * 槽位的 hash 和过期时间(nanoTime), 先写过期时间再写 hash, 读取顺序相反
+     */
+    private final AtomicLongArray hashes;
+    private final AtomicLongArray expiries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder savedBytes = new LongAdder();
+
+    /**
+     * @param minBodySize 小于该字节数的 body 不去重, 引用本身也有几十个字节
+     * @param maxEntries  最多记住的 hash 个数, 向上取整为 2 的幂
+     */
+    public WindowedBodyDeduplicator(int minBodySize, long windowMillis, int maxEntries) {
+        this.minBodySize = Math.max(1, minBodySize);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        int wanted = Math.max(1, (maxEntries + WAYS - 1) / WAYS);
+        int sets = wanted == 1 ? 1 : Integer.highestOneBit(wanted - 1) << 1;
+        this.setMask = sets - 1;
+        this.hashes = new AtomicLongArray(sets * WAYS);
+        this.expiries = new AtomicLongArray(sets * WAYS);
+    }
+
+    @Override
+    @Nullable
+    public BodyRef dedup(HttpMessage message) throws IOException {
+        byte[] body = BodyDigest.rawBodyOf(message);
+        if (body.length < minBodySize) {
+            return null;
+        }
+        long hash = XxHash64.hash(body, SEED);
+        if (seen(hash, System.nanoTime())) {
+            hits.increment();
+            savedBytes.add(body.length);
+            return BodyRef.reference(hash);
+        }
+        misses.increment();
+        return BodyRef.first(hash);
+    }
+
+    @Override
+    public void written(BodyRef ref) {
+        register(ref.value(), System.nanoTime());
+    }
+
+    /**
+     * @return 窗口内已完整输出过
+     */
+    private boolean seen(long hash, long now) {
+        int base = setOf(hash);
+        for (int i = base; i < base + WAYS; i++) {
+            if (hashes.get(i) == hash) {
+                long expiry = expiries.get(i);
+                if (expiry != 0 && expiry - now > 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 已有相同 hash 的槽位时覆盖它, 否则优先使用空槽位, 再替换最早过期的
+     */
+    private void register(long hash, long now) {
+        int base = setOf(hash);
+        int victim = base;
+        long earliest = Long.MAX_VALUE;
+        for (int i = base; i < base + WAYS; i++) {
+            if (hashes.get(i) == hash) {
+                victim = i;
+                break;
+            }
+            long expiry = expiries.get(i);
+            // 空槽位的过期时间为 0, 优先使用
+            long order = expiry == 0 ? Long.MIN_VALUE : expiry - now;
+            if (order < earliest) {
+                earliest = order;
+                victim = i;
+            }
+        }
+        // 最低位置 1, 与空槽位的 0 区分
+        expiries.set(victim, (now + windowNanos) | 1);
+        hashes.set(victim, hash);
+    }
+
+    private int setOf(long hash) {
+        return (int) ((hash ^ (hash >>> 32)) & setMask) * WAYS;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 重复的 body 只输出引用省下的原始字节数
+     */
+    public long getSavedBytes() {
+        return savedBytes.sum();
+    }
+
+    public double getHitRate() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+}
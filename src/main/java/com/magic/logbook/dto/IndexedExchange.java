@@ -0,0 +1,49 @@
+package com.magic.logbook.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * actuator 端点 logbook 返回的一条索引记录, record 为 sink 写出的原始记录(Smile/CBOR 转换为 json).
+ * 超过 maxRecordSize 的记录只有索引字段, record 为 null.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 10:00
+ */
+@Getter
+@Setter
+@JsonInclude
+@JsonPropertyOrder({"seq", "start", "correlation", "type", "uri", "template", "method", "origin", "status", "code",
+        "duration", "originalCallApp", "record"})
+public class IndexedExchange implements Serializable {
+
+    /**
+     * 写入索引的序号, 翻页时作为 before 传入
+     */
+    private long seq;
+    /**
+     * 请求开始的时间
+     */
+    private String start;
+    private String correlation;
+    private String type;
+    private String uri;
+    /**
+     * 归一后的 URI 模板, 如 /orders/{id}
+     */
+    private String template;
+    private String method;
+    private String origin;
+    private Integer status;
+    private String code;
+    private Long duration;
+    private String originalCallApp;
+    @JsonRawValue
+    private String record;
+
+}
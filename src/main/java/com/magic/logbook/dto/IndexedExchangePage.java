@@ -0,0 +1,38 @@
+package com.magic.logbook.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * actuator 端点 logbook 的一页查询结果, 按写入顺序从新到旧. nextCursor 不为 null 时以 before=nextCursor 查询下一页.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 10:00
+ */
+@Getter
+@Setter
+@JsonInclude
+@JsonPropertyOrder({"exchanges", "nextCursor", "records", "usedBytes", "capacityBytes"})
+public class IndexedExchangePage implements Serializable {
+
+    private List<IndexedExchange> exchanges;
+    private Long nextCursor;
+    /**
+     * 启动以来写入索引的记录数
+     */
+    private long records;
+    /**
+     * 堆外缓冲区已使用的字节数
+     */
+    private long usedBytes;
+    /**
+     * 堆外缓冲区和堆上索引占用的总字节数, 创建时分配, 不会增长
+     */
+    private long capacityBytes;
+
+}
@@ -0,0 +1,56 @@
+package com.magic.logbook.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * 合并模式下一次请求只输出一条记录, 请求和响应放在 request/response 中, 公共字段只出现一次.
+ * 请求超时未收到响应的, 以 {@link #TYPE_ORPHAN} 输出, duration/status/code/response 为 null.
+ * 等待表已满时请求已按 in 记录单独输出, 合并记录中 request 为 null.
+ * 飞行记录触发时完整的请求/响应以 {@link #TYPE_REPLAY} 输出, 最后多一个 trigger 字段(触发它的请求的 correlation),
+ * 同一 correlation 的 in/out/exchange 记录仍然只有元数据.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 19:00
+ */
+@Getter
+@Setter
+@JsonInclude
+//保持content中各key的顺序, 后续会按照该顺序匹配各key的值
+@JsonPropertyOrder({"correlation", "type", "uri", "method", "origin", "duration", "status", "code", "request", "response", "originalCallApp"})
+public class LogbookExchange implements Serializable {
+
+    public static final String TYPE_EXCHANGE = "exchange";
+    public static final String TYPE_ORPHAN = "orphan";
+    public static final String TYPE_REPLAY = "replay";
+
+    private String correlation;
+    private String type = TYPE_EXCHANGE;
+    private String uri;
+    private String method;
+    private String origin = LogbookReq.ORIGIN_CONSUMER;
+    private Long duration;
+    private Integer status;
+    private String code;
+    private Section request;
+    private Section response;
+
+    /**
+     * 当服务端应用获取到调用方应用名称时, 填充到该属性以标识请求来源.
+     */
+    private String originalCallApp = "_NO_VALUE";
+
+    @Getter
+    @Setter
+    @JsonInclude
+    @JsonPropertyOrder({"body", "headers"})
+    public static class Section implements Serializable {
+        private Object body;
+        private Object headers;
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.magic.logbook.encoding;
+
+import javax.annotation.Nullable;
+
+/**
+ * sink 输出 body 前的编码, 由 logbook.custom.encoding 开启.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 00:00
+ */
+public interface BodyEncoder {
+
+    /**
+     * @return null 不需要编码(低于阈值或压缩后没有变小), 按原文输出
+     */
+    @Nullable
+    EncodedBody encode(String body);
+
+    static BodyEncoder none() {
+        return body -> null;
+    }
+
+}
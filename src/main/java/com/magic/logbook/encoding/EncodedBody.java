@@ -0,0 +1,44 @@
+package com.magic.logbook.encoding;
+
+/**
+ * 压缩后的 body, 日志中 body 字段为 base64 字符串, 并带上 bodyEncoding 和 originalSize.
+ * 还原见 {@link LogbookRecordDecoder}.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 00:00
+ */
+public final class EncodedBody {
+
+    public static final String GZIP_BASE64 = "gzip+base64";
+
+    private final String encoding;
+    private final String data;
+    private final int originalSize;
+
+    public EncodedBody(String encoding, String data, int originalSize) {
+        this.encoding = encoding;
+        this.data = data;
+        this.originalSize = originalSize;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public String getData() {
+        return data;
+    }
+
+    /**
+     * 压缩前 body 的 UTF-8 字节数
+     */
+    public int getOriginalSize() {
+        return originalSize;
+    }
+
+    @Override
+    public String toString() {
+        return data;
+    }
+
+}
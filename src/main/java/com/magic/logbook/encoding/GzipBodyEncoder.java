@@ -0,0 +1,128 @@
+package com.magic.logbook.encoding;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 超过阈值的 body 按 gzip 压缩后 base64 输出. {@link Deflater} 和输出缓冲区放在有界的池中复用,
+ * 池空时临时创建, 归还时池满则释放, 不会因为偶发的并发高峰长期占用本地内存.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 00:00
+ */
+public class GzipBodyEncoder implements BodyEncoder {
+
+    /**
+     * 固定的 gzip 头: 无文件名、无时间戳, OS 未知
+     */
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int TRAILER_SIZE = 8;
+    /**
+     * 超过该大小的缓冲区归还时丢弃
+     */
+    private static final int MAX_RETAINED_BYTES = 64 * 1024;
+
+    private final int minBodySize;
+    private final int level;
+    private final BlockingQueue<Compressor> pool;
+
+    /**
+     * @param minBodySize UTF-8 字节数不小于该值的 body 才压缩
+     * @param level       压缩级别 1-9, 1 最快
+     * @param poolSize    复用的压缩器个数
+     */
+    public GzipBodyEncoder(int minBodySize, int level, int poolSize) {
+        this.minBodySize = Math.max(0, minBodySize);
+        this.level = Math.max(Deflater.BEST_SPEED, Math.min(Deflater.BEST_COMPRESSION, level));
+        this.pool = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+    }
+
+    @Override
+    @Nullable
+    public EncodedBody encode(String body) {
+        // 每个字符的 UTF-8 编码最多 3 个字节, 先按字符数粗筛, 小报文不必编码
+        if ((long) body.length() * 3 < minBodySize) {
+            return null;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < minBodySize) {
+            return null;
+        }
+        Compressor compressor = pool.poll();
+        if (compressor == null) {
+            compressor = new Compressor(level);
+        }
+        try {
+            int length = compressor.gzip(bytes);
+            // base64 膨胀 4/3, 压缩后没有变小的原样输出
+            if (base64Length(length) >= bytes.length) {
+                return null;
+            }
+            ByteBuffer encoded = Base64.getEncoder().encode(ByteBuffer.wrap(compressor.buffer, 0, length));
+            String data = new String(encoded.array(), 0, encoded.limit(), StandardCharsets.ISO_8859_1);
+            return new EncodedBody(EncodedBody.GZIP_BASE64, data, bytes.length);
+        } finally {
+            release(compressor);
+        }
+    }
+
+    private void release(Compressor compressor) {
+        if (compressor.buffer.length > MAX_RETAINED_BYTES || !pool.offer(compressor)) {
+            compressor.deflater.end();
+        }
+    }
+
+    private static int base64Length(int length) {
+        return (length + 2) / 3 * 4;
+    }
+
+    private static final class Compressor {
+        private final Deflater deflater;
+        private final CRC32 crc = new CRC32();
+        private byte[] buffer = new byte[4096];
+
+        private Compressor(int level) {
+            this.deflater = new Deflater(level, true);
+        }
+
+        /**
+         * @return 写入 buffer 的字节数
+         */
+        private int gzip(byte[] input) {
+            deflater.reset();
+            crc.reset();
+            crc.update(input, 0, input.length);
+            System.arraycopy(HEADER, 0, buffer, 0, HEADER.length);
+            int length = HEADER.length;
+            deflater.setInput(input);
+            deflater.finish();
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length << 1);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            if (length + TRAILER_SIZE > buffer.length) {
+                buffer = Arrays.copyOf(buffer, length + TRAILER_SIZE);
+            }
+            length = writeInt(buffer, length, (int) crc.getValue());
+            return writeInt(buffer, length, input.length);
+        }
+
+        private static int writeInt(byte[] buffer, int offset, int value) {
+            buffer[offset] = (byte) value;
+            buffer[offset + 1] = (byte) (value >>> 8);
+            buffer[offset + 2] = (byte) (value >>> 16);
+            buffer[offset + 3] = (byte) (value >>> 24);
+            return offset + 4;
+        }
+    }
+
+}
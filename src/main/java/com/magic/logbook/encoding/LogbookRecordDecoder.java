@@ -0,0 +1,123 @@
+package com.magic.logbook.encoding;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 还原 {@link GzipBodyEncoder} 压缩过的日志记录: body 解压后按 json 或字符串放回原位, 去掉 bodyEncoding/originalSize.
+ * 行首的日志前缀(时间、级别等)原样保留, 无法解析的行(包括 base64 或 gzip 损坏、写了一半的行)原样输出.
+ * <pre>
+ * java -cp my-logbook-starter.jar com.magic.logbook.encoding.LogbookRecordDecoder [file...]
+ * java -cp my-logbook-starter.jar com.magic.logbook.mmap.MappedSegmentLogReader logs/logbook | java -cp ... LogbookRecordDecoder
+ * </pre>
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 00:00
+ */
+public class LogbookRecordDecoder {
+
+    private static final String[] SECTIONS = {"request", "response"};
+
+    /**
+     * 小数按原样保留, 不转成 double
+     */
+    private final ObjectMapper mapper = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .setNodeFactory(JsonNodeFactory.withExactBigDecimals(true));
+
+    public static void main(String[] args) throws IOException {
+        LogbookRecordDecoder decoder = new LogbookRecordDecoder();
+        if (args.length == 0) {
+            decoder.decodeAll(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)));
+            return;
+        }
+        for (String file : args) {
+            try (BufferedReader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+                decoder.decodeAll(reader);
+            }
+        }
+    }
+
+    private void decodeAll(BufferedReader reader) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            System.out.println(decode(line));
+        }
+    }
+
+    /**
+     * @return 还原后的日志行, 没有压缩的 body 时返回原行
+     */
+    public String decode(String line) {
+        int start = line.indexOf('{');
+        if (start < 0 || !line.contains(EncodedBody.GZIP_BASE64)) {
+            return line;
+        }
+        try {
+            JsonNode record = mapper.readTree(line.substring(start));
+            if (!(record instanceof ObjectNode)) {
+                return line;
+            }
+            boolean decoded = decode((ObjectNode) record);
+            for (String section : SECTIONS) {
+                JsonNode node = record.get(section);
+                if (node instanceof ObjectNode) {
+                    decoded |= decode((ObjectNode) node);
+                }
+            }
+            return decoded ? line.substring(0, start) + mapper.writeValueAsString(record) : line;
+        } catch (JsonProcessingException | IllegalArgumentException | UncheckedIOException e) {
+            // 损坏的 base64 或 gzip(如 mmap 段末尾写了一半的记录), 不中断后面的行
+            return line;
+        }
+    }
+
+    private boolean decode(ObjectNode node) {
+        JsonNode encoding = node.get("bodyEncoding");
+        JsonNode body = node.get("body");
+        if (encoding == null || !EncodedBody.GZIP_BASE64.equals(encoding.asText()) || body == null || !body.isTextual()) {
+            return false;
+        }
+        String text = new String(gunzip(Base64.getDecoder().decode(body.asText())), StandardCharsets.UTF_8);
+        node.set("body", parse(text));
+        node.remove("bodyEncoding");
+        node.remove("originalSize");
+        return true;
+    }
+
+    /**
+     * 压缩前是完整 json 的按 json 放回, 与未压缩时的输出一致
+     */
+    private JsonNode parse(String text) {
+        try {
+            JsonNode json = mapper.readTree(text);
+            return json.isContainerNode() ? json : mapper.getNodeFactory().textNode(text);
+        } catch (JsonProcessingException e) {
+            return mapper.getNodeFactory().textNode(text);
+        }
+    }
+
+    static byte[] gunzip(byte[] data) {
+        try (GZIPInputStream stream = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return stream.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,315 @@
+package com.magic.logbook.flight;
+
+import com.magic.logbook.async.HttpRequestSnapshot;
+import com.magic.logbook.async.HttpResponseSnapshot;
+import com.magic.logbook.config.ContentTypeClassifier;
+import com.magic.logbook.config.LogbookCustomFlightRecorderProperties;
+import lombok.Getter;
+import org.slf4j.MDC;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.ForwardingHttpMessage;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.HttpMessage;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Origin;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 飞行记录: 正常结束的请求只输出元数据, 完整的请求/响应快照按 trace id 分段保存在定长的环中.
+ * 出错或慢响应时 sink 完整输出这次请求, 并取出同一 trace 中在它开始之后结束的请求(一般是处理它时发出的下游调用)一起完整输出.
+ * 只保存带 trace id 的出站请求(origin 为 LOCAL), 其余正常请求永远不会被取出, 不拷贝快照.
+ * trace id 按 traceHeaders 从请求头中取, 都没有时取业务线程 MDC 中的 {@link HttpRequestSnapshot#TRACE_ID_KEY},
+ * 不依赖业务线程, 线程池和异步客户端上的下游调用也能关联上.
+ * <p>
+ * 槽位在创建时全部分配, 快照按字符数估算占用, 超出每段上限时淘汰最早的, 单个超过上限的不保存,
+ * 总占用不超过 stripes * maxBytesPerStripe.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 09:00
+ */
+public class FlightRecorder {
+
+    /**
+     * 每个槽位除 body 和 header 外的固定开销(快照对象、correlation 等)
+     */
+    static final int SLOT_OVERHEAD = 512;
+
+    private final ContentTypeClassifier classifier;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final long maxBytesPerStripe;
+    private final long slowThresholdMillis;
+    private final int minErrorStatus;
+    private final Set<String> successCodes;
+    private final String[] traceHeaders;
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder triggered = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public FlightRecorder(LogbookCustomFlightRecorderProperties properties, ContentTypeClassifier classifier) {
+        this.classifier = classifier;
+        int wanted = Math.max(1, properties.getStripes());
+        int count = wanted == 1 ? 1 : Integer.highestOneBit(wanted - 1) << 1;
+        this.stripeMask = count - 1;
+        this.maxBytesPerStripe = properties.getMaxBytesPerStripe().toBytes();
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(Math.max(1, properties.getSlotsPerStripe()), maxBytesPerStripe);
+        }
+        this.slowThresholdMillis = properties.getSlowThresholdMillis();
+        this.minErrorStatus = properties.getMinErrorStatus();
+        this.successCodes = properties.getSuccessCodes() == null ? Collections.emptySet() :
+                new HashSet<>(properties.getSuccessCodes());
+        this.traceHeaders = properties.getTraceHeaders() == null ? new String[0] :
+                properties.getTraceHeaders().toArray(new String[0]);
+    }
+
+    /**
+     * 5xx(不小于 minErrorStatus)、非成功的 code 或慢响应
+     */
+    public boolean isTriggered(int status, @Nullable String code, long durationMillis) {
+        return status >= minErrorStatus
+                || (slowThresholdMillis > 0 && durationMillis > slowThresholdMillis)
+                || (!successCodes.isEmpty() && !successCodes.contains(code));
+    }
+
+    /**
+     * 保存一次正常结束的请求, 在业务线程(或异步模式的写出线程)上调用. 入站请求和没有 trace id 的请求直接忽略
+     */
+    public void record(Correlation correlation, HttpRequest request, HttpResponse response) throws IOException {
+        if (request.getOrigin() != Origin.LOCAL) {
+            return;
+        }
+        String traceId = traceOf(request);
+        if (traceId == null) {
+            return;
+        }
+        HttpRequestSnapshot requestSnapshot = HttpRequestSnapshot.of(request, classifier);
+        HttpResponseSnapshot responseSnapshot = HttpResponseSnapshot.of(response, classifier);
+        long bytes = SLOT_OVERHEAD + sizeOf(requestSnapshot) + sizeOf(responseSnapshot);
+        if (bytes > maxBytesPerStripe) {
+            rejected.increment();
+            return;
+        }
+        evicted.add(stripeOf(traceId).add(traceId, correlation, requestSnapshot, responseSnapshot, bytes));
+        recorded.increment();
+    }
+
+    /**
+     * 取出并移除与触发的请求相关的记录: 同一 trace 中在它开始之后结束的请求, 按结束的先后排列.
+     * 触发的请求没有 trace id 时只有它自己
+     */
+    public List<Recorded> drain(Correlation trigger, HttpRequest request) {
+        triggered.increment();
+        String traceId = traceOf(request);
+        if (traceId == null) {
+            return Collections.emptyList();
+        }
+        List<Recorded> related = stripeOf(traceId).drain(traceId, trigger.getStart());
+        flushed.add(related.size());
+        return related;
+    }
+
+    /**
+     * 请求头取自最里层的原始请求, 不受 header 策略过滤. 异步模式下 sink 在写出线程上执行, 快照只有过滤后的请求头,
+     * MDC 中的 trace id 取自快照
+     */
+    @Nullable
+    String traceOf(HttpRequest request) {
+        HttpMessage raw = request;
+        while (raw instanceof ForwardingHttpMessage) {
+            raw = ((ForwardingHttpMessage) raw).delegate();
+        }
+        HttpHeaders headers = raw.getHeaders();
+        for (String name : traceHeaders) {
+            String value = headers.getFirst(name);
+            if (value != null && !value.isEmpty()) {
+                return traceIdOf(name, value);
+            }
+        }
+        return request instanceof HttpRequestSnapshot ? ((HttpRequestSnapshot) request).getTraceId() :
+                MDC.get(HttpRequestSnapshot.TRACE_ID_KEY);
+    }
+
+    /**
+     * traceparent: version-traceid-spanid-flags; b3: traceid-spanid[-sampled[-parentspanid]]
+     */
+    static String traceIdOf(String header, String value) {
+        if ("traceparent".equalsIgnoreCase(header)) {
+            int start = value.indexOf('-') + 1;
+            int end = value.indexOf('-', start);
+            return start > 0 && end > start ? value.substring(start, end) : value;
+        }
+        if ("b3".equalsIgnoreCase(header)) {
+            int end = value.indexOf('-');
+            return end > 0 ? value.substring(0, end) : value;
+        }
+        return value;
+    }
+
+    private Stripe stripeOf(String traceId) {
+        long h = traceId.hashCode() * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h ^ (h >>> 32)) & stripeMask];
+    }
+
+    /**
+     * java 字符串最多两个字节一个字符
+     */
+    private static long sizeOf(HttpMessage message) throws IOException {
+        long chars = message.getBodyAsString().length();
+        for (Map.Entry<String, List<String>> header : message.getHeaders().entrySet()) {
+            chars += header.getKey().length();
+            for (String value : header.getValue()) {
+                chars += value.length();
+            }
+        }
+        return chars * 2;
+    }
+
+    public long getRecordedCount() {
+        return recorded.sum();
+    }
+
+    public long getTriggerCount() {
+        return triggered.sum();
+    }
+
+    public long getFlushedCount() {
+        return flushed.sum();
+    }
+
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getBufferedBytes() {
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            bytes += stripe.bytes;
+        }
+        return bytes;
+    }
+
+    public long getCapacityBytes() {
+        return maxBytesPerStripe * stripes.length;
+    }
+
+    /**
+     * 从环中取出的一次请求
+     */
+    @Getter
+    public static final class Recorded {
+        private final Correlation correlation;
+        private final HttpRequestSnapshot request;
+        private final HttpResponseSnapshot response;
+
+        Recorded(Correlation correlation, HttpRequestSnapshot request, HttpResponseSnapshot response) {
+            this.correlation = correlation;
+            this.request = request;
+            this.response = response;
+        }
+    }
+
+    private static final class Slot {
+        String traceId;
+        long bytes;
+        Correlation correlation;
+        HttpRequestSnapshot request;
+        HttpResponseSnapshot response;
+
+        void clear() {
+            bytes = 0;
+            traceId = null;
+            correlation = null;
+            request = null;
+            response = null;
+        }
+    }
+
+    /**
+     * head 指向最早的槽位, 也是下一次写入的位置
+     */
+    private static final class Stripe {
+        private final Slot[] slots;
+        private final long maxBytes;
+        private int head;
+        private volatile long bytes;
+
+        Stripe(int size, long maxBytes) {
+            this.slots = new Slot[size];
+            for (int i = 0; i < size; i++) {
+                slots[i] = new Slot();
+            }
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * @return 淘汰的记录数
+         */
+        synchronized int add(String traceId, Correlation correlation, HttpRequestSnapshot request,
+                             HttpResponseSnapshot response, long size) {
+            int evicted = 0;
+            long used = bytes;
+            // 从最早的开始淘汰, 直到放得下
+            for (int i = 0; i < slots.length && used + size > maxBytes; i++) {
+                Slot slot = slots[(head + i) % slots.length];
+                if (slot.correlation != null) {
+                    used -= slot.bytes;
+                    slot.clear();
+                    evicted++;
+                }
+            }
+            Slot slot = slots[head];
+            if (slot.correlation != null) {
+                used -= slot.bytes;
+                evicted++;
+            }
+            slot.traceId = traceId;
+            slot.bytes = size;
+            slot.correlation = correlation;
+            slot.request = request;
+            slot.response = response;
+            bytes = used + size;
+            head = (head + 1) % slots.length;
+            return evicted;
+        }
+
+        synchronized List<Recorded> drain(String traceId, Instant since) {
+            List<Recorded> related = null;
+            long used = bytes;
+            for (int i = 0; i < slots.length; i++) {
+                Slot slot = slots[(head + i) % slots.length];
+                if (slot.correlation == null || !traceId.equals(slot.traceId)
+                        || slot.correlation.getStart().isBefore(since)) {
+                    continue;
+                }
+                if (related == null) {
+                    related = new ArrayList<>();
+                }
+                related.add(new Recorded(slot.correlation, slot.request, slot.response));
+                used -= slot.bytes;
+                slot.clear();
+            }
+            bytes = used;
+            return related == null ? Collections.emptyList() : related;
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.magic.logbook.index;
+
+import org.zalando.logbook.Precorrelation;
+
+import javax.annotation.Nullable;
+
+/**
+ * 保存 sink 写出的记录, 供事后按 correlation、URI、status/code、调用方查询.
+ * 在 sink 的写出路径上调用, 不能阻塞.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 10:00
+ */
+public interface ExchangeIndex {
+
+    /**
+     * @param type   与记录中的 type 一致: in/out/exchange/orphan
+     * @param path   请求的 path, 按 URI 模板归一后索引
+     * @param status 请求和 orphan 记录为 0
+     * @param code   请求和 orphan 记录为 null
+     * @param record sink 写出的记录, json 为 String, Smile/CBOR 为 byte[]
+     */
+    void add(Precorrelation precorrelation, String type, String uri, String path, String method, String origin,
+             int status, @Nullable String code, long duration, String originalCallApp, Object record);
+
+    static ExchangeIndex none() {
+        return (precorrelation, type, uri, path, method, origin, status, code, duration, originalCallApp, record) -> {
+        };
+    }
+
+}
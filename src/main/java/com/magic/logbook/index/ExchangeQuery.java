@@ -0,0 +1,39 @@
+package com.magic.logbook.index;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.annotation.Nullable;
+
+/**
+ * 索引的查询条件, 为 null 的不过滤. 多个条件时按 correlation、uri、code、originalCallApp、status 的顺序选一个走索引, 其余逐条比较.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 10:00
+ */
+@Getter
+@Setter
+public class ExchangeQuery {
+
+    @Nullable
+    private String correlation;
+    /**
+     * 请求的 path 或 URI 模板, 按相同的规则归一后比较
+     */
+    @Nullable
+    private String uri;
+    @Nullable
+    private Integer status;
+    @Nullable
+    private String code;
+    @Nullable
+    private String originalCallApp;
+    /**
+     * 只返回序号小于该值的记录, 即上一页的 nextCursor
+     */
+    @Nullable
+    private Long before;
+    @Nullable
+    private Integer limit;
+
+}
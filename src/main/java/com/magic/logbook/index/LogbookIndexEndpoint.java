@@ -0,0 +1,53 @@
+package com.magic.logbook.index;
+
+import com.magic.logbook.dto.IndexedExchangePage;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+
+/**
+ * actuator 端点 logbook, 查询 {@link OffHeapExchangeIndex} 中最近的记录, 从新到旧分页返回:
+ * <ul>
+ *     <li>GET /actuator/logbook?uri=/orders/1&amp;status=500&amp;limit=20: 条件之间为且, uri 按 URI 模板匹配</li>
+ *     <li>GET /actuator/logbook?before={nextCursor}: 下一页</li>
+ *     <li>GET /actuator/logbook/{correlation}: 一次请求的全部记录</li>
+ * </ul>
+ * 返回的 record 即写出的日志, 可能含未脱敏的 body, 需要和其他 actuator 端点一样限制访问.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 10:00
+ */
+@Endpoint(id = "logbook")
+public class LogbookIndexEndpoint {
+
+    private final OffHeapExchangeIndex index;
+
+    public LogbookIndexEndpoint(OffHeapExchangeIndex index) {
+        this.index = index;
+    }
+
+    @ReadOperation
+    public IndexedExchangePage exchanges(@Nullable String correlation, @Nullable String uri, @Nullable Integer status,
+                                         @Nullable String code, @Nullable String originalCallApp,
+                                         @Nullable Long before, @Nullable Integer limit) {
+        ExchangeQuery query = new ExchangeQuery();
+        query.setCorrelation(correlation);
+        query.setUri(uri);
+        query.setStatus(status);
+        query.setCode(code);
+        query.setOriginalCallApp(originalCallApp);
+        query.setBefore(before);
+        query.setLimit(limit);
+        return index.query(query);
+    }
+
+    @ReadOperation
+    public IndexedExchangePage exchange(@Selector String correlation) {
+        ExchangeQuery query = new ExchangeQuery();
+        query.setCorrelation(correlation);
+        query.setLimit(Integer.MAX_VALUE);
+        return index.query(query);
+    }
+
+}
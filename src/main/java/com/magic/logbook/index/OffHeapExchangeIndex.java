@@ -0,0 +1,607 @@
+package com.magic.logbook.index;
+
+import com.magic.logbook.config.LogRecordEncoding;
+import com.magic.logbook.config.LogbookCustomIndexProperties;
+import com.magic.logbook.dto.IndexedExchange;
+import com.magic.logbook.dto.IndexedExchangePage;
+import com.magic.logbook.metrics.UriTemplateNormalizer;
+import org.zalando.logbook.Precorrelation;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+
+/**
+ * 最近记录的进程内索引. 记录编码为紧凑的帧追加到堆外的环形缓冲区, 写满后覆盖最早的; 定长的条目表保存每条记录的位置和开始时间,
+ * 并按 correlation、URI 模板、status、code、originalCallApp 各维护一组哈希链: 桶指向最新的条目, 条目指向同一个桶中更早的条目.
+ * <p>
+ * 写入只有 getAndAdd 和 CAS, 没有锁: 先预留序号和缓冲区空间, 再写帧、发布条目、挂到各个桶上. 读取时按序号校验条目,
+ * 按缓冲区的写入位置校验帧没有被覆盖, 预留后停顿太久的写入方可能晚写到已被后来的帧使用的空间, 所以帧内容再按 CRC32C 校验;
+ * 被覆盖的条目和帧直接跳过, 超过 maxAgeMillis 的不返回.
+ * 占用在创建时全部分配: 堆外 maxMemory, 堆上每个条目 64 字节、每个桶 40 字节, 见 {@link #getCapacityBytes()}.
+ * 写入方每个线程保留一个编码缓冲区, 最大为 maxRecordSize 加 4KB(索引字段), 写入不分配; 超出的帧(很长的 uri 等字段,
+ * 或字符数不超过 maxRecordSize 而编码后超过的多字节记录)才临时分配.
+ * 查询时每次查询分配一个读取缓冲区, 在各条命中之间复用, 命中的分配只有返回的对象和字符串.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 10:00
+ */
+public class OffHeapExchangeIndex implements ExchangeIndex {
+
+    private static final int CORRELATION = 0;
+    private static final int URI = 1;
+    private static final int STATUS = 2;
+    private static final int CODE = 3;
+    private static final int APP = 4;
+    private static final int KEYS = 5;
+
+    private static final byte RECORD_TEXT = 0;
+    private static final byte RECORD_BINARY = 1;
+    private static final byte RECORD_OMITTED = 2;
+    /**
+     * 帧长度 + 序号 + 帧内容的 CRC32C
+     */
+    private static final int FRAME_HEADER = 16;
+    /**
+     * 线程本地编码缓冲区的初始大小, 也是为索引字段预留的大小
+     */
+    private static final int INITIAL_FRAME_SIZE = 4096;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final UriTemplateNormalizer normalizer;
+    private final ByteBuffer data;
+    private final int dataCapacity;
+    private final AtomicLong dataCursor = new AtomicLong();
+    private final AtomicLong entryCursor = new AtomicLong();
+    private final int entryCount;
+    private final int entryMask;
+    /**
+     * 条目的序号 + 1, 0 表示空或正在写
+     */
+    private final AtomicLongArray seqs;
+    private final AtomicLongArray positions;
+    private final AtomicLongArray starts;
+    /**
+     * 每个条目 KEYS 个, 同一个桶中上一个条目的序号 + 1
+     */
+    private final AtomicLongArray links;
+    /**
+     * 每个索引 bucketCount 个桶, 桶中最新条目的序号 + 1
+     */
+    private final AtomicLongArray heads;
+    private final int bucketMask;
+    private final int maxRecordSize;
+    private final long maxAgeMillis;
+    private final int maxPageSize;
+    private final LongAdder omitted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final ThreadLocal<FrameWriter> frames;
+
+    public OffHeapExchangeIndex(LogbookCustomIndexProperties properties, UriTemplateNormalizer normalizer) {
+        this.normalizer = normalizer;
+        this.dataCapacity = (int) Math.min(Math.max(properties.getMaxMemory().toBytes(), 1024), Integer.MAX_VALUE - 8);
+        this.data = ByteBuffer.allocateDirect(dataCapacity);
+        int wanted = Math.max(2, properties.getMaxEntries());
+        this.entryCount = Integer.highestOneBit(wanted - 1) << 1;
+        this.entryMask = entryCount - 1;
+        this.seqs = new AtomicLongArray(entryCount);
+        this.positions = new AtomicLongArray(entryCount);
+        this.starts = new AtomicLongArray(entryCount);
+        this.links = new AtomicLongArray(entryCount * KEYS);
+        this.heads = new AtomicLongArray(entryCount * KEYS);
+        this.bucketMask = entryCount - 1;
+        // 单条记录最多占缓冲区的 1/4
+        this.maxRecordSize = (int) Math.min(properties.getMaxRecordSize().toBytes(), dataCapacity / 4);
+        this.maxAgeMillis = properties.getMaxAgeMillis();
+        this.maxPageSize = Math.max(1, properties.getMaxPageSize());
+        int retainedFrameSize = maxRecordSize + INITIAL_FRAME_SIZE;
+        this.frames = ThreadLocal.withInitial(() -> new FrameWriter(retainedFrameSize));
+    }
+
+    @Override
+    public void add(Precorrelation precorrelation, String type, String uri, String path, String method, String origin,
+                    int status, @Nullable String code, long duration, String originalCallApp, Object record) {
+        String correlation = precorrelation.getId();
+        long start = precorrelation.getStart().toEpochMilli();
+        String template = normalizer.normalize(path);
+        long seq = entryCursor.getAndIncrement();
+
+        FrameWriter frame = frames.get().begin(seq);
+        frame.writeLong(start);
+        frame.writeInt(status);
+        frame.writeLong(duration);
+        frame.writeString(correlation);
+        frame.writeString(type);
+        frame.writeString(uri);
+        frame.writeString(template);
+        frame.writeString(method);
+        frame.writeString(origin);
+        frame.writeString(code);
+        frame.writeString(originalCallApp);
+        if (!frame.writeRecord(record, maxRecordSize)) {
+            omitted.increment();
+        }
+        int length = frame.finish();
+        int slot = (int) seq & entryMask;
+        if (length > dataCapacity / 2) {
+            // 超长的 uri 等字段, 不值得为它覆盖半个缓冲区
+            frame.release();
+            seqs.set(slot, 0);
+            dropped.increment();
+            return;
+        }
+        long position = dataCursor.getAndAdd(length);
+        put(position, frame.buffer, length);
+        frame.release();
+
+        // 先作废旧条目, 读取方在前后两次校验之间看到的字段都属于同一个序号
+        seqs.set(slot, 0);
+        positions.set(slot, position);
+        starts.set(slot, start);
+        seqs.set(slot, seq + 1);
+        link(CORRELATION, slot, seq, correlation.hashCode());
+        link(URI, slot, seq, template.hashCode());
+        link(STATUS, slot, seq, status);
+        link(CODE, slot, seq, Objects.hashCode(code));
+        link(APP, slot, seq, Objects.hashCode(originalCallApp));
+    }
+
+    /**
+     * 链按序号从新到旧排列, 翻页和遇到被覆盖的条目即停止都依赖这个顺序. 并发写入时先拿到序号的可能后挂上,
+     * 这时从桶开始找到第一个比它旧的条目, 插在它前面
+     */
+    private void link(int key, int slot, long seq, int hash) {
+        int bucket = bucketOf(key, hash);
+        int at = slot * KEYS + key;
+        while (true) {
+            long head = heads.get(bucket);
+            if (head - 1 < seq) {
+                links.set(at, head);
+                if (heads.compareAndSet(bucket, head, seq + 1)) {
+                    return;
+                }
+                continue;
+            }
+            long newer = head - 1;
+            while (true) {
+                int newerSlot = (int) newer & entryMask;
+                if (seqs.get(newerSlot) != newer + 1) {
+                    return; // 比它新的条目已被覆盖, 它自己也已被覆盖
+                }
+                int newerAt = newerSlot * KEYS + key;
+                long next = links.get(newerAt);
+                if (next - 1 < seq) {
+                    links.set(at, next);
+                    if (links.compareAndSet(newerAt, next, seq + 1)) {
+                        return;
+                    }
+                    continue;
+                }
+                newer = next - 1;
+            }
+        }
+    }
+
+    private int bucketOf(int key, int hash) {
+        int h = hash * 0x9E3779B9;
+        return key * entryCount + ((h ^ (h >>> 16)) & bucketMask);
+    }
+
+    /**
+     * 按写入顺序从新到旧返回一页
+     */
+    public IndexedExchangePage query(ExchangeQuery query) {
+        int limit = query.getLimit() == null ? Math.min(DEFAULT_PAGE_SIZE, maxPageSize) :
+                Math.max(1, Math.min(query.getLimit(), maxPageSize));
+        String template = query.getUri() == null ? null : normalizer.normalize(query.getUri());
+        int key;
+        int hash;
+        if (query.getCorrelation() != null) {
+            key = CORRELATION;
+            hash = query.getCorrelation().hashCode();
+        } else if (template != null) {
+            key = URI;
+            hash = template.hashCode();
+        } else if (query.getCode() != null) {
+            key = CODE;
+            hash = query.getCode().hashCode();
+        } else if (query.getOriginalCallApp() != null) {
+            key = APP;
+            hash = query.getOriginalCallApp().hashCode();
+        } else if (query.getStatus() != null) {
+            key = STATUS;
+            hash = query.getStatus();
+        } else {
+            key = -1;
+            hash = 0;
+        }
+
+        long newest = entryCursor.get() - 1;
+        long oldest = Math.max(0, newest + 1 - entryCount);
+        long upper = query.getBefore() == null ? newest : Math.min(newest, query.getBefore() - 1);
+        long minStart = maxAgeMillis > 0 ? System.currentTimeMillis() - maxAgeMillis : Long.MIN_VALUE;
+        List<IndexedExchange> exchanges = new ArrayList<>(limit);
+        FrameReader reader = new FrameReader();
+        long seq = key < 0 ? upper : heads.get(bucketOf(key, hash)) - 1;
+        // 链按序号从新到旧, 最多走 entryCount 步
+        for (int steps = 0; seq >= oldest && exchanges.size() < limit && steps < entryCount; steps++) {
+            int slot = (int) seq & entryMask;
+            if (seqs.get(slot) != seq + 1) {
+                if (key >= 0) {
+                    break; // 已被覆盖, 链上更早的也被覆盖了
+                }
+                seq--; // 正在写
+                continue;
+            }
+            long next = key < 0 ? seq - 1 : links.get(slot * KEYS + key) - 1;
+            long position = positions.get(slot);
+            long start = starts.get(slot);
+            if (seqs.get(slot) != seq + 1) {
+                if (key >= 0) {
+                    break;
+                }
+                seq--;
+                continue;
+            }
+            if (seq <= upper && start >= minStart) {
+                IndexedExchange exchange = read(seq, position, reader);
+                if (exchange != null && matches(exchange, query, template)) {
+                    exchanges.add(exchange);
+                }
+            }
+            seq = next;
+        }
+        IndexedExchangePage page = new IndexedExchangePage();
+        page.setExchanges(exchanges);
+        page.setNextCursor(exchanges.size() == limit ? exchanges.get(limit - 1).getSeq() : null);
+        page.setRecords(getRecordCount());
+        page.setUsedBytes(getUsedBytes());
+        page.setCapacityBytes(getCapacityBytes());
+        return page;
+    }
+
+    private static boolean matches(IndexedExchange exchange, ExchangeQuery query, @Nullable String template) {
+        return (query.getCorrelation() == null || query.getCorrelation().equals(exchange.getCorrelation()))
+                && (template == null || template.equals(exchange.getTemplate()))
+                && (query.getStatus() == null || query.getStatus().equals(exchange.getStatus()))
+                && (query.getCode() == null || query.getCode().equals(exchange.getCode()))
+                && (query.getOriginalCallApp() == null || query.getOriginalCallApp().equals(exchange.getOriginalCallApp()));
+    }
+
+    /**
+     * @return 帧已被覆盖时为 null
+     */
+    @Nullable
+    private IndexedExchange read(long seq, long position, FrameReader reader) {
+        int length = intAt(position);
+        if (length < FRAME_HEADER || length > dataCapacity || !intact(position)) {
+            return null;
+        }
+        byte[] frame = reader.load(length);
+        get(position, frame, length);
+        // 拷贝完成时写入位置没有越过这一帧一整圈, 内容就没有被覆盖
+        if (!intact(position)) {
+            return null;
+        }
+        if (reader.readInt() != length || reader.readLong() != seq || reader.readInt() != checksum(frame, length)) {
+            return null;
+        }
+        IndexedExchange exchange = new IndexedExchange();
+        exchange.setSeq(seq);
+        exchange.setStart(Instant.ofEpochMilli(reader.readLong()).toString());
+        int status = reader.readInt();
+        exchange.setStatus(status == 0 ? null : status);
+        long duration = reader.readLong();
+        exchange.setCorrelation(reader.readString());
+        exchange.setType(reader.readString());
+        exchange.setUri(reader.readString());
+        exchange.setTemplate(reader.readString());
+        exchange.setMethod(reader.readString());
+        exchange.setOrigin(reader.readString());
+        exchange.setCode(reader.readString());
+        exchange.setOriginalCallApp(reader.readString());
+        exchange.setDuration(status == 0 ? null : duration);
+        exchange.setRecord(reader.readRecord());
+        return exchange;
+    }
+
+    private static int checksum(byte[] frame, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(frame, FRAME_HEADER, length - FRAME_HEADER);
+        return (int) crc.getValue();
+    }
+
+    private boolean intact(long position) {
+        return dataCursor.get() <= position + dataCapacity;
+    }
+
+    private void put(long position, byte[] source, int length) {
+        int offset = (int) (position % dataCapacity);
+        int first = Math.min(length, dataCapacity - offset);
+        data.put(offset, source, 0, first);
+        if (first < length) {
+            data.put(0, source, first, length - first);
+        }
+    }
+
+    /**
+     * 帧长度, 可能跨过缓冲区末尾
+     */
+    private int intAt(long position) {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = value << 8 | (data.get((int) ((position + i) % dataCapacity)) & 0xff);
+        }
+        return value;
+    }
+
+    private void get(long position, byte[] target, int length) {
+        int offset = (int) (position % dataCapacity);
+        int first = Math.min(length, dataCapacity - offset);
+        data.get(offset, target, 0, first);
+        if (first < length) {
+            data.get(0, target, first, length - first);
+        }
+    }
+
+    public long getRecordCount() {
+        return entryCursor.get();
+    }
+
+    /**
+     * 超过 maxRecordSize 只保存了索引字段的记录数
+     */
+    public long getOmittedCount() {
+        return omitted.sum();
+    }
+
+    /**
+     * 索引字段本身超过缓冲区一半、没有写入的记录数
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getUsedBytes() {
+        return Math.min(dataCursor.get(), dataCapacity);
+    }
+
+    public long getCapacityBytes() {
+        return dataCapacity + 8L * (seqs.length() + positions.length() + starts.length() + links.length() + heads.length());
+    }
+
+    /**
+     * 在线程本地的缓冲区中编码一帧: [int 帧长度][long 序号][int CRC32C][字段...], 整数为大端, 字符串为 [int 字节数, null 为 -1][UTF-8]
+     */
+    private static final class FrameWriter {
+        /**
+         * 缓冲区最多扩展到这么大并一直保留, 更大的帧用完即丢弃
+         */
+        private final int retainedSize;
+        private byte[] buffer = new byte[INITIAL_FRAME_SIZE];
+        private final char[] chars = new char[256];
+        private int size;
+
+        FrameWriter(int retainedSize) {
+            this.retainedSize = retainedSize;
+        }
+
+        FrameWriter begin(long seq) {
+            size = 4;
+            writeLong(seq);
+            size = FRAME_HEADER;
+            return this;
+        }
+
+        void writeInt(int value) {
+            ensure(4);
+            putInt(size, value);
+            size += 4;
+        }
+
+        void writeLong(long value) {
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+
+        void writeString(@Nullable String value) {
+            if (value == null) {
+                writeInt(-1);
+                return;
+            }
+            int lengthAt = size;
+            ensure(4);
+            size += 4;
+            encode(value);
+            putInt(lengthAt, size - lengthAt - 4);
+        }
+
+        /**
+         * @return 超过 maxRecordSize 时只写入 {@link #RECORD_OMITTED}, 返回 false
+         */
+        boolean writeRecord(Object record, int maxRecordSize) {
+            int kindAt = size;
+            ensure(5);
+            size += 5;
+            if (record instanceof byte[]) {
+                byte[] bytes = (byte[]) record;
+                if (bytes.length > maxRecordSize) {
+                    return omit(kindAt);
+                }
+                ensure(bytes.length);
+                System.arraycopy(bytes, 0, buffer, size, bytes.length);
+                size += bytes.length;
+                buffer[kindAt] = RECORD_BINARY;
+            } else {
+                String text = (String) record;
+                // 字符数已超过时不用编码
+                if (text.length() > maxRecordSize) {
+                    return omit(kindAt);
+                }
+                encode(text);
+                if (size - kindAt - 5 > maxRecordSize) {
+                    return omit(kindAt);
+                }
+                buffer[kindAt] = RECORD_TEXT;
+            }
+            putInt(kindAt + 1, size - kindAt - 5);
+            return true;
+        }
+
+        private boolean omit(int kindAt) {
+            buffer[kindAt] = RECORD_OMITTED;
+            size = kindAt + 1;
+            return false;
+        }
+
+        int finish() {
+            putInt(0, size);
+            putInt(12, checksum(buffer, size));
+            return size;
+        }
+
+        /**
+         * 索引字段超长的帧不长期占用内存
+         */
+        void release() {
+            if (buffer.length > retainedSize) {
+                buffer = new byte[retainedSize];
+            }
+        }
+
+        /**
+         * 分段按最坏情况(每个字符 3 字节)预留空间, 一次按整个字符串预留会让 ASCII 的记录也超过 retainedSize, 每次都重新分配
+         */
+        private void encode(String value) {
+            int length = value.length();
+            for (int from = 0, to; from < length; from = to) {
+                to = Math.min(length, from + chars.length);
+                if (to < length && Character.isHighSurrogate(value.charAt(to - 1))) {
+                    to--; // 代理对不拆到两段
+                }
+                value.getChars(from, to, chars, 0);
+                ensure((to - from) * 3);
+                size = encode(chars, to - from, buffer, size);
+            }
+        }
+
+        private static int encode(char[] chars, int length, byte[] out, int pos) {
+            for (int i = 0; i < length; i++) {
+                char c = chars[i];
+                if (c < 0x80) {
+                    out[pos++] = (byte) c;
+                } else if (c < 0x800) {
+                    out[pos++] = (byte) (0xc0 | (c >> 6));
+                    out[pos++] = (byte) (0x80 | (c & 0x3f));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars[i + 1])) {
+                    int cp = Character.toCodePoint(c, chars[++i]);
+                    out[pos++] = (byte) (0xf0 | (cp >> 18));
+                    out[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                    out[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                    out[pos++] = (byte) (0x80 | (cp & 0x3f));
+                } else if (Character.isSurrogate(c)) {
+                    out[pos++] = '?';
+                } else {
+                    out[pos++] = (byte) (0xe0 | (c >> 12));
+                    out[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    out[pos++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+            return pos;
+        }
+
+        private void ensure(int more) {
+            if (size + more > buffer.length) {
+                // 翻倍时不越过 retainedSize, 不超过 maxRecordSize 的记录扩展到 retainedSize 后不再分配
+                int grown = buffer.length < retainedSize ? Math.min(buffer.length * 2, retainedSize) : buffer.length * 2;
+                byte[] larger = new byte[Math.max(grown, size + more)];
+                System.arraycopy(buffer, 0, larger, 0, size);
+                buffer = larger;
+            }
+        }
+
+        private void putInt(int at, int value) {
+            buffer[at] = (byte) (value >>> 24);
+            buffer[at + 1] = (byte) (value >>> 16);
+            buffer[at + 2] = (byte) (value >>> 8);
+            buffer[at + 3] = (byte) value;
+        }
+    }
+
+    /**
+     * 一次查询中复用的读取缓冲区
+     */
+    private static final class FrameReader {
+        private byte[] frame = new byte[INITIAL_FRAME_SIZE];
+        private int pos;
+
+        /**
+         * @return 至少 length 字节的缓冲区, 从头开始读
+         */
+        byte[] load(int length) {
+            if (frame.length < length) {
+                frame = new byte[Math.max(frame.length * 2, length)];
+            }
+            pos = 0;
+            return frame;
+        }
+
+        static int intAt(byte[] bytes, int at) {
+            return (bytes[at] & 0xff) << 24 | (bytes[at + 1] & 0xff) << 16 | (bytes[at + 2] & 0xff) << 8
+                    | (bytes[at + 3] & 0xff);
+        }
+
+        int readInt() {
+            int value = intAt(frame, pos);
+            pos += 4;
+            return value;
+        }
+
+        long readLong() {
+            return (long) readInt() << 32 | (readInt() & 0xffffffffL);
+        }
+
+        @Nullable
+        String readString() {
+            int length = readInt();
+            if (length < 0) {
+                return null;
+            }
+            String value = new String(frame, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        /**
+         * Smile/CBOR 转换为 json, 未保存的为 null
+         */
+        @Nullable
+        String readRecord() {
+            byte kind = frame[pos++];
+            if (kind == RECORD_OMITTED) {
+                return null;
+            }
+            int length = readInt();
+            if (kind == RECORD_TEXT) {
+                return new String(frame, pos, length, StandardCharsets.UTF_8);
+            }
+            byte[] record = new byte[length];
+            System.arraycopy(frame, pos, record, 0, length);
+            try {
+                return LogRecordEncoding.detect(record).toJson(record);
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.magic.logbook.metrics;
+
+import com.magic.logbook.dedup.WindowedBodyDeduplicator;
+
+/**
+ * 响应 body 去重的命中率和省下的字节数, 由 counter/gauge 在采集时读取.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 08:00
+ */
+public interface BodyDedupMetrics {
+
+    /**
+     * 去重器创建后调用一次
+     */
+    void bind(WindowedBodyDeduplicator deduplicator);
+
+    static BodyDedupMetrics none() {
+        return deduplicator -> {
+        };
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.magic.logbook.metrics;
+
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.pool.ConnPoolControl;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+
+/**
+ * HttpClient 连接池的指标: 连接数由 gauge 在采集时读取, 从连接池获取连接的等待时间每次记录.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 21:00
+ */
+public interface ConnectionPoolMetrics {
+
+    /**
+     * 连接池创建后调用一次
+     */
+    void bind(ConnPoolControl<HttpRoute> pool);
+
+    /**
+     * 每次从连接池获取连接结束后调用, 只包含等待的时间, 不是连接被占用的时间
+     *
+     * @param waited  等待的时间
+     * @param failure 拿到连接时为 null, 否则为超时、中断、取消等原因
+     */
+    void acquired(Duration waited, @Nullable Throwable failure);
+
+    static ConnectionPoolMetrics none() {
+        return new ConnectionPoolMetrics() {
+            @Override
+            public void bind(ConnPoolControl<HttpRoute> pool) {
+            }
+
+            @Override
+            public void acquired(Duration waited, @Nullable Throwable failure) {
+            }
+        };
+    }
+
+}
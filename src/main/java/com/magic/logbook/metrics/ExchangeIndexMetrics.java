@@ -0,0 +1,23 @@
+package com.magic.logbook.metrics;
+
+import com.magic.logbook.index.OffHeapExchangeIndex;
+
+/**
+ * 记录索引写入、省略和丢弃的数量及缓冲区占用, 由 counter/gauge 在采集时读取.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 10:00
+ */
+public interface ExchangeIndexMetrics {
+
+    /**
+     * 索引创建后调用一次
+     */
+    void bind(OffHeapExchangeIndex index);
+
+    static ExchangeIndexMetrics none() {
+        return index -> {
+        };
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.magic.logbook.metrics;
+
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+
+import java.time.Duration;
+
+/**
+ * 在 sink 格式化响应日志时记录一次请求的指标, 耗时、status 和 code 复用 sink 已经算好的值.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 18:00
+ */
+@FunctionalInterface
+public interface ExchangeMetrics {
+
+    /**
+     * @param origin   CONSUMER / PROVIDER
+     * @param code     sink 提取并补全后的业务 code
+     * @param weight   采样权重, 未开启采样时为 1
+     */
+    void record(HttpRequest request, HttpResponse response, String origin, Duration duration, String code,
+                double weight);
+
+    static ExchangeMetrics none() {
+        return (request, response, origin, duration, code, weight) -> {
+        };
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.magic.logbook.metrics;
+
+import com.magic.logbook.flight.FlightRecorder;
+
+/**
+ * 飞行记录保存、淘汰和触发输出的数量及内存占用, 由 counter/gauge 在采集时读取.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 09:00
+ */
+public interface FlightRecorderMetrics {
+
+    /**
+     * 飞行记录创建后调用一次
+     */
+    void bind(FlightRecorder recorder);
+
+    static FlightRecorderMetrics none() {
+        return recorder -> {
+        };
+    }
+
+}
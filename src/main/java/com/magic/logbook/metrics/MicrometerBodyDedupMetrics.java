@@ -0,0 +1,46 @@
+package com.magic.logbook.metrics;
+
+import com.magic.logbook.dedup.WindowedBodyDeduplicator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 记录到 Micrometer:
+ * <ul>
+ *     <li>logbook.body.dedup.hits / misses: 只输出引用的和完整输出的响应 body 数</li>
+ *     <li>logbook.body.dedup.saved: 只输出引用省下的原始字节数</li>
+ *     <li>logbook.body.dedup.hit-rate: 启动以来的命中率</li>
+ * </ul>
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 08:00
+ */
+public class MicrometerBodyDedupMetrics implements BodyDedupMetrics {
+
+    public static final String DEDUP_PREFIX = "logbook.body.dedup.";
+
+    private final MeterRegistry registry;
+
+    public MicrometerBodyDedupMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void bind(WindowedBodyDeduplicator deduplicator) {
+        FunctionCounter.builder(DEDUP_PREFIX + "hits", deduplicator, WindowedBodyDeduplicator::getHitCount)
+                .description("response bodies replaced by a bodyRef")
+                .register(registry);
+        FunctionCounter.builder(DEDUP_PREFIX + "misses", deduplicator, WindowedBodyDeduplicator::getMissCount)
+                .description("response bodies logged in full")
+                .register(registry);
+        FunctionCounter.builder(DEDUP_PREFIX + "saved", deduplicator, WindowedBodyDeduplicator::getSavedBytes)
+                .baseUnit("bytes")
+                .description("raw response body bytes not logged because of dedup")
+                .register(registry);
+        Gauge.builder(DEDUP_PREFIX + "hit-rate", deduplicator, WindowedBodyDeduplicator::getHitRate)
+                .description("share of deduplicated response bodies since startup")
+                .register(registry);
+    }
+
+}
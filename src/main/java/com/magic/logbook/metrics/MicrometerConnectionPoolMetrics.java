@@ -0,0 +1,91 @@
+package com.magic.logbook.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.pool.ConnPoolControl;
+import org.apache.http.pool.PoolStats;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.function.ToIntFunction;
+
+/**
+ * 记录到 Micrometer:
+ * <ul>
+ *     <li>logbook.http.client.pool.leased / pending / available / max: 连接池总体的连接数</li>
+ *     <li>logbook.http.client.pool.acquire: 获取连接的等待时间, result=acquired/timeout/interrupted/cancelled/failed</li>
+ * </ul>
+ * pending 持续大于 0 或 acquire 耗时升高说明连接池不够用.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 21:00
+ */
+public class MicrometerConnectionPoolMetrics implements ConnectionPoolMetrics {
+
+    public static final String POOL_PREFIX = "logbook.http.client.pool.";
+    public static final String ACQUIRE_TIMER = POOL_PREFIX + "acquire";
+
+    private final MeterRegistry registry;
+    private final Timer acquired;
+    private final Timer timeout;
+    private final Timer interrupted;
+    private final Timer cancelled;
+    private final Timer failed;
+
+    public MicrometerConnectionPoolMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.acquired = acquireTimer("acquired");
+        this.timeout = acquireTimer("timeout");
+        this.interrupted = acquireTimer("interrupted");
+        this.cancelled = acquireTimer("cancelled");
+        this.failed = acquireTimer("failed");
+    }
+
+    private Timer acquireTimer(String result) {
+        return Timer.builder(ACQUIRE_TIMER)
+                .description("time spent waiting to acquire a pooled connection")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @Override
+    public void bind(ConnPoolControl<HttpRoute> pool) {
+        gauge(pool, "leased", "connections currently leased", PoolStats::getLeased);
+        gauge(pool, "pending", "requests waiting for a connection", PoolStats::getPending);
+        gauge(pool, "available", "idle connections kept in the pool", PoolStats::getAvailable);
+        gauge(pool, "max", "max total connections", PoolStats::getMax);
+    }
+
+    private void gauge(ConnPoolControl<HttpRoute> pool, String name, String description, ToIntFunction<PoolStats> value) {
+        Gauge.builder(POOL_PREFIX + name, pool, p -> value.applyAsInt(p.getTotalStats()))
+                .description(description)
+                .register(registry);
+    }
+
+    @Override
+    public void acquired(Duration waited, @Nullable Throwable failure) {
+        timerOf(failure).record(waited);
+    }
+
+    private Timer timerOf(@Nullable Throwable failure) {
+        if (failure == null) {
+            return acquired;
+        }
+        if (failure instanceof ConnectionPoolTimeoutException) {
+            return timeout;
+        }
+        if (failure instanceof InterruptedException) {
+            return interrupted;
+        }
+        // 请求被 abort 时连接池的 future 以 CancellationException 结束
+        if (failure instanceof CancellationException || failure.getCause() instanceof CancellationException) {
+            return cancelled;
+        }
+        return failed;
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.magic.logbook.metrics;
+
+import com.magic.logbook.index.OffHeapExchangeIndex;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 记录到 Micrometer:
+ * <ul>
+ *     <li>logbook.index.records: 写入索引的记录数</li>
+ *     <li>logbook.index.omitted / dropped: 超过 maxRecordSize 只保存索引字段的, 和索引字段过长没有写入的记录数</li>
+ *     <li>logbook.index.used / capacity: 堆外缓冲区已写入的字节数, 以及索引占用的全部字节数</li>
+ * </ul>
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 10:00
+ */
+public class MicrometerExchangeIndexMetrics implements ExchangeIndexMetrics {
+
+    public static final String INDEX_PREFIX = "logbook.index.";
+
+    private final MeterRegistry registry;
+
+    public MicrometerExchangeIndexMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void bind(OffHeapExchangeIndex index) {
+        FunctionCounter.builder(INDEX_PREFIX + "records", index, OffHeapExchangeIndex::getRecordCount)
+                .description("log records added to the in-process index")
+                .register(registry);
+        FunctionCounter.builder(INDEX_PREFIX + "omitted", index, OffHeapExchangeIndex::getOmittedCount)
+                .description("log records indexed without their content, larger than maxRecordSize")
+                .register(registry);
+        FunctionCounter.builder(INDEX_PREFIX + "dropped", index, OffHeapExchangeIndex::getDroppedCount)
+                .description("log records not indexed, indexed fields larger than half the buffer")
+                .register(registry);
+        Gauge.builder(INDEX_PREFIX + "used", index, OffHeapExchangeIndex::getUsedBytes)
+                .baseUnit("bytes")
+                .description("off-heap buffer bytes written")
+                .register(registry);
+        Gauge.builder(INDEX_PREFIX + "capacity", index, OffHeapExchangeIndex::getCapacityBytes)
+                .baseUnit("bytes")
+                .description("off-heap buffer and on-heap entry tables allocated by the index")
+                .register(registry);
+    }
+
+}
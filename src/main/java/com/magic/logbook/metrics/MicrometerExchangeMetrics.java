@@ -0,0 +1,135 @@
+package com.magic.logbook.metrics;
+
+import com.magic.logbook.config.LogbookCustomMetricsProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 按接口(uri 模板 + method + origin)记录到 Micrometer:
+ * <ul>
+ *     <li>logbook.http.exchange: 耗时, 百分位由 HdrHistogram 计算</li>
+ *     <li>logbook.http.status: 按 http status 计数</li>
+ *     <li>logbook.http.code: 按业务 code 计数</li>
+ * </ul>
+ * 开启采样时计数按采样权重累加, 耗时只记录被采样的请求. 接口数和 code 数都有上限, 超出的归入 OTHER.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 18:00
+ */
+@Slf4j
+public class MicrometerExchangeMetrics implements ExchangeMetrics {
+
+    public static final String EXCHANGE_TIMER = "logbook.http.exchange";
+    public static final String STATUS_COUNTER = "logbook.http.status";
+    public static final String CODE_COUNTER = "logbook.http.code";
+
+    static final String OTHER = "OTHER";
+
+    private final MeterRegistry registry;
+    private final UriTemplateNormalizer normalizer;
+    private final double[] percentiles;
+    private final boolean percentileHistogram;
+    private final int maxEndpoints;
+    private final int maxCodes;
+    private final ConcurrentMap<EndpointKey, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public MicrometerExchangeMetrics(MeterRegistry registry, LogbookCustomMetricsProperties properties) {
+        this.registry = registry;
+        this.normalizer = new UriTemplateNormalizer(properties.getUriTemplates(), properties.getUriCacheSize());
+        this.percentiles = properties.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray();
+        this.percentileHistogram = properties.isPercentileHistogram();
+        this.maxEndpoints = Math.max(1, properties.getMaxEndpoints());
+        this.maxCodes = Math.max(1, properties.getMaxCodes());
+    }
+
+    @Override
+    public void record(HttpRequest request, HttpResponse response, String origin, Duration duration, String code,
+                       double weight) {
+        Endpoint endpoint = endpointOf(normalizer.normalize(request.getPath()), request.getMethod(), origin);
+        endpoint.timer.record(duration);
+        endpoint.status(response.getStatus()).increment(weight);
+        endpoint.code(code).increment(weight);
+    }
+
+    private Endpoint endpointOf(String uri, String method, String origin) {
+        EndpointKey key = new EndpointKey(uri, method, origin);
+        Endpoint endpoint = endpoints.get(key);
+        if (endpoint != null) {
+            return endpoint;
+        }
+        if (endpoints.size() >= maxEndpoints) {
+            if (endpoints.size() == maxEndpoints) {
+                log.warn("logbook metrics reached {} endpoints, new uris are recorded as {}", maxEndpoints, OTHER);
+            }
+            key = new EndpointKey(OTHER, method, origin);
+        }
+        return endpoints.computeIfAbsent(key, Endpoint::new);
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class EndpointKey {
+        private final String uri;
+        private final String method;
+        private final String origin;
+    }
+
+    private final class Endpoint {
+        private static final int MAX_STATUS = 600;
+
+        private final EndpointKey key;
+        private final Timer timer;
+        private final AtomicReferenceArray<Counter> statuses = new AtomicReferenceArray<>(MAX_STATUS);
+        private final ConcurrentMap<String, Counter> codes = new ConcurrentHashMap<>();
+
+        private Endpoint(EndpointKey key) {
+            this.key = key;
+            this.timer = Timer.builder(EXCHANGE_TIMER)
+                    .tags("uri", key.uri, "method", key.method, "origin", key.origin)
+                    .publishPercentiles(percentiles)
+                    .publishPercentileHistogram(percentileHistogram)
+                    .register(registry);
+        }
+
+        private Counter status(int status) {
+            int index = status >= 0 && status < MAX_STATUS ? status : 0;
+            Counter counter = statuses.get(index);
+            if (counter == null) {
+                counter = Counter.builder(STATUS_COUNTER)
+                        .tags("uri", key.uri, "method", key.method, "origin", key.origin,
+                                "status", index == 0 ? OTHER : String.valueOf(status))
+                        .register(registry);
+                // register 对相同的 id 返回同一个 counter, 并发时重复设置无影响
+                statuses.set(index, counter);
+            }
+            return counter;
+        }
+
+        private Counter code(String code) {
+            Counter counter = codes.get(code);
+            if (counter != null) {
+                return counter;
+            }
+            String tag = codes.size() >= maxCodes ? OTHER : code;
+            return codes.computeIfAbsent(tag, this::newCodeCounter);
+        }
+
+        private Counter newCodeCounter(String code) {
+            return Counter.builder(CODE_COUNTER)
+                    .tags("uri", key.uri, "method", key.method, "origin", key.origin, "code", code)
+                    .register(registry);
+        }
+    }
+
+}
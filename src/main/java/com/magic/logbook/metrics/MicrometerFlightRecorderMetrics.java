@@ -0,0 +1,52 @@
+package com.magic.logbook.metrics;
+
+import com.magic.logbook.flight.FlightRecorder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 记录到 Micrometer:
+ * <ul>
+ *     <li>logbook.flight.recorded / evicted / rejected: 保存的、被淘汰的和超过单段上限未保存的请求数</li>
+ *     <li>logbook.flight.triggered / flushed: 出错或慢响应触发的次数, 以及随之完整输出的已保存请求数</li>
+ *     <li>logbook.flight.buffered: 当前快照估算占用的字节数</li>
+ * </ul>
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 09:00
+ */
+public class MicrometerFlightRecorderMetrics implements FlightRecorderMetrics {
+
+    public static final String FLIGHT_PREFIX = "logbook.flight.";
+
+    private final MeterRegistry registry;
+
+    public MicrometerFlightRecorderMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void bind(FlightRecorder recorder) {
+        FunctionCounter.builder(FLIGHT_PREFIX + "recorded", recorder, FlightRecorder::getRecordedCount)
+                .description("exchanges kept in memory and logged as metadata only")
+                .register(registry);
+        FunctionCounter.builder(FLIGHT_PREFIX + "evicted", recorder, FlightRecorder::getEvictedCount)
+                .description("kept exchanges overwritten before any trigger")
+                .register(registry);
+        FunctionCounter.builder(FLIGHT_PREFIX + "rejected", recorder, FlightRecorder::getRejectedCount)
+                .description("exchanges larger than a whole stripe, not kept")
+                .register(registry);
+        FunctionCounter.builder(FLIGHT_PREFIX + "triggered", recorder, FlightRecorder::getTriggerCount)
+                .description("failed or slow exchanges logged in full")
+                .register(registry);
+        FunctionCounter.builder(FLIGHT_PREFIX + "flushed", recorder, FlightRecorder::getFlushedCount)
+                .description("kept exchanges logged in full because of a trigger")
+                .register(registry);
+        Gauge.builder(FLIGHT_PREFIX + "buffered", recorder, FlightRecorder::getBufferedBytes)
+                .baseUnit("bytes")
+                .description("estimated memory held by kept snapshots")
+                .register(registry);
+    }
+
+}
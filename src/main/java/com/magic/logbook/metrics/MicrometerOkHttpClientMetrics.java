@@ -0,0 +1,49 @@
+package com.magic.logbook.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * 记录到 Micrometer:
+ * <ul>
+ *     <li>logbook.http.client.okhttp.pool.connections / idle: 连接池中的连接数和空闲连接数</li>
+ *     <li>logbook.http.client.okhttp.dispatcher.running / queued: 执行中和排队等待的异步调用数</li>
+ *     <li>logbook.http.client.okhttp.dispatcher.max / max-per-host: Dispatcher 的并发上限</li>
+ * </ul>
+ * queued 持续大于 0 说明异步调用被 maxRequests / maxRequestsPerHost 限制住了. 同步调用 (execute) 计入 running, 不受上限限制.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 05:00
+ */
+public class MicrometerOkHttpClientMetrics implements OkHttpClientMetrics {
+
+    public static final String OKHTTP_PREFIX = "logbook.http.client.okhttp.";
+
+    private final MeterRegistry registry;
+
+    public MicrometerOkHttpClientMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void bind(ConnectionPool pool, Dispatcher dispatcher) {
+        gauge(pool, "pool.connections", "connections kept in the pool", ConnectionPool::connectionCount);
+        gauge(pool, "pool.idle", "idle connections kept in the pool", ConnectionPool::idleConnectionCount);
+        gauge(dispatcher, "dispatcher.running", "calls currently running", Dispatcher::runningCallsCount);
+        gauge(dispatcher, "dispatcher.queued", "async calls waiting for the dispatcher", Dispatcher::queuedCallsCount);
+        gauge(dispatcher, "dispatcher.max", "max concurrent async calls", Dispatcher::getMaxRequests);
+        gauge(dispatcher, "dispatcher.max-per-host", "max concurrent async calls per host",
+                Dispatcher::getMaxRequestsPerHost);
+    }
+
+    private <T> void gauge(T target, String name, String description, ToIntFunction<T> value) {
+        Gauge.builder(OKHTTP_PREFIX + name, target, value::applyAsInt)
+                .description(description)
+                .register(registry);
+    }
+
+}
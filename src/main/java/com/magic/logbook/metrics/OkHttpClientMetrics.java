@@ -0,0 +1,24 @@
+package com.magic.logbook.metrics;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+
+/**
+ * OkHttpClient 连接池和 Dispatcher 的指标, 由 gauge 在采集时读取.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 05:00
+ */
+public interface OkHttpClientMetrics {
+
+    /**
+     * 连接池和 Dispatcher 创建后调用一次
+     */
+    void bind(ConnectionPool pool, Dispatcher dispatcher);
+
+    static OkHttpClientMetrics none() {
+        return (pool, dispatcher) -> {
+        };
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.magic.logbook.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 把原始 path 归一成 URI 模板, 避免指标的 uri 标签随 id 无限增长.
+ * 先匹配配置的模板 (如 /orders/{id}), 否则把纯数字、UUID 和较长的带数字的段替换为 {id}.
+ * 结果缓存在有界的 map 中, 写满后整体清空重建.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 18:00
+ */
+public class UriTemplateNormalizer {
+
+    static final String ID = "{id}";
+
+    /**
+     * 带数字且不短于该长度的段视为 id, 如订单号 SO202610180001; v1、oauth2 这类保留
+     */
+    private static final int MIN_ID_LENGTH = 8;
+
+    private final List<String[]> templates = new ArrayList<>();
+    private final Map<String, String> cache = new ConcurrentHashMap<>();
+    private final int cacheSize;
+
+    public UriTemplateNormalizer(List<String> templates, int cacheSize) {
+        for (String template : templates) {
+            this.templates.add(segmentsOf(template));
+        }
+        this.cacheSize = Math.max(1, cacheSize);
+    }
+
+    public String normalize(String path) {
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        String template = cache.get(path);
+        if (template == null) {
+            template = resolve(path);
+            if (cache.size() >= cacheSize) {
+                cache.clear();
+            }
+            cache.put(path, template);
+        }
+        return template;
+    }
+
+    private String resolve(String path) {
+        String[] segments = segmentsOf(path);
+        for (String[] template : templates) {
+            if (matches(template, segments)) {
+                return "/" + String.join("/", template);
+            }
+        }
+        StringBuilder builder = new StringBuilder(path.length());
+        for (String segment : segments) {
+            builder.append('/').append(isIdentifier(segment) ? ID : segment);
+        }
+        return builder.length() == 0 ? "/" : builder.toString();
+    }
+
+    private static boolean matches(String[] template, String[] segments) {
+        if (template.length != segments.length) {
+            return false;
+        }
+        for (int i = 0; i < template.length; i++) {
+            String expected = template[i];
+            boolean variable = expected.startsWith("{") && expected.endsWith("}");
+            if (!variable && !expected.equals(segments[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isIdentifier(String segment) {
+        int digits = 0;
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (!Character.isLetter(c) && c != '-' && c != '_') {
+                return false;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        // 纯数字, 或 UUID/订单号/hash 这类较长的混合段
+        return digits == segment.length() || segment.length() >= MIN_ID_LENGTH;
+    }
+
+    private static String[] segmentsOf(String path) {
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= path.length(); i++) {
+            if (i == path.length() || path.charAt(i) == '/') {
+                if (i > start) {
+                    segments.add(path.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return segments.toArray(new String[0]);
+    }
+
+}
@@ -0,0 +1,201 @@
+package com.magic.logbook.mmap;
+
+import com.magic.logbook.config.LogRecordEncoding;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 读取 {@link MappedSegmentLogWriter} 写出的分段文件, 校验 crc, 跳过写了一半或损坏的记录.
+ * 写入方占位后还没写入长度就崩溃的位置全为 0, 跳到之后第一个非 0 的位置(下一条记录)继续读取.
+ * Smile/CBOR 编码的记录按开头的字节识别, 转换为 json 文本输出.
+ * <pre>
+ * java -cp my-logbook-starter.jar com.magic.logbook.mmap.MappedSegmentLogReader logs/logbook [prefix] [--follow]
+ * </pre>
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 18:00
+ */
+public class MappedSegmentLogReader {
+
+    private static final long POLL_INTERVAL_MILLIS = 200;
+    /**
+     * 跟随模式下, 未提交的记录等待超过该时间后视为写入方已崩溃
+     */
+    private static final long UNCOMMITTED_TIMEOUT_MILLIS = 1000;
+
+    private final Path directory;
+    private final String prefix;
+
+    private long corrupted;
+
+    public MappedSegmentLogReader(Path directory, String prefix) {
+        this.directory = directory;
+        this.prefix = prefix;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.err.println("usage: MappedSegmentLogReader <directory> [prefix] [--follow]");
+            System.exit(1);
+        }
+        boolean follow = args[args.length - 1].equals("--follow");
+        int positional = follow ? args.length - 1 : args.length;
+        String prefix = positional > 1 ? args[1] : "logbook";
+        MappedSegmentLogReader reader = new MappedSegmentLogReader(Paths.get(args[0]), prefix);
+        if (follow) {
+            reader.follow(System.out::println);
+        } else {
+            reader.readAll(System.out::println);
+        }
+    }
+
+    /**
+     * 读取目录下当前已有的全部记录
+     *
+     * @return 读取到的记录数
+     */
+    public long readAll(Consumer<String> consumer) throws IOException {
+        long count = 0;
+        for (Path path : SegmentFiles.list(directory, prefix)) {
+            Segment segment = Segment.open(path, SegmentFiles.sequenceOf(path));
+            try {
+                count += readSegment(segment, consumer);
+            } finally {
+                segment.close();
+            }
+        }
+        return count;
+    }
+
+    private long readSegment(Segment segment, Consumer<String> consumer) {
+        long count = 0;
+        int offset = 0;
+        while (offset <= segment.getCapacity() - Segment.HEADER_SIZE) {
+            int length = segment.lengthAt(offset);
+            if (length == Segment.END_OF_SEGMENT) {
+                break;
+            }
+            if (length == 0) {
+                // 写到这里为止, 或者写入方占位后崩溃: 之后还有记录时跳过去
+                int next = segment.nextNonZero(offset);
+                if (next < 0) {
+                    break;
+                }
+                corrupted++;
+                offset = next;
+                continue;
+            }
+            int next = offset + Segment.recordSize(Math.abs(length));
+            if (next > segment.getCapacity()) {
+                corrupted++;
+                break;
+            }
+            if (length > 0 && emit(segment, offset, length, consumer)) {
+                count++;
+            }
+            offset = next;
+        }
+        return count;
+    }
+
+    /**
+     * 类似 tail -f, 从最新的分段开始持续读取新写入的记录
+     */
+    public void follow(Consumer<String> consumer) throws IOException, InterruptedException {
+        List<Path> segments = SegmentFiles.list(directory, prefix);
+        while (segments.isEmpty()) {
+            TimeUnit.MILLISECONDS.sleep(POLL_INTERVAL_MILLIS);
+            segments = SegmentFiles.list(directory, prefix);
+        }
+        Path path = segments.get(segments.size() - 1);
+        Segment segment = Segment.open(path, SegmentFiles.sequenceOf(path));
+        int offset = 0;
+        long stalledSince = 0;
+        while (true) {
+            int length = offset <= segment.getCapacity() - Segment.HEADER_SIZE ?
+                    segment.lengthAt(offset) : Segment.END_OF_SEGMENT;
+            if (length > 0) {
+                emit(segment, offset, length, consumer);
+                offset += Segment.recordSize(length);
+                stalledSince = 0;
+                continue;
+            }
+            if (length == Segment.END_OF_SEGMENT) {
+                Segment next = openNext(segment);
+                if (next != null) {
+                    segment.close();
+                    segment = next;
+                    offset = 0;
+                    continue;
+                }
+            } else {
+                // 已占位但未提交(length < 0), 或已占位但还没写入长度(length == 0 且已有更新的分段), 等待写入方完成
+                long now = System.currentTimeMillis();
+                if (stalledSince == 0) {
+                    stalledSince = now;
+                } else if (now - stalledSince > UNCOMMITTED_TIMEOUT_MILLIS) {
+                    stalledSince = 0;
+                    if (length < 0) {
+                        corrupted++;
+                        offset += Segment.recordSize(-length);
+                        continue;
+                    }
+                    Segment next = openNext(segment);
+                    if (next != null) {
+                        // 已有更新的分段, 写入方不会再回来写这个位置; 之后还有已提交的记录时跳过去, 否则换段
+                        int skipTo = segment.nextNonZero(offset);
+                        if (skipTo >= 0) {
+                            next.close();
+                            corrupted++;
+                            offset = skipTo;
+                            continue;
+                        }
+                        segment.close();
+                        segment = next;
+                        offset = 0;
+                        continue;
+                    }
+                }
+            }
+            TimeUnit.MILLISECONDS.sleep(POLL_INTERVAL_MILLIS);
+        }
+    }
+
+    private Segment openNext(Segment segment) throws IOException {
+        Path path = directory.resolve(Segment.fileName(prefix, segment.getSequence() + 1));
+        if (!path.toFile().exists()) {
+            return null;
+        }
+        return Segment.open(path, segment.getSequence() + 1);
+    }
+
+    private boolean emit(Segment segment, int offset, int length, Consumer<String> consumer) {
+        byte[] payload = segment.payloadAt(offset, length);
+        if (Segment.crc(payload, 0, length) != segment.crcAt(offset)) {
+            corrupted++;
+            return false;
+        }
+        String line;
+        try {
+            line = LogRecordEncoding.detect(payload).toJson(payload);
+        } catch (IOException e) {
+            corrupted++;
+            return false;
+        }
+        consumer.accept(line);
+        return true;
+    }
+
+    /**
+     * crc 校验失败或写入方崩溃留下的记录数
+     */
+    public long getCorruptedCount() {
+        return corrupted;
+    }
+
+}
@@ -0,0 +1,167 @@
+package com.magic.logbook.mmap;
+
+import com.magic.logbook.config.BinaryHttpLogWriter;
+import com.magic.logbook.config.LogbookCustomMmapProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.Precorrelation;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 将已序列化的日志记录(json 文本或 Smile/CBOR)追加到内存映射的分段文件中, 不经过 slf4j/logback 的编码和加锁.
+ * 写入方通过对写位置的原子加法抢占空间后并行拷贝, 只有换段时才加锁. 写满的段在最后一个写入方离开后立即解除映射.
+ * 文件内容用 {@link MappedSegmentLogReader} 读取.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 18:00
+ */
+@Slf4j
+public class MappedSegmentLogWriter implements BinaryHttpLogWriter, Flushable, Closeable {
+
+    private final Path directory;
+    private final String prefix;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final boolean forceOnFlush;
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile Segment current;
+    private volatile boolean closed;
+
+    public MappedSegmentLogWriter(LogbookCustomMmapProperties properties) throws IOException {
+        this.directory = Paths.get(properties.getDirectory());
+        this.prefix = properties.getPrefix();
+        this.segmentSize = Math.toIntExact(properties.getSegmentSize().toBytes());
+        this.maxSegments = Math.max(1, properties.getMaxSegments());
+        this.forceOnFlush = properties.isForceOnFlush();
+        if (segmentSize < Segment.HEADER_SIZE * 2) {
+            throw new IllegalArgumentException("segment size is too small: " + segmentSize);
+        }
+        Files.createDirectories(directory);
+        List<Path> existing = SegmentFiles.list(directory, prefix);
+        long sequence = existing.isEmpty() ? 0 : SegmentFiles.sequenceOf(existing.get(existing.size() - 1)) + 1;
+        this.current = Segment.create(directory, prefix, sequence, segmentSize);
+        deleteExpiredSegments();
+    }
+
+    @Override
+    public void write(Precorrelation precorrelation, String request) throws IOException {
+        append(request.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void write(Correlation correlation, String response) throws IOException {
+        append(response.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void write(Precorrelation precorrelation, byte[] request) throws IOException {
+        append(request);
+    }
+
+    @Override
+    public void write(Correlation correlation, byte[] response) throws IOException {
+        append(response);
+    }
+
+    @Override
+    public boolean offer(Correlation correlation, String response) throws IOException {
+        return append(response.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean offer(Correlation correlation, byte[] response) throws IOException {
+        return append(response);
+    }
+
+    /**
+     * @return false 记录超过段大小或已关闭, 被丢弃
+     */
+    private boolean append(byte[] payload) throws IOException {
+        int size = Segment.recordSize(payload.length);
+        if (size > segmentSize) {
+            dropped.increment();
+            log.warn("logbook record of {} bytes exceeds mmap segment size {}", payload.length, segmentSize);
+            return false;
+        }
+        while (true) {
+            Segment segment = current;
+            if (!segment.acquire()) {
+                if (closed) {
+                    dropped.increment();
+                    return false;
+                }
+                continue; // 已换段, current 已经是新的段
+            }
+            try {
+                long start = segment.claim(size);
+                if (start + size <= segment.getCapacity()) {
+                    segment.write((int) start, payload);
+                    return true;
+                }
+                // 只有跨过段末尾的那个写入方会写结束标记, 之后的写入方直接换段
+                if (start <= segment.getCapacity() - Integer.BYTES) {
+                    segment.markEnd((int) start);
+                }
+            } finally {
+                segment.release();
+            }
+            roll(segment);
+        }
+    }
+
+    private synchronized void roll(Segment full) throws IOException {
+        if (current != full || closed) {
+            return;
+        }
+        current = Segment.create(directory, prefix, full.getSequence() + 1, segmentSize);
+        full.close();
+        deleteExpiredSegments();
+    }
+
+    private void deleteExpiredSegments() throws IOException {
+        List<Path> segments = SegmentFiles.list(directory, prefix);
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void flush() {
+        if (forceOnFlush) {
+            force(current);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        Segment segment = current;
+        force(segment);
+        segment.close();
+    }
+
+    private static void force(Segment segment) {
+        if (segment.acquire()) {
+            try {
+                segment.force();
+            } finally {
+                segment.release();
+            }
+        }
+    }
+
+}
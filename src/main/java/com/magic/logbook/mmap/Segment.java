@@ -0,0 +1,219 @@
+package com.magic.logbook.mmap;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+/**
+ * 一个固定大小的内存映射日志段.
+ * <p>
+ * 记录格式(4 字节对齐): [int length][int crc32c][payload]. 写入方先写 -length 占位, 再写 payload 和 crc,
+ * 最后以 release 语义写入 +length 提交; 段末尾剩余空间不足时写入 {@link #END_OF_SEGMENT}.
+ * 进程崩溃时, 已提交的记录完整可读, 写了一半的记录长度为负, 读取时按长度跳过; 已占位还没写入长度的记录全为 0,
+ * 读取时跳到之后第一个非 0 的位置, 即下一条记录的开头.
+ * <p>
+ * 映射在 {@link #close()} 时立即释放, 不等 GC. 写入方在访问映射之前 {@link #acquire()}, 关闭要等所有写入方 {@link #release()}
+ * 之后才解除映射, 解除映射后再访问会使进程崩溃.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 18:00
+ */
+final class Segment {
+
+    static final int HEADER_SIZE = 8;
+    static final int END_OF_SEGMENT = Integer.MIN_VALUE;
+    static final String SUFFIX = ".seg";
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private final long sequence;
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final AtomicLong position = new AtomicLong();
+    private final AtomicInteger writers = new AtomicInteger();
+    private final AtomicBoolean unmapped = new AtomicBoolean();
+    private volatile boolean closed;
+
+    private Segment(long sequence, Path path, MappedByteBuffer buffer) {
+        this.sequence = sequence;
+        this.path = path;
+        this.buffer = buffer;
+        this.capacity = buffer.capacity();
+    }
+
+    static Segment create(Path directory, String prefix, long sequence, int capacity) throws IOException {
+        Path path = directory.resolve(fileName(prefix, sequence));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new Segment(sequence, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+        }
+    }
+
+    static Segment open(Path path, long sequence) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new Segment(sequence, path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    static String fileName(String prefix, long sequence) {
+        return String.format("%s-%020d%s", prefix, sequence, SUFFIX);
+    }
+
+    static int recordSize(int payloadLength) {
+        return (HEADER_SIZE + payloadLength + 3) & ~3;
+    }
+
+    /**
+     * 用一次原子加法占用空间, 返回的位置可能已经超出容量, 由调用方处理换段
+     */
+    long claim(int size) {
+        return position.getAndAdd(size);
+    }
+
+    void write(int offset, byte[] payload) {
+        INT.set(buffer, offset, -payload.length);
+        buffer.put(offset + HEADER_SIZE, payload, 0, payload.length);
+        INT.set(buffer, offset + 4, crc(payload, 0, payload.length));
+        INT.setRelease(buffer, offset, payload.length);
+    }
+
+    void markEnd(int offset) {
+        INT.setRelease(buffer, offset, END_OF_SEGMENT);
+    }
+
+    int lengthAt(int offset) {
+        return (int) INT.getAcquire(buffer, offset);
+    }
+
+    int crcAt(int offset) {
+        return (int) INT.get(buffer, offset + 4);
+    }
+
+    byte[] payloadAt(int offset, int length) {
+        byte[] payload = new byte[length];
+        buffer.get(offset + HEADER_SIZE, payload, 0, length);
+        return payload;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * 写入方访问映射之前调用
+     *
+     * @return false 已关闭, 不能再访问
+     */
+    boolean acquire() {
+        writers.incrementAndGet();
+        if (closed) {
+            release();
+            return false;
+        }
+        return true;
+    }
+
+    void release() {
+        if (writers.decrementAndGet() == 0 && closed) {
+            unmap();
+        }
+    }
+
+    /**
+     * 之后的 {@link #acquire()} 都返回 false, 最后一个写入方离开时解除映射
+     */
+    void close() {
+        closed = true;
+        if (writers.get() == 0) {
+            unmap();
+        }
+    }
+
+    private void unmap() {
+        if (unmapped.compareAndSet(false, true)) {
+            Unmapper.unmap(buffer);
+        }
+    }
+
+    /**
+     * 从 offset 开始第一个不为 0 的位置, 都是 0 时为 -1
+     */
+    int nextNonZero(int offset) {
+        for (int i = offset; i <= capacity - Integer.BYTES; i += Integer.BYTES) {
+            if ((int) INT.get(buffer, i) != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static int crc(byte[] payload, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload, offset, length);
+        return (int) crc.getValue();
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Java 9+ 通过 sun.misc.Unsafe#invokeCleaner 释放映射, 不可用时退回等待 GC
+     */
+    private static final class Unmapper {
+
+        private static final Object UNSAFE;
+        private static final Method INVOKE_CLEANER;
+
+        static {
+            Object unsafe = null;
+            Method invokeCleaner = null;
+            try {
+                Class<?> type = Class.forName("sun.misc.Unsafe");
+                Field field = type.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                unsafe = field.get(null);
+                invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                unsafe = null;
+                invokeCleaner = null;
+            }
+            UNSAFE = unsafe;
+            INVOKE_CLEANER = invokeCleaner;
+        }
+
+        static void unmap(MappedByteBuffer buffer) {
+            if (INVOKE_CLEANER == null) {
+                return;
+            }
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } catch (ReflectiveOperationException e) {
+                // 保持映射, 由 GC 回收
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.magic.logbook.mmap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 分段文件的命名和查找, 文件名为 prefix-序号.seg, 序号补零到 20 位, 按文件名排序即按写入顺序排序.
+ */
+final class SegmentFiles {
+
+    private SegmentFiles() {
+    }
+
+    static List<Path> list(Path directory, String prefix) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> isSegment(path, prefix))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(name.lastIndexOf('-') + 1, name.length() - Segment.SUFFIX.length()));
+    }
+
+    private static boolean isSegment(Path path, String prefix) {
+        String name = path.getFileName().toString();
+        return name.startsWith(prefix + "-") && name.endsWith(Segment.SUFFIX)
+                && name.length() == prefix.length() + 1 + 20 + Segment.SUFFIX.length();
+    }
+
+}
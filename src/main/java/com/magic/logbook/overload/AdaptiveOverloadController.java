@@ -0,0 +1,109 @@
+package com.magic.logbook.overload;
+
+import com.magic.logbook.config.LogbookCustomOverloadProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * 按压力逐级降级/恢复的 {@link OverloadController}.
+ * 压力 = max(平均每条记录的耗时 / maxRecordCostMicros, 积压比例 / maxBacklogRatio),
+ * 每个评估间隔内压力超过 1 降一级; 压力持续低于 recoverRatio 达到 recoverIntervalMillis 后升一级.
+ * 评估在读取级别时顺带进行(间隔到期后由一个线程 CAS 抢到), 不需要单独的线程.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 03:00
+ */
+@Slf4j
+public class AdaptiveOverloadController implements OverloadController {
+
+    private final long maxRecordCostNanos;
+    private final double maxBacklogRatio;
+    private final double recoverRatio;
+    private final long evaluateIntervalNanos;
+    private final long recoverIntervalNanos;
+    private final int minErrorStatus;
+
+    private final LongAdder costNanos = new LongAdder();
+    private final LongAdder records = new LongAdder();
+    private final AtomicLong nextEvaluation;
+    private volatile DoubleSupplier backlog = () -> 0;
+    private volatile DetailLevel level = DetailLevel.FULL;
+    /**
+     * 压力开始低于恢复阈值的时间, 未处于恢复状态时为 -1, 只在 evaluate 中访问
+     */
+    private long recoveringSince = -1;
+
+    public AdaptiveOverloadController(LogbookCustomOverloadProperties properties) {
+        if (properties.getRecoverRatio() >= 1) {
+            throw new IllegalArgumentException("logbook.custom.overload.recover-ratio must be less than 1, "
+                    + properties.getRecoverRatio());
+        }
+        this.maxRecordCostNanos = TimeUnit.MICROSECONDS.toNanos(properties.getMaxRecordCostMicros());
+        this.maxBacklogRatio = properties.getMaxBacklogRatio();
+        this.recoverRatio = properties.getRecoverRatio();
+        this.evaluateIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getEvaluateIntervalMillis());
+        this.recoverIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getRecoverIntervalMillis());
+        this.minErrorStatus = properties.getMinErrorStatus();
+        this.nextEvaluation = new AtomicLong(System.nanoTime() + evaluateIntervalNanos);
+    }
+
+    @Override
+    public DetailLevel getLevel() {
+        long now = System.nanoTime();
+        long next = nextEvaluation.get();
+        if (now - next >= 0 && nextEvaluation.compareAndSet(next, now + evaluateIntervalNanos)) {
+            evaluate(now);
+        }
+        return level;
+    }
+
+    @Override
+    public void recordCost(long nanos) {
+        costNanos.add(nanos);
+        records.increment();
+    }
+
+    @Override
+    public void bindBacklog(DoubleSupplier backlog) {
+        this.backlog = backlog;
+    }
+
+    @Override
+    public boolean isError(int status) {
+        return status >= minErrorStatus;
+    }
+
+    synchronized void evaluate(long now) {
+        long count = records.sumThenReset();
+        long cost = costNanos.sumThenReset();
+        double averageCost = count == 0 ? 0 : (double) cost / count;
+        double backlogRatio = backlog.getAsDouble();
+        double pressure = Math.max(maxRecordCostNanos > 0 ? averageCost / maxRecordCostNanos : 0,
+                maxBacklogRatio > 0 ? backlogRatio / maxBacklogRatio : 0);
+        DetailLevel current = level;
+        if (pressure > 1) {
+            recoveringSince = -1;
+            if (current != DetailLevel.ERRORS) {
+                level = current.lower();
+                log.warn("logbook overloaded, detail level {} -> {}, record cost {}us, backlog {}",
+                        current, level, Math.round(averageCost / 1000), String.format("%.2f", backlogRatio));
+            }
+        } else if (pressure < recoverRatio) {
+            if (recoveringSince < 0) {
+                recoveringSince = now;
+            } else if (current != DetailLevel.FULL && now - recoveringSince >= recoverIntervalNanos) {
+                // 每升一级重新计时
+                recoveringSince = now;
+                level = current.higher();
+                log.info("logbook recovered, detail level {} -> {}", current, level);
+            }
+        } else {
+            recoveringSince = -1;
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.magic.logbook.overload;
+
+import org.zalando.logbook.ForwardingHttpRequest;
+import org.zalando.logbook.HttpRequest;
+
+/**
+ * 降级后不带 body 的请求, 由 {@link OverloadStrategy#process(HttpRequest)} 返回. 之后的 withBody 不再缓存 body.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 03:00
+ */
+final class DegradedHttpRequest implements ForwardingHttpRequest, DetailLevel.Carrier {
+
+    private final HttpRequest request;
+    private final DetailLevel level;
+
+    DegradedHttpRequest(HttpRequest request, DetailLevel level) {
+        this.request = request;
+        this.level = level;
+    }
+
+    @Override
+    public HttpRequest delegate() {
+        return request;
+    }
+
+    @Override
+    public DetailLevel getDetailLevel() {
+        return level;
+    }
+
+    @Override
+    public HttpRequest withBody() {
+        return this;
+    }
+
+    @Override
+    public HttpRequest withoutBody() {
+        return this;
+    }
+
+}
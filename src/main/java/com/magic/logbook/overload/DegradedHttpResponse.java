@@ -0,0 +1,42 @@
+package com.magic.logbook.overload;
+
+import org.zalando.logbook.ForwardingHttpResponse;
+import org.zalando.logbook.HttpResponse;
+
+/**
+ * 降级后不带 body 的响应, 见 {@link DegradedHttpRequest}.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 03:00
+ */
+final class DegradedHttpResponse implements ForwardingHttpResponse, DetailLevel.Carrier {
+
+    private final HttpResponse response;
+    private final DetailLevel level;
+
+    DegradedHttpResponse(HttpResponse response, DetailLevel level) {
+        this.response = response;
+        this.level = level;
+    }
+
+    @Override
+    public HttpResponse delegate() {
+        return response;
+    }
+
+    @Override
+    public DetailLevel getDetailLevel() {
+        return level;
+    }
+
+    @Override
+    public HttpResponse withBody() {
+        return this;
+    }
+
+    @Override
+    public HttpResponse withoutBody() {
+        return this;
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.magic.logbook.overload;
+
+import org.zalando.logbook.ForwardingHttpMessage;
+import org.zalando.logbook.HttpMessage;
+
+import javax.annotation.Nullable;
+
+/**
+ * 日志的详细程度, 过载时由 {@link OverloadController} 逐级降低, 压力消失后逐级恢复.
+ * 降级后的级别随请求/响应传递到 sink, 并输出到日志行的 detail 字段.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 03:00
+ */
+public enum DetailLevel {
+
+    /**
+     * 完整记录
+     */
+    FULL,
+    /**
+     * 不记录 body, 请求和响应都不缓存 body
+     */
+    HEADERS,
+    /**
+     * 只记录 correlation/uri/status/duration/code 等元数据, 不记录 body 和 headers
+     */
+    METADATA,
+    /**
+     * 只记录错误响应(元数据), 请求和正常响应都不输出
+     */
+    ERRORS;
+
+    public boolean includesBody() {
+        return this == FULL;
+    }
+
+    public boolean includesHeaders() {
+        return this == FULL || this == HEADERS;
+    }
+
+    DetailLevel lower() {
+        return this == ERRORS ? ERRORS : values()[ordinal() + 1];
+    }
+
+    DetailLevel higher() {
+        return this == FULL ? FULL : values()[ordinal() - 1];
+    }
+
+    /**
+     * 取两者中更低的详细程度
+     */
+    public static DetailLevel min(@Nullable DetailLevel a, DetailLevel b) {
+        return a != null && a.compareTo(b) > 0 ? a : b;
+    }
+
+    @Nullable
+    public static DetailLevel find(HttpMessage message) {
+        HttpMessage current = message;
+        while (current != null) {
+            if (current instanceof Carrier) {
+                return ((Carrier) current).getDetailLevel();
+            }
+            current = current instanceof ForwardingHttpMessage ? ((ForwardingHttpMessage) current).delegate() : null;
+        }
+        return null;
+    }
+
+    /**
+     * 携带降级结果的请求/响应
+     */
+    public interface Carrier {
+
+        @Nullable
+        DetailLevel getDetailLevel();
+
+    }
+
+}
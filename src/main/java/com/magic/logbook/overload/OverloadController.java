@@ -0,0 +1,60 @@
+package com.magic.logbook.overload;
+
+import org.zalando.logbook.HttpMessage;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * 决定当前日志的详细程度. sink 每写出一条记录上报一次自身的耗时, 开启异步时再绑定队列的积压.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 03:00
+ */
+public interface OverloadController {
+
+    DetailLevel getLevel();
+
+    /**
+     * @param nanos sink 格式化并写出一条记录的耗时
+     */
+    void recordCost(long nanos);
+
+    /**
+     * @param backlog 写出端的积压比例, 0 ~ 1
+     */
+    default void bindBacklog(DoubleSupplier backlog) {
+    }
+
+    /**
+     * 只记录错误时, 该响应是否仍需记录
+     */
+    default boolean isError(int status) {
+        return true;
+    }
+
+    /**
+     * 请求/响应上携带的级别与当前级别中更低的一个, 已在途的请求在过载时也能立即降级
+     */
+    default DetailLevel levelOf(HttpMessage message) {
+        return DetailLevel.min(DetailLevel.find(message), getLevel());
+    }
+
+    static OverloadController none() {
+        return new OverloadController() {
+            @Override
+            public DetailLevel getLevel() {
+                return DetailLevel.FULL;
+            }
+
+            @Override
+            public void recordCost(long nanos) {
+            }
+
+            @Override
+            public DetailLevel levelOf(HttpMessage message) {
+                return DetailLevel.FULL;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.magic.logbook.overload;
+
+import org.zalando.logbook.*;
+
+import java.io.IOException;
+
+/**
+ * 包装实际使用的 {@link Strategy}(logbook.strategy 或采样), 按 {@link OverloadController} 的当前级别降级:
+ * 不带 body 时请求和响应都不缓存 body, 只记录错误时不输出请求和非错误响应.
+ * 响应 body 不再缓存后 code 无法从 body 中提取, 按 status 补全.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 03:00
+ */
+public class OverloadStrategy implements Strategy {
+
+    private final Strategy delegate;
+    private final OverloadController controller;
+
+    public OverloadStrategy(Strategy delegate, OverloadController controller) {
+        this.delegate = delegate;
+        this.controller = controller;
+    }
+
+    @Override
+    public HttpRequest process(HttpRequest request) throws IOException {
+        DetailLevel level = controller.getLevel();
+        if (level.includesBody()) {
+            return delegate.process(request);
+        }
+        return delegate.process(new DegradedHttpRequest(request.withoutBody(), level));
+    }
+
+    @Override
+    public void write(Precorrelation precorrelation, HttpRequest request, Sink sink) throws IOException {
+        if (controller.levelOf(request) != DetailLevel.ERRORS) {
+            delegate.write(precorrelation, request, sink);
+        }
+    }
+
+    @Override
+    public HttpResponse process(HttpRequest request, HttpResponse response) throws IOException {
+        DetailLevel level = controller.levelOf(request);
+        if (level.includesBody()) {
+            return delegate.process(request, response);
+        }
+        return delegate.process(request, new DegradedHttpResponse(response.withoutBody(), level));
+    }
+
+    @Override
+    public void write(Correlation correlation, HttpRequest request, HttpResponse response, Sink sink)
+            throws IOException {
+        DetailLevel level = DetailLevel.min(DetailLevel.find(request), controller.levelOf(response));
+        if (level != DetailLevel.ERRORS || controller.isError(response.getStatus())) {
+            delegate.write(correlation, request, response, sink);
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.magic.logbook.policy;
+
+import org.zalando.logbook.HttpRequest;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * 所有路由策略, 路径规则编译成 {@link PathTrie}, 未命中任何规则时使用默认策略(即全局配置).
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 23:00
+ */
+public final class RoutePolicies {
+
+    private final PathTrie<RoutePolicy> routes;
+    private final RoutePolicy defaultPolicy;
+    private final boolean anyExcluded;
+    /**
+     * 当前线程上一次匹配的路径和结果. requestCondition 只能返回 boolean, 不能把策略放到请求上,
+     * 随后 Strategy 和 RequestFilter 在同一个线程上拿到同一个请求时按路径复用, 每个请求只匹配一次
+     */
+    private final ThreadLocal<Resolved> lastResolved = ThreadLocal.withInitial(Resolved::new);
+
+    public RoutePolicies(List<RoutePolicy> routes, RoutePolicy defaultPolicy) {
+        this.routes = PathTrie.compile(routes, RoutePolicy::getPath);
+        this.defaultPolicy = defaultPolicy;
+        this.anyExcluded = routes.stream().anyMatch(RoutePolicy::isExcluded);
+    }
+
+    /**
+     * 请求上已携带策略或当前线程刚匹配过同一路径时直接复用, 同一个请求只匹配一次
+     */
+    public RoutePolicy resolve(HttpRequest request) {
+        RoutePolicy carried = RoutePolicy.find(request);
+        if (carried != null) {
+            return carried;
+        }
+        String path = request.getPath();
+        Resolved resolved = lastResolved.get();
+        if (!path.equals(resolved.path)) {
+            RoutePolicy policy = routes.match(path);
+            resolved.policy = policy != null ? policy : defaultPolicy;
+            resolved.path = path;
+        }
+        return resolved.policy;
+    }
+
+    public boolean isExcluded(HttpRequest request) {
+        return anyExcluded && resolve(request).isExcluded();
+    }
+
+    public List<RoutePolicy> getRoutes() {
+        return routes.getValues();
+    }
+
+    public RoutePolicy getDefaultPolicy() {
+        return defaultPolicy;
+    }
+
+    private static final class Resolved {
+        @Nullable
+        private String path;
+        private RoutePolicy policy;
+    }
+
+}
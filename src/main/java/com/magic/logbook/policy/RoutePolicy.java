@@ -0,0 +1,136 @@
+package com.magic.logbook.policy;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import org.zalando.logbook.ForwardingHttpMessage;
+import org.zalando.logbook.HeaderFilter;
+import org.zalando.logbook.HttpMessage;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * 编译后的单条路由策略. 在请求进入时匹配一次, 随请求对象传递到过滤器、{@link org.zalando.logbook.Strategy} 和 sink.
+ * 未配置的项已在编译时用全局配置补齐, 采样和 code 提取为 null 时沿用各自模块的配置.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 23:00
+ */
+public final class RoutePolicy {
+
+    private static final String TRUNCATED = "...";
+
+    private final String path;
+    private final boolean excluded;
+    private final int maxBodySize;
+    private final HeaderFilter requestHeaderFilter;
+    private final HeaderFilter responseHeaderFilter;
+    @Nullable
+    private final Double ratio;
+    @Nullable
+    private final Double permitsPerSecond;
+    @Nullable
+    private final List<JsonPointer> codePointers;
+
+    public RoutePolicy(String path, boolean excluded, int maxBodySize,
+                       HeaderFilter requestHeaderFilter, HeaderFilter responseHeaderFilter,
+                       @Nullable Double ratio, @Nullable Double permitsPerSecond,
+                       @Nullable List<JsonPointer> codePointers) {
+        this.path = path;
+        this.excluded = excluded;
+        this.maxBodySize = maxBodySize;
+        this.requestHeaderFilter = requestHeaderFilter;
+        this.responseHeaderFilter = responseHeaderFilter;
+        this.ratio = ratio;
+        this.permitsPerSecond = permitsPerSecond;
+        this.codePointers = codePointers;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public boolean isExcluded() {
+        return excluded;
+    }
+
+    /**
+     * 输出的 body 最大字符数, 小于 0 不限制, 0 不输出 body
+     */
+    public int getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public HeaderFilter getRequestHeaderFilter() {
+        return requestHeaderFilter;
+    }
+
+    public HeaderFilter getResponseHeaderFilter() {
+        return responseHeaderFilter;
+    }
+
+    @Nullable
+    public Double getRatio() {
+        return ratio;
+    }
+
+    @Nullable
+    public Double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public boolean hasSampling() {
+        return ratio != null || permitsPerSecond != null;
+    }
+
+    @Nullable
+    public List<JsonPointer> getCodePointers() {
+        return codePointers;
+    }
+
+    public boolean exceedsBodyLimit(String body) {
+        return maxBodySize >= 0 && body.length() > maxBodySize;
+    }
+
+    /**
+     * 与 logbook 的 BodyFilters.truncate 输出一致, 但不会把代理对拆开
+     */
+    public String truncate(String body) {
+        if (!exceedsBodyLimit(body)) {
+            return body;
+        }
+        if (maxBodySize == 0) {
+            return "";
+        }
+        int end = Character.isHighSurrogate(body.charAt(maxBodySize - 1)) ? maxBodySize - 1 : maxBodySize;
+        return body.substring(0, end) + TRUNCATED;
+    }
+
+    /**
+     * 沿着包装链查找请求上的路由策略, 未开启时返回 null
+     */
+    @Nullable
+    public static RoutePolicy find(HttpMessage message) {
+        HttpMessage current = message;
+        while (current != null) {
+            if (current instanceof Carrier) {
+                RoutePolicy policy = ((Carrier) current).getRoutePolicy();
+                if (policy != null) {
+                    return policy;
+                }
+            }
+            current = current instanceof ForwardingHttpMessage ? ((ForwardingHttpMessage) current).delegate() : null;
+        }
+        return null;
+    }
+
+    /**
+     * 携带路由策略的请求
+     */
+    public interface Carrier {
+
+        @Nullable
+        RoutePolicy getRoutePolicy();
+
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.magic.logbook.reactive;
+
+import com.magic.logbook.capture.BodyBuffer;
+import com.magic.logbook.capture.BodyCapture;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.Charset;
+
+/**
+ * 在 {@link DataBuffer} 流经时旁路拷贝前 limit 个字节, 不改变 buffer 的读位置, 也不延长 buffer 的生命周期.
+ * 拷贝在 event loop 上完成(只是有界的内存拷贝), 流结束后调用 {@link #complete()} 得到截取结果.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 04:00
+ */
+final class DataBufferTee {
+
+    private final BodyBuffer buffer;
+    private final Charset charset;
+    private volatile BodyCapture capture;
+
+    DataBufferTee(int limit, Charset charset) {
+        this.buffer = new BodyBuffer(limit);
+        this.charset = charset;
+    }
+
+    <T extends DataBuffer> Flux<T> tee(Publisher<T> body) {
+        return Flux.from(body).doOnNext(dataBuffer -> buffer.append(dataBuffer.asByteBuffer()));
+    }
+
+    /**
+     * 流结束(完成、出错或取消)后调用, 重复调用返回同一个结果
+     */
+    BodyCapture complete() {
+        BodyCapture result = capture;
+        if (result == null) {
+            result = buffer.capture(charset);
+            capture = result;
+        }
+        return result;
+    }
+
+    /**
+     * 未完成时为空
+     */
+    BodyCapture getCapture() {
+        BodyCapture result = capture;
+        return result != null ? result : BodyCapture.EMPTY;
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.magic.logbook.reactive;
+
+import com.magic.logbook.capture.BodyCapture;
+import com.magic.logbook.client.InboundResponse;
+import com.magic.logbook.client.OutboundExchange;
+import com.magic.logbook.client.OutboundRequest;
+import com.magic.logbook.config.ContentTypeClassifier;
+import com.magic.logbook.config.ContentTypes;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.Logbook;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * WebClient 的 logbook 过滤器, 与 JDK HttpClient 的 LogbookJdkHttpClient 一致: 请求日志在 body 发送完后输出,
+ * 响应日志在 body 读完(或取消、出错)后输出, origin 为 CONSUMER. body 在 {@link DataBuffer} 流经时旁路截取,
+ * sink 的写出在 executor 上进行, 不占用 event loop. 响应 body 始终未被读取(也未释放)时不输出响应日志.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 04:00
+ */
+public class LogbookExchangeFilterFunction implements ExchangeFilterFunction {
+
+    private static final String CONTENT_TYPE = "Content-Type";
+
+    private final Logbook logbook;
+    private final int maxBodySize;
+    private final ContentTypeClassifier classifier;
+    private final Executor executor;
+
+    public LogbookExchangeFilterFunction(Logbook logbook, int maxBodySize, ContentTypeClassifier classifier,
+                                         Executor executor) {
+        this.logbook = logbook;
+        this.maxBodySize = maxBodySize;
+        this.classifier = classifier;
+        this.executor = executor;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        OutboundExchange exchange = new OutboundExchange(logbook, executor);
+        ClientRequest teed = ClientRequest.from(request)
+                .body((message, context) -> request.body().insert(new TeeRequest(message, request, exchange), context))
+                .build();
+        return next.exchange(teed).map(response -> tee(response, exchange));
+    }
+
+    private ClientResponse tee(ClientResponse response, OutboundExchange exchange) {
+        org.springframework.http.HttpHeaders responseHeaders = response.headers().asHttpHeaders();
+        String contentType = responseHeaders.getFirst(CONTENT_TYPE);
+        DataBufferTee body = new DataBufferTee(limitOf(contentType), ContentTypes.charsetOf(contentType));
+        int status = response.rawStatusCode();
+        HttpHeaders headers = HttpHeaders.of(responseHeaders);
+        AtomicBoolean received = new AtomicBoolean();
+        return response.mutate()
+                .body(flux -> body.tee(flux).doFinally(signal -> {
+                    if (received.compareAndSet(false, true)) {
+                        exchange.responseReceived(new InboundResponse(status, "HTTP/1.1", headers, contentType,
+                                body.complete()));
+                    }
+                }))
+                .build();
+    }
+
+    /**
+     * 按 Content-Type 跳过的 body 只计数不拷贝
+     */
+    private int limitOf(@Nullable String contentType) {
+        return classifier.isCaptured(contentType) ? maxBodySize : 0;
+    }
+
+    /**
+     * Content-Type 可能由 body 的编码器设置, 在开始写 body 时才读取请求头
+     */
+    private final class TeeRequest extends ClientHttpRequestDecorator {
+
+        private final ClientRequest request;
+        private final OutboundExchange exchange;
+
+        private TeeRequest(ClientHttpRequest delegate, ClientRequest request, OutboundExchange exchange) {
+            super(delegate);
+            this.request = request;
+            this.exchange = exchange;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            DataBufferTee tee = newTee();
+            return super.writeWith(tee.tee(body)).doOnSuccess(ignored -> sent(tee.complete()));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            DataBufferTee tee = newTee();
+            return super.writeAndFlushWith(Flux.from(body).map(tee::tee)).doOnSuccess(ignored -> sent(tee.complete()));
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            return super.setComplete().doOnSuccess(ignored -> sent(BodyCapture.EMPTY));
+        }
+
+        private DataBufferTee newTee() {
+            String contentType = getHeaders().getFirst(CONTENT_TYPE);
+            return new DataBufferTee(limitOf(contentType), ContentTypes.charsetOf(contentType));
+        }
+
+        private void sent(BodyCapture capture) {
+            String contentType = getHeaders().getFirst(CONTENT_TYPE);
+            exchange.requestSent(new OutboundRequest(request.method().name(), request.url(), "HTTP/1.1",
+                    HttpHeaders.of(getHeaders()), contentType, capture));
+        }
+
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.magic.logbook.reactive;
+
+import com.magic.logbook.async.OffloadingSink;
+import com.magic.logbook.capture.BodyCapture;
+import com.magic.logbook.config.ContentTypeClassifier;
+import com.magic.logbook.config.ContentTypes;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.Logbook;
+import org.zalando.logbook.Logbook.RequestWritingStage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+/**
+ * WebFlux(Reactor Netty 等)服务端的 logbook 过滤器, 对应 servlet 的 BoundedLogbookFilter.
+ * 请求和响应的 body 在 {@link DataBuffer} 流经时旁路截取前 maxBodySize 个字节, 不聚合、不阻塞.
+ * 请求 body 由业务方按需读取, 读完之前无法输出请求日志, 所以请求和响应日志都在响应写完后输出;
+ * logbook 的各个阶段在 event loop 上执行, correlation 在交换结束时结束, 不含 executor 的排队时间;
+ * sink 的写出在 executor 上按顺序进行(见 {@link OffloadingSink}), 不占用 event loop. 写日志失败只打印告警, 不影响业务请求.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 04:00
+ */
+@Slf4j
+public class LogbookWebFilter implements WebFilter {
+
+    private static final String CONTENT_TYPE = "Content-Type";
+
+    private final Logbook logbook;
+    private final int maxBodySize;
+    private final ContentTypeClassifier classifier;
+    private final Executor executor;
+
+    public LogbookWebFilter(Logbook logbook, int maxBodySize, ContentTypeClassifier classifier, Executor executor) {
+        this.logbook = logbook;
+        this.maxBodySize = maxBodySize;
+        this.classifier = classifier;
+        this.executor = executor;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String contentType = request.getHeaders().getFirst(CONTENT_TYPE);
+        DataBufferTee requestBody = new DataBufferTee(limitOf(contentType), ContentTypes.charsetOf(contentType));
+        RequestWritingStage writing;
+        try {
+            // 只在这里开始计时并决定是否记录 body, 不写日志
+            writing = logbook.process(new ReactiveRemoteRequest(request, contentType, requestBody));
+        } catch (IOException | RuntimeException e) {
+            log.warn("logbook reactive request process failed", e);
+            return chain.filter(exchange);
+        }
+        TeeResponse response = new TeeResponse(exchange.getResponse());
+        ServerWebExchange teed = exchange.mutate()
+                .request(new ServerHttpRequestDecorator(request) {
+                    @Override
+                    public Flux<DataBuffer> getBody() {
+                        return requestBody.tee(super.getBody());
+                    }
+                })
+                .response(response)
+                .build();
+        return chain.filter(teed).doFinally(signal -> {
+            requestBody.complete();
+            write(writing, response.toLogbook(signal));
+        });
+    }
+
+    /**
+     * 请求和响应日志交给同一个按顺序执行的 executor, 请求日志先写出; executor 已满或已关闭时丢弃并打印告警
+     */
+    private void write(RequestWritingStage writing, ReactiveLocalResponse response) {
+        try {
+            OffloadingSink.offload(OffloadingSink.serial(executor), () -> writing.write().process(response).write());
+        } catch (IOException | RuntimeException e) {
+            log.warn("logbook reactive exchange write failed", e);
+        }
+    }
+
+    /**
+     * 按 Content-Type 跳过的 body 只计数不拷贝
+     */
+    private int limitOf(@Nullable String contentType) {
+        return classifier.isCaptured(contentType) ? maxBodySize : 0;
+    }
+
+    private final class TeeResponse extends ServerHttpResponseDecorator {
+
+        /**
+         * 开始写 body 时才知道 Content-Type, 没有 body 时为 null
+         */
+        @Nullable
+        private volatile DataBufferTee body;
+
+        private TeeResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(tee().tee(body));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            DataBufferTee tee = tee();
+            return super.writeAndFlushWith(Flux.from(body).map(tee::tee));
+        }
+
+        private DataBufferTee tee() {
+            DataBufferTee tee = body;
+            if (tee == null) {
+                String contentType = getHeaders().getFirst(CONTENT_TYPE);
+                tee = new DataBufferTee(limitOf(contentType), ContentTypes.charsetOf(contentType));
+                body = tee;
+            }
+            return tee;
+        }
+
+        /**
+         * 业务方出错时异常由外层的 WebExceptionHandler 处理, 此时响应还未提交, 按 500 记录
+         */
+        private ReactiveLocalResponse toLogbook(SignalType signal) {
+            Integer status = getRawStatusCode();
+            if (signal == SignalType.ON_ERROR && !isCommitted()) {
+                status = 500;
+            }
+            DataBufferTee tee = body;
+            return new ReactiveLocalResponse(status != null ? status : 200, HttpHeaders.of(getHeaders()),
+                    getHeaders().getFirst(CONTENT_TYPE), tee != null ? tee.complete() : BodyCapture.EMPTY);
+        }
+
+    }
+
+}
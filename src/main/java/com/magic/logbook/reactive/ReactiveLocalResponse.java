@@ -0,0 +1,92 @@
+package com.magic.logbook.reactive;
+
+import com.magic.logbook.capture.BodyCapture;
+import com.magic.logbook.config.ContentTypes;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Origin;
+
+import javax.annotation.Nullable;
+import java.nio.charset.Charset;
+
+/**
+ * WebFlux 返回的响应, 在响应写完后创建. 与 servlet 的 LocalResponse 一致, origin 为 LOCAL, sink 中记为 PROVIDER.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 04:00
+ */
+final class ReactiveLocalResponse implements HttpResponse, BodyCapture.Carrier {
+
+    private final int status;
+    private final HttpHeaders headers;
+    @Nullable
+    private final String contentType;
+    private final BodyCapture capture;
+    private final boolean withBody;
+
+    ReactiveLocalResponse(int status, HttpHeaders headers, @Nullable String contentType, BodyCapture capture) {
+        this(status, headers, contentType, capture, true);
+    }
+
+    private ReactiveLocalResponse(int status, HttpHeaders headers, @Nullable String contentType, BodyCapture capture,
+                                  boolean withBody) {
+        this.status = status;
+        this.headers = headers;
+        this.contentType = contentType;
+        this.capture = capture;
+        this.withBody = withBody;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public String getProtocolVersion() {
+        return "HTTP/1.1";
+    }
+
+    @Override
+    public Origin getOrigin() {
+        return Origin.LOCAL;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Override
+    @Nullable
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public Charset getCharset() {
+        return ContentTypes.charsetOf(contentType);
+    }
+
+    @Override
+    public HttpResponse withBody() {
+        return withBody ? this : new ReactiveLocalResponse(status, headers, contentType, capture, true);
+    }
+
+    @Override
+    public HttpResponse withoutBody() {
+        return withBody ? new ReactiveLocalResponse(status, headers, contentType, capture, false) : this;
+    }
+
+    @Override
+    public byte[] getBody() {
+        return withBody ? capture.getBody() : BodyCapture.EMPTY.getBody();
+    }
+
+    @Override
+    @Nullable
+    public BodyCapture getBodyCapture() {
+        return withBody ? capture : null;
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.magic.logbook.reactive;
+
+import com.magic.logbook.capture.BodyCapture;
+import com.magic.logbook.config.ContentTypes;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.Origin;
+
+import javax.annotation.Nullable;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.Optional;
+
+/**
+ * WebFlux 收到的请求, 与 servlet 的 RemoteRequest 一致, origin 为 REMOTE, sink 中记为 PROVIDER.
+ * 收到请求时就交给 logbook(开始计时、决定是否记录 body), body 由业务方按需读取, 读取时旁路截取, 输出日志时才取用.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 04:00
+ */
+final class ReactiveRemoteRequest implements HttpRequest, BodyCapture.Carrier {
+
+    private final ServerHttpRequest request;
+    private final HttpHeaders headers;
+    @Nullable
+    private final String contentType;
+    private final DataBufferTee body;
+    private final boolean withBody;
+
+    ReactiveRemoteRequest(ServerHttpRequest request, @Nullable String contentType, DataBufferTee body) {
+        this(request, HttpHeaders.of(request.getHeaders()), contentType, body, true);
+    }
+
+    private ReactiveRemoteRequest(ServerHttpRequest request, HttpHeaders headers, @Nullable String contentType,
+                                  DataBufferTee body, boolean withBody) {
+        this.request = request;
+        this.headers = headers;
+        this.contentType = contentType;
+        this.body = body;
+        this.withBody = withBody;
+    }
+
+    @Override
+    public String getRemote() {
+        InetSocketAddress address = request.getRemoteAddress();
+        if (address == null) {
+            return "";
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+
+    @Override
+    public String getMethod() {
+        return request.getMethodValue();
+    }
+
+    @Override
+    public String getScheme() {
+        return Optional.ofNullable(uri().getScheme()).orElse("");
+    }
+
+    @Override
+    public String getHost() {
+        return Optional.ofNullable(uri().getHost()).orElse("");
+    }
+
+    @Override
+    public Optional<Integer> getPort() {
+        return Optional.of(uri().getPort()).filter(port -> port != -1);
+    }
+
+    @Override
+    public String getPath() {
+        return Optional.ofNullable(uri().getRawPath()).orElse("");
+    }
+
+    @Override
+    public String getQuery() {
+        return Optional.ofNullable(uri().getRawQuery()).orElse("");
+    }
+
+    private URI uri() {
+        return request.getURI();
+    }
+
+    @Override
+    public String getProtocolVersion() {
+        return "HTTP/1.1";
+    }
+
+    @Override
+    public Origin getOrigin() {
+        return Origin.REMOTE;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Override
+    @Nullable
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public Charset getCharset() {
+        return ContentTypes.charsetOf(contentType);
+    }
+
+    @Override
+    public HttpRequest withBody() {
+        return withBody ? this : new ReactiveRemoteRequest(request, headers, contentType, body, true);
+    }
+
+    @Override
+    public HttpRequest withoutBody() {
+        return withBody ? new ReactiveRemoteRequest(request, headers, contentType, body, false) : this;
+    }
+
+    @Override
+    public byte[] getBody() {
+        return withBody ? body.getCapture().getBody() : BodyCapture.EMPTY.getBody();
+    }
+
+    @Override
+    @Nullable
+    public BodyCapture getBodyCapture() {
+        return withBody ? body.getCapture() : null;
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.magic.logbook.sampling;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单个路由的采样器: 先按比例采样, 再经过令牌桶限流.
+ * 限流造成的放大倍数取上一秒 "到达数 / 通过数" 的估计值.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 17:00
+ */
+final class RouteSampler {
+
+    private final double ratio;
+    @Nullable
+    private final TokenBucket bucket;
+    private final boolean alwaysLogErrors;
+    private final long slowThresholdMillis;
+
+    private final AtomicLong window = new AtomicLong();
+    private final AtomicLong arrived = new AtomicLong();
+    private final AtomicLong admitted = new AtomicLong();
+    private volatile double bucketWeight = 1.0;
+
+    RouteSampler(double ratio, double permitsPerSecond, boolean alwaysLogErrors, long slowThresholdMillis) {
+        this.ratio = Math.max(0, Math.min(1, ratio));
+        this.bucket = permitsPerSecond > 0 ? new TokenBucket(permitsPerSecond) : null;
+        this.alwaysLogErrors = alwaysLogErrors;
+        this.slowThresholdMillis = slowThresholdMillis;
+    }
+
+    SamplingDecision decide() {
+        if (ratio < 1 && ThreadLocalRandom.current().nextDouble() >= ratio) {
+            return unsampled();
+        }
+        double ratioWeight = ratio > 0 ? 1 / ratio : 1;
+        if (bucket == null) {
+            return new SamplingDecision(true, ratioWeight, alwaysLogErrors, slowThresholdMillis);
+        }
+        rollWindow();
+        arrived.incrementAndGet();
+        if (!bucket.tryAcquire()) {
+            return unsampled();
+        }
+        admitted.incrementAndGet();
+        return new SamplingDecision(true, ratioWeight * bucketWeight, alwaysLogErrors, slowThresholdMillis);
+    }
+
+    private SamplingDecision unsampled() {
+        return new SamplingDecision(false, 0, alwaysLogErrors, slowThresholdMillis);
+    }
+
+    private void rollWindow() {
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        long current = window.get();
+        if (second != current && window.compareAndSet(current, second)) {
+            long arrivedCount = arrived.getAndSet(0);
+            long admittedCount = admitted.getAndSet(0);
+            bucketWeight = admittedCount == 0 ? 1.0 : Math.max(1.0, (double) arrivedCount / admittedCount);
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.magic.logbook.sampling;
+
+import com.magic.logbook.policy.RoutePolicy;
+import org.zalando.logbook.ForwardingHttpRequest;
+import org.zalando.logbook.HttpRequest;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * 带采样结果的请求, 由 {@link SamplingStrategy#process(HttpRequest)} 返回.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 17:00
+ */
+final class SampledHttpRequest implements ForwardingHttpRequest, SamplingDecision.Carrier, RoutePolicy.Carrier {
+
+    private final HttpRequest request;
+    private final SamplingDecision decision;
+    @Nullable
+    private final RoutePolicy policy;
+
+    SampledHttpRequest(HttpRequest request, SamplingDecision decision, @Nullable RoutePolicy policy) {
+        this.request = request;
+        this.decision = decision;
+        this.policy = policy;
+    }
+
+    @Override
+    public HttpRequest delegate() {
+        return request;
+    }
+
+    @Override
+    public SamplingDecision getSamplingDecision() {
+        return decision;
+    }
+
+    @Override
+    @Nullable
+    public RoutePolicy getRoutePolicy() {
+        return policy;
+    }
+
+    @Override
+    public HttpRequest withBody() throws IOException {
+        return new SampledHttpRequest(request.withBody(), decision, policy);
+    }
+
+    @Override
+    public HttpRequest withoutBody() {
+        return new SampledHttpRequest(request.withoutBody(), decision, policy);
+    }
+
+}
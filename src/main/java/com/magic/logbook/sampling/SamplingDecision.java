@@ -0,0 +1,90 @@
+package com.magic.logbook.sampling;
+
+import org.zalando.logbook.ForwardingHttpMessage;
+import org.zalando.logbook.HttpMessage;
+
+import javax.annotation.Nullable;
+
+/**
+ * 单个请求的采样结果, 在收到请求时确定, 随请求对象传递到 {@link SamplingStrategy} 和 sink.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 17:00
+ */
+public final class SamplingDecision {
+
+    private final boolean sampled;
+    private final double weight;
+    private final boolean alwaysLogErrors;
+    private final long slowThresholdMillis;
+
+    SamplingDecision(boolean sampled, double weight, boolean alwaysLogErrors, long slowThresholdMillis) {
+        this.sampled = sampled;
+        this.weight = weight;
+        this.alwaysLogErrors = alwaysLogErrors;
+        this.slowThresholdMillis = slowThresholdMillis;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    /**
+     * 被采样的记录代表的请求数, 下游统计时按该值放大
+     */
+    public double getWeight() {
+        return weight;
+    }
+
+    /**
+     * 请求行的权重, 未被采样的请求只有在被补记时才会输出, 权重为 1
+     */
+    public double requestWeight() {
+        return sampled ? weight : 1.0;
+    }
+
+    /**
+     * 非 2xx 或慢请求不论是否被采样都会记录, 这类记录只代表自己, 权重为 1
+     */
+    public double weightFor(int status, long durationMillis) {
+        return isForced(status, durationMillis) ? 1.0 : weight;
+    }
+
+    boolean isForced(int status, long durationMillis) {
+        return (alwaysLogErrors && (status < 200 || status >= 300))
+                || (slowThresholdMillis > 0 && durationMillis > slowThresholdMillis);
+    }
+
+    /**
+     * 未被采样的请求是否可能在响应时被补记. 响应的 status 和耗时要到写出时才确定, 这类请求的响应 body 需要先缓存
+     */
+    boolean mayBeForced() {
+        return alwaysLogErrors || slowThresholdMillis > 0;
+    }
+
+    /**
+     * 沿着包装链查找请求上的采样结果, 未开启采样时返回 null
+     */
+    @Nullable
+    public static SamplingDecision find(HttpMessage message) {
+        HttpMessage current = message;
+        while (current != null) {
+            if (current instanceof Carrier) {
+                return ((Carrier) current).getSamplingDecision();
+            }
+            current = current instanceof ForwardingHttpMessage ? ((ForwardingHttpMessage) current).delegate() : null;
+        }
+        return null;
+    }
+
+    /**
+     * 携带采样结果的请求
+     */
+    public interface Carrier {
+
+        @Nullable
+        SamplingDecision getSamplingDecision();
+
+    }
+
+}
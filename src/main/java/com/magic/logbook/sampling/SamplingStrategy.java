@@ -0,0 +1,127 @@
+package com.magic.logbook.sampling;
+
+import com.magic.logbook.config.LogbookCustomSamplingProperties;
+import com.magic.logbook.policy.RoutePolicies;
+import com.magic.logbook.policy.RoutePolicy;
+import org.zalando.logbook.*;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * 按路由采样的 {@link Strategy}.
+ * 是否采样在收到请求、缓存 body 之前决定, 未被采样的请求不缓存请求 body, 也不立即输出,
+ * 等到写出响应时如果是非 2xx 或慢请求再补记(请求不带 body).
+ * logbook 的 LogbookFilter 在执行业务之前调用 {@link #process(HttpRequest, HttpResponse)}, 此时 status 和耗时都还不确定,
+ * 所以可能被补记的请求总是缓存响应 body, 到写出时再决定是否输出.
+ * 开启 logbook.custom.policy 时在这里匹配路由策略并随请求传递, 策略中的采样配置优先于 routes.
+ *
+ * @author: mazikai
+ * @created: 2026-10-18 17:00
+ */
+public class SamplingStrategy implements Strategy {
+
+    private final RouteSampler defaultSampler;
+    private final List<Route> routes;
+    @Nullable
+    private final RoutePolicies policies;
+    private final Map<RoutePolicy, RouteSampler> policySamplers = new IdentityHashMap<>();
+
+    public SamplingStrategy(LogbookCustomSamplingProperties properties) {
+        this(properties, null);
+    }
+
+    public SamplingStrategy(LogbookCustomSamplingProperties properties, @Nullable RoutePolicies policies) {
+        this.defaultSampler = new RouteSampler(properties.getRatio(), properties.getPermitsPerSecond(),
+                properties.isAlwaysLogErrors(), properties.getSlowThresholdMillis());
+        this.routes = properties.getRoutes().stream()
+                .map(route -> new Route(Conditions.requestTo(route.getPath()), new RouteSampler(
+                        route.getRatio() != null ? route.getRatio() : properties.getRatio(),
+                        route.getPermitsPerSecond() != null ? route.getPermitsPerSecond() : properties.getPermitsPerSecond(),
+                        route.getAlwaysLogErrors() != null ? route.getAlwaysLogErrors() : properties.isAlwaysLogErrors(),
+                        route.getSlowThresholdMillis() != null ? route.getSlowThresholdMillis() : properties.getSlowThresholdMillis())))
+                .collect(Collectors.toList());
+        this.policies = policies;
+        if (policies != null) {
+            for (RoutePolicy policy : policies.getRoutes()) {
+                if (policy.hasSampling()) {
+                    policySamplers.put(policy, new RouteSampler(
+                            policy.getRatio() != null ? policy.getRatio() : properties.getRatio(),
+                            policy.getPermitsPerSecond() != null ? policy.getPermitsPerSecond() : properties.getPermitsPerSecond(),
+                            properties.isAlwaysLogErrors(), properties.getSlowThresholdMillis()));
+                }
+            }
+        }
+    }
+
+    @Override
+    public HttpRequest process(HttpRequest request) throws IOException {
+        RoutePolicy policy = policies == null ? null : policies.resolve(request);
+        SamplingDecision decision = samplerOf(request, policy).decide();
+        boolean withBody = decision.isSampled() && !withoutBody(policy);
+        return new SampledHttpRequest(withBody ? request.withBody() : request.withoutBody(), decision, policy);
+    }
+
+    @Override
+    public void write(Precorrelation precorrelation, HttpRequest request, Sink sink) throws IOException {
+        SamplingDecision decision = SamplingDecision.find(request);
+        if (decision == null || decision.isSampled()) {
+            sink.write(precorrelation, request);
+        }
+    }
+
+    @Override
+    public HttpResponse process(HttpRequest request, HttpResponse response) throws IOException {
+        SamplingDecision decision = SamplingDecision.find(request);
+        if (decision == null || decision.isSampled() || decision.mayBeForced()) {
+            return response.withBody();
+        }
+        return response.withoutBody();
+    }
+
+    @Override
+    public void write(Correlation correlation, HttpRequest request, HttpResponse response, Sink sink) throws IOException {
+        SamplingDecision decision = SamplingDecision.find(request);
+        if (decision == null || decision.isSampled()) {
+            sink.write(correlation, request, response);
+        } else if (decision.isForced(response.getStatus(), correlation.getDuration().toMillis())) {
+            sink.writeBoth(correlation, request, response);
+        }
+    }
+
+    /**
+     * 路由策略不输出 body 时不必缓存请求体, 响应体仍需要用于提取 code
+     */
+    private static boolean withoutBody(@Nullable RoutePolicy policy) {
+        return policy != null && policy.getMaxBodySize() == 0;
+    }
+
+    private RouteSampler samplerOf(HttpRequest request, @Nullable RoutePolicy policy) {
+        RouteSampler policySampler = policy == null ? null : policySamplers.get(policy);
+        if (policySampler != null) {
+            return policySampler;
+        }
+        for (Route route : routes) {
+            if (route.condition.test(request)) {
+                return route.sampler;
+            }
+        }
+        return defaultSampler;
+    }
+
+    private static final class Route {
+        private final Predicate<HttpRequest> condition;
+        private final RouteSampler sampler;
+
+        private Route(Predicate<HttpRequest> condition, RouteSampler sampler) {
+            this.condition = condition;
+            this.sampler = sampler;
+        }
+    }
+
+}
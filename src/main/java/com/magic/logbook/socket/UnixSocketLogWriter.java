@@ -0,0 +1,156 @@
+package com.magic.logbook.socket;
+
+import com.magic.logbook.config.BinaryHttpLogWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.Precorrelation;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 把日志记录按 [int 长度(大端)][记录] 的帧写入本机的 unix domain socket, 由同机的采集程序读取后转发, 不落盘也不再解析文本.
+ * 记录可以是 json 文本(UTF-8)或 Smile/CBOR, 按开头的字节区分, 见 {@link com.magic.logbook.config.LogRecordEncoding#detect}.
+ * <p>
+ * 写入加锁并阻塞在 socket 上, 建议同时开启 logbook.custom.async. 连接失败或断开后丢弃记录并计数, 间隔一段时间再重连,
+ * 写了一半的帧随连接一起丢弃, 新连接总是从完整的帧开始.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 07:00
+ */
+@Slf4j
+public class UnixSocketLogWriter implements BinaryHttpLogWriter, Closeable {
+
+    private final UnixDomainSocketAddress address;
+    private final long reconnectIntervalNanos;
+    private final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+    private final LongAdder dropped = new LongAdder();
+
+    @Nullable
+    private SocketChannel channel;
+    private long nextConnectNanos;
+    private boolean warned;
+
+    public UnixSocketLogWriter(Path path, long reconnectIntervalMillis) {
+        this.address = UnixDomainSocketAddress.of(path);
+        this.reconnectIntervalNanos = TimeUnit.MILLISECONDS.toNanos(reconnectIntervalMillis);
+        this.nextConnectNanos = System.nanoTime();
+    }
+
+    @Override
+    public void write(Precorrelation precorrelation, String request) {
+        send(request.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void write(Correlation correlation, String response) {
+        send(response.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void write(Precorrelation precorrelation, byte[] request) {
+        send(request);
+    }
+
+    @Override
+    public void write(Correlation correlation, byte[] response) {
+        send(response);
+    }
+
+    @Override
+    public boolean offer(Correlation correlation, String response) {
+        return send(response.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean offer(Correlation correlation, byte[] response) {
+        return send(response);
+    }
+
+    /**
+     * @return false 连接不可用或写入失败, 被丢弃
+     */
+    private synchronized boolean send(byte[] payload) {
+        SocketChannel connected = connect();
+        if (connected == null) {
+            dropped.increment();
+            return false;
+        }
+        header.clear();
+        header.putInt(payload.length).flip();
+        ByteBuffer[] frame = {header, ByteBuffer.wrap(payload)};
+        try {
+            while (frame[1].hasRemaining()) {
+                connected.write(frame);
+            }
+            return true;
+        } catch (IOException e) {
+            dropped.increment();
+            log.warn("logbook socket {} write failed, reconnecting in {}ms: {}", address,
+                    TimeUnit.NANOSECONDS.toMillis(reconnectIntervalNanos), e.toString());
+            disconnect();
+            return false;
+        }
+    }
+
+    @Nullable
+    private SocketChannel connect() {
+        if (channel != null) {
+            return channel;
+        }
+        if (System.nanoTime() - nextConnectNanos < 0) {
+            return null;
+        }
+        try {
+            channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+            channel.connect(address);
+            warned = false;
+            log.info("logbook socket {} connected", address);
+            return channel;
+        } catch (IOException e) {
+            // 采集程序未启动时每个间隔都会失败, 只在第一次提示
+            if (!warned) {
+                warned = true;
+                log.warn("logbook socket {} connect failed, records are dropped until it is available: {}",
+                        address, e.toString());
+            }
+            disconnect();
+            return null;
+        }
+    }
+
+    private void disconnect() {
+        nextConnectNanos = System.nanoTime() + reconnectIntervalNanos;
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // 连接已不可用, 丢弃即可
+        }
+        channel = null;
+    }
+
+    /**
+     * 未连接或写入失败丢弃的记录数
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public synchronized void close() {
+        disconnect();
+    }
+
+}
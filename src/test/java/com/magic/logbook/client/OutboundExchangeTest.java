@@ -0,0 +1,80 @@
+package com.magic.logbook.client;
+
+import com.magic.logbook.async.OffloadingSink;
+import com.magic.logbook.capture.BodyCapture;
+import com.magic.logbook.config.ContentTypeClassifier;
+import org.junit.jupiter.api.Test;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Logbook;
+import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.Sink;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * sink 的写出在 executor 上按顺序进行, duration 不含 executor 的排队时间.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 15:00
+ */
+class OutboundExchangeTest {
+
+    private static final long QUEUE_MILLIS = 300;
+
+    @Test
+    void writesOnExecutorInOrderWithoutCountingQueueTime() throws Exception {
+        List<String> written = new CopyOnWriteArrayList<>();
+        List<Duration> durations = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+        Thread caller = Thread.currentThread();
+        Sink sink = new Sink() {
+            @Override
+            public void write(Precorrelation precorrelation, HttpRequest request) {
+                assertThat(Thread.currentThread()).isNotSameAs(caller);
+                written.add("request");
+                done.countDown();
+            }
+
+            @Override
+            public void write(Correlation correlation, HttpRequest request, HttpResponse response) {
+                assertThat(Thread.currentThread()).isNotSameAs(caller);
+                written.add("response");
+                durations.add(correlation.getDuration());
+                done.countDown();
+            }
+        };
+        Logbook logbook = Logbook.builder()
+                .sink(new OffloadingSink(sink, ContentTypeClassifier.defaultValue()))
+                .build();
+        // 每个任务排队一段时间才执行
+        Executor slow = task -> new Thread(() -> {
+            try {
+                TimeUnit.MILLISECONDS.sleep(QUEUE_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            task.run();
+        }).start();
+        OutboundExchange exchange = new OutboundExchange(logbook, slow);
+
+        exchange.requestSent(new OutboundRequest("GET", URI.create("http://localhost/orders/1"), "HTTP/1.1",
+                HttpHeaders.empty(), null, BodyCapture.EMPTY));
+        exchange.responseReceived(new InboundResponse(200, "HTTP/1.1", HttpHeaders.empty(), null, BodyCapture.EMPTY));
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(written).containsExactly("request", "response");
+        assertThat(durations.get(0)).isLessThan(Duration.ofMillis(QUEUE_MILLIS));
+    }
+
+}
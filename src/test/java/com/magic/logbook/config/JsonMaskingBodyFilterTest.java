@@ -0,0 +1,108 @@
+package com.magic.logbook.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author: mazikai
+ * @created: 2026-10-19 14:00
+ */
+class JsonMaskingBodyFilterTest {
+
+    private static final String JSON = "application/json";
+
+    @Test
+    void masksFieldsAtAnyDepthAndRemovesWhitespace() {
+        JsonMaskingBodyFilter filter = filter(-1, -1);
+
+        String output = filter.filter(JSON, "{ \"user\": { \"password\": \"secret\", \"name\": \"a\" },\n"
+                + "  \"token\": \"t-1\", \"list\": [ { \"password\": 1 } ] }");
+
+        assertThat(output).isEqualTo("{\"user\":{\"password\":\"******\",\"name\":\"a\"},\"token\":\"******\","
+                + "\"list\":[{\"password\":\"******\"}]}");
+    }
+
+    @Test
+    void masksPaths() {
+        JsonMaskingBodyFilter filter = new JsonMaskingBodyFilter(Collections.emptyList(),
+                Arrays.asList("$.user.mobile", "$.items[*].cardNo", "$.list[0]"), "***", -1);
+
+        String output = filter.filter(JSON, "{\"user\":{\"mobile\":\"13800000000\"},\"mobile\":\"keep\","
+                + "\"items\":[{\"cardNo\":\"6222\"},{\"cardNo\":\"6223\",\"name\":\"b\"}],\"list\":[\"x\",\"y\"]}");
+
+        assertThat(output).isEqualTo("{\"user\":{\"mobile\":\"***\"},\"mobile\":\"keep\","
+                + "\"items\":[{\"cardNo\":\"***\"},{\"cardNo\":\"***\",\"name\":\"b\"}],\"list\":[\"***\",\"y\"]}");
+    }
+
+    @Test
+    void replacesObjectsWholeAndKeepsNull() {
+        JsonMaskingBodyFilter filter = filter(-1, -1);
+
+        assertThat(filter.filter(JSON, "{\"password\":{\"old\":\"a\",\"new\":[1,2]},\"token\":null}"))
+                .isEqualTo("{\"password\":\"******\",\"token\":null}");
+    }
+
+    @Test
+    void keepsNumbersVerbatim() {
+        JsonMaskingBodyFilter filter = filter(-1, -1);
+        String body = "{\"amount\":12345678901234567890.12345678901234567890,\"rate\":1.0E-10,\"n\":-0}";
+
+        assertThat(filter.filter(JSON, body)).isEqualTo(body);
+    }
+
+    @Test
+    void limitsArrayElements() {
+        JsonMaskingBodyFilter filter = filter(2, -1);
+
+        assertThat(filter.filter(JSON, "{\"a\":[1,2,3,4],\"b\":[{\"c\":[5]}]}"))
+                .isEqualTo("{\"a\":[1,2,\"...(2 more)\"],\"b\":[{\"c\":[5]}]}");
+    }
+
+    @Test
+    void leavesNonJsonUntouched() {
+        JsonMaskingBodyFilter filter = filter(-1, -1);
+
+        assertThat(filter.filter("text/plain", "{ \"password\": \"secret\" }")).isEqualTo("{ \"password\": \"secret\" }");
+        assertThat(filter.filter(JSON, "password=secret")).isEqualTo("password=secret");
+        assertThat(filter.filter(JSON, "")).isEmpty();
+    }
+
+    @Test
+    void neverEmitsUnmaskedRemainderOfIncompleteJson() {
+        JsonMaskingBodyFilter filter = filter(-1, -1);
+
+        String output = filter.filter(JSON, "{\"a\": 1, \"password\": \"secret\", \"b\": {\"token\": \"tok");
+
+        assertThat(output).startsWith("{\"a\":1,\"password\":\"******\"").endsWith("...");
+        assertThat(output).doesNotContain("secret").doesNotContain("tok\"").doesNotContain(" ");
+        // 出错后线程上的状态被丢弃, 之后的 body 正常处理
+        assertThat(filter.filter(JSON, "{\"token\":\"x\"}")).isEqualTo("{\"token\":\"******\"}");
+    }
+
+    @Test
+    void stopsAtMaxCharsWithSameResultAsTruncatingFullOutput() {
+        StringBuilder body = new StringBuilder("{\"items\":[");
+        for (int i = 0; i < 200; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"id\": ").append(i).append(", \"token\": \"t").append(i).append("\"}");
+        }
+        body.append("]}");
+        String full = filter(-1, -1).filter(JSON, body.toString());
+
+        for (int maxChars : new int[]{0, 1, 17, 100, 1000, full.length() - 1}) {
+            assertThat(filter(-1, maxChars).filter(JSON, body.toString()))
+                    .as("maxChars=%d", maxChars)
+                    .isEqualTo(full.substring(0, maxChars) + "...");
+        }
+        assertThat(filter(-1, full.length()).filter(JSON, body.toString())).isEqualTo(full);
+    }
+
+    private static JsonMaskingBodyFilter filter(int maxArrayElements, int maxChars) {
+        return new JsonMaskingBodyFilter(Arrays.asList("password", "token"), Collections.emptyList(), "******",
+                maxArrayElements, maxChars);
+    }
+
+}
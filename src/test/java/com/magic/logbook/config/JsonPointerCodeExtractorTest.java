@@ -0,0 +1,126 @@
+package com.magic.logbook.config;
+
+import com.magic.logbook.capture.BodyCapture;
+import com.magic.logbook.client.InboundResponse;
+import com.magic.logbook.client.OutboundRequest;
+import org.junit.jupiter.api.Test;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 原正则 {@code "code"\s?:\s?("(.*?)"|(\d*))} 能取到的顶层 code 仍按原样取出; 嵌套的 code 和超出扫描上限的部分不再命中.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 15:00
+ */
+class JsonPointerCodeExtractorTest {
+
+    private final JsonPointerCodeExtractor extractor = JsonPointerCodeExtractor.defaultValue();
+
+    @Test
+    void extractsTopLevelCodeLikeTheRegex() {
+        assertThat(extract("{\"code\":\"A-1\",\"msg\":\"ok\"}")).isEqualTo("A-1");
+        assertThat(extract("{\"code\": \"A-1\"}")).isEqualTo("A-1");
+        assertThat(extract("{\"code\":200,\"msg\":\"ok\"}")).isEqualTo("200");
+        assertThat(extract("{\"msg\":\"ok\",\"data\":{\"id\":1,\"items\":[{\"x\":[1,2]}]},\"code\":\"B-2\"}"))
+                .isEqualTo("B-2");
+        assertThat(extract("{\n  \"success\" : false,\n  \"code\" : \"E-9\"\n}")).isEqualTo("E-9");
+        assertThat(extract("{\"code\":\"中文编码\"}")).isEqualTo("中文编码");
+    }
+
+    @Test
+    void returnsNullWithoutScalarTopLevelCode() {
+        // 原正则会取到嵌套的 code, 现在只看顶层
+        assertThat(extract("{\"data\":{\"code\":\"inner\"}}")).isNull();
+        assertThat(extract("{\"msg\":\"\\\"code\\\":\\\"fake\\\"\"}")).isNull();
+        assertThat(extract("{\"code\":null}")).isNull();
+        assertThat(extract("{\"code\":{\"value\":1}}")).isNull();
+        assertThat(extract("[{\"code\":\"A\"}]")).isNull();
+        assertThat(extract("code=A")).isNull();
+        assertThat(extract("")).isNull();
+    }
+
+    @Test
+    void stopsAtMaxScanBytes() {
+        char[] padding = new char[100];
+        Arrays.fill(padding, 'x');
+        String late = "{\"padding\":\"" + new String(padding) + "\",\"code\":\"LATE\"}";
+        String early = "{\"code\":\"EARLY\",\"padding\":\"" + new String(padding) + "\"}";
+
+        assertThat(extractor(64).extract(JsonPointerCodeExtractor.compile(Collections.singletonList("/code")),
+                bytes(late))).isNull();
+        assertThat(extractor(64).extract(JsonPointerCodeExtractor.compile(Collections.singletonList("/code")),
+                bytes(early))).isEqualTo("EARLY");
+        // 0 表示不限制
+        assertThat(extractor(0).extract(JsonPointerCodeExtractor.compile(Collections.singletonList("/code")),
+                bytes(late))).isEqualTo("LATE");
+    }
+
+    @Test
+    void triesPointersInOrder() {
+        LogbookCustomCodeProperties properties = new LogbookCustomCodeProperties();
+        properties.setPointers(Arrays.asList("/result/code", "/errCode", "/code"));
+        JsonPointerCodeExtractor extractor = new JsonPointerCodeExtractor(properties);
+
+        assertThat(extractor.extract(extractor.pointersOf(request("/orders")),
+                bytes("{\"code\":\"C\",\"errCode\":\"E\"}"))).isEqualTo("E");
+        assertThat(extractor.extract(extractor.pointersOf(request("/orders")),
+                bytes("{\"code\":\"C\",\"result\":{\"code\":\"R\"}}"))).isEqualTo("R");
+        assertThat(extractor.extract(extractor.pointersOf(request("/orders")),
+                bytes("{\"code\":\"C\"}"))).isEqualTo("C");
+    }
+
+    @Test
+    void usesFirstMatchingRoutePointers() throws IOException {
+        LogbookCustomCodeProperties properties = new LogbookCustomCodeProperties();
+        LogbookCustomCodeProperties.Route legacy = new LogbookCustomCodeProperties.Route();
+        legacy.setPath("/legacy/**");
+        legacy.setPointers(Collections.singletonList("/head/retCode"));
+        LogbookCustomCodeProperties.Route all = new LogbookCustomCodeProperties.Route();
+        all.setPath("/**");
+        all.setPointers(Collections.singletonList("/unused"));
+        properties.setRoutes(Arrays.asList(legacy, all));
+        JsonPointerCodeExtractor extractor = new JsonPointerCodeExtractor(properties);
+        String body = "{\"code\":\"C\",\"head\":{\"retCode\":\"0000\"}}";
+
+        assertThat(extractor.extract(request("/legacy/orders/1"), response(body))).isEqualTo("0000");
+        assertThat(extractor.extract(request("/orders/1"), response(body))).isNull();
+        assertThat(JsonPointerCodeExtractor.defaultValue().extract(request("/legacy/orders/1"), response(body)))
+                .isEqualTo("C");
+    }
+
+    private String extract(String body) {
+        return extractor.extract(JsonPointerCodeExtractor.compile(Collections.singletonList("/code")), bytes(body));
+    }
+
+    private static JsonPointerCodeExtractor extractor(int maxScanBytes) {
+        LogbookCustomCodeProperties properties = new LogbookCustomCodeProperties();
+        properties.setMaxScanBytes(maxScanBytes);
+        return new JsonPointerCodeExtractor(properties);
+    }
+
+    private static byte[] bytes(String body) {
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static HttpRequest request(String path) {
+        return new OutboundRequest("GET", URI.create("http://localhost" + path), "HTTP/1.1", HttpHeaders.empty(),
+                null, BodyCapture.EMPTY);
+    }
+
+    private static HttpResponse response(String body) {
+        byte[] bytes = bytes(body);
+        return new InboundResponse(200, "HTTP/1.1", HttpHeaders.empty(), "application/json",
+                BodyCapture.of(bytes, bytes.length, bytes.length, bytes.length, StandardCharsets.UTF_8));
+    }
+
+}
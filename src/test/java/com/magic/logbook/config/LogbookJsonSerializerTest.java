@@ -0,0 +1,102 @@
+package com.magic.logbook.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import com.magic.logbook.dto.LogbookReq;
+import com.magic.logbook.dto.LogbookResp;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 与改用 JsonGenerator 之前的输出(LogbookReq/LogbookResp 由 ObjectMapper 序列化)逐字节一致, 日志采集按该格式解析.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 15:00
+ */
+class LogbookJsonSerializerTest {
+
+    /**
+     * 与原 ObjectMapperFactory 的配置一致
+     */
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModules(new ParameterNamesModule(), new Jdk8Module(), new JavaTimeModule())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
+            .configure(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS, false)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private final LogbookJsonSerializer serializer = new LogbookJsonSerializer();
+
+    @Test
+    void requestMatchesObjectMapper() throws IOException {
+        for (Object body : bodies()) {
+            for (Map<String, List<String>> headers : headers()) {
+                LogbookReq req = new LogbookReq();
+                req.setCorrelation("c-1");
+                req.setUri("http://localhost/订单?q=\"a\"&x=\\1");
+                req.setMethod("POST");
+                req.setOrigin(LogbookReq.ORIGIN_PROVIDER);
+                req.setBody(body);
+                req.setHeaders(headers);
+                req.setOriginalCallApp("上游-app");
+
+                assertThat(serializer.writeRequest("c-1", req.getUri(), "POST", LogbookReq.ORIGIN_PROVIDER, body,
+                        headers, "上游-app", null, null, null))
+                        .as("body=%s headers=%s", body, headers)
+                        .isEqualTo(mapper.writeValueAsString(req));
+            }
+        }
+    }
+
+    @Test
+    void responseMatchesObjectMapper() throws IOException {
+        for (Object body : bodies()) {
+            for (Map<String, List<String>> headers : headers()) {
+                LogbookResp resp = new LogbookResp();
+                resp.setCorrelation("c-1");
+                resp.setUri("http://localhost/orders/1");
+                resp.setOrigin(LogbookResp.ORIGIN_CONSUMER);
+                resp.setDuration(12L);
+                resp.setStatus(500);
+                resp.setCode("外部响应5xx");
+                resp.setBody(body);
+                resp.setHeaders(headers);
+
+                assertThat(serializer.writeResponse("c-1", resp.getUri(), LogbookResp.ORIGIN_CONSUMER, 12, 500,
+                        "外部响应5xx", body, headers, resp.getOriginalCallApp(), null, null, null))
+                        .as("body=%s headers=%s", body, headers)
+                        .isEqualTo(mapper.writeValueAsString(resp));
+            }
+        }
+    }
+
+    private static List<Object> bodies() {
+        return Arrays.asList(null, json("{\"code\":\"A-1\",\"name\":\"张三\",\"amount\":1.10,\"list\":[1,2]}"),
+                json("[\"x\"]"), "plain text 中文 \"quoted\"\n\t\\ \u0001 emoji 😀", "");
+    }
+
+    private static List<Map<String, List<String>>> headers() {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", Collections.singletonList("application/json;charset=UTF-8"));
+        headers.put("X-Name", Arrays.asList("中文", "a\"b"));
+        return Arrays.asList(null, Collections.emptyMap(), headers);
+    }
+
+    private static LogbookSink.JsonBody json(String json) {
+        return new LogbookSink.JsonBody(json);
+    }
+
+}
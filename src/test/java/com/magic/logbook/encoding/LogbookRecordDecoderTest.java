@@ -0,0 +1,52 @@
+package com.magic.logbook.encoding;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author: mazikai
+ * @created: 2026-10-19 15:00
+ */
+class LogbookRecordDecoderTest {
+
+    private final LogbookRecordDecoder decoder = new LogbookRecordDecoder();
+
+    @Test
+    void restoresJsonBodyAndKeepsPrefix() throws IOException {
+        String line = "2026-10-19 INFO {\"correlation\":\"c-1\",\"body\":\"" + gzipBase64("{\"a\":1.10}")
+                + "\",\"bodyEncoding\":\"gzip+base64\",\"originalSize\":10}";
+
+        assertThat(decoder.decode(line)).isEqualTo("2026-10-19 INFO {\"correlation\":\"c-1\",\"body\":{\"a\":1.10}}");
+    }
+
+    @Test
+    void returnsCorruptLinesUnchanged() throws IOException {
+        String badBase64 = "{\"body\":\"not*base64\",\"bodyEncoding\":\"gzip+base64\"}";
+        String encoded = gzipBase64("{\"a\":1}");
+        byte[] gzip = Base64.getDecoder().decode(encoded);
+        String tornGzip = "{\"body\":\"" + Base64.getEncoder().encodeToString(Arrays.copyOf(gzip, gzip.length / 2))
+                + "\",\"bodyEncoding\":\"gzip+base64\"}";
+        String tornJson = "{\"body\":\"" + encoded + "\",\"bodyEncoding\":\"gzip+base64\",\"orig";
+
+        assertThat(decoder.decode(badBase64)).isEqualTo(badBase64);
+        assertThat(decoder.decode(tornGzip)).isEqualTo(tornGzip);
+        assertThat(decoder.decode(tornJson)).isEqualTo(tornJson);
+    }
+
+    private static String gzipBase64(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+}
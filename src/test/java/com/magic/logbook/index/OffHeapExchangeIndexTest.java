@@ -0,0 +1,267 @@
+package com.magic.logbook.index;
+
+import com.magic.logbook.config.LogbookCustomIndexProperties;
+import com.magic.logbook.dto.IndexedExchange;
+import com.magic.logbook.dto.IndexedExchangePage;
+import com.magic.logbook.metrics.UriTemplateNormalizer;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import org.zalando.logbook.Correlation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 条目表和各个哈希链在覆盖、冲突和并发写入下的查询结果.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 14:00
+ */
+class OffHeapExchangeIndexTest {
+
+    @Test
+    void findsRecordsByEachKeyNewestFirst() {
+        OffHeapExchangeIndex index = index(64, DataSize.ofKilobytes(64));
+        add(index, "c-1", "/orders/1", 200, "SUCCESS", "app-a");
+        add(index, "c-2", "/orders/2", 500, "ERROR", "app-b");
+        add(index, "c-1", "/orders/1", 200, "SUCCESS", "app-a");
+        add(index, "c-3", "/users/7", 404, null, "app-a");
+
+        assertThat(seqs(index.query(query(q -> q.setCorrelation("c-1"))))).containsExactly(2L, 0L);
+        // 按 URI 模板匹配, 不同 id 的同一个接口
+        assertThat(seqs(index.query(query(q -> q.setUri("/orders/42"))))).containsExactly(2L, 1L, 0L);
+        assertThat(seqs(index.query(query(q -> q.setStatus(200))))).containsExactly(2L, 0L);
+        assertThat(seqs(index.query(query(q -> q.setCode("ERROR"))))).containsExactly(1L);
+        assertThat(seqs(index.query(query(q -> q.setOriginalCallApp("app-a"))))).containsExactly(3L, 2L, 0L);
+        assertThat(seqs(index.query(query(q -> {
+            q.setOriginalCallApp("app-a");
+            q.setStatus(404);
+        })))).containsExactly(3L);
+        assertThat(seqs(index.query(new ExchangeQuery()))).containsExactly(3L, 2L, 1L, 0L);
+        assertThat(index.query(query(q -> q.setCorrelation("missing"))).getExchanges()).isEmpty();
+    }
+
+    @Test
+    void returnsRecordAndIndexedFields() {
+        OffHeapExchangeIndex index = index(64, DataSize.ofKilobytes(64));
+        add(index, "c-1", "/orders/1", 500, "ERROR", "app-a");
+
+        IndexedExchange exchange = index.query(query(q -> q.setCorrelation("c-1"))).getExchanges().get(0);
+
+        assertThat(exchange.getCorrelation()).isEqualTo("c-1");
+        assertThat(exchange.getUri()).isEqualTo("/orders/1?x=1");
+        assertThat(exchange.getTemplate()).isEqualTo("/orders/{id}");
+        assertThat(exchange.getMethod()).isEqualTo("GET");
+        assertThat(exchange.getStatus()).isEqualTo(500);
+        assertThat(exchange.getCode()).isEqualTo("ERROR");
+        assertThat(exchange.getOriginalCallApp()).isEqualTo("app-a");
+        assertThat(exchange.getDuration()).isEqualTo(12L);
+        assertThat(exchange.getRecord()).isEqualTo(record("c-1"));
+    }
+
+    @Test
+    void filtersOutOtherKeysSharingABucket() {
+        // 条目表只有 2 个, 每个索引也只有 2 个桶, 不同的 code 必然共用桶
+        OffHeapExchangeIndex index = index(2, DataSize.ofKilobytes(64));
+        add(index, "c-1", "/a", 200, "A", "app");
+        add(index, "c-2", "/b", 200, "B", "app");
+
+        assertThat(correlations(index.query(query(q -> q.setCode("A"))))).containsExactly("c-1");
+        assertThat(correlations(index.query(query(q -> q.setCode("B"))))).containsExactly("c-2");
+    }
+
+    @Test
+    void dropsOverwrittenEntriesAndStopsWalkingTheChain() {
+        OffHeapExchangeIndex index = index(8, DataSize.ofKilobytes(64));
+        for (int i = 0; i < 20; i++) {
+            add(index, "same", "/orders/" + i, 200, "SUCCESS", "app");
+        }
+
+        IndexedExchangePage page = index.query(query(q -> {
+            q.setCorrelation("same");
+            q.setLimit(100);
+        }));
+
+        assertThat(seqs(page)).containsExactly(19L, 18L, 17L, 16L, 15L, 14L, 13L, 12L);
+        assertThat(page.getRecords()).isEqualTo(20);
+    }
+
+    @Test
+    void skipsFramesOverwrittenInTheDataBuffer() {
+        // 条目表比数据缓冲区能容纳的帧多, 较早的条目还在但帧已被覆盖
+        OffHeapExchangeIndex index = index(1024, DataSize.ofKilobytes(4));
+        for (int i = 0; i < 200; i++) {
+            add(index, "c-" + i, "/orders/" + i, 200, "SUCCESS", "app");
+        }
+
+        List<IndexedExchange> exchanges = index.query(query(q -> {
+            q.setStatus(200);
+            q.setLimit(100);
+        })).getExchanges();
+
+        assertThat(exchanges).isNotEmpty().hasSizeLessThan(200);
+        assertThat(exchanges.get(0).getSeq()).isEqualTo(199);
+        for (IndexedExchange exchange : exchanges) {
+            assertThat(exchange.getRecord()).isEqualTo(record(exchange.getCorrelation()));
+        }
+        assertThat(index.query(query(q -> q.setCorrelation("c-0"))).getExchanges()).isEmpty();
+    }
+
+    @Test
+    void pagesWithCursor() {
+        OffHeapExchangeIndex index = index(64, DataSize.ofKilobytes(64));
+        for (int i = 0; i < 5; i++) {
+            add(index, "c-" + i, "/orders/" + i, 200, "SUCCESS", "app");
+        }
+
+        IndexedExchangePage first = index.query(query(q -> {
+            q.setStatus(200);
+            q.setLimit(2);
+        }));
+        IndexedExchangePage second = index.query(query(q -> {
+            q.setStatus(200);
+            q.setLimit(2);
+            q.setBefore(first.getNextCursor());
+        }));
+        IndexedExchangePage last = index.query(query(q -> {
+            q.setStatus(200);
+            q.setLimit(2);
+            q.setBefore(second.getNextCursor());
+        }));
+
+        assertThat(seqs(first)).containsExactly(4L, 3L);
+        assertThat(seqs(second)).containsExactly(2L, 1L);
+        assertThat(seqs(last)).containsExactly(0L);
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void keepsEveryChainCompleteUnderConcurrentWriters() throws Exception {
+        int threads = 8;
+        int perThread = 500;
+        OffHeapExchangeIndex index = index(threads * perThread, DataSize.ofMegabytes(4));
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String app = "app-" + t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        add(index, app + "-" + i, "/orders/" + i, 200 + i % 2, "SUCCESS", app);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int t = 0; t < threads; t++) {
+            String app = "app-" + t;
+            List<IndexedExchange> exchanges = queryAll(index, query(q -> q.setOriginalCallApp(app)));
+            assertThat(exchanges).hasSize(perThread);
+            assertThat(exchanges).allSatisfy(exchange -> {
+                assertThat(exchange.getOriginalCallApp()).isEqualTo(app);
+                assertThat(exchange.getRecord()).isEqualTo(record(exchange.getCorrelation()));
+            });
+            assertThat(exchanges.stream().map(IndexedExchange::getCorrelation).distinct().count()).isEqualTo(perThread);
+        }
+        // 所有线程挂在同一个 status 链上
+        assertThat(queryAll(index, query(q -> q.setStatus(200)))).hasSize(threads * perThread / 2);
+        assertThat(queryAll(index, query(q -> q.setCorrelation("app-3-17")))).hasSize(1);
+    }
+
+    private static List<IndexedExchange> queryAll(OffHeapExchangeIndex index, ExchangeQuery query) {
+        List<IndexedExchange> all = new ArrayList<>();
+        query.setLimit(100);
+        while (true) {
+            IndexedExchangePage page = index.query(query);
+            all.addAll(page.getExchanges());
+            if (page.getNextCursor() == null) {
+                return all;
+            }
+            query.setBefore(page.getNextCursor());
+        }
+    }
+
+    private static OffHeapExchangeIndex index(int maxEntries, DataSize maxMemory) {
+        LogbookCustomIndexProperties properties = new LogbookCustomIndexProperties();
+        properties.setMaxEntries(maxEntries);
+        properties.setMaxMemory(maxMemory);
+        properties.setMaxPageSize(100);
+        return new OffHeapExchangeIndex(properties, new UriTemplateNormalizer(Collections.emptyList(), 1024));
+    }
+
+    private static void add(OffHeapExchangeIndex index, String correlation, String path, int status,
+                            String code, String app) {
+        index.add(new FixedCorrelation(correlation), "out", path + "?x=1", path, "GET", "provider", status, code,
+                12, app, record(correlation));
+    }
+
+    private static String record(String correlation) {
+        return "{\"correlation\":\"" + correlation + "\",\"body\":\"0123456789\"}";
+    }
+
+    private static ExchangeQuery query(Consumer<ExchangeQuery> customizer) {
+        ExchangeQuery query = new ExchangeQuery();
+        customizer.accept(query);
+        return query;
+    }
+
+    private static List<Long> seqs(IndexedExchangePage page) {
+        return page.getExchanges().stream().map(IndexedExchange::getSeq).collect(Collectors.toList());
+    }
+
+    private static List<String> correlations(IndexedExchangePage page) {
+        return page.getExchanges().stream().map(IndexedExchange::getCorrelation).collect(Collectors.toList());
+    }
+
+    private static final class FixedCorrelation implements Correlation {
+
+        private final String id;
+        private final Instant start = Instant.now();
+
+        private FixedCorrelation(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public Instant getStart() {
+            return start;
+        }
+
+        @Override
+        public Instant getEnd() {
+            return start.plusMillis(12);
+        }
+
+        @Override
+        public Duration getDuration() {
+            return Duration.ofMillis(12);
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.magic.logbook.mmap;
+
+import com.magic.logbook.config.LogbookCustomMmapProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import org.zalando.logbook.Precorrelation;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 模拟写入方崩溃留下的各种残缺记录, 读取方跳过它们并继续读出之后的记录.
+ *
+ * @author: mazikai
+ * @created: 2026-10-19 14:00
+ */
+class MappedSegmentLogReaderTest {
+
+    private static final String PREFIX = "logbook";
+    private static final int CAPACITY = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsRecordsAcrossSegments() throws IOException {
+        LogbookCustomMmapProperties properties = new LogbookCustomMmapProperties();
+        properties.setDirectory(directory.toString());
+        properties.setPrefix(PREFIX);
+        properties.setSegmentSize(DataSize.ofBytes(256));
+        List<String> written = new ArrayList<>();
+        try (MappedSegmentLogWriter writer = new MappedSegmentLogWriter(properties)) {
+            for (int i = 0; i < 20; i++) {
+                String record = "{\"seq\":" + i + ",\"body\":\"0123456789012345678901234567890123456789\"}";
+                writer.write((Precorrelation) null, record);
+                written.add(record);
+            }
+        }
+        MappedSegmentLogReader reader = new MappedSegmentLogReader(directory, PREFIX);
+        List<String> read = new ArrayList<>();
+
+        assertThat(reader.readAll(read::add)).isEqualTo(20);
+        assertThat(read).containsExactlyElementsOf(written);
+        assertThat(reader.getCorruptedCount()).isZero();
+    }
+
+    @Test
+    void skipsSpaceClaimedByWriterThatCrashedBeforeWritingLength() throws IOException {
+        Segment segment = Segment.create(directory, PREFIX, 0, CAPACITY);
+        write(segment, "{\"a\":1}");
+        // 占位之后还没写入任何字节就崩溃, 这段空间全为 0
+        segment.claim(Segment.recordSize(100));
+        write(segment, "{\"b\":2}");
+        segment.close();
+
+        List<String> read = new ArrayList<>();
+        MappedSegmentLogReader reader = new MappedSegmentLogReader(directory, PREFIX);
+
+        assertThat(reader.readAll(read::add)).isEqualTo(2);
+        assertThat(read).containsExactly("{\"a\":1}", "{\"b\":2}");
+        assertThat(reader.getCorruptedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsRecordLeftUncommittedByLength() throws IOException {
+        Segment segment = Segment.create(directory, PREFIX, 0, CAPACITY);
+        write(segment, "{\"a\":1}");
+        int uncommitted = write(segment, "{\"half\":true}");
+        write(segment, "{\"b\":2}");
+        segment.close();
+        // 写了 -length 和 payload, 没来得及提交
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile(0), "rw")) {
+            file.seek(uncommitted);
+            file.writeInt(-"{\"half\":true}".length());
+        }
+
+        List<String> read = new ArrayList<>();
+        MappedSegmentLogReader reader = new MappedSegmentLogReader(directory, PREFIX);
+
+        assertThat(reader.readAll(read::add)).isEqualTo(2);
+        assertThat(read).containsExactly("{\"a\":1}", "{\"b\":2}");
+    }
+
+    @Test
+    void skipsRecordWithBadChecksum() throws IOException {
+        Segment segment = Segment.create(directory, PREFIX, 0, CAPACITY);
+        int damaged = write(segment, "{\"a\":1}");
+        write(segment, "{\"b\":2}");
+        segment.close();
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile(0), "rw")) {
+            file.seek(damaged + Segment.HEADER_SIZE + 5);
+            file.write('9');
+        }
+
+        List<String> read = new ArrayList<>();
+        MappedSegmentLogReader reader = new MappedSegmentLogReader(directory, PREFIX);
+
+        assertThat(reader.readAll(read::add)).isEqualTo(1);
+        assertThat(read).containsExactly("{\"b\":2}");
+        assertThat(reader.getCorruptedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void stopsAtEndMarkerAndContinuesWithNextSegment() throws IOException {
+        Segment first = Segment.create(directory, PREFIX, 0, CAPACITY);
+        write(first, "{\"a\":1}");
+        first.markEnd((int) first.claim(CAPACITY));
+        first.close();
+        Segment second = Segment.create(directory, PREFIX, 1, CAPACITY);
+        write(second, "{\"b\":2}");
+        second.close();
+
+        List<String> read = new ArrayList<>();
+        MappedSegmentLogReader reader = new MappedSegmentLogReader(directory, PREFIX);
+
+        assertThat(reader.readAll(read::add)).isEqualTo(2);
+        assertThat(read).containsExactly("{\"a\":1}", "{\"b\":2}");
+        assertThat(reader.getCorruptedCount()).isZero();
+    }
+
+    @Test
+    void stopsAtTrailingZerosWithoutCountingThemAsCorrupted() throws IOException {
+        Segment segment = Segment.create(directory, PREFIX, 0, CAPACITY);
+        write(segment, "{\"a\":1}");
+        // 占位后崩溃, 之后没有其他记录
+        segment.claim(Segment.recordSize(100));
+        segment.close();
+
+        MappedSegmentLogReader reader = new MappedSegmentLogReader(directory, PREFIX);
+
+        assertThat(reader.readAll(line -> {
+        })).isEqualTo(1);
+        assertThat(reader.getCorruptedCount()).isZero();
+    }
+
+    /**
+     * @return 记录的开始位置
+     */
+    private static int write(Segment segment, String record) {
+        byte[] payload = record.getBytes(StandardCharsets.UTF_8);
+        int offset = (int) segment.claim(Segment.recordSize(payload.length));
+        segment.write(offset, payload);
+        return offset;
+    }
+
+    private String segmentFile(long sequence) {
+        return directory.resolve(Segment.fileName(PREFIX, sequence)).toString();
+    }
+
+}
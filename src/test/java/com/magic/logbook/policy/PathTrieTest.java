@@ -0,0 +1,105 @@
+package com.magic.logbook.policy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author: mazikai
+ * @created: 2026-10-19 14:00
+ */
+class PathTrieTest {
+
+    @Test
+    void matchesLiteralSegmentsExactly() {
+        PathTrie<String> trie = trie("/orders", "/orders/list");
+
+        assertThat(trie.match("/orders")).isEqualTo("/orders");
+        assertThat(trie.match("/orders/list")).isEqualTo("/orders/list");
+        assertThat(trie.match("/orders/list/1")).isNull();
+        assertThat(trie.match("/order")).isNull();
+        assertThat(trie.match("/")).isNull();
+    }
+
+    @Test
+    void matchesGlobsWithinOneSegment() {
+        PathTrie<String> trie = trie("/orders/*/items", "/files/*.json", "/v?/ping");
+
+        assertThat(trie.match("/orders/42/items")).isEqualTo("/orders/*/items");
+        assertThat(trie.match("/orders/42/7/items")).isNull();
+        assertThat(trie.match("/files/report.json")).isEqualTo("/files/*.json");
+        assertThat(trie.match("/files/report.xml")).isNull();
+        assertThat(trie.match("/v1/ping")).isEqualTo("/v?/ping");
+        assertThat(trie.match("/v10/ping")).isNull();
+    }
+
+    @Test
+    void doubleStarMatchesAnyNumberOfSegmentsIncludingNone() {
+        PathTrie<String> trie = trie("/actuator/**", "/api/**/health");
+
+        assertThat(trie.match("/actuator")).isEqualTo("/actuator/**");
+        assertThat(trie.match("/actuator/metrics")).isEqualTo("/actuator/**");
+        assertThat(trie.match("/actuator/metrics/jvm.memory.used")).isEqualTo("/actuator/**");
+        assertThat(trie.match("/api/health")).isEqualTo("/api/**/health");
+        assertThat(trie.match("/api/a/b/c/health")).isEqualTo("/api/**/health");
+        assertThat(trie.match("/api/a/b/c")).isNull();
+    }
+
+    @Test
+    void firstDeclaredRuleWinsWhenSeveralMatch() {
+        assertThat(trie("/orders/**", "/orders/*", "/orders/1").match("/orders/1")).isEqualTo("/orders/**");
+        assertThat(trie("/orders/1", "/orders/*", "/orders/**").match("/orders/1")).isEqualTo("/orders/1");
+        assertThat(trie("/orders/1", "/orders/*", "/orders/**").match("/orders/2")).isEqualTo("/orders/*");
+    }
+
+    @Test
+    void keepsCandidatesFromEveryBranch() {
+        // 字面量分支走到死路时, 通配分支仍要继续
+        PathTrie<String> trie = trie("/a/b/c", "/a/*/d", "/**/e");
+
+        assertThat(trie.match("/a/b/d")).isEqualTo("/a/*/d");
+        assertThat(trie.match("/a/b/c")).isEqualTo("/a/b/c");
+        assertThat(trie.match("/a/b/e")).isEqualTo("/**/e");
+        assertThat(trie.match("/e")).isEqualTo("/**/e");
+    }
+
+    @Test
+    void treatsTrailingSlashAsEmptySegment() {
+        PathTrie<String> trie = trie("/orders", "/items/*");
+
+        assertThat(trie.match("/orders/")).isNull();
+        assertThat(trie.match("/items/")).isEqualTo("/items/*");
+    }
+
+    @Test
+    void returnsNullWithoutRules() {
+        assertThat(PathTrie.compile(Collections.<String>emptyList(), Function.identity()).match("/orders")).isNull();
+    }
+
+    @Test
+    void rejectsRelativePatterns() {
+        assertThatThrownBy(() -> trie("orders/*")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void globMatchesLikeLogbookExclude() {
+        assertThat(PathTrie.matches("*", "")).isTrue();
+        assertThat(PathTrie.matches("a*b", "ab")).isTrue();
+        assertThat(PathTrie.matches("a*b", "axxb")).isTrue();
+        assertThat(PathTrie.matches("a*b", "axxbc")).isFalse();
+        assertThat(PathTrie.matches("a*b*c", "abxbc")).isTrue();
+        assertThat(PathTrie.matches("a?c", "abc")).isTrue();
+        assertThat(PathTrie.matches("a?c", "ac")).isFalse();
+        assertThat(PathTrie.matches("**", "anything")).isTrue();
+    }
+
+    private static PathTrie<String> trie(String... patterns) {
+        return PathTrie.compile(Arrays.asList(patterns), Function.identity());
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.magic.logbook.sampling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author: mazikai
+ * @created: 2026-10-19 14:00
+ */
+class TokenBucketTest {
+
+    @Test
+    void allowsBurstOfOneSecondThenRejects() {
+        // 间隔 1 秒, 测试期间不会补充令牌
+        TokenBucket bucket = new TokenBucket(5);
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire()).isTrue();
+        }
+        assertThat(bucket.tryAcquire()).isFalse();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void allowsAtLeastOnePermitBelowOnePerSecond() {
+        TokenBucket bucket = new TokenBucket(0.1);
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void refillsOnePermitPerInterval() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(20);
+        while (bucket.tryAcquire()) {
+            // 用完突发量
+        }
+        TimeUnit.MILLISECONDS.sleep(120);
+        assertThat(bucket.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void concurrentCallersNeverExceedBurstPlusRefill() throws Exception {
+        int threads = 8;
+        long began = System.nanoTime();
+        TokenBucket bucket = new TokenBucket(1000);
+        AtomicInteger acquired = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 2000; i++) {
+                        if (bucket.tryAcquire()) {
+                            acquired.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - began);
+        // 突发 1000 个, 之后每毫秒补充 1 个
+        assertThat(acquired.get()).isGreaterThanOrEqualTo(1000).isLessThanOrEqualTo(1000 + (int) elapsedMillis + 1);
+    }
+
+}